@@ -0,0 +1,91 @@
+package com.bootcamp.microservicemeetup.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// 1M de presencas em 10k eventos: uma linha de meetup por pessoa (modelo antigo) contra
+// meetup + attendance com pk composta. O espaco em disco de cada tabela e impresso no setup
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AttendanceModelBenchmark {
+
+    private static final int EVENTS = 10_000;
+    private static final int ATTENDANCES = 1_000_000;
+
+    private JdbcTemplate jdbc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jdbc = new JdbcTemplate(DataSourceBuilder.create()
+                .url("jdbc:h2:./build/jmh/attendance-" + System.nanoTime())
+                .username("sa")
+                .build());
+
+        jdbc.execute("create table registration (registration_id int primary key, person_name varchar(255), "
+                + "date_of_registration varchar(255), registration varchar(255))");
+        jdbc.execute("insert into registration select x, 'Person ' || x, '10/10/2022', 'REG' || x "
+                + "from system_range(1, " + (ATTENDANCES / 10) + ")");
+
+        // par (evento, pessoa) unico: evento = x % 10000, pessoa = x / 10
+        jdbc.execute("create table legacy_meetup (id int auto_increment primary key, event varchar(255), "
+                + "id_registration int, meetup_date varchar(255), registration_attribute varchar(255), registered boolean)");
+        jdbc.execute("insert into legacy_meetup (event, id_registration, meetup_date, registration_attribute, registered) "
+                + "select 'Event ' || mod(x, " + EVENTS + "), x / 10 + 1, '10/06/2022', 'REG' || (x / 10 + 1), true "
+                + "from system_range(0, " + (ATTENDANCES - 1) + ")");
+        jdbc.execute("create index idx_legacy_event on legacy_meetup (event)");
+        jdbc.execute("create index idx_legacy_id_registration on legacy_meetup (id_registration)");
+
+        jdbc.execute("create table meetup (id int primary key, event varchar(255), meetup_date varchar(255), registered boolean)");
+        jdbc.execute("insert into meetup select x, 'Event ' || x, '10/06/2022', true from system_range(0, " + (EVENTS - 1) + ")");
+        jdbc.execute("create index idx_meetup_event on meetup (event)");
+        jdbc.execute("create table attendance (meetup_id int not null, registration_id int not null, "
+                + "primary key (meetup_id, registration_id))");
+        jdbc.execute("insert into attendance select mod(x, " + EVENTS + "), x / 10 + 1 from system_range(0, " + (ATTENDANCES - 1) + ")");
+        jdbc.execute("create index idx_attendance_registration on attendance (registration_id, meetup_id)");
+
+        long legacy = diskSpace("LEGACY_MEETUP");
+        long normalized = diskSpace("MEETUP") + diskSpace("ATTENDANCE");
+        System.out.printf("%nlegacy meetup rows: %d KB, meetup + attendance: %d KB%n", legacy / 1024, normalized / 1024);
+    }
+
+    @Benchmark
+    public boolean legacyExistsByEvent() {
+        return jdbc.queryForObject("select count(*) from legacy_meetup where event = ?", Long.class, randomEvent()) > 0;
+    }
+
+    @Benchmark
+    public boolean normalizedExistsByEvent() {
+        return jdbc.queryForObject("select count(*) from meetup where event = ?", Long.class, randomEvent()) > 0;
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> legacyRoster() {
+        return jdbc.queryForList("select r.* from legacy_meetup m join registration r on r.registration_id = m.id_registration "
+                + "where m.event = ? order by r.registration_id limit 50", randomEvent());
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> attendanceRoster() {
+        return jdbc.queryForList("select r.* from attendance a join registration r on r.registration_id = a.registration_id "
+                + "where a.meetup_id = ? and a.registration_id > 0 order by a.registration_id limit 50",
+                ThreadLocalRandom.current().nextInt(EVENTS));
+    }
+
+    private String randomEvent() {
+        return "Event " + ThreadLocalRandom.current().nextInt(EVENTS);
+    }
+
+    private long diskSpace(String table) {
+        return jdbc.queryForObject("call disk_space_used(?)", Long.class, table);
+    }
+}
@@ -0,0 +1,68 @@
+package com.bootcamp.microservicemeetup.benchmark;
+
+import com.bootcamp.microservicemeetup.controller.dto.MeetupDTO;
+import com.bootcamp.microservicemeetup.controller.dto.PageEnvelope;
+import com.bootcamp.microservicemeetup.controller.dto.RegistrationDTO;
+import com.bootcamp.microservicemeetup.controller.json.MeetupDTOSerializer;
+import com.bootcamp.microservicemeetup.controller.json.RegistrationDTOSerializer;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// encode/decode de uma pagina com 1000 meetups em JSON, CBOR e Smile
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BinaryFormatBenchmark {
+
+    private static final TypeReference<PageEnvelope<MeetupDTO>> PAGE_TYPE = new TypeReference<PageEnvelope<MeetupDTO>>() { };
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private PageEnvelope<MeetupDTO> page;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<MeetupDTO> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            RegistrationDTO registration = RegistrationDTO.builder()
+                    .id(i).name("Person " + i).dateOfRegistration("10/10/22").registration("REG" + i).build();
+            items.add(MeetupDTO.builder()
+                    .id(i).event("Event " + i).registrationAttribute("REG" + i).registration(registration).build());
+        }
+        page = PageEnvelope.<MeetupDTO>builder().items(items).next("1").size(1000).build();
+
+        JsonFactory factory = "cbor".equals(format) ? new CBORFactory()
+                : "smile".equals(format) ? new SmileFactory() : new JsonFactory();
+        mapper = new ObjectMapper(factory).registerModule(new SimpleModule()
+                .addSerializer(MeetupDTO.class, new MeetupDTOSerializer())
+                .addSerializer(RegistrationDTO.class, new RegistrationDTOSerializer()));
+        encoded = mapper.writeValueAsBytes(page);
+        System.out.printf("%n%s bytes on the wire for 1k meetups: %d%n", format, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PageEnvelope<MeetupDTO> decode() throws IOException {
+        return mapper.readValue(encoded, PAGE_TYPE);
+    }
+}
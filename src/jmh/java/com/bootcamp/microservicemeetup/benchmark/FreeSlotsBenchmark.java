@@ -0,0 +1,90 @@
+package com.bootcamp.microservicemeetup.benchmark;
+
+import com.bootcamp.microservicemeetup.service.schedule.FreeSlots;
+import com.bootcamp.microservicemeetup.service.schedule.ScheduleIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// kernel do POST /api/meetups/slots: AND NOT palavra a palavra dos bitsets ocupados de cada pessoa.
+// 672 buckets = uma semana em buckets de 15 minutos; 8928 = um mes em buckets de 5 minutos
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FreeSlotsBenchmark {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2030, 6, 10, 0, 0);
+
+    @Param({"300", "3000", "10000"})
+    public int registrants;
+
+    @Param({"672", "8928"})
+    public int buckets;
+
+    @Param({"3"})
+    public int meetupsPerRegistrant;
+
+    private long[][] busy;
+    private long[] scratch;
+    private ScheduleIndex index;
+    private int granularity;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        granularity = buckets == 672 ? 15 : 5;
+        int words = FreeSlots.words(buckets);
+        busy = new long[registrants][words];
+        scratch = new long[words];
+        index = new ScheduleIndex(null, null);
+        int meetupId = 1;
+        for (int registrant = 0; registrant < registrants; registrant++) {
+            for (int i = 0; i < meetupsPerRegistrant; i++) {
+                int start = random.nextInt(buckets - 8);
+                int length = 4 + random.nextInt(5);
+                FreeSlots.setRange(busy[registrant], start, start + length);
+                LocalDateTime startsAt = MONDAY.plusMinutes((long) start * granularity);
+                try {
+                    index.reserve(null, Collections.singletonList(registrant), null,
+                            startsAt, startsAt.plusMinutes((long) length * granularity)).confirm(meetupId++);
+                } catch (RuntimeException e) {
+                    // a mesma pessoa sorteada duas vezes no mesmo horario
+                }
+            }
+        }
+    }
+
+    // so o kernel, sem a parada antecipada quando nada sobra livre
+    @Benchmark
+    public long[] intersect() {
+        long[] free = FreeSlots.allFree(buckets);
+        for (long[] row : busy) {
+            FreeSlots.andNot(free, row);
+        }
+        return free;
+    }
+
+    @Benchmark
+    public Object intersectAndFindRuns() {
+        return FreeSlots.runs(intersect(), buckets, 8, 100);
+    }
+
+    // caminho do servico: os bitsets saem das IntervalTrees de cada pessoa
+    @Benchmark
+    public long[] markFromIndexAndIntersect() {
+        long[] free = FreeSlots.allFree(buckets);
+        for (int registrant = 0; registrant < registrants; registrant++) {
+            Arrays.fill(scratch, 0L);
+            index.markBusy(registrant, MONDAY, granularity, buckets, scratch);
+            FreeSlots.andNot(free, scratch);
+        }
+        return free;
+    }
+}
@@ -0,0 +1,95 @@
+package com.bootcamp.microservicemeetup.benchmark;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.repository.log.LogMeetupStore;
+import com.bootcamp.microservicemeetup.repository.log.LogRegistrationStore;
+import com.bootcamp.microservicemeetup.repository.log.LogStore;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// insert de meetup e busca pela chave primaria: profile logstore (log mapeado + indice em memoria) contra o
+// caminho H2 em arquivo. As duas bases comecam com "rows" meetups; o log faz fsync a cada 200 ms, como no profile
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LogStoreBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    private JdbcTemplate jdbc;
+    private LogStore registrationLog;
+    private LogStore meetupLog;
+    private LogMeetupStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path root = Paths.get("build", "jmh", "logstore-" + System.nanoTime());
+        jdbc = new JdbcTemplate(DataSourceBuilder.create()
+                .url("jdbc:h2:" + root.resolve("db").toAbsolutePath())
+                .username("sa")
+                .build());
+        jdbc.execute("create table meetup (id int auto_increment primary key, event varchar(255), id_registration int, "
+                + "meetup_date varchar(255), registration_attribute varchar(255), registered boolean, change_sequence bigint, "
+                + "meetup_day date)");
+        jdbc.execute("create index idx_meetup_event on meetup (event)");
+        jdbc.execute("insert into meetup (event, meetup_date, registration_attribute, registered, change_sequence, meetup_day) "
+                + "select 'Event ' || x, '10/06/2022', 'REG' || x, true, x, date '2022-06-10' from system_range(1, " + rows + ")");
+
+        registrationLog = new LogStore(root.resolve("log/registration"), 64 << 20, 0.5, 200, 0);
+        meetupLog = new LogStore(root.resolve("log/meetup"), 64 << 20, 0.5, 200, 0);
+        store = new LogMeetupStore(meetupLog, new LogRegistrationStore(registrationLog));
+        for (int i = 1; i <= rows; i++) {
+            store.save(meetup(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n[log] %d segments, %d meetups%n", meetupLog.getSegments(), meetupLog.count());
+        registrationLog.close();
+        meetupLog.close();
+    }
+
+    private static Meetup meetup(int i) {
+        return Meetup.builder().event("Event " + i).meetupDate("10/06/2022").registrationAttribute("REG" + i)
+                .registered(true).build();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public Meetup insertLog() {
+        return store.save(meetup(ThreadLocalRandom.current().nextInt(rows)));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int insertH2() {
+        int i = ThreadLocalRandom.current().nextInt(rows);
+        return jdbc.update("insert into meetup (event, meetup_date, registration_attribute, registered, change_sequence, "
+                + "meetup_day) values (?, '10/06/2022', ?, true, ?, date '2022-06-10')", "Event " + i, "REG" + i, System.nanoTime());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public Meetup pointReadLog() {
+        return store.findById(ThreadLocalRandom.current().nextInt(1, rows + 1)).orElseThrow(IllegalStateException::new);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public Map<String, Object> pointReadH2() {
+        return jdbc.queryForMap("select id, event, id_registration, meetup_date, registration_attribute, registered, "
+                + "change_sequence, meetup_day from meetup where id = ?", ThreadLocalRandom.current().nextInt(1, rows + 1));
+    }
+}
@@ -0,0 +1,109 @@
+package com.bootcamp.microservicemeetup.benchmark;
+
+import com.bootcamp.microservicemeetup.model.entity.ChangeSequence;
+import com.bootcamp.microservicemeetup.service.lookup.LookupIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+// tempo ate o LookupIndex ficar pronto numa subida: varredura completa das tabelas contra mapear o snapshot
+// e ler so o que mudou depois dele (tail linhas). H2 em arquivo com "keys" registrations e "keys" meetups
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx4g", "-XX:MaxDirectMemorySize=8g"})
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class LookupIndexStartupBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int keys;
+
+    @Param({"1000"})
+    public int tail;
+
+    private JdbcTemplate jdbcTemplate;
+    private Path master;
+    private Path iterationDir;
+    private LookupIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path root = Paths.get("build", "jmh", "lookup-index-" + System.nanoTime());
+        jdbcTemplate = new JdbcTemplate(DataSourceBuilder.create()
+                .url("jdbc:h2:" + root.resolve("db").toAbsolutePath())
+                .username("sa")
+                .build());
+        jdbcTemplate.execute("create table registration (registration_id integer primary key, registration varchar(255), "
+                + "change_sequence bigint)");
+        jdbcTemplate.execute("create table meetup (id integer primary key, event varchar(255), change_sequence bigint)");
+        jdbcTemplate.execute("create table tombstone (id bigint generated by default as identity primary key, "
+                + "entity_type varchar(255), entity_id integer, change_sequence bigint)");
+        jdbcTemplate.execute("create index idx_registration_change_sequence on registration (change_sequence)");
+        jdbcTemplate.execute("create index idx_meetup_change_sequence on meetup (change_sequence)");
+        jdbcTemplate.execute("create index idx_tombstone_entity_change_sequence on tombstone (entity_type, change_sequence)");
+        jdbcTemplate.execute("insert into registration select x, 'REG' || x, x from system_range(1, " + keys + ")");
+        jdbcTemplate.execute("insert into meetup select x, 'Event ' || x, x from system_range(1, " + keys + ")");
+
+        // snapshot de referencia: o shutdown grava o arquivo
+        master = root.resolve("master");
+        LookupIndex seed = new LookupIndex(jdbcTemplate, master.toString(), 3_600_000, 3_600_000, 5000);
+        awaitReady(seed);
+        seed.shutdown();
+
+        // o que mudou entre o snapshot e a subida da instancia nova
+        for (int i = 1; i <= tail; i++) {
+            jdbcTemplate.update("update registration set registration = ?, change_sequence = ? where registration_id = ?",
+                    "NEW" + i, ChangeSequence.next(), i);
+        }
+        iterationDir = root.resolve("iteration");
+    }
+
+    // cada subida parte de uma copia do mesmo snapshot, porque o shutdown grava outro por cima
+    @Setup(Level.Iteration)
+    public void copySnapshot() throws IOException {
+        Files.createDirectories(iterationDir);
+        Files.copy(master.resolve("lookup-index.snap"), iterationDir.resolve("lookup-index.snap"),
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Benchmark
+    public LookupIndex fullScan() {
+        index = new LookupIndex(jdbcTemplate, "", 3_600_000, 3_600_000, 5000);
+        return awaitReady(index);
+    }
+
+    @Benchmark
+    public LookupIndex restoreAndCatchUp() {
+        index = new LookupIndex(jdbcTemplate, iterationDir.toString(), 3_600_000, 3_600_000, 5000);
+        return awaitReady(index);
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        System.out.printf("%n[%d keys] ready in %d ms, restored=%s, rows read after the snapshot: %d%n",
+                keys, index.getStartupMs(), index.isRestored(), index.getCaughtUpRows());
+        index.shutdown();
+        index = null;
+        System.gc();
+    }
+
+    private static LookupIndex awaitReady(LookupIndex index) {
+        index.load();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(10);
+        while (!index.isReady()) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Lookup index did not get ready");
+            }
+            Thread.onSpinWait();
+        }
+        return index;
+    }
+}
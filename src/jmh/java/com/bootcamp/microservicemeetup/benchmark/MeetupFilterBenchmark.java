@@ -0,0 +1,109 @@
+package com.bootcamp.microservicemeetup.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// uma pagina de 20 meetups + total para cada formato de filtro, 1M meetups e 1M registrations.
+// singlePredicate: o filtro escrito direto (join e OR numa query so); indexed: o SQL que o MeetupFilterEngine
+// gera (registration por subquery, OR virando dois ramos disjuntos somados no servico)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MeetupFilterBenchmark {
+
+    private static final int ROWS = 1_000_000;
+
+    private static final String COLUMNS = "m.id, m.event, m.id_registration, m.meetup_date, m.registration_attribute, "
+            + "m.registered, m.meetup_day";
+    private static final String EVENT = "m.event = 'Event 42'";
+    private static final String RANGE = "m.meetup_day >= date '2022-06-01' and m.meetup_day <= date '2022-06-07'";
+    private static final String JOINED_REGISTRATION = "m.id_registration in (select b.registration_id from registration b "
+            + "where b.registration = 'REG500000')";
+
+    @Param({"event", "registration", "dateRange", "eventAndDateRange", "registeredAndDateRange",
+            "registrationOrEvent", "registrationOrEventAndDateRange"})
+    public String shape;
+
+    private JdbcTemplate jdbc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jdbc = new JdbcTemplate(DataSourceBuilder.create()
+                .url("jdbc:h2:./build/jmh/meetup-filter-" + System.nanoTime())
+                .username("sa")
+                .build());
+        jdbc.execute("create table registration (registration_id int primary key, person_name varchar(255), "
+                + "registration varchar(255))");
+        jdbc.execute("create table meetup (id int primary key, event varchar(255), id_registration int, "
+                + "meetup_date varchar(255), registration_attribute varchar(255), registered boolean, meetup_day date)");
+        jdbc.execute("insert into registration select x, 'Person ' || x, 'REG' || x from system_range(1, " + ROWS + ")");
+        // 1000 eventos, dias espalhados por 3 anos, um terco nao registrado
+        jdbc.execute("insert into meetup select x, 'Event ' || mod(x, 1000), x, '', 'REG' || x, mod(x, 3) > 0, "
+                + "dateadd('DAY', mod(x, 1095), date '2021-01-01') from system_range(1, " + ROWS + ")");
+        jdbc.execute("create index idx_registration_registration on registration (registration)");
+        jdbc.execute("create index idx_meetup_event on meetup (event)");
+        jdbc.execute("create index idx_meetup_id_registration on meetup (id_registration)");
+        jdbc.execute("create index idx_meetup_day on meetup (meetup_day)");
+        jdbc.execute("analyze");
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> singlePredicate() {
+        switch (shape) {
+            case "registration":
+                return page("meetup m join registration b on b.registration_id = m.id_registration", "b.registration = 'REG500000'");
+            case "registrationOrEvent":
+                return page("meetup m join registration b on b.registration_id = m.id_registration",
+                        "b.registration = 'REG500000' or " + EVENT);
+            case "registrationOrEventAndDateRange":
+                return page("meetup m join registration b on b.registration_id = m.id_registration",
+                        "(b.registration = 'REG500000' or " + EVENT + ") and " + RANGE);
+            default:
+                return indexed();
+        }
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> indexed() {
+        switch (shape) {
+            case "event":
+                return page("meetup m", EVENT);
+            case "registration":
+                return page("meetup m", JOINED_REGISTRATION);
+            case "dateRange":
+                return page("meetup m", RANGE);
+            case "eventAndDateRange":
+                return page("meetup m", EVENT + " and " + RANGE);
+            case "registeredAndDateRange":
+                return page("meetup m", "m.registered = true and " + RANGE);
+            case "registrationOrEvent":
+                return union("");
+            case "registrationOrEventAndDateRange":
+                return union(" and " + RANGE);
+            default:
+                throw new IllegalArgumentException(shape);
+        }
+    }
+
+    private List<Map<String, Object>> union(String narrowing) {
+        List<Map<String, Object>> rows = new ArrayList<>(page("meetup m", JOINED_REGISTRATION + narrowing));
+        rows.addAll(page("meetup m", EVENT + " and m.id_registration is not null and not " + JOINED_REGISTRATION + narrowing));
+        return rows;
+    }
+
+    private List<Map<String, Object>> page(String from, String where) {
+        List<Map<String, Object>> rows = jdbc.queryForList("select " + COLUMNS + " from " + from + " where " + where
+                + " order by m.id limit 20");
+        jdbc.queryForObject("select count(*) from " + from + " where " + where, Long.class);
+        return rows;
+    }
+}
@@ -0,0 +1,58 @@
+package com.bootcamp.microservicemeetup.benchmark;
+
+import com.bootcamp.microservicemeetup.ServicoDeAgendamentoDeMeetupsApplication;
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.service.MeetupService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// compara commit por request com o group commit sob alta concorrencia;
+// usa H2 em arquivo para que o custo do commit seja parecido com o de um banco real
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(64)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class MeetupGroupCommitBenchmark {
+
+    @Param({"false", "true"})
+    public boolean groupCommit;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+
+    private MeetupService meetupService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ServicoDeAgendamentoDeMeetupsApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:./build/jmh/group-commit-" + System.nanoTime(),
+                        "meetup.write.group-commit.enabled=" + groupCommit)
+                .run();
+        meetupService = context.getBean(MeetupService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Integer createMeetup() {
+        Meetup meetup = Meetup.builder()
+                .event("Benchmark event " + sequence.incrementAndGet())
+                .meetupDate("10/06/2022")
+                .build();
+        return meetupService.saveAsync(meetup).join().getId();
+    }
+}
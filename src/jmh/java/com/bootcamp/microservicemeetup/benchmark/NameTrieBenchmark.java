@@ -0,0 +1,48 @@
+package com.bootcamp.microservicemeetup.benchmark;
+
+import com.bootcamp.microservicemeetup.service.suggest.NameTrie;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// latencia do autocomplete com 1M de nomes e o tamanho da trie por milhao de nomes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class NameTrieBenchmark {
+
+    private static final String[] FIRST = {"ana", "bruno", "carla", "daniel", "eduarda", "fernando", "gabriela",
+            "heitor", "isabela", "joao", "julia", "lucas", "maria", "pedro", "rafaela", "sofia"};
+    private static final String[] LAST = {"silva", "santos", "oliveira", "souza", "lima", "pereira", "costa",
+            "rodrigues", "almeida", "nascimento", "carvalho", "gomes"};
+
+    @Param({"1000000"})
+    public int names;
+
+    @Param({"j", "mar", "pedro sil"})
+    public String prefix;
+
+    private NameTrie trie;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        trie = new NameTrie(names * 4);
+        for (int i = 0; i < names; i++) {
+            String name = FIRST[random.nextInt(FIRST.length)] + " " + LAST[random.nextInt(LAST.length)]
+                    + " " + Integer.toString(random.nextInt(names), 36);
+            trie.add(name, name);
+        }
+        System.out.printf("%n%d distinct names, %d nodes, ~%d MB per million names%n", trie.getNames(), trie.getNodes(),
+                trie.estimatedBytes() * 1_000_000L / trie.getNames() / (1024 * 1024));
+    }
+
+    @Benchmark
+    public Object top10() {
+        return trie.top(prefix, 10);
+    }
+}
@@ -0,0 +1,68 @@
+package com.bootcamp.microservicemeetup.benchmark;
+
+import com.bootcamp.microservicemeetup.controller.dto.MeetupDTO;
+import com.bootcamp.microservicemeetup.controller.dto.PageEnvelope;
+import com.bootcamp.microservicemeetup.controller.dto.RegistrationDTO;
+import com.bootcamp.microservicemeetup.controller.json.MeetupDTOSerializer;
+import com.bootcamp.microservicemeetup.controller.json.RegistrationDTOSerializer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// PageImpl com o serializer reflexivo padrao contra o envelope compacto com serializers prontos
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ObjectMapper defaultMapper;
+    private ObjectMapper tunedMapper;
+    private Page<MeetupDTO> page;
+    private PageEnvelope<MeetupDTO> envelope;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        List<MeetupDTO> items = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            RegistrationDTO registration = RegistrationDTO.builder()
+                    .id(i).name("Person " + i).dateOfRegistration("10/10/22").registration("REG" + i).build();
+            items.add(MeetupDTO.builder()
+                    .id(i).event("Event " + i).registrationAttribute("REG" + i).registration(registration).build());
+        }
+        page = new PageImpl<>(items, PageRequest.of(3, pageSize, Sort.by("id")), 10_000);
+        envelope = PageEnvelope.of(page, items, false);
+
+        defaultMapper = new ObjectMapper();
+        tunedMapper = new ObjectMapper().registerModule(new SimpleModule()
+                .addSerializer(MeetupDTO.class, new MeetupDTOSerializer())
+                .addSerializer(RegistrationDTO.class, new RegistrationDTOSerializer()));
+
+        System.out.printf("%nbytes per page (size %d): PageImpl=%d envelope=%d%n", pageSize,
+                defaultMapper.writeValueAsBytes(page).length, tunedMapper.writeValueAsBytes(envelope).length);
+    }
+
+    @Benchmark
+    public byte[] pageImpl() throws JsonProcessingException {
+        return defaultMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] compactEnvelope() throws JsonProcessingException {
+        return tunedMapper.writeValueAsBytes(envelope);
+    }
+}
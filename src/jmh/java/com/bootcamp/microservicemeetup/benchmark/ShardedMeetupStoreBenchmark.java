@@ -0,0 +1,58 @@
+package com.bootcamp.microservicemeetup.benchmark;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.repository.shard.ShardedMeetupStore;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// vazao de escrita conforme a quantidade de shards; cada shard e um H2 em arquivo separado
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(32)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class ShardedMeetupStoreBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int shardCount;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ShardedMeetupStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String run = Long.toString(System.nanoTime());
+        List<DataSource> shards = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            shards.add(DataSourceBuilder.create()
+                    .url("jdbc:h2:./build/jmh/shards-" + run + "/shard" + shard)
+                    .username("sa")
+                    .build());
+        }
+        store = new ShardedMeetupStore(shards, ids -> Collections.emptyList());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.shutdown();
+    }
+
+    @Benchmark
+    public Integer insertMeetup() {
+        Meetup meetup = Meetup.builder()
+                .event("Benchmark event " + sequence.incrementAndGet())
+                .meetupDate("10/06/2022")
+                .build();
+        return store.save(meetup).getId();
+    }
+}
@@ -0,0 +1,43 @@
+package com.bootcamp.microservicemeetup.benchmark;
+
+import com.bootcamp.microservicemeetup.ServicoDeAgendamentoDeMeetupsApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.concurrent.TimeUnit;
+
+// tempo de startup e heap retido com a documentacao escaneada em runtime (profile openapi,
+// como era com o springfox) contra o padrao, que so serve o openapi.json gerado no build
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 5)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class StartupFootprintBenchmark {
+
+    @Param({"default", "openapi"})
+    public String profile;
+
+    private ConfigurableApplicationContext context;
+
+    @Benchmark
+    public ConfigurableApplicationContext startup() {
+        context = new SpringApplicationBuilder(ServicoDeAgendamentoDeMeetupsApplication.class)
+                .profiles(profile)
+                .properties("server.port=0")
+                .run();
+        return context;
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportHeapAndClose() {
+        System.gc();
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        System.out.printf("%n[%s] retained heap after startup: %.1f MB%n", profile, heap.getUsed() / (1024.0 * 1024.0));
+        context.close();
+    }
+}
@@ -0,0 +1,50 @@
+package com.bootcamp.microservicemeetup.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+public class EndpointResult {
+
+    private final String name;
+    private final long requests;
+    private final long errors;
+    private final double p50Ms;
+    private final double p99Ms;
+    private final double maxMs;
+    private final double throughput;
+
+    public EndpointResult(String name, Histogram latenciesMicros, long errors, double seconds) {
+        this.name = name;
+        this.requests = latenciesMicros.getTotalCount();
+        this.errors = errors;
+        this.p50Ms = latenciesMicros.getValueAtPercentile(50) / 1000.0;
+        this.p99Ms = latenciesMicros.getValueAtPercentile(99) / 1000.0;
+        this.maxMs = latenciesMicros.getMaxValue() / 1000.0;
+        this.throughput = requests / seconds;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public double getP99Ms() {
+        return p99Ms;
+    }
+
+    public double getThroughput() {
+        return throughput;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-28s requests=%d errors=%d p50=%.2fms p99=%.2fms max=%.2fms throughput=%.1f/s",
+                name, requests, errors, p50Ms, p99Ms, maxMs, throughput);
+    }
+}
@@ -0,0 +1,30 @@
+package com.bootcamp.microservicemeetup.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.function.BiFunction;
+
+public class EndpointScenario {
+
+    private final String name;
+    private final int weight;
+    private final BiFunction<URI, Long, HttpRequest> requestFactory;
+
+    public EndpointScenario(String name, int weight, BiFunction<URI, Long, HttpRequest> requestFactory) {
+        this.name = name;
+        this.weight = weight;
+        this.requestFactory = requestFactory;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public HttpRequest nextRequest(URI baseUri, long sequence) {
+        return requestFactory.apply(baseUri, sequence);
+    }
+}
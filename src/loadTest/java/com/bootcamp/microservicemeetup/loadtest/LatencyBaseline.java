@@ -0,0 +1,70 @@
+package com.bootcamp.microservicemeetup.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+
+public class LatencyBaseline {
+
+    private final Path file;
+    private final Properties values = new Properties();
+
+    private LatencyBaseline(Path file) {
+        this.file = file;
+    }
+
+    public static LatencyBaseline load(Path file) throws IOException {
+        LatencyBaseline baseline = new LatencyBaseline(file);
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file)) {
+                baseline.values.load(reader);
+            }
+        }
+        return baseline;
+    }
+
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    public List<String> regressions(Collection<EndpointResult> results, double p99Tolerance, double throughputTolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (EndpointResult result : results) {
+            String p99 = values.getProperty(key(result, "p99Ms"));
+            if (p99 != null && result.getP99Ms() > Double.parseDouble(p99) * (1 + p99Tolerance)) {
+                regressions.add(String.format("%s p99 %.2fms exceeds baseline %sms", result.getName(), result.getP99Ms(), p99));
+            }
+            String throughput = values.getProperty(key(result, "throughput"));
+            if (throughput != null && result.getThroughput() < Double.parseDouble(throughput) * (1 - throughputTolerance)) {
+                regressions.add(String.format("%s throughput %.1f/s below baseline %s/s", result.getName(), result.getThroughput(), throughput));
+            }
+        }
+        return regressions;
+    }
+
+    public void save(Collection<EndpointResult> results) throws IOException {
+        write(file, results);
+    }
+
+    public static void write(Path target, Collection<EndpointResult> results) throws IOException {
+        Properties properties = new Properties();
+        for (EndpointResult result : results) {
+            properties.setProperty(key(result, "p99Ms"), String.format("%.2f", result.getP99Ms()));
+            properties.setProperty(key(result, "throughput"), String.format("%.1f", result.getThroughput()));
+        }
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(target)) {
+            properties.store(writer, "Load test latency baseline");
+        }
+    }
+
+    private static String key(EndpointResult result, String metric) {
+        return result.getName().replaceAll("[^A-Za-z0-9]+", "_") + "." + metric;
+    }
+}
@@ -0,0 +1,113 @@
+package com.bootcamp.microservicemeetup.loadtest;
+
+import com.bootcamp.microservicemeetup.ServicoDeAgendamentoDeMeetupsApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+@SpringBootTest(classes = ServicoDeAgendamentoDeMeetupsApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1")
+public class MeetupApiLoadTest {
+
+    static final int SEEDED_ROWS = 10_000;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private void seed() {
+        jdbcTemplate.execute("insert into registration (person_name, date_of_registration, registration, change_sequence) "
+                + "select 'Person ' || x, '10/10/22', 'REG' || x, x from system_range(1, " + SEEDED_ROWS + ")");
+        jdbcTemplate.execute("insert into meetup (event, id_registration, meetup_date, registration_attribute, registered, change_sequence) "
+                + "select 'Seeded event ' || x, x, '10/06/2022', 'REG' || x, true, x from system_range(1, " + SEEDED_ROWS + ")");
+    }
+
+    private List<EndpointScenario> scenarios() {
+        return Arrays.asList(
+                new EndpointScenario("POST /api/registration", 10, (base, n) -> json(base.resolve("/api/registration"),
+                        "{\"name\":\"Load " + n + "\",\"dateOfRegistration\":\"10/10/22\",\"registration\":\"LOAD" + n + "\"}")),
+                new EndpointScenario("POST /api/meetups", 10, (base, n) -> json(base.resolve("/api/meetups"),
+                        "{\"registrationAttribute\":\"REG" + randomRow() + "\",\"event\":\"Load event " + n + "\"}")),
+                new EndpointScenario("GET /api/meetups", 50, (base, n) -> HttpRequest.newBuilder(
+                        base.resolve("/api/meetups?size=20&page=" + ThreadLocalRandom.current().nextInt(50))).GET().build()),
+                new EndpointScenario("GET /api/registration?name=", 30, (base, n) -> HttpRequest.newBuilder(
+                        base.resolve("/api/registration?name=" + URLEncoder.encode("Person " + randomRow(), StandardCharsets.UTF_8)))
+                        .GET().build())
+        );
+    }
+
+    private static HttpRequest json(URI uri, String body) {
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static int randomRow() {
+        return ThreadLocalRandom.current().nextInt(1, SEEDED_ROWS + 1);
+    }
+
+    @Test
+    @DisplayName("Should keep p99 latency and throughput within the stored baseline")
+    public void latencyAndThroughputWithinBaselineTest(TestReporter reporter) throws Exception {
+
+        seed();
+
+        int rate = Integer.getInteger("loadtest.rate", 200);
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10));
+        Duration measurement = Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 30));
+
+        OpenModelLoadGenerator generator = new OpenModelLoadGenerator(URI.create("http://localhost:" + port), scenarios());
+        Map<String, EndpointResult> results;
+        try {
+            results = generator.run(rate, warmup, measurement);
+        } finally {
+            generator.shutdown();
+        }
+        results.values().forEach(result -> reporter.publishEntry(result.getName(), result.toString()));
+
+        Path baselineFile = Paths.get(System.getProperty("loadtest.baseline", "src/loadTest/baseline/loadtest-baseline.properties"));
+        LatencyBaseline.write(Paths.get(System.getProperty("loadtest.results", "build/loadtest/results.properties")), results.values());
+
+        // request com erro nao entra no histograma: latencia boa com erros nao vale
+        List<String> failing = results.values().stream().filter(result -> result.getErrors() > 0)
+                .map(EndpointResult::toString).collect(Collectors.toList());
+        assertThat(failing).as("endpoints with errors").isEmpty();
+
+        LatencyBaseline baseline = LatencyBaseline.load(baselineFile);
+        if (Boolean.getBoolean("loadtest.updateBaseline")) {
+            baseline.save(results.values());
+            return;
+        }
+        if (baseline.isEmpty()) {
+            fail("No load test baseline at " + baselineFile + "; record one with -Ploadtest.updateBaseline=true");
+        }
+
+        double p99Tolerance = Double.parseDouble(System.getProperty("loadtest.p99Tolerance", "0.25"));
+        double throughputTolerance = Double.parseDouble(System.getProperty("loadtest.throughputTolerance", "0.10"));
+        assertThat(baseline.regressions(results.values(), p99Tolerance, throughputTolerance)).isEmpty();
+    }
+}
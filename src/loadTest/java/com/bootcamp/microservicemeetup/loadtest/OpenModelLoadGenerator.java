@@ -0,0 +1,111 @@
+package com.bootcamp.microservicemeetup.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// modelo aberto: as chegadas seguem um relogio fixo, independente das respostas. A latencia
+// e medida a partir do horario em que o request deveria ter saido, entao um servidor lento
+// nao esconde a fila que ele mesmo criou (coordinated omission)
+public class OpenModelLoadGenerator {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final URI baseUri;
+    private final List<EndpointScenario> scenarios;
+    private final int totalWeight;
+    private final ExecutorService clientExecutor = Executors.newFixedThreadPool(8);
+    private final HttpClient client;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Histogram> latencies = new LinkedHashMap<>();
+    private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+
+    public OpenModelLoadGenerator(URI baseUri, List<EndpointScenario> scenarios) {
+        this.baseUri = baseUri;
+        this.scenarios = scenarios;
+        this.totalWeight = scenarios.stream().mapToInt(EndpointScenario::getWeight).sum();
+        this.client = HttpClient.newBuilder()
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (EndpointScenario scenario : scenarios) {
+            latencies.put(scenario.getName(), new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            errors.put(scenario.getName(), new LongAdder());
+        }
+    }
+
+    public Map<String, EndpointResult> run(int ratePerSecond, Duration warmup, Duration measurement) throws InterruptedException {
+        runPhase(ratePerSecond, warmup);
+        latencies.values().forEach(Histogram::reset);
+        errors.values().forEach(LongAdder::reset);
+
+        long start = System.nanoTime();
+        runPhase(ratePerSecond, measurement);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, EndpointResult> results = new LinkedHashMap<>();
+        latencies.forEach((name, histogram) ->
+                results.put(name, new EndpointResult(name, histogram, errors.get(name).sum(), seconds)));
+        return results;
+    }
+
+    public void shutdown() {
+        clientExecutor.shutdownNow();
+    }
+
+    private void runPhase(int ratePerSecond, Duration duration) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        int requests = (int) (duration.toNanos() / intervalNanos);
+        CountDownLatch completed = new CountDownLatch(requests);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < requests; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            EndpointScenario scenario = pickScenario();
+            client.sendAsync(scenario.nextRequest(baseUri, sequence.incrementAndGet()), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                        if (error != null || response.statusCode() >= 400) {
+                            errors.get(scenario.getName()).increment();
+                        } else {
+                            latencies.get(scenario.getName()).recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+                        }
+                        completed.countDown();
+                    });
+        }
+        if (!completed.await(duration.getSeconds() + 60, TimeUnit.SECONDS)) {
+            throw new IllegalStateException(completed.getCount() + " of " + requests
+                    + " requests still pending after the phase timeout");
+        }
+    }
+
+    private EndpointScenario pickScenario() {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (EndpointScenario scenario : scenarios) {
+            roll -= scenario.getWeight();
+            if (roll < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+}
@@ -3,13 +3,29 @@ package com.bootcamp.microservicemeetup;
 import org.modelmapper.ModelMapper;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Profiles;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
 
 @SpringBootApplication
 public class ServicoDeAgendamentoDeMeetupsApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(ServicoDeAgendamentoDeMeetupsApplication.class, args);
+		SpringApplication application = new SpringApplication(ServicoDeAgendamentoDeMeetupsApplication.class);
+		// guarda os passos do startup para o StartupTimelineExporter, que so existe no profile fast-startup
+		if (fastStartup(args)) {
+			application.setApplicationStartup(new BufferingApplicationStartup(4096));
+		}
+		application.run(args);
+	}
+
+	// o contexto ainda nao existe: o profile vem da linha de comando, das system properties ou do ambiente
+	static boolean fastStartup(String[] args) {
+		StandardEnvironment environment = new StandardEnvironment();
+		environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+		return environment.acceptsProfiles(Profiles.of("fast-startup"));
 	}
 
 	@Bean
@@ -0,0 +1,66 @@
+package com.bootcamp.microservicemeetup.config;
+
+import com.bootcamp.microservicemeetup.repository.MeetupOperations;
+import com.bootcamp.microservicemeetup.repository.RegistrationOperations;
+import com.bootcamp.microservicemeetup.repository.TombstoneRepository;
+import com.bootcamp.microservicemeetup.repository.log.LogMeetupRepository;
+import com.bootcamp.microservicemeetup.repository.log.LogMeetupStore;
+import com.bootcamp.microservicemeetup.repository.log.LogRegistrationRepository;
+import com.bootcamp.microservicemeetup.repository.log.LogRegistrationStore;
+import com.bootcamp.microservicemeetup.repository.log.LogStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+// meetups e registrations em logs append-only no disco, fora do JPA; um diretorio de segmentos por entidade
+@Configuration
+@Profile("logstore")
+public class LogStoreConfig {
+
+    @Bean(destroyMethod = "close")
+    public LogStore registrationLog(@Value("${meetup.logstore.dir:data/logstore}") String directory,
+                                    @Value("${meetup.logstore.segment-bytes:67108864}") int segmentBytes,
+                                    @Value("${meetup.logstore.compact-below:0.5}") double compactBelow,
+                                    @Value("${meetup.logstore.sync-ms:200}") long syncMs,
+                                    @Value("${meetup.logstore.compact-ms:60000}") long compactMs) throws IOException {
+        return new LogStore(Paths.get(directory, "registration"), segmentBytes, compactBelow, syncMs, compactMs);
+    }
+
+    @Bean(destroyMethod = "close")
+    public LogStore meetupLog(@Value("${meetup.logstore.dir:data/logstore}") String directory,
+                              @Value("${meetup.logstore.segment-bytes:67108864}") int segmentBytes,
+                              @Value("${meetup.logstore.compact-below:0.5}") double compactBelow,
+                              @Value("${meetup.logstore.sync-ms:200}") long syncMs,
+                              @Value("${meetup.logstore.compact-ms:60000}") long compactMs) throws IOException {
+        return new LogStore(Paths.get(directory, "meetup"), segmentBytes, compactBelow, syncMs, compactMs);
+    }
+
+    @Bean
+    public LogRegistrationStore logRegistrationStore(LogStore registrationLog) {
+        return new LogRegistrationStore(registrationLog);
+    }
+
+    @Bean
+    public LogMeetupStore logMeetupStore(LogStore meetupLog, LogRegistrationStore logRegistrationStore) {
+        return new LogMeetupStore(meetupLog, logRegistrationStore);
+    }
+
+    @Bean
+    @Primary
+    public RegistrationOperations logRegistrationRepository(LogRegistrationStore logRegistrationStore,
+                                                            LogMeetupStore logMeetupStore,
+                                                            TombstoneRepository tombstoneRepository) {
+        return new LogRegistrationRepository(logRegistrationStore, logMeetupStore, tombstoneRepository);
+    }
+
+    @Bean
+    @Primary
+    public MeetupOperations logMeetupRepository(LogMeetupStore logMeetupStore, TombstoneRepository tombstoneRepository) {
+        return new LogMeetupRepository(logMeetupStore, tombstoneRepository);
+    }
+}
@@ -0,0 +1,21 @@
+package com.bootcamp.microservicemeetup.config;
+
+import com.bootcamp.microservicemeetup.service.notification.InMemoryNotificationSender;
+import com.bootcamp.microservicemeetup.service.notification.NotificationSender;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// enquanto nenhum provedor real for registrado, as notificacoes ficam no stub em memoria
+@Configuration
+public class NotificationConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(NotificationSender.class)
+    public InMemoryNotificationSender inMemoryNotificationSender(
+            @Value("${meetup.notifications.stub.channel:email}") String channel,
+            @Value("${meetup.notifications.stub.capacity:10000}") int capacity) {
+        return new InMemoryNotificationSender(channel, capacity);
+    }
+}
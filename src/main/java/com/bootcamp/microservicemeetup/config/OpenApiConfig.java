@@ -0,0 +1,46 @@
+package com.bootcamp.microservicemeetup.config;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.info.Contact;
+import io.swagger.v3.oas.models.info.Info;
+import org.springdoc.core.GroupedOpenApi;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// o springdoc so esta no classpath do bootRun, dos testes e da geracao do openapi.json (generateOpenApiDocs);
+// nesses casos o /openapi.json vem do documento escaneado. No jar ele e o arquivo estatico gerado no build
+@Configuration
+@ConditionalOnClass(name = "org.springdoc.core.GroupedOpenApi")
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", havingValue = "true")
+public class OpenApiConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addViewControllers(ViewControllerRegistry registry) {
+        registry.addViewController("/openapi.json").setViewName("forward:/v3/api-docs/meetups");
+    }
+
+    @Bean
+    public GroupedOpenApi meetupsApi() {
+        return GroupedOpenApi.builder()
+                .group("meetups")
+                .packagesToScan("com.bootcamp.microservicemeetup.controller.resources")
+                .pathsToMatch("/**")
+                .build();
+    }
+
+    @Bean
+    public OpenAPI openAPI() {
+        return new OpenAPI().info(new Info()
+                .title("Meetups API")
+                .description("RestApi de meetup produzida no bootcamp de Java da Womakerscode")
+                .version("1.0")
+                .contact(new Contact()
+                        .name("Eduarda Mendes")
+                        .url("https://github.com/duda-m")
+                        .email("dudadev35@gmail.com")));
+    }
+}
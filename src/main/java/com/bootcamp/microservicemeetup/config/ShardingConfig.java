@@ -0,0 +1,41 @@
+package com.bootcamp.microservicemeetup.config;
+
+import com.bootcamp.microservicemeetup.repository.MeetupOperations;
+import com.bootcamp.microservicemeetup.repository.RegistrationRepository;
+import com.bootcamp.microservicemeetup.repository.TombstoneRepository;
+import com.bootcamp.microservicemeetup.repository.shard.ShardedMeetupRepository;
+import com.bootcamp.microservicemeetup.repository.shard.ShardedMeetupStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Configuration
+@Profile("sharded")
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ShardedMeetupStore shardedMeetupStore(@Value("${app.sharding.urls}") List<String> urls,
+                                                 @Value("${app.sharding.username:sa}") String username,
+                                                 @Value("${app.sharding.password:}") String password,
+                                                 RegistrationRepository registrationRepository) {
+        List<DataSource> shards = urls.stream()
+                .map(url -> DataSourceBuilder.create().url(url.trim()).username(username).password(password).build())
+                .collect(Collectors.toList());
+        return new ShardedMeetupStore(shards, registrationRepository::findAllById);
+    }
+
+    @Bean
+    @Primary
+    public MeetupOperations shardedMeetupRepository(ShardedMeetupStore shardedMeetupStore,
+                                                    RegistrationRepository registrationRepository,
+                                                    TombstoneRepository tombstoneRepository) {
+        return new ShardedMeetupRepository(shardedMeetupStore, registrationRepository, tombstoneRepository);
+    }
+}
@@ -0,0 +1,6 @@
+package com.bootcamp.microservicemeetup.config.datasource;
+
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,167 @@
+package com.bootcamp.microservicemeetup.config.datasource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.jdbc.support.rowset.SqlRowSetMetaData;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// substituto da replicacao para rodar localmente com dois H2: copia o schema do primario
+// uma vez e depois aplica periodicamente as linhas com change_sequence novo e os tombstones.
+// As tabelas de presenca nao tem change_sequence: a cada ciclo o conjunto de pares e comparado inteiro.
+// A sequencia e carimbada antes do commit, entao como no DeltaSyncService a janela de lag atras do ultimo
+// aplicado e relida a cada ciclo (merge e delete sao idempotentes)
+public class H2ReplicationStandIn {
+
+    private static final String[][] TABLES = {
+            {"registration", "registration_id"},
+            {"meetup", "id"},
+            {"meetup_archive", "id"},
+            {"tombstone", "id"}
+    };
+
+    private static final String[] PAIR_TABLES = {"attendance", "attendance_archive"};
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long intervalMs;
+    private final long lag;
+    private final Map<String, Long> appliedSequence = new HashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    public H2ReplicationStandIn(DataSource primaryDataSource, DataSource replicaDataSource, long intervalMs, long lagMs) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.intervalMs = intervalMs;
+        this.lag = lagMs << 12;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "h2-replication-stand-in");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        copySchema();
+        scheduler.scheduleWithFixedDelay(this::replicateSafely, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    void copySchema() {
+        List<String> statements = primary.queryForList("script nodata", String.class);
+        for (String statement : statements) {
+            String normalized = statement.trim().toUpperCase();
+            if (!normalized.startsWith("--") && !normalized.startsWith("CREATE USER")) {
+                replica.execute(statement);
+            }
+        }
+    }
+
+    synchronized void replicate() {
+        for (String[] table : TABLES) {
+            copyChangedRows(table[0], table[1]);
+        }
+        for (String table : PAIR_TABLES) {
+            copyPairs(table);
+        }
+        applyTombstones();
+        copyHeartbeat();
+    }
+
+    private void replicateSafely() {
+        try {
+            replicate();
+        } catch (RuntimeException e) {
+            // tenta de novo no proximo ciclo; enquanto isso o atraso medido cresce
+        }
+    }
+
+    private void copyChangedRows(String table, String key) {
+        long since = appliedSequence.getOrDefault(table, 0L);
+        SqlRowSet rows = primary.queryForRowSet(
+                "select * from " + table + " where change_sequence > ? order by change_sequence", overlap(since));
+        SqlRowSetMetaData metaData = rows.getMetaData();
+        String[] columns = metaData.getColumnNames();
+        String merge = "merge into " + table + " (" + String.join(", ", columns) + ") key (" + key + ") values ("
+                + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+
+        List<Object[]> batch = new ArrayList<>();
+        while (rows.next()) {
+            Object[] values = new Object[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                values[i] = rows.getObject(i + 1);
+            }
+            batch.add(values);
+            since = Math.max(since, rows.getLong("change_sequence"));
+        }
+        if (!batch.isEmpty()) {
+            replica.batchUpdate(merge, batch);
+            appliedSequence.put(table, since);
+        }
+    }
+
+    private long overlap(long since) {
+        return since > 0 && lag > 0 ? Math.max(0, since - lag) : since;
+    }
+
+    private void copyPairs(String table) {
+        String select = "select meetup_id, registration_id from " + table;
+        Set<List<Integer>> source = pairs(primary, select);
+        Set<List<Integer>> target = pairs(replica, select);
+
+        List<Object[]> added = new ArrayList<>();
+        source.stream().filter(pair -> !target.contains(pair)).forEach(pair -> added.add(pair.toArray()));
+        List<Object[]> removed = new ArrayList<>();
+        target.stream().filter(pair -> !source.contains(pair)).forEach(pair -> removed.add(pair.toArray()));
+        if (!removed.isEmpty()) {
+            replica.batchUpdate("delete from " + table + " where meetup_id = ? and registration_id = ?", removed);
+        }
+        if (!added.isEmpty()) {
+            replica.batchUpdate("insert into " + table + " (meetup_id, registration_id) values (?, ?)", added);
+        }
+    }
+
+    private static Set<List<Integer>> pairs(JdbcTemplate jdbcTemplate, String select) {
+        return new HashSet<>(jdbcTemplate.query(select, (rs, rowNum) -> Arrays.asList(rs.getInt(1), rs.getInt(2))));
+    }
+
+    // os tombstones ja foram copiados; aqui so remove as linhas apagadas no primario
+    private void applyTombstones() {
+        long since = appliedSequence.getOrDefault("tombstone.applied", 0L);
+        List<Map<String, Object>> tombstones = replica.queryForList(
+                "select entity_type, entity_id, change_sequence from tombstone where change_sequence > ? order by change_sequence", overlap(since));
+        for (Map<String, Object> tombstone : tombstones) {
+            String entityType = (String) tombstone.get("ENTITY_TYPE");
+            Object entityId = tombstone.get("ENTITY_ID");
+            if ("meetup".equals(entityType)) {
+                replica.update("delete from meetup where id = ?", entityId);
+            } else if ("registration".equals(entityType)) {
+                replica.update("delete from registration where registration_id = ?", entityId);
+            }
+            since = Math.max(since, ((Number) tombstone.get("CHANGE_SEQUENCE")).longValue());
+        }
+        appliedSequence.put("tombstone.applied", since);
+    }
+
+    private void copyHeartbeat() {
+        List<Long> beats = primary.queryForList(
+                "select beat_at from " + ReplicaLagMonitor.HEARTBEAT_TABLE + " where id = 1", Long.class);
+        if (!beats.isEmpty()) {
+            replica.update("merge into " + ReplicaLagMonitor.HEARTBEAT_TABLE + " (id, beat_at) key (id) values (1, ?)", beats.get(0));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.bootcamp.microservicemeetup.config.datasource;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String CLIENT_HEADER = "X-Client-Id";
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadYourWritesFilter(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String clientId = request.getHeader(CLIENT_HEADER);
+        tracker.bind(clientId != null ? clientId : request.getRemoteAddr());
+        // marca antes de seguir: a resposta pode ser commitada (e o cliente ler de novo) antes do doFilter voltar,
+        // e com o POST assincrono o doFilter volta antes mesmo da escrita; depois a janela e renovada
+        boolean write = isWrite(request.getMethod());
+        if (write) {
+            tracker.recordWrite();
+        }
+        try {
+            filterChain.doFilter(request, response);
+            if (write) {
+                tracker.recordWrite();
+            }
+        } finally {
+            tracker.clear();
+        }
+    }
+
+    private boolean isWrite(String method) {
+        return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+}
@@ -0,0 +1,82 @@
+package com.bootcamp.microservicemeetup.config.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// lembra quando cada cliente escreveu pela ultima vez; enquanto a janela nao passar,
+// as leituras desse cliente continuam no primario para ele enxergar a propria escrita.
+// O id vem do cliente (X-Client-Id), entao o mapa tem teto: cheio, a escrita vale para todos os clientes
+// ate a janela passar (mais leituras no primario, mas ninguem perde a propria escrita)
+public class ReadYourWritesTracker {
+
+    private final ThreadLocal<String> currentClient = new ThreadLocal<>();
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final long stickinessMs;
+    private final int maxClients;
+    private final ScheduledExecutorService scheduler;
+    private volatile long lastOverflowWrite;
+
+    public ReadYourWritesTracker(long stickinessMs, int maxClients) {
+        this.stickinessMs = stickinessMs;
+        this.maxClients = maxClients;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "read-your-writes-eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::evictExpired, stickinessMs, stickinessMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public void bind(String clientId) {
+        currentClient.set(clientId);
+    }
+
+    public void clear() {
+        currentClient.remove();
+    }
+
+    public void recordWrite() {
+        String clientId = currentClient.get();
+        if (clientId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (!lastWrites.containsKey(clientId) && lastWrites.size() >= maxClients) {
+            evictExpired();
+            if (lastWrites.size() >= maxClients) {
+                lastOverflowWrite = now;
+                return;
+            }
+        }
+        lastWrites.put(clientId, now);
+    }
+
+    public boolean requiresPrimary() {
+        String clientId = currentClient.get();
+        if (clientId == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (now - lastOverflowWrite < stickinessMs) {
+            return true;
+        }
+        Long lastWrite = lastWrites.get(clientId);
+        return lastWrite != null && now - lastWrite < stickinessMs;
+    }
+
+    public int getTrackedClients() {
+        return lastWrites.size();
+    }
+
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - stickinessMs;
+        lastWrites.values().removeIf(lastWrite -> lastWrite < cutoff);
+    }
+}
@@ -0,0 +1,71 @@
+package com.bootcamp.microservicemeetup.config.datasource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// heartbeat no estilo pt-heartbeat: o primario grava o horario atual e o atraso da replica
+// e a diferenca entre agora e o ultimo horario que chegou nela (tabela criada pela migration V1)
+public class ReplicaLagMonitor {
+
+    static final String HEARTBEAT_TABLE = "replication_heartbeat";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMs;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile long lagMs = Long.MAX_VALUE;
+
+    public ReplicaLagMonitor(DataSource primaryDataSource, DataSource replicaDataSource,
+                             long maxLagMs, long heartbeatMs) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.maxLagMs = maxLagMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::beat, 0, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isReplicaUsable() {
+        return lagMs <= maxLagMs;
+    }
+
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    void beat() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update("update " + HEARTBEAT_TABLE + " set beat_at = ? where id = 1", now) == 0) {
+                primary.update("insert into " + HEARTBEAT_TABLE + " (id, beat_at) values (1, ?)", now);
+            }
+        } catch (RuntimeException e) {
+            lagMs = Long.MAX_VALUE;
+            return;
+        }
+        lagMs = measureLag(now);
+    }
+
+    private long measureLag(long now) {
+        try {
+            List<Long> beats = replica.queryForList("select beat_at from " + HEARTBEAT_TABLE + " where id = 1", Long.class);
+            return beats.isEmpty() ? Long.MAX_VALUE : Math.max(0, now - beats.get(0));
+        } catch (RuntimeException e) {
+            // replica fora do ar ou ainda sem o schema
+            return Long.MAX_VALUE;
+        }
+    }
+}
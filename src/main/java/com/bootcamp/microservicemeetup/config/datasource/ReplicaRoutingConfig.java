@@ -0,0 +1,97 @@
+package com.bootcamp.microservicemeetup.config.datasource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@Profile("replica")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public DataSource primaryDataSource(@Value("${app.datasource.primary.url}") String url,
+                                        @Value("${app.datasource.primary.username:sa}") String username,
+                                        @Value("${app.datasource.primary.password:}") String password) {
+        return DataSourceBuilder.create().url(url).username(username).password(password).build();
+    }
+
+    @Bean
+    public DataSource replicaDataSource(@Value("${app.datasource.replica.url}") String url,
+                                        @Value("${app.datasource.replica.username:sa}") String username,
+                                        @Value("${app.datasource.replica.password:}") String password) {
+        return DataSourceBuilder.create().url(url).username(username).password(password).build();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ReadYourWritesTracker readYourWritesTracker(@Value("${app.datasource.replica.read-your-writes-ms:5000}") long stickinessMs,
+                                                       @Value("${app.datasource.replica.read-your-writes-max-clients:100000}") int maxClients) {
+        return new ReadYourWritesTracker(stickinessMs, maxClients);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                               @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               @Value("${app.datasource.replica.max-lag-ms:2000}") long maxLagMs,
+                                               @Value("${app.datasource.replica.heartbeat-ms:500}") long heartbeatMs) {
+        return new ReplicaLagMonitor(primaryDataSource, replicaDataSource, maxLagMs, heartbeatMs);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReadYourWritesTracker readYourWritesTracker,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(DataSourceRole.PRIMARY, primaryDataSource);
+        targets.put(DataSourceRole.REPLICA, replicaDataSource);
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(readYourWritesTracker, replicaLagMonitor);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWritesTracker readYourWritesTracker) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(readYourWritesTracker));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Configuration
+    @Profile("replica")
+    @ConditionalOnProperty(name = "app.datasource.replica.stand-in", havingValue = "true")
+    static class StandInConfig {
+
+        @Bean(destroyMethod = "shutdown")
+        public H2ReplicationStandIn h2ReplicationStandIn(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                         @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                                         @Value("${app.datasource.replica.replication-interval-ms:500}") long intervalMs,
+                                                         @Value("${meetup.changes.lag-ms:5000}") long lagMs) {
+            return new H2ReplicationStandIn(primaryDataSource, replicaDataSource, intervalMs, lagMs);
+        }
+
+        // o schema do primario so existe depois que o Hibernate subiu
+        @EventListener(ApplicationReadyEvent.class)
+        public void startReplication(ApplicationReadyEvent event) {
+            event.getApplicationContext().getBean(H2ReplicationStandIn.class).start();
+        }
+    }
+}
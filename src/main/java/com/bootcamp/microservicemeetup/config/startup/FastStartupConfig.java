@@ -0,0 +1,30 @@
+package com.bootcamp.microservicemeetup.config.startup;
+
+import com.bootcamp.microservicemeetup.controller.resources.MeetupController;
+import com.bootcamp.microservicemeetup.controller.resources.RegistrationController;
+import com.bootcamp.microservicemeetup.repository.MeetupOperations;
+import com.bootcamp.microservicemeetup.repository.RegistrationOperations;
+import com.bootcamp.microservicemeetup.service.MeetupService;
+import com.bootcamp.microservicemeetup.service.RegistrationService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+// com spring.main.lazy-initialization ligado, so o caminho quente (controllers, servicos e
+// repositories de meetup/registration) continua sendo criado no startup
+@Configuration
+@Profile("fast-startup")
+public class FastStartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter hotPathBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                MeetupController.class,
+                RegistrationController.class,
+                MeetupService.class,
+                RegistrationService.class,
+                MeetupOperations.class,
+                RegistrationOperations.class);
+    }
+}
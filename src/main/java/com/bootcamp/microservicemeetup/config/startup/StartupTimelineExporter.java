@@ -0,0 +1,64 @@
+package com.bootcamp.microservicemeetup.config.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Profile("fast-startup")
+public class StartupTimelineExporter {
+
+    private final Path target;
+
+    public StartupTimelineExporter(@Value("${startup.timeline.path:build/startup-timeline.json}") String target) {
+        this.target = Paths.get(target);
+    }
+
+    @EventListener
+    public void export(ApplicationReadyEvent event) throws IOException {
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup)) {
+            return;
+        }
+        StartupTimeline timeline = ((BufferingApplicationStartup) startup).getBufferedTimeline();
+
+        List<Map<String, Object>> steps = new ArrayList<>();
+        for (StartupTimeline.TimelineEvent timelineEvent : timeline.getEvents()) {
+            Map<String, Object> step = new LinkedHashMap<>();
+            step.put("id", timelineEvent.getStartupStep().getId());
+            step.put("parentId", timelineEvent.getStartupStep().getParentId());
+            step.put("name", timelineEvent.getStartupStep().getName());
+            step.put("startTime", timelineEvent.getStartTime().toString());
+            step.put("durationMs", timelineEvent.getDuration().toMillis());
+            Map<String, String> tags = new LinkedHashMap<>();
+            timelineEvent.getStartupStep().getTags().forEach(tag -> tags.put(tag.getKey(), tag.getValue()));
+            step.put("tags", tags);
+            steps.add(step);
+        }
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("startTime", timeline.getStartTime().toString());
+        document.put("steps", steps);
+
+        if (target.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(target.toAbsolutePath().getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(target.toFile(), document);
+    }
+}
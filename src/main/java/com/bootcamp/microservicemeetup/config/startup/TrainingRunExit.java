@@ -0,0 +1,37 @@
+package com.bootcamp.microservicemeetup.config.startup;
+
+import com.bootcamp.microservicemeetup.controller.dto.MeetupFilterDTO;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.service.MeetupService;
+import com.bootcamp.microservicemeetup.service.RegistrationService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+// usado pela task cdsArchive: passa pelo caminho quente para carregar as classes e encerra a JVM,
+// que entao grava o arquivo de class-data sharing
+@Component
+@ConditionalOnProperty(name = "startup.training-run", havingValue = "true")
+public class TrainingRunExit {
+
+    private final MeetupService meetupService;
+    private final RegistrationService registrationService;
+
+    public TrainingRunExit(MeetupService meetupService, RegistrationService registrationService) {
+        this.meetupService = meetupService;
+        this.registrationService = registrationService;
+    }
+
+    @EventListener
+    public void exitAfterTraining(ApplicationReadyEvent event) {
+        meetupService.find(new MeetupFilterDTO(), PageRequest.of(0, 20));
+        registrationService.find(new Registration(), PageRequest.of(0, 20));
+        registrationService.getRegistrationByRegistrationAttribute("training");
+
+        Thread exit = new Thread(() -> System.exit(SpringApplication.exit(event.getApplicationContext())));
+        exit.start();
+    }
+}
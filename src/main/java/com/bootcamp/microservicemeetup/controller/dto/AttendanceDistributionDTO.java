@@ -0,0 +1,22 @@
+package com.bootcamp.microservicemeetup.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// histogram[k] = quantas pessoas participam de k meetups; a ultima posicao acumula k ou mais
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceDistributionDTO {
+
+    private long registrants;
+
+    private long attendances;
+
+    private double average;
+
+    private long[] histogram;
+}
@@ -0,0 +1,21 @@
+package com.bootcamp.microservicemeetup.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangesDTO<T> {
+
+    private List<T> upserts;
+
+    private List<Integer> deleted;
+
+    private String next;
+}
@@ -0,0 +1,21 @@
+package com.bootcamp.microservicemeetup.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FreeSlotsDTO {
+
+    // janelas livres maximas em que cabe a duracao pedida
+    private List<FreeSlotDTO> slots;
+
+    // registration attributes que nao existem; nao entram no calculo
+    private List<String> missing;
+}
@@ -0,0 +1,35 @@
+package com.bootcamp.microservicemeetup.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// seleciona as linhas por ids ou por event; set so e usado no patch e campos nulos ficam como estao
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MeetupBulkDTO {
+
+    private List<Integer> ids;
+
+    private String event;
+
+    private Patch set;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Patch {
+
+        private String event;
+
+        private String meetupDate;
+
+        private Boolean registered;
+    }
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -18,5 +20,15 @@ public class MeetupDTO {
 
     private String event;
 
+    private String meetupDate;
+
     private RegistrationDTO registration;
+
+    private Integer attendeeCount;
+
+    private LocalDateTime startsAt;
+
+    private LocalDateTime endsAt;
+
+    private String venue;
 }
@@ -0,0 +1,29 @@
+package com.bootcamp.microservicemeetup.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationJobDTO {
+
+    private String id;
+
+    private Integer meetupId;
+
+    private String type;
+
+    private String status;
+
+    private long queued;
+
+    private long delivered;
+
+    private long failed;
+
+    private long retries;
+}
@@ -0,0 +1,37 @@
+package com.bootcamp.microservicemeetup.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PageEnvelope<T> {
+
+    private List<T> items;
+
+    private String next;
+
+    private Integer size;
+
+    private Long total;
+
+    // sem total a busca e um Slice, que nao rodou o count
+    public static <T> PageEnvelope<T> of(Slice<?> page, List<T> items, boolean includeTotal) {
+        return PageEnvelope.<T>builder()
+                .items(items)
+                .next(page.hasNext() ? String.valueOf(page.getNumber() + 1) : null)
+                .size(page.getSize())
+                .total(includeTotal && page instanceof Page ? ((Page<?>) page).getTotalElements() : null)
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.bootcamp.microservicemeetup.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotQueryDTO {
+
+    @NotEmpty
+    private List<String> registrationAttributes;
+
+    @NotNull
+    private LocalDateTime from;
+
+    @NotNull
+    private LocalDateTime to;
+
+    @Positive
+    private int durationMinutes;
+
+    // tamanho do bucket; horarios livres comecam e terminam em multiplos dele a partir de from
+    @Builder.Default
+    private int granularityMinutes = 15;
+}
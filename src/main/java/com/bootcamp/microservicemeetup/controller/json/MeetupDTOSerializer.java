@@ -0,0 +1,55 @@
+package com.bootcamp.microservicemeetup.controller.json;
+
+import com.bootcamp.microservicemeetup.controller.dto.MeetupDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// escreve os campos direto, sem introspeccao do bean; manter em sincronia com MeetupDTO
+@JsonComponent
+public class MeetupDTOSerializer extends JsonSerializer<MeetupDTO> {
+
+    @Override
+    public void serialize(MeetupDTO dto, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartObject();
+        if (dto.getId() == null) {
+            gen.writeNullField("id");
+        } else {
+            gen.writeNumberField("id", dto.getId());
+        }
+        gen.writeStringField("registrationAttribute", dto.getRegistrationAttribute());
+        gen.writeStringField("event", dto.getEvent());
+        if (dto.getRegistration() == null) {
+            gen.writeNullField("registration");
+        } else {
+            gen.writeFieldName("registration");
+            gen.writeStartObject();
+            RegistrationDTOSerializer.writeFields(dto.getRegistration(), gen);
+            gen.writeEndObject();
+        }
+        if (dto.getAttendeeCount() == null) {
+            gen.writeNullField("attendeeCount");
+        } else {
+            gen.writeNumberField("attendeeCount", dto.getAttendeeCount());
+        }
+        gen.writeStringField("startsAt", format(dto.getStartsAt()));
+        gen.writeStringField("endsAt", format(dto.getEndsAt()));
+        gen.writeStringField("venue", dto.getVenue());
+        gen.writeEndObject();
+    }
+
+    // o mesmo formato do LocalDateTimeSerializer do Jackson; o toString() omite os segundos quando sao zero
+    private static String format(LocalDateTime value) {
+        return value == null ? null : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value);
+    }
+
+    @Override
+    public Class<MeetupDTO> handledType() {
+        return MeetupDTO.class;
+    }
+}
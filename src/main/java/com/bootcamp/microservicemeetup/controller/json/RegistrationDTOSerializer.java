@@ -0,0 +1,42 @@
+package com.bootcamp.microservicemeetup.controller.json;
+
+import com.bootcamp.microservicemeetup.controller.dto.RegistrationDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+// escreve os campos direto, sem introspeccao do bean; manter em sincronia com RegistrationDTO
+@JsonComponent
+public class RegistrationDTOSerializer extends JsonSerializer<RegistrationDTO> {
+
+    @Override
+    public void serialize(RegistrationDTO dto, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartObject();
+        writeFields(dto, gen);
+        gen.writeEndObject();
+    }
+
+    static void writeFields(RegistrationDTO dto, JsonGenerator gen) throws IOException {
+        if (dto.getId() == null) {
+            gen.writeNullField("id");
+        } else {
+            gen.writeNumberField("id", dto.getId());
+        }
+        gen.writeStringField("name", dto.getName());
+        gen.writeStringField("dateOfRegistration", dto.getDateOfRegistration());
+        gen.writeStringField("registration", dto.getRegistration());
+        if (dto.getMeetupCount() == null) {
+            gen.writeNullField("meetupCount");
+        } else {
+            gen.writeNumberField("meetupCount", dto.getMeetupCount());
+        }
+    }
+
+    @Override
+    public Class<RegistrationDTO> handledType() {
+        return RegistrationDTO.class;
+    }
+}
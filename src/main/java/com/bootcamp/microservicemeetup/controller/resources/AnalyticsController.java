@@ -0,0 +1,52 @@
+package com.bootcamp.microservicemeetup.controller.resources;
+
+import com.bootcamp.microservicemeetup.controller.dto.AttendanceDistributionDTO;
+import com.bootcamp.microservicemeetup.controller.dto.DailyCountDTO;
+import com.bootcamp.microservicemeetup.controller.dto.EventSignUpsDTO;
+import com.bootcamp.microservicemeetup.service.analytics.AnalyticsRollups;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private static final int MAX_DAYS = 3660;
+
+    private final AnalyticsRollups analyticsRollups;
+
+    @GetMapping("top-events")
+    public List<EventSignUpsDTO> topEvents(@RequestParam(defaultValue = "10") int limit) {
+        return analyticsRollups.topEvents(limit);
+    }
+
+    @GetMapping("registrations-per-day")
+    public List<DailyCountDTO> registrationsPerDay(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(29) : from;
+        if (ChronoUnit.DAYS.between(start, end) > MAX_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_DAYS + " days per request");
+        }
+        return analyticsRollups.registrationsPerDay(start, end);
+    }
+
+    @GetMapping("meetups-per-registrant")
+    public AttendanceDistributionDTO meetupsPerRegistrant() {
+        return analyticsRollups.meetupsPerRegistrant();
+    }
+
+    @PostMapping("rebuild")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void rebuild() {
+        analyticsRollups.requestRebuild();
+    }
+}
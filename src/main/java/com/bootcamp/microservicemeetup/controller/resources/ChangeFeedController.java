@@ -0,0 +1,55 @@
+package com.bootcamp.microservicemeetup.controller.resources;
+
+import com.bootcamp.microservicemeetup.controller.dto.ChangesDTO;
+import com.bootcamp.microservicemeetup.controller.dto.MeetupDTO;
+import com.bootcamp.microservicemeetup.controller.dto.RegistrationDTO;
+import com.bootcamp.microservicemeetup.service.changefeed.ChangeFeedHub;
+import com.bootcamp.microservicemeetup.service.changefeed.ChangeSet;
+import com.bootcamp.microservicemeetup.service.changefeed.DeltaSyncService;
+import lombok.RequiredArgsConstructor;
+import org.modelmapper.ModelMapper;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.stream.Collectors;
+
+@RestController
+@RequiredArgsConstructor
+public class ChangeFeedController {
+
+    private static final int MAX_CHANGES = 1000;
+
+    private final ChangeFeedHub changeFeedHub;
+    private final DeltaSyncService deltaSyncService;
+    private final ModelMapper modelMapper;
+
+    @GetMapping(value = "/api/meetups/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return changeFeedHub.subscribe();
+    }
+
+    @GetMapping("/api/meetups/changes")
+    public ChangesDTO<MeetupDTO> meetupChanges(@RequestParam(defaultValue = "0") long since,
+                                               @RequestParam(defaultValue = "500") int limit) {
+        return toDTO(deltaSyncService.meetupChangesSince(since, Math.max(1, Math.min(limit, MAX_CHANGES))), MeetupDTO.class);
+    }
+
+    @GetMapping("/api/registration/changes")
+    public ChangesDTO<RegistrationDTO> registrationChanges(@RequestParam(defaultValue = "0") long since,
+                                                           @RequestParam(defaultValue = "500") int limit) {
+        return toDTO(deltaSyncService.registrationChangesSince(since, Math.max(1, Math.min(limit, MAX_CHANGES))), RegistrationDTO.class);
+    }
+
+    private <T> ChangesDTO<T> toDTO(ChangeSet<?> changes, Class<T> dtoType) {
+        return ChangesDTO.<T>builder()
+                .upserts(changes.getUpserts().stream()
+                        .map(entity -> modelMapper.map(entity, dtoType))
+                        .collect(Collectors.toList()))
+                .deleted(changes.getDeletedIds())
+                .next(String.valueOf(changes.getNext()))
+                .build();
+    }
+}
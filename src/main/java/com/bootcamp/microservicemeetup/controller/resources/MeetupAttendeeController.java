@@ -0,0 +1,57 @@
+package com.bootcamp.microservicemeetup.controller.resources;
+
+import com.bootcamp.microservicemeetup.controller.dto.AttendeeDTO;
+import com.bootcamp.microservicemeetup.controller.dto.PageEnvelope;
+import com.bootcamp.microservicemeetup.controller.dto.RegistrationDTO;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.service.AttendanceService;
+import com.bootcamp.microservicemeetup.service.RegistrationService;
+import lombok.RequiredArgsConstructor;
+import org.modelmapper.ModelMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.validation.Valid;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/meetups/{id}/attendees")
+@RequiredArgsConstructor
+public class MeetupAttendeeController {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final AttendanceService attendanceService;
+    private final RegistrationService registrationService;
+    private final ModelMapper modelMapper;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public void attend(@PathVariable Integer id, @RequestBody @Valid AttendeeDTO attendeeDTO) {
+        Registration registration = registrationService.getRegistrationByRegistrationAttribute(attendeeDTO.getRegistrationAttribute())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST));
+        attendanceService.attend(id, registration);
+    }
+
+    // next e o id da ultima pessoa da pagina; a proxima pagina vem com ?after=next
+    @GetMapping
+    public PageEnvelope<RegistrationDTO> attendees(@PathVariable Integer id,
+                                                   @RequestParam(defaultValue = "0") Integer after,
+                                                   @RequestParam(defaultValue = "100") int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<Registration> attendees = attendanceService.getAttendees(id, after, size + 1);
+        boolean hasNext = attendees.size() > size;
+        List<RegistrationDTO> items = attendees.stream()
+                .limit(size)
+                .map(registration -> modelMapper.map(registration, RegistrationDTO.class))
+                .collect(Collectors.toList());
+
+        return PageEnvelope.<RegistrationDTO>builder()
+                .items(items)
+                .next(hasNext ? String.valueOf(items.get(items.size() - 1).getId()) : null)
+                .size(size)
+                .build();
+    }
+}
@@ -1,23 +1,33 @@
 package com.bootcamp.microservicemeetup.controller.resources;
 
+import com.bootcamp.microservicemeetup.controller.dto.BatchDTO;
+import com.bootcamp.microservicemeetup.controller.dto.BulkResultDTO;
+import com.bootcamp.microservicemeetup.controller.dto.MeetupBulkDTO;
 import com.bootcamp.microservicemeetup.controller.dto.MeetupDTO;
 import com.bootcamp.microservicemeetup.controller.dto.MeetupFilterDTO;
+import com.bootcamp.microservicemeetup.controller.dto.PageEnvelope;
 import com.bootcamp.microservicemeetup.controller.dto.RegistrationDTO;
 import com.bootcamp.microservicemeetup.model.entity.Meetup;
 import com.bootcamp.microservicemeetup.model.entity.Registration;
 import com.bootcamp.microservicemeetup.service.MeetupService;
 import com.bootcamp.microservicemeetup.service.RegistrationService;
+import com.bootcamp.microservicemeetup.service.notification.NotificationFanout;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RestController
@@ -25,13 +35,19 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class MeetupController {
 
+    static final int MAX_BATCH_IDS = 5000;
+    static final String NOTIFICATION_JOB_HEADER = "X-Notification-Job";
+    static final DateTimeFormatter MEETUP_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
     private final MeetupService meetupService;
     private final RegistrationService registrationService;
     private final ModelMapper modelMapper;
+    private final NotificationFanout notificationFanout;
 
+    // a thread do request volta para o pool enquanto o group commit junta os inserts; a resposta sai quando o lote commita
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    private Integer create(@RequestBody MeetupDTO meetupDTO) {
+    private CompletableFuture<Integer> create(@RequestBody MeetupDTO meetupDTO) {
 
         Registration registration = registrationService.getRegistrationByRegistrationAttribute(meetupDTO.getRegistrationAttribute())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST));
@@ -39,17 +55,34 @@ public class MeetupController {
                 .registration(registration)
                 .event(meetupDTO.getEvent())
                 .registrationAttribute(meetupDTO.getRegistrationAttribute())
-                .meetupDate("10/06/2022")
+                .meetupDate(meetupDate(meetupDTO))
+                .startsAt(meetupDTO.getStartsAt())
+                .endsAt(meetupDTO.getEndsAt())
+                .venue(meetupDTO.getVenue())
                 .build();
 
-        entity = meetupService.save(entity);
-        return entity.getId();
+        return meetupService.saveAsync(entity).thenApply(Meetup::getId);
+    }
+
+    // a data informada ou, sem ela, o dia do startsAt
+    private static String meetupDate(MeetupDTO meetupDTO) {
+        if (meetupDTO.getMeetupDate() != null || meetupDTO.getStartsAt() == null) {
+            return meetupDTO.getMeetupDate();
+        }
+        return meetupDTO.getStartsAt().format(MEETUP_DATE);
     }
 
 
     @GetMapping
-    public Page<MeetupDTO> find(MeetupFilterDTO dto, Pageable pageRequest) {
-        Page<Meetup> result = meetupService.find(dto, pageRequest);
+    public PageEnvelope<MeetupDTO> find(MeetupFilterDTO dto, Pageable pageRequest,
+                                        @RequestParam(defaultValue = "false") boolean total,
+                                        @RequestParam(defaultValue = "false") boolean includeArchived) {
+        Slice<Meetup> result;
+        if (total) {
+            result = includeArchived ? meetupService.findIncludingArchived(dto, pageRequest) : meetupService.find(dto, pageRequest);
+        } else {
+            result = includeArchived ? meetupService.findSliceIncludingArchived(dto, pageRequest) : meetupService.findSlice(dto, pageRequest);
+        }
         List<MeetupDTO> meetups = result
                 .getContent()
                 .stream()
@@ -63,7 +96,7 @@ public class MeetupController {
                     return meetupDTO;
 
                 }).collect(Collectors.toList());
-        return new PageImpl<MeetupDTO>(meetups, pageRequest, result.getTotalElements());
+        return PageEnvelope.of(result, meetups, total);
     }
 
     @GetMapping("{id}")
@@ -77,20 +110,75 @@ public class MeetupController {
     }
 
 
+    @GetMapping("batch")
+    public BatchDTO<MeetupDTO> getBatch(@RequestParam List<Integer> ids) {
+        return batch(ids);
+    }
+
+    // para listas de ids grandes demais para a query string
+    @PostMapping("batch")
+    public BatchDTO<MeetupDTO> postBatch(@RequestBody List<Integer> ids) {
+        return batch(ids);
+    }
+
+    private BatchDTO<MeetupDTO> batch(List<Integer> ids) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BATCH_IDS + " ids per batch");
+        }
+        Map<Integer, Meetup> found = meetupService.getMeetupsByIds(ids);
+
+        return BatchDTO.<MeetupDTO>builder()
+                .items(found.values().stream()
+                        .map(meetup -> modelMapper.map(meetup, MeetupDTO.class))
+                        .collect(Collectors.toList()))
+                .missing(ids.stream().distinct().filter(id -> !found.containsKey(id)).collect(Collectors.toList()))
+                .build();
+    }
+
+
     @DeleteMapping("{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteByMeetupId(@PathVariable Integer id) {
+    public void deleteByMeetupId(@PathVariable Integer id, HttpServletResponse response) {
         Meetup meetup = meetupService.getMeetupById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        meetupService.delete(meetup);
+        // o job pega os participantes que o delete apagou e so roda depois do commit
+        String jobId = notificationFanout.prepareCancellation(id, meetup.getStartsAt());
+        try {
+            meetupService.delete(meetup);
+        } catch (RuntimeException e) {
+            notificationFanout.discard(jobId);
+            throw e;
+        }
+        response.setHeader(NOTIFICATION_JOB_HEADER, jobId);
+    }
+
+    @PostMapping("bulk/delete")
+    public BulkResultDTO bulkDelete(@RequestBody MeetupBulkDTO bulk) {
+        return new BulkResultDTO(meetupService.bulkDelete(bulk));
+    }
+
+    @PatchMapping("bulk")
+    public BulkResultDTO bulkUpdate(@RequestBody MeetupBulkDTO bulk) {
+        return new BulkResultDTO(meetupService.bulkUpdate(bulk));
     }
 
     @PutMapping("{id}")
-    public MeetupDTO update(@PathVariable Integer id, @RequestBody @Valid MeetupDTO meetupDTO) {
+    public MeetupDTO update(@PathVariable Integer id, @RequestBody @Valid MeetupDTO meetupDTO,
+                            HttpServletResponse response) {
         return meetupService.getMeetupById(id).map(meetup -> {
+            LocalDateTime previousStartsAt = meetup.getStartsAt();
             meetup.setRegistrationAttribute(meetupDTO.getRegistrationAttribute());
             meetup.setEvent(meetupDTO.getEvent());
+            // sem horario no corpo o meetup mantem o que ja tinha
+            if (meetupDTO.getStartsAt() != null) {
+                meetup.setStartsAt(meetupDTO.getStartsAt());
+                meetup.setEndsAt(meetupDTO.getEndsAt());
+                meetup.setVenue(meetupDTO.getVenue());
+            }
             meetup = meetupService.update(meetup);
+            if (meetup.getStartsAt() != null && !Objects.equals(previousStartsAt, meetup.getStartsAt())) {
+                response.setHeader(NOTIFICATION_JOB_HEADER, notificationFanout.submitRescheduled(id, meetup.getStartsAt()));
+            }
             return modelMapper.map(meetup, MeetupDTO.class);
         }).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
@@ -0,0 +1,25 @@
+package com.bootcamp.microservicemeetup.controller.resources;
+
+import com.bootcamp.microservicemeetup.controller.dto.FreeSlotsDTO;
+import com.bootcamp.microservicemeetup.controller.dto.SlotQueryDTO;
+import com.bootcamp.microservicemeetup.service.schedule.FreeSlotFinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+
+@RestController
+@RequestMapping("/api/meetups/slots")
+@RequiredArgsConstructor
+public class MeetupSlotController {
+
+    private final FreeSlotFinder freeSlotFinder;
+
+    @PostMapping
+    public FreeSlotsDTO find(@RequestBody @Valid SlotQueryDTO query) {
+        return freeSlotFinder.find(query);
+    }
+}
@@ -0,0 +1,35 @@
+package com.bootcamp.microservicemeetup.controller.resources;
+
+import com.bootcamp.microservicemeetup.controller.dto.NotificationJobDTO;
+import com.bootcamp.microservicemeetup.service.notification.NotificationFanout;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/notifications/jobs")
+@RequiredArgsConstructor
+public class NotificationJobController {
+
+    private final NotificationFanout notificationFanout;
+
+    @GetMapping("{id}")
+    public NotificationJobDTO get(@PathVariable String id) {
+        return notificationFanout.getJob(id)
+                .map(job -> NotificationJobDTO.builder()
+                        .id(job.getId())
+                        .meetupId(job.getMeetupId())
+                        .type(job.getType().name())
+                        .status(job.getStatus().name())
+                        .queued(job.getQueued().get())
+                        .delivered(job.getDelivered().get())
+                        .failed(job.getFailed().get())
+                        .retries(job.getRetries().get())
+                        .build())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+}
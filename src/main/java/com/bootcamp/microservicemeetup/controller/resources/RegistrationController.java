@@ -1,24 +1,29 @@
 package com.bootcamp.microservicemeetup.controller.resources;
 
+import com.bootcamp.microservicemeetup.controller.dto.BatchDTO;
+import com.bootcamp.microservicemeetup.controller.dto.BulkResultDTO;
+import com.bootcamp.microservicemeetup.controller.dto.PageEnvelope;
 import com.bootcamp.microservicemeetup.controller.dto.RegistrationDTO;
 import com.bootcamp.microservicemeetup.model.entity.Registration;
 import com.bootcamp.microservicemeetup.service.RegistrationService;
 import org.modelmapper.ModelMapper;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/registration")
 public class RegistrationController {
 
+    static final int MAX_BATCH_IDS = 5000;
+
     private RegistrationService registrationService;
     private ModelMapper modelMapper;
 
@@ -49,6 +54,32 @@ public class RegistrationController {
     }
 
 
+    @GetMapping("batch")
+    public BatchDTO<RegistrationDTO> getBatch(@RequestParam List<Integer> ids) {
+        return batch(ids);
+    }
+
+    // para listas de ids grandes demais para a query string
+    @PostMapping("batch")
+    public BatchDTO<RegistrationDTO> postBatch(@RequestBody List<Integer> ids) {
+        return batch(ids);
+    }
+
+    private BatchDTO<RegistrationDTO> batch(List<Integer> ids) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BATCH_IDS + " ids per batch");
+        }
+        Map<Integer, Registration> found = registrationService.getRegistrationsByIds(ids);
+
+        return BatchDTO.<RegistrationDTO>builder()
+                .items(found.values().stream()
+                        .map(registration -> modelMapper.map(registration, RegistrationDTO.class))
+                        .collect(Collectors.toList()))
+                .missing(ids.stream().distinct().filter(id -> !found.containsKey(id)).collect(Collectors.toList()))
+                .build();
+    }
+
+
     @DeleteMapping("{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteByRegistrationId(@PathVariable Integer id) {
@@ -59,6 +90,11 @@ public class RegistrationController {
     }
 
 
+    @PostMapping("bulk/delete")
+    public BulkResultDTO bulkDelete(@RequestBody List<Integer> ids) {
+        return new BulkResultDTO(registrationService.bulkDelete(ids));
+    }
+
     @PutMapping("{id}")
     public RegistrationDTO update(@PathVariable Integer id, RegistrationDTO registrationDTO) {
 
@@ -74,17 +110,19 @@ public class RegistrationController {
     }
 
     @GetMapping
-    public Page<RegistrationDTO> find(RegistrationDTO dto, Pageable pageRequest){
+    public PageEnvelope<RegistrationDTO> find(RegistrationDTO dto, Pageable pageRequest,
+                                              @RequestParam(defaultValue = "false") boolean total){
 
         Registration filter = modelMapper.map(dto, Registration.class);
-        Page<Registration> result = registrationService.find(filter, pageRequest);
+        Slice<Registration> result = total ? registrationService.find(filter, pageRequest)
+                : registrationService.findSlice(filter, pageRequest);
 
         List<RegistrationDTO> list = result.getContent()
                 .stream()
                 .map(entity -> modelMapper.map(entity, RegistrationDTO.class))
                 .collect(Collectors.toList());
 
-        return new PageImpl<RegistrationDTO>(list, pageRequest, result.getTotalElements());
+        return PageEnvelope.of(result, list, total);
 
     }
 }
@@ -0,0 +1,54 @@
+package com.bootcamp.microservicemeetup.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+
+// o meetup fica so como id: com o perfil sharded a tabela meetup mora nos shards e nao da para ter fk
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table
+public class Attendance implements Persistable<AttendanceId> {
+
+    @EmbeddedId
+    private AttendanceId id;
+
+    @MapsId("registrationId")
+    @JoinColumn(name = "registration_id")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Registration registration;
+
+    // chave atribuida pela aplicacao: sem isso o save faria um select antes de cada insert
+    @Transient
+    @Builder.Default
+    private boolean newEntity = true;
+
+    public static Attendance of(Integer meetupId, Registration registration) {
+        return Attendance.builder()
+                .id(new AttendanceId(meetupId, registration.getId()))
+                .registration(registration)
+                .build();
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newEntity = false;
+    }
+}
@@ -0,0 +1,22 @@
+package com.bootcamp.microservicemeetup.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class AttendanceId implements Serializable {
+
+    @Column(name = "meetup_id")
+    private Integer meetupId;
+
+    @Column(name = "registration_id")
+    private Integer registrationId;
+}
@@ -0,0 +1,33 @@
+package com.bootcamp.microservicemeetup.model.entity;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// relogio logico hibrido: milissegundos nos bits altos e um contador nos 12 bits baixos, crescente dentro do processo.
+// Entre reinicios o relogio sozinho nao garante nada (ele pode voltar): na subida o contador parte do maior
+// change_sequence gravado (seed, chamado pelo ChangeSequenceSeeder e pelos stores dos profiles logstore e sharded).
+// Vale para uma instancia so: duas instancias escrevendo no mesmo banco podem repetir valores
+public final class ChangeSequence {
+
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private ChangeSequence() {
+    }
+
+    // nunca anda para tras: um seed menor que o ultimo valor entregue nao muda nada
+    public static void seed(long floor) {
+        LAST.accumulateAndGet(floor, Math::max);
+    }
+
+    public static long next() {
+        long physical = System.currentTimeMillis() << 12;
+        return LAST.updateAndGet(last -> Math.max(last + 1, physical));
+    }
+
+    // reserva count valores consecutivos e devolve o primeiro; usado pelos updates em lote,
+    // que numeram cada linha com base + deslocamento no proprio SQL
+    public static long reserve(long count) {
+        long physical = System.currentTimeMillis() << 12;
+        long end = LAST.updateAndGet(last -> Math.max(last + 1, physical) + count - 1);
+        return end - count + 1;
+    }
+}
@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -33,4 +35,31 @@ public class Meetup {
 
     @Column
     private Boolean registered;
+
+    @Column(name = "change_sequence")
+    private Long changeSequence;
+
+    // mantido pelo AttendanceCounters
+    @Column(name = "attendee_count", insertable = false, updatable = false)
+    private Integer attendeeCount;
+
+    @Column(name = "starts_at")
+    private LocalDateTime startsAt;
+
+    @Column(name = "ends_at")
+    private LocalDateTime endsAt;
+
+    @Column
+    private String venue;
+
+    // copia indexavel de meetupDate, usada pelo corte do MeetupArchiver
+    @Column(name = "meetup_day")
+    private LocalDate meetupDay;
+
+    @PrePersist
+    @PreUpdate
+    void stampChangeSequence() {
+        changeSequence = ChangeSequence.next();
+        meetupDay = MeetupDates.parse(meetupDate);
+    }
 }
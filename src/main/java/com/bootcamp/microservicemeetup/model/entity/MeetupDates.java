@@ -0,0 +1,26 @@
+package com.bootcamp.microservicemeetup.model.entity;
+
+import java.time.LocalDate;
+
+public final class MeetupDates {
+
+    private MeetupDates() {
+    }
+
+    // datas sao gravadas como texto dd/MM/yyyy (ou dd/MM/yy); null quando fora do formato
+    public static LocalDate parse(String date) {
+        if (date == null) {
+            return null;
+        }
+        String[] parts = date.trim().split("/");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            int year = Integer.parseInt(parts[2]);
+            return LocalDate.of(year < 100 ? 2000 + year : year, Integer.parseInt(parts[1]), Integer.parseInt(parts[0]));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -31,5 +31,16 @@ public class Registration {
     @Column
     private String registration;
 
-
+    @Column(name = "change_sequence")
+    private Long changeSequence;
+
+    // mantido pelo AttendanceCounters
+    @Column(name = "meetup_count", insertable = false, updatable = false)
+    private Integer meetupCount;
+
+    @PrePersist
+    @PreUpdate
+    void stampChangeSequence() {
+        changeSequence = ChangeSequence.next();
+    }
 }
@@ -0,0 +1,38 @@
+package com.bootcamp.microservicemeetup.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table
+public class Tombstone {
+
+    public static final String MEETUP = "meetup";
+    public static final String REGISTRATION = "registration";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "entity_type")
+    private String entityType;
+
+    @Column(name = "entity_id")
+    private Integer entityId;
+
+    @Column(name = "change_sequence")
+    private Long changeSequence;
+
+    @PrePersist
+    void stampChangeSequence() {
+        changeSequence = ChangeSequence.next();
+    }
+}
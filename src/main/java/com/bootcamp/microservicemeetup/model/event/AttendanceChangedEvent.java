@@ -0,0 +1,18 @@
+package com.bootcamp.microservicemeetup.model.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// delta = +1 quando as pessoas passam a participar do meetup, -1 quando deixam
+@Getter
+@AllArgsConstructor
+public class AttendanceChangedEvent {
+
+    private final Integer meetupId;
+
+    private final List<Integer> registrationIds;
+
+    private final int delta;
+}
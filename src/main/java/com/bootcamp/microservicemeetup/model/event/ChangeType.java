@@ -0,0 +1,7 @@
+package com.bootcamp.microservicemeetup.model.event;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
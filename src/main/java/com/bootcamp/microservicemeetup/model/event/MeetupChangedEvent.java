@@ -0,0 +1,14 @@
+package com.bootcamp.microservicemeetup.model.event;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class MeetupChangedEvent {
+
+    private final ChangeType type;
+
+    private final Meetup meetup;
+}
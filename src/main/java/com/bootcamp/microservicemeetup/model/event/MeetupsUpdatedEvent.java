@@ -0,0 +1,17 @@
+package com.bootcamp.microservicemeetup.model.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// publicado pelo update em lote, que nao gera um MeetupChangedEvent por linha. event e o nome novo, ou null quando
+// o lote nao mexeu nele; o lote nao muda horario, local nem registration
+@Getter
+@AllArgsConstructor
+public class MeetupsUpdatedEvent {
+
+    private final List<Integer> ids;
+
+    private final String event;
+}
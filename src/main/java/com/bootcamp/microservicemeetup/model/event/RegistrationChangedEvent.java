@@ -0,0 +1,14 @@
+package com.bootcamp.microservicemeetup.model.event;
+
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RegistrationChangedEvent {
+
+    private final ChangeType type;
+
+    private final Registration registration;
+}
@@ -0,0 +1,14 @@
+package com.bootcamp.microservicemeetup.model.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// publicado pelo delete em lote, que nao gera um RegistrationChangedEvent por linha
+@Getter
+@AllArgsConstructor
+public class RegistrationsDeletedEvent {
+
+    private final List<Integer> ids;
+}
@@ -0,0 +1,21 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+
+// as buscas em SQL nativo: o union por registration ou evento e o includeArchived, porque meetup_archive nao tem
+// entidade. A ordenacao do Pageable e traduzida para as colunas na implementacao
+public interface ArchivedMeetupSearch {
+
+    Page<Meetup> findByRegistrationOnMeetup(String registration, String event, Pageable pageable);
+
+    Page<Meetup> findAllIncludingArchived(Pageable pageable);
+
+    Page<Meetup> findByRegistrationOnMeetupIncludingArchived(String registration, String event, Pageable pageable);
+
+    Page<Meetup> findIncludingArchived(String registration, String event, LocalDate from, LocalDate to,
+                                       Boolean registered, Pageable pageable);
+}
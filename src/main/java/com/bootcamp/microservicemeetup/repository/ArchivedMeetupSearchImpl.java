@@ -0,0 +1,155 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// mesmas regras do MeetupFilterEngine: registration e evento juntos sao "um ou outro", em dois ramos disjuntos
+// para cada lado usar o seu indice; os demais campos restringem. Cada ramo vira um select em meetup e outro em
+// meetup_archive, todos num union all
+public class ArchivedMeetupSearchImpl implements ArchivedMeetupSearch {
+
+    private static final String REGISTRATION_IDS = "select b.registration_id from registration b where b.registration = :registration";
+
+    private static final Map<String, String> SORT_COLUMNS = new HashMap<>();
+
+    static {
+        SORT_COLUMNS.put("id", "id");
+        SORT_COLUMNS.put("event", "event");
+        SORT_COLUMNS.put("meetupDate", "meetup_date");
+        SORT_COLUMNS.put("meetupDay", "meetup_day");
+        SORT_COLUMNS.put("registrationAttribute", "registration_attribute");
+        SORT_COLUMNS.put("registered", "registered");
+        SORT_COLUMNS.put("changeSequence", "change_sequence");
+        SORT_COLUMNS.put("attendeeCount", "attendee_count");
+        SORT_COLUMNS.put("startsAt", "starts_at");
+        SORT_COLUMNS.put("endsAt", "ends_at");
+        SORT_COLUMNS.put("venue", "venue");
+    }
+
+    private final EntityManager entityManager;
+
+    public ArchivedMeetupSearchImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<Meetup> findByRegistrationOnMeetup(String registration, String event, Pageable pageable) {
+        return page(" select m.* from meetup m where m.id in (" + MeetupRepository.REGISTRATION_OR_EVENT_IDS + ") ",
+                registration, event, pageable);
+    }
+
+    @Override
+    public Page<Meetup> findAllIncludingArchived(Pageable pageable) {
+        return page(MeetupRepository.MEETUPS_WITH_ARCHIVE, null, null, pageable);
+    }
+
+    @Override
+    public Page<Meetup> findByRegistrationOnMeetupIncludingArchived(String registration, String event, Pageable pageable) {
+        return page(MeetupRepository.FILTERED_MEETUPS_WITH_ARCHIVE, registration, event, pageable);
+    }
+
+    @Override
+    public Page<Meetup> findIncludingArchived(String registration, String event, LocalDate from, LocalDate to,
+                                              Boolean registered, Pageable pageable) {
+        String union = union(registration, event, from, to, registered, "meetup", "meetup_archive");
+
+        Query count = bind(entityManager.createNativeQuery("select count(*) from (" + union + ") m"),
+                registration, event, from, to, registered);
+        Query select = bind(entityManager.createNativeQuery("select m.* from (" + union + ") m" + orderBy(pageable.getSort()),
+                Meetup.class), registration, event, from, to, registered);
+        return page(select, count, pageable);
+    }
+
+    // as queries do MeetupRepository, que nao podem ser @Query nativas com Pageable: o Spring Data colaria o sort
+    // com os nomes das propriedades (order by m.meetupDate), que nao existem como colunas
+    private Page<Meetup> page(String rows, String registration, String event, Pageable pageable) {
+        Query count = bind(entityManager.createNativeQuery("select count(*) from (" + rows + ") m"),
+                registration, event, null, null, null);
+        Query select = bind(entityManager.createNativeQuery("select m.* from (" + rows + ") m" + orderBy(pageable.getSort()),
+                Meetup.class), registration, event, null, null, null);
+        return page(select, count, pageable);
+    }
+
+    static Page<Meetup> page(Query select, Query count, Pageable pageable) {
+        long total = ((Number) count.getSingleResult()).longValue();
+        if (pageable.isPaged()) {
+            select.setFirstResult((int) pageable.getOffset());
+            select.setMaxResults(pageable.getPageSize());
+        }
+        @SuppressWarnings("unchecked")
+        List<Meetup> content = select.getResultList();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    // tambem usado pelo MeetupSliceSearchImpl e pelo MeetupFilterSearchImpl (so a tabela meetup)
+    static String union(String registration, String event, LocalDate from, LocalDate to, Boolean registered,
+                        String... tables) {
+        List<String> branches = new ArrayList<>();
+        if (registration != null) {
+            branches.add("id_registration in (" + REGISTRATION_IDS + ")");
+        }
+        if (event != null) {
+            // o que o ramo da registration ja trouxe sai daqui, para a contagem somar sem repetir
+            branches.add(registration == null ? "event = :event"
+                    : "event = :event and id_registration is not null and id_registration not in (" + REGISTRATION_IDS + ")");
+        }
+        if (branches.isEmpty()) {
+            branches.add("1 = 1");
+        }
+        String narrowing = (from == null ? "" : " and meetup_day >= :from")
+                + (to == null ? "" : " and meetup_day <= :to")
+                + (registered == null ? "" : " and registered = :registered");
+
+        List<String> selects = new ArrayList<>();
+        for (String table : tables) {
+            for (String branch : branches) {
+                selects.add("select" + MeetupRepository.COLUMNS + "from " + table + " where " + branch + narrowing);
+            }
+        }
+        return String.join(" union all ", selects);
+    }
+
+    static Query bind(Query query, String registration, String event, LocalDate from, LocalDate to, Boolean registered) {
+        if (registration != null) {
+            query.setParameter("registration", registration);
+        }
+        if (event != null) {
+            query.setParameter("event", event);
+        }
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+        if (registered != null) {
+            query.setParameter("registered", registered);
+        }
+        return query;
+    }
+
+    // a ordem pedida e depois o id, para a paginacao ser estavel entre as duas tabelas
+    static String orderBy(Sort sort) {
+        List<String> terms = new ArrayList<>();
+        for (Sort.Order order : sort.and(Sort.by("id"))) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new BusinessException("Cannot sort meetups by " + order.getProperty());
+            }
+            terms.add("m." + column + (order.isAscending() ? " asc" : " desc"));
+        }
+        return " order by " + String.join(", ", terms);
+    }
+}
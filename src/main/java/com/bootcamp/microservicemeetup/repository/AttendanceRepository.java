@@ -0,0 +1,54 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import com.bootcamp.microservicemeetup.model.entity.Attendance;
+import com.bootcamp.microservicemeetup.model.entity.AttendanceId;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface AttendanceRepository extends JpaRepository<Attendance, AttendanceId> {
+
+    // keyset pela pk (meetup_id, registration_id): o custo nao cresce com a pagina
+    @Query( value = " select r from Attendance as a join a.registration as r "
+            + " where a.id.meetupId = :meetupId and a.id.registrationId > :after order by a.id.registrationId ")
+    List<Registration> findAttendees(@Param("meetupId") Integer meetupId, @Param("after") Integer after, Pageable pageable);
+
+    // so os ids, para quem percorre todos os participantes em blocos (lembretes, notificacoes)
+    @Query( value = " select a.id.registrationId from Attendance as a "
+            + " where a.id.meetupId = :meetupId and a.id.registrationId > :after order by a.id.registrationId ")
+    List<Integer> findAttendeeIds(@Param("meetupId") Integer meetupId, @Param("after") Integer after, Pageable pageable);
+
+    @Query( value = " select a.id.meetupId from Attendance as a where a.id.registrationId = :registrationId order by a.id.meetupId ",
+            countQuery = " select count(a) from Attendance as a where a.id.registrationId = :registrationId ")
+    Page<Integer> findMeetupIdsByRegistrationId(@Param("registrationId") Integer registrationId, Pageable pageable);
+
+    @Query( value = " select a.id.registrationId from Attendance as a where a.id.meetupId = :meetupId ")
+    List<Integer> findRegistrationIdsByMeetupId(@Param("meetupId") Integer meetupId);
+
+    // presenca de um bloco de meetups, para a carga do ScheduleIndex: os meetups vem do MeetupOperations do profile
+    @Query( value = " select a.id from Attendance as a where a.id.meetupId in :meetupIds ")
+    List<AttendanceId> findIdsByMeetupIdIn(@Param("meetupIds") Collection<Integer> meetupIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query( value = " delete from Attendance as a where a.id.meetupId = :meetupId ")
+    int deleteByMeetupId(@Param("meetupId") Integer meetupId);
+
+    // delete em lote de meetups: o contador das pessoas cai junto com a presenca, na mesma transacao
+    @Modifying(flushAutomatically = true)
+    @Query( value = " update registration r set meetup_count = meetup_count - "
+            + " (select count(*) from attendance a where a.registration_id = r.registration_id and a.meetup_id in :ids) "
+            + " where r.registration_id in (select a.registration_id from attendance a where a.meetup_id in :ids) ",
+            nativeQuery = true)
+    int decrementMeetupCountsByMeetupIdIn(@Param("ids") Collection<Integer> meetupIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query( value = " delete from attendance where meetup_id in :ids ", nativeQuery = true)
+    int deleteByMeetupIdIn(@Param("ids") Collection<Integer> meetupIds);
+}
@@ -0,0 +1,19 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDate;
+
+// registration ou evento com intervalo de datas/registered da versao JPA: os dois ramos disjuntos num union all
+// de uma query so, com o offset e a ordem resolvidos no banco
+public interface MeetupFilterSearch {
+
+    Page<Meetup> findByRegistrationOrEvent(String registration, String event, LocalDate from, LocalDate to,
+                                           Boolean registered, Pageable pageable);
+
+    Slice<Meetup> findSliceByRegistrationOrEvent(String registration, String event, LocalDate from, LocalDate to,
+                                                 Boolean registered, Pageable pageable);
+}
@@ -0,0 +1,43 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.time.LocalDate;
+
+// o mesmo union do ArchivedMeetupSearchImpl, so na tabela meetup
+public class MeetupFilterSearchImpl implements MeetupFilterSearch {
+
+    private final EntityManager entityManager;
+
+    public MeetupFilterSearchImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<Meetup> findByRegistrationOrEvent(String registration, String event, LocalDate from, LocalDate to,
+                                                  Boolean registered, Pageable pageable) {
+        String union = ArchivedMeetupSearchImpl.union(registration, event, from, to, registered, "meetup");
+
+        Query count = ArchivedMeetupSearchImpl.bind(entityManager.createNativeQuery("select count(*) from (" + union + ") m"),
+                registration, event, from, to, registered);
+        return ArchivedMeetupSearchImpl.page(select(union, registration, event, from, to, registered, pageable), count, pageable);
+    }
+
+    @Override
+    public Slice<Meetup> findSliceByRegistrationOrEvent(String registration, String event, LocalDate from, LocalDate to,
+                                                        Boolean registered, Pageable pageable) {
+        String union = ArchivedMeetupSearchImpl.union(registration, event, from, to, registered, "meetup");
+        return Slices.of(select(union, registration, event, from, to, registered, pageable), pageable);
+    }
+
+    private Query select(String union, String registration, String event, LocalDate from, LocalDate to,
+                         Boolean registered, Pageable pageable) {
+        return ArchivedMeetupSearchImpl.bind(entityManager.createNativeQuery("select m.* from (" + union + ") m"
+                + ArchivedMeetupSearchImpl.orderBy(pageable.getSort()), Meetup.class), registration, event, from, to, registered);
+    }
+}
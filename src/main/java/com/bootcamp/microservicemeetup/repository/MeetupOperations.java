@@ -0,0 +1,53 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// o que os servicos usam dos meetups. O MeetupRepository (JPA) herda e responde tudo pelo Spring Data;
+// os profiles sharded e logstore implementam so isto, sem passar pelo resto do JpaRepository
+public interface MeetupOperations extends ArchivedMeetupSearch {
+
+    <S extends Meetup> S save(S meetup);
+
+    <S extends Meetup> List<S> saveAll(Iterable<S> meetups);
+
+    Optional<Meetup> findById(Integer id);
+
+    boolean existsById(Integer id);
+
+    List<Meetup> findByIdIn(Collection<Integer> ids);
+
+    void delete(Meetup meetup);
+
+    boolean existsByEvent(String event);
+
+    List<String> findExistingEvents(Collection<String> events);
+
+    List<Integer> findIdsByEvent(String event);
+
+    Page<Meetup> findAll(Pageable pageable);
+
+    Page<Meetup> findByRegistration(Registration registration, Pageable pageable);
+
+    List<Meetup> findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(Long changeSequence, Pageable pageable);
+
+    // em paginas por id, para a carga dos indices em memoria (ScheduleIndex, ReminderScheduler) em qualquer profile
+    List<Meetup> findByStartsAtAfterAndIdGreaterThanOrderByIdAsc(LocalDateTime startsAt, Integer id, Pageable pageable);
+
+    List<Meetup> findByEndsAtAfterAndIdGreaterThanOrderByIdAsc(LocalDateTime endsAt, Integer id, Pageable pageable);
+
+    int updateByIdIn(Collection<Integer> ids, String newEvent, String meetupDate, LocalDate meetupDay,
+                     Boolean registered, long base);
+
+    int insertTombstonesByIdIn(Collection<Integer> ids, long base);
+
+    int deleteByIdIn(Collection<Integer> ids);
+}
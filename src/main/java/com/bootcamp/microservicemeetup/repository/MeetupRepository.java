@@ -2,23 +2,96 @@ package com.bootcamp.microservicemeetup.repository;
 
 import com.bootcamp.microservicemeetup.model.entity.Meetup;
 import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.model.entity.Tombstone;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface MeetupRepository extends JpaRepository<Meetup, Integer> {
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
-    @Query( value = " select l from Meetup as l join l.registration as b where b.registration = :registration or l.event =:event ")
-    Page<Meetup> findByRegistrationOnMeetup(
-            @Param("registration") String registration,
-            @Param("event") String event,
-            Pageable pageable
-    );
+public interface MeetupRepository extends JpaRepository<Meetup, Integer>, JpaSpecificationExecutor<Meetup>,
+        ArchivedMeetupSearch, MeetupSliceSearch, MeetupFilterSearch, MeetupOperations {
+
+    // o OR entre duas tabelas impede o uso de indice; cada lado do UNION usa o seu
+    String REGISTRATION_OR_EVENT_IDS = " select l.id from meetup l join registration b on b.registration_id = l.id_registration"
+            + " where b.registration = :registration"
+            + " union select l.id from meetup l where l.event = :event and l.id_registration is not null ";
+
+    // colunas comuns a meetup e meetup_archive (ver MeetupArchiver)
+    String COLUMNS = " id, event, id_registration, meetup_date, registration_attribute, registered, "
+            + " change_sequence, attendee_count, meetup_day, starts_at, ends_at, venue ";
+
+    // findByRegistrationOnMeetup e os includeArchived ficam no ArchivedMeetupSearchImpl, que ordena pelas colunas.
+    // includeArchived: o filtro vai para dentro de cada lado do union all, onde os indices de cada tabela valem
+    String MEETUPS_WITH_ARCHIVE = " select" + COLUMNS + "from meetup union all select" + COLUMNS + "from meetup_archive ";
+    String FILTERED_MEETUPS_WITH_ARCHIVE = " select" + COLUMNS + "from meetup where id in (" + REGISTRATION_OR_EVENT_IDS + ")"
+            + " union all select" + COLUMNS + "from meetup_archive where registration_attribute = :registration"
+            + " union all select" + COLUMNS + "from meetup_archive where event = :event and id_registration is not null"
+            + " and (registration_attribute is null or registration_attribute <> :registration) ";
 
     Page<Meetup> findByRegistration(Registration registration, Pageable pageable );
 
-    boolean existsByEvent(String event);
+    // o nome do evento continua ocupado depois que o meetup vai para o arquivo
+    @Query( value = " select case when exists (select 1 from meetup where event = :event)"
+            + " or exists (select 1 from meetup_archive where event = :event) then true else false end ",
+            nativeQuery = true)
+    boolean existsByEvent(@Param("event") String event);
+
+    @Query( value = " select event from meetup where event in (:events)"
+            + " union select event from meetup_archive where event in (:events) ",
+            nativeQuery = true)
+    List<String> findExistingEvents(@Param("events") Collection<String> events);
+
+    List<Meetup> findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(Long changeSequence, Pageable pageable);
+
+    // traz a registration no mesmo select em vez de um select por linha
+    @EntityGraph(attributePaths = "registration")
+    List<Meetup> findByIdIn(Collection<Integer> ids);
+
+    @EntityGraph(attributePaths = "registration")
+    List<Meetup> findByStartsAtAfterAndIdGreaterThanOrderByIdAsc(LocalDateTime startsAt, Integer id, Pageable pageable);
+
+    @EntityGraph(attributePaths = "registration")
+    List<Meetup> findByEndsAtAfterAndIdGreaterThanOrderByIdAsc(LocalDateTime endsAt, Integer id, Pageable pageable);
+
+    @Query( value = " select l.id from Meetup as l where l.event = :event ")
+    List<Integer> findIdsByEvent(@Param("event") String event);
+
+    // operacoes em lote: um statement por bloco de ids, sem carregar as entidades.
+    // clearAutomatically descarta do contexto de persistencia as entidades que ficaram velhas
+    // e cada linha recebe a sua change_sequence (base + posicao do id no bloco) para o delta sync continuar paginando;
+    // a posicao conta os ids do bloco abaixo do id da linha, entao o bloco reserva so chunk.size() sequencias
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query( value = " update Meetup l set l.event = coalesce(:newEvent, l.event), "
+            + " l.meetupDate = coalesce(:meetupDate, l.meetupDate), "
+            + " l.meetupDay = case when :meetupDate is null then l.meetupDay else :meetupDay end, "
+            + " l.registered = coalesce(:registered, l.registered), "
+            + " l.changeSequence = :base + (select count(x) from Meetup as x where x.id in :ids and x.id < l.id) "
+            + " where l.id in :ids ")
+    int updateByIdIn(@Param("ids") Collection<Integer> ids,
+                     @Param("newEvent") String newEvent,
+                     @Param("meetupDate") String meetupDate,
+                     @Param("meetupDay") LocalDate meetupDay,
+                     @Param("registered") Boolean registered,
+                     @Param("base") long base);
+
+    @Modifying(flushAutomatically = true)
+    @Query( value = " insert into tombstone (entity_type, entity_id, change_sequence) "
+            + " select '" + Tombstone.MEETUP + "', m.id, :base + (select count(*) from meetup x where x.id in :ids and x.id < m.id) "
+            + " from meetup m where m.id in :ids ",
+            nativeQuery = true)
+    int insertTombstonesByIdIn(@Param("ids") Collection<Integer> ids, @Param("base") long base);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query( value = " delete from Meetup l where l.id in :ids ")
+    int deleteByIdIn(@Param("ids") Collection<Integer> ids);
 
 }
@@ -0,0 +1,18 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+// as listagens sem total (?total=false) da versao JPA: as mesmas buscas do JpaSpecificationExecutor e do
+// ArchivedMeetupSearch, sem o count
+public interface MeetupSliceSearch {
+
+    Slice<Meetup> findSlice(Specification<Meetup> specification, Pageable pageable);
+
+    Slice<Meetup> findSliceIncludingArchived(String registration, String event, LocalDate from, LocalDate to,
+                                             Boolean registered, Pageable pageable);
+}
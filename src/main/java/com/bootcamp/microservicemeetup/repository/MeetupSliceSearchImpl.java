@@ -0,0 +1,47 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDate;
+
+public class MeetupSliceSearchImpl implements MeetupSliceSearch {
+
+    private final EntityManager entityManager;
+
+    public MeetupSliceSearchImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Slice<Meetup> findSlice(Specification<Meetup> specification, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Meetup> query = builder.createQuery(Meetup.class);
+        Root<Meetup> root = query.from(Meetup.class);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+        return Slices.of(entityManager.createQuery(query), pageable);
+    }
+
+    @Override
+    public Slice<Meetup> findSliceIncludingArchived(String registration, String event, LocalDate from, LocalDate to,
+                                                    Boolean registered, Pageable pageable) {
+        String union = ArchivedMeetupSearchImpl.union(registration, event, from, to, registered,
+                "meetup", "meetup_archive");
+        Query select = ArchivedMeetupSearchImpl.bind(entityManager.createNativeQuery("select m.* from (" + union + ") m"
+                + ArchivedMeetupSearchImpl.orderBy(pageable.getSort()), Meetup.class), registration, event, from, to, registered);
+        return Slices.of(select, pageable);
+    }
+}
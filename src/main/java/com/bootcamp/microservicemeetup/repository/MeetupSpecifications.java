@@ -0,0 +1,44 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.time.LocalDate;
+
+// predicados do filtro de meetups, cada um numa coluna indexada (event, id_registration, meetup_day).
+// O atributo de registration vira um IN por subquery em vez de join: o indice de registration acha os ids
+// e o de id_registration acha os meetups. Valor nulo devolve null, que o Specification ignora
+public final class MeetupSpecifications {
+
+    private MeetupSpecifications() {
+    }
+
+    public static Specification<Meetup> hasEvent(String event) {
+        return event == null ? null : (root, query, cb) -> cb.equal(root.get("event"), event);
+    }
+
+    public static Specification<Meetup> hasRegistration(String registration) {
+        return registration == null ? null : (root, query, cb) -> {
+            Subquery<Integer> ids = query.subquery(Integer.class);
+            Root<Registration> owner = ids.from(Registration.class);
+            ids.select(owner.get("id")).where(cb.equal(owner.get("registration"), registration));
+            return root.get("registration").get("id").in(ids);
+        };
+    }
+
+    public static Specification<Meetup> dayFrom(LocalDate from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("meetupDay"), from);
+    }
+
+    public static Specification<Meetup> dayTo(LocalDate to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("meetupDay"), to);
+    }
+
+    // pouca seletividade e sem indice: so faz sentido junto de outro predicado
+    public static Specification<Meetup> isRegistered(Boolean registered) {
+        return registered == null ? null : (root, query, cb) -> cb.equal(root.get("registered"), registered);
+    }
+}
@@ -0,0 +1,39 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// o que os servicos usam das registrations. O RegistrationRepository (JPA) herda e responde tudo pelo Spring Data;
+// o profile logstore implementa so isto, sem passar pelo resto do JpaRepository
+public interface RegistrationOperations extends RegistrationSliceSearch {
+
+    <S extends Registration> S save(S registration);
+
+    Optional<Registration> findById(Integer id);
+
+    void delete(Registration registration);
+
+    boolean existsByRegistration(String registration);
+
+    Optional<Registration> findByRegistration(String registration);
+
+    <S extends Registration> Page<S> findAll(Example<S> example, Pageable pageable);
+
+    List<Registration> findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(Long changeSequence, Pageable pageable);
+
+    List<Object[]> findNamesAfter(Integer after, Pageable pageable);
+
+    List<Object[]> findIdsByRegistrationIn(Collection<String> registrations);
+
+    List<Integer> findIdsWithMeetups(Collection<Integer> ids);
+
+    int insertTombstonesByIdIn(Collection<Integer> ids, long base);
+
+    int deleteByIdIn(Collection<Integer> ids);
+}
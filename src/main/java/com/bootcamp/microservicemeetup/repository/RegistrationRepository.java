@@ -1,13 +1,51 @@
 package com.bootcamp.microservicemeetup.repository;
 
 import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.model.entity.Tombstone;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface RegistrationRepository extends JpaRepository<Registration, Integer> {
+public interface RegistrationRepository extends JpaRepository<Registration, Integer>, RegistrationSliceSearch,
+        RegistrationOperations {
 
     boolean existsByRegistration(String registration);
 
     Optional<Registration> findByRegistration(String registrationAtrb);
+
+    List<Registration> findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(Long changeSequence, Pageable pageable);
+
+    @Query( value = " select l.id, l.name from Registration as l where l.id > :after order by l.id ")
+    List<Object[]> findNamesAfter(@Param("after") Integer after, Pageable pageable);
+
+    @Query( value = " select l.registration, l.id from Registration as l where l.registration in :registrations ")
+    List<Object[]> findIdsByRegistrationIn(@Param("registrations") Collection<String> registrations);
+
+    // quem ainda tem meetup ou presenca nao pode sair: o ON DELETE CASCADE da attendance apagaria a presenca
+    // sem tombstone nem evento, e os contadores do meetup ficariam errados. O arquivo conta tambem
+    // (fk_meetup_archive_registration nao tem cascade)
+    @Query( value = " select m.id_registration from meetup m where m.id_registration in :ids "
+            + " union select a.registration_id from attendance a where a.registration_id in :ids "
+            + " union select m.id_registration from meetup_archive m where m.id_registration in :ids "
+            + " union select a.registration_id from attendance_archive a where a.registration_id in :ids ",
+            nativeQuery = true)
+    List<Integer> findIdsWithMeetups(@Param("ids") Collection<Integer> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query( value = " insert into tombstone (entity_type, entity_id, change_sequence) "
+            + " select '" + Tombstone.REGISTRATION + "', r.registration_id, :base + "
+            + " (select count(*) from registration x where x.registration_id in :ids and x.registration_id < r.registration_id) "
+            + " from registration r where r.registration_id in :ids ",
+            nativeQuery = true)
+    int insertTombstonesByIdIn(@Param("ids") Collection<Integer> ids, @Param("base") long base);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query( value = " delete from Registration l where l.id in :ids ")
+    int deleteByIdIn(@Param("ids") Collection<Integer> ids);
 }
@@ -0,0 +1,12 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+// o findAll(Example, Pageable) sem o count, para a listagem sem total (?total=false)
+public interface RegistrationSliceSearch {
+
+    Slice<Registration> findSlice(Example<Registration> example, Pageable pageable);
+}
@@ -0,0 +1,27 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import javax.persistence.Query;
+import java.util.List;
+
+// pagina sem count: uma linha alem do tamanho pedido diz se existe a proxima
+final class Slices {
+
+    private Slices() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> Slice<T> of(Query query, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.getResultList());
+        }
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<T> content = query.getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+}
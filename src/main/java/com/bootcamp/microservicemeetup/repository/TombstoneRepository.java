@@ -0,0 +1,12 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import com.bootcamp.microservicemeetup.model.entity.Tombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    List<Tombstone> findByEntityTypeAndChangeSequenceGreaterThanOrderByChangeSequenceAsc(String entityType, Long changeSequence, Pageable pageable);
+}
@@ -0,0 +1,289 @@
+package com.bootcamp.microservicemeetup.repository.log;
+
+import com.bootcamp.microservicemeetup.model.entity.ChangeSequence;
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.entity.MeetupDates;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// meetups sobre um LogStore, com indices em memoria por evento, por id da registration e por change_sequence.
+// A registration de cada meetup e resolvida no LogRegistrationStore, uma leitura por id distinto da pagina
+public class LogMeetupStore {
+
+    private final LogStore log;
+    private final LogRegistrationStore registrations;
+    private final Map<String, Set<Integer>> byEvent = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Integer>> byRegistration = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Long, Integer> bySequence = new ConcurrentSkipListMap<>();
+
+    public LogMeetupStore(LogStore log, LogRegistrationStore registrations) {
+        this.log = log;
+        this.registrations = registrations;
+        log.forEachId(0, id -> index(RecordCodec.decodeMeetup(id, log.get(id))));
+        if (!bySequence.isEmpty()) {
+            ChangeSequence.seed(bySequence.lastKey());
+        }
+    }
+
+    public LogStore getLog() {
+        return log;
+    }
+
+    // como no @PrePersist/@PreUpdate da entidade; id desconhecido vira insert com id novo, como o merge do JPA
+    public synchronized Meetup save(Meetup meetup) {
+        meetup.setChangeSequence(ChangeSequence.next());
+        meetup.setMeetupDay(MeetupDates.parse(meetup.getMeetupDate()));
+        write(meetup);
+        return meetup;
+    }
+
+    public List<Meetup> saveAll(Iterable<Meetup> meetups) {
+        List<Meetup> saved = new ArrayList<>();
+        meetups.forEach(meetup -> saved.add(save(meetup)));
+        return saved;
+    }
+
+    public Optional<Meetup> findById(Integer id) {
+        return findByIdIn(Collections.singletonList(id)).stream().findFirst();
+    }
+
+    public List<Meetup> findByIdIn(Collection<Integer> ids) {
+        List<Meetup> found = new ArrayList<>();
+        for (Integer id : ids) {
+            Meetup meetup = load(id);
+            if (meetup != null) {
+                found.add(meetup);
+            }
+        }
+        return resolveRegistrations(found);
+    }
+
+    public boolean existsById(Integer id) {
+        return id != null && log.contains(id);
+    }
+
+    public boolean existsByEvent(String event) {
+        return !idsOf(byEvent, event).isEmpty();
+    }
+
+    public List<String> findExistingEvents(Collection<String> events) {
+        return events.stream().distinct().filter(this::existsByEvent).collect(Collectors.toList());
+    }
+
+    public List<Integer> findIdsByEvent(String event) {
+        return new ArrayList<>(new TreeSet<>(idsOf(byEvent, event)));
+    }
+
+    // meetups ligados a quem tem o atributo de registration, ou do evento e com registration (a uniao da query do JPA)
+    public Page<Meetup> findByRegistrationOnMeetup(String registration, String event, Pageable pageable) {
+        TreeSet<Integer> ids = new TreeSet<>();
+        for (Integer registrationId : registrations.findIdsByRegistration(registration)) {
+            ids.addAll(idsOf(byRegistration, registrationId));
+        }
+        for (Integer id : idsOf(byEvent, event)) {
+            Meetup meetup = load(id);
+            if (meetup != null && meetup.getRegistration() != null) {
+                ids.add(id);
+            }
+        }
+        return page(new ArrayList<>(ids), pageable);
+    }
+
+    public Page<Meetup> findByRegistration(Registration registration, Pageable pageable) {
+        return page(new ArrayList<>(new TreeSet<>(idsOf(byRegistration, registration.getId()))), pageable);
+    }
+
+    public Page<Meetup> findAll(Pageable pageable) {
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        int size = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        return new PageImpl<>(findByIdIn(log.page(offset, size)), pageable, log.count());
+    }
+
+    public List<Meetup> findByChangeSequenceGreaterThan(Long changeSequence, Pageable pageable) {
+        List<Meetup> found = new ArrayList<>();
+        for (Integer id : bySequence.tailMap(changeSequence, false).values()) {
+            if (found.size() >= pageable.getPageSize()) {
+                break;
+            }
+            Meetup meetup = load(id);
+            if (meetup != null) {
+                found.add(meetup);
+            }
+        }
+        return resolveRegistrations(found);
+    }
+
+    // sem indice por horario: percorre o log em ordem de id a partir de afterId. So a carga dos indices em memoria usa
+    public List<Meetup> findScheduledAfter(Function<Meetup, LocalDateTime> time, LocalDateTime after, Integer afterId,
+                                           Pageable pageable) {
+        List<Meetup> found = new ArrayList<>();
+        int cursor = afterId;
+        List<Integer> ids;
+        do {
+            ids = log.idsAfter(cursor, pageable.getPageSize());
+            for (Integer id : ids) {
+                Meetup meetup = load(id);
+                LocalDateTime value = meetup == null ? null : time.apply(meetup);
+                if (value != null && value.isAfter(after)) {
+                    found.add(meetup);
+                    if (found.size() == pageable.getPageSize()) {
+                        return resolveRegistrations(found);
+                    }
+                }
+                cursor = id;
+            }
+        } while (ids.size() == pageable.getPageSize());
+        return resolveRegistrations(found);
+    }
+
+    // mesma semantica do update em lote do JPA: campos nulos ficam como estao e cada linha ganha base + a posicao
+    // dela entre as linhas do bloco, em ordem de id
+    public synchronized int updateByIdIn(Collection<Integer> ids, String newEvent, String meetupDate, LocalDate meetupDay,
+                                         Boolean registered, long base) {
+        int updated = 0;
+        for (Integer id : new TreeSet<>(ids)) {
+            Meetup meetup = load(id);
+            if (meetup == null) {
+                continue;
+            }
+            if (newEvent != null) {
+                meetup.setEvent(newEvent);
+            }
+            if (meetupDate != null) {
+                meetup.setMeetupDate(meetupDate);
+                meetup.setMeetupDay(meetupDay);
+            }
+            if (registered != null) {
+                meetup.setRegistered(registered);
+            }
+            meetup.setChangeSequence(base + updated);
+            write(meetup);
+            updated++;
+        }
+        return updated;
+    }
+
+    public synchronized boolean deleteById(Integer id) {
+        byte[] previous = id == null ? null : log.delete(id);
+        if (previous == null) {
+            return false;
+        }
+        unindex(RecordCodec.decodeMeetup(id, previous));
+        return true;
+    }
+
+    public int deleteByIdIn(Collection<Integer> ids) {
+        int deleted = 0;
+        for (Integer id : ids) {
+            if (deleteById(id)) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    public List<Integer> findRegistrationIdsWithMeetups(Collection<Integer> registrationIds) {
+        return registrationIds.stream().distinct()
+                .filter(id -> !idsOf(byRegistration, id).isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    public long count() {
+        return log.count();
+    }
+
+    private void write(Meetup meetup) {
+        byte[] payload = RecordCodec.encode(meetup);
+        byte[] previous = meetup.getId() == null ? null : log.update(meetup.getId(), payload);
+        if (previous == null) {
+            meetup.setId(log.insert(payload));
+        } else {
+            unindex(RecordCodec.decodeMeetup(meetup.getId(), previous));
+        }
+        index(meetup);
+    }
+
+    private Meetup load(Integer id) {
+        byte[] payload = id == null ? null : log.get(id);
+        return payload == null ? null : RecordCodec.decodeMeetup(id, payload);
+    }
+
+    private Page<Meetup> page(List<Integer> ids, Pageable pageable) {
+        Page<Integer> page = LogRegistrationStore.page(ids, pageable);
+        return new PageImpl<>(findByIdIn(page.getContent()), pageable, page.getTotalElements());
+    }
+
+    private List<Meetup> resolveRegistrations(List<Meetup> meetups) {
+        Set<Integer> ids = meetups.stream().filter(meetup -> meetup.getRegistration() != null)
+                .map(meetup -> meetup.getRegistration().getId()).collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return meetups;
+        }
+        Map<Integer, Registration> found = new HashMap<>();
+        registrations.findAllById(ids).forEach(registration -> found.put(registration.getId(), registration));
+        meetups.forEach(meetup -> {
+            if (meetup.getRegistration() != null) {
+                meetup.setRegistration(found.get(meetup.getRegistration().getId()));
+            }
+        });
+        return meetups;
+    }
+
+    private static <K> Set<Integer> idsOf(Map<K, Set<Integer>> index, K key) {
+        return key == null ? Collections.emptySet() : index.getOrDefault(key, Collections.emptySet());
+    }
+
+    private void index(Meetup meetup) {
+        add(byEvent, meetup.getEvent(), meetup.getId());
+        add(byRegistration, registrationId(meetup), meetup.getId());
+        if (meetup.getChangeSequence() != null) {
+            bySequence.put(meetup.getChangeSequence(), meetup.getId());
+        }
+    }
+
+    private void unindex(Meetup meetup) {
+        remove(byEvent, meetup.getEvent(), meetup.getId());
+        remove(byRegistration, registrationId(meetup), meetup.getId());
+        if (meetup.getChangeSequence() != null) {
+            bySequence.remove(meetup.getChangeSequence(), meetup.getId());
+        }
+    }
+
+    private static Integer registrationId(Meetup meetup) {
+        return meetup.getRegistration() == null ? null : meetup.getRegistration().getId();
+    }
+
+    private static <K> void add(Map<K, Set<Integer>> index, K key, Integer id) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private static <K> void remove(Map<K, Set<Integer>> index, K key, Integer id) {
+        if (key != null) {
+            index.computeIfPresent(key, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+}
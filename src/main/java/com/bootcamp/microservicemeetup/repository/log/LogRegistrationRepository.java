@@ -0,0 +1,109 @@
+package com.bootcamp.microservicemeetup.repository.log;
+
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.model.entity.Tombstone;
+import com.bootcamp.microservicemeetup.repository.RegistrationOperations;
+import com.bootcamp.microservicemeetup.repository.TombstoneRepository;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+// RegistrationOperations sobre o LogRegistrationStore; a checagem de meetups
+// ligados (findIdsWithMeetups) usa o indice por registration do LogMeetupStore
+public class LogRegistrationRepository implements RegistrationOperations {
+
+    private final LogRegistrationStore store;
+    private final LogMeetupStore meetups;
+    private final TombstoneRepository tombstoneRepository;
+
+    public LogRegistrationRepository(LogRegistrationStore store, LogMeetupStore meetups,
+                                     TombstoneRepository tombstoneRepository) {
+        this.store = store;
+        this.meetups = meetups;
+        this.tombstoneRepository = tombstoneRepository;
+    }
+
+    @Override
+    public <S extends Registration> S save(S registration) {
+        store.save(registration);
+        return registration;
+    }
+
+    @Override
+    public Optional<Registration> findById(Integer id) {
+        return store.findById(id);
+    }
+
+    @Override
+    public void delete(Registration registration) {
+        store.deleteById(registration.getId());
+    }
+
+    @Override
+    public boolean existsByRegistration(String registration) {
+        return store.existsByRegistration(registration);
+    }
+
+    @Override
+    public Optional<Registration> findByRegistration(String registration) {
+        return store.findByRegistration(registration);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends Registration> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return (Page<S>) store.findAll((Example<Registration>) example, pageable);
+    }
+
+    // o store filtra em memoria e o total sai de graca: a Page serve como Slice
+    @Override
+    public Slice<Registration> findSlice(Example<Registration> example, Pageable pageable) {
+        return store.findAll(example, pageable);
+    }
+
+    @Override
+    public List<Registration> findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(Long changeSequence, Pageable pageable) {
+        return store.findByChangeSequenceGreaterThan(changeSequence, pageable);
+    }
+
+    @Override
+    public List<Object[]> findNamesAfter(Integer after, Pageable pageable) {
+        return store.findNamesAfter(after, pageable);
+    }
+
+    @Override
+    public List<Object[]> findIdsByRegistrationIn(Collection<String> registrations) {
+        return store.findIdsByRegistrationIn(registrations);
+    }
+
+    @Override
+    public List<Integer> findIdsWithMeetups(Collection<Integer> ids) {
+        return meetups.findRegistrationIdsWithMeetups(ids);
+    }
+
+    // so os ids que existem, como o insert ... select da versao JPA; a change_sequence vem do @PrePersist
+    @Override
+    public int insertTombstonesByIdIn(Collection<Integer> ids, long base) {
+        List<Tombstone> tombstones = ids.stream().filter(store::existsById)
+                .map(id -> Tombstone.builder().entityType(Tombstone.REGISTRATION).entityId(id).build())
+                .collect(Collectors.toList());
+        tombstoneRepository.saveAll(tombstones);
+        return tombstones.size();
+    }
+
+    @Override
+    public int deleteByIdIn(Collection<Integer> ids) {
+        return store.deleteByIdIn(ids);
+    }
+
+    @Override
+    public String toString() {
+        return "LogRegistrationRepository(" + store.count() + " registrations)";
+    }
+}
@@ -0,0 +1,225 @@
+package com.bootcamp.microservicemeetup.repository.log;
+
+import com.bootcamp.microservicemeetup.model.entity.ChangeSequence;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+
+// registrations sobre um LogStore. Alem do indice primario do log, mantem em memoria
+// registration -> ids e change_sequence -> id, remontados na abertura
+public class LogRegistrationStore {
+
+    private final LogStore log;
+    private final Map<String, Set<Integer>> byRegistration = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Long, Integer> bySequence = new ConcurrentSkipListMap<>();
+
+    public LogRegistrationStore(LogStore log) {
+        this.log = log;
+        log.forEachId(0, id -> index(RecordCodec.decodeRegistration(id, log.get(id))));
+        if (!bySequence.isEmpty()) {
+            ChangeSequence.seed(bySequence.lastKey());
+        }
+    }
+
+    public LogStore getLog() {
+        return log;
+    }
+
+    // como no @PrePersist/@PreUpdate da entidade; id desconhecido vira insert com id novo, como o merge do JPA
+    public synchronized Registration save(Registration registration) {
+        registration.setChangeSequence(ChangeSequence.next());
+        write(registration);
+        return registration;
+    }
+
+    public List<Registration> saveAll(Iterable<Registration> registrations) {
+        List<Registration> saved = new ArrayList<>();
+        registrations.forEach(registration -> saved.add(save(registration)));
+        return saved;
+    }
+
+    public Optional<Registration> findById(Integer id) {
+        return Optional.ofNullable(load(id));
+    }
+
+    public List<Registration> findAllById(Iterable<Integer> ids) {
+        List<Registration> found = new ArrayList<>();
+        for (Integer id : ids) {
+            Registration registration = load(id);
+            if (registration != null) {
+                found.add(registration);
+            }
+        }
+        return found;
+    }
+
+    public boolean existsById(Integer id) {
+        return id != null && log.contains(id);
+    }
+
+    public boolean existsByRegistration(String registration) {
+        return findByRegistration(registration).isPresent();
+    }
+
+    public Optional<Registration> findByRegistration(String registration) {
+        return idsOf(registration).stream().sorted().map(this::load)
+                .filter(found -> found != null && Objects.equals(found.getRegistration(), registration))
+                .findFirst();
+    }
+
+    public List<Integer> findIdsByRegistration(String registration) {
+        return new ArrayList<>(idsOf(registration));
+    }
+
+    public List<Object[]> findIdsByRegistrationIn(Collection<String> registrations) {
+        List<Object[]> rows = new ArrayList<>();
+        for (String registration : registrations) {
+            idsOf(registration).forEach(id -> rows.add(new Object[]{registration, id}));
+        }
+        return rows;
+    }
+
+    public List<Object[]> findNamesAfter(Integer after, Pageable pageable) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Integer id : log.idsAfter(after == null ? 0 : after, pageable.getPageSize())) {
+            Registration registration = load(id);
+            if (registration != null) {
+                rows.add(new Object[]{id, registration.getName()});
+            }
+        }
+        return rows;
+    }
+
+    public Page<Registration> findAll(Pageable pageable) {
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        int size = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        return new PageImpl<>(findAllById(log.page(offset, size)), pageable, log.count());
+    }
+
+    // o unico Example que o servico monta: campos texto do filtro por "contem", sem caixa, nulos ignorados
+    public Page<Registration> findAll(Example<Registration> example, Pageable pageable) {
+        Registration probe = example.getProbe();
+        List<Registration> matches = new ArrayList<>();
+        log.forEachId(0, id -> {
+            Registration candidate = RecordCodec.decodeRegistration(id, log.get(id));
+            if (matches(probe, candidate)) {
+                matches.add(candidate);
+            }
+        });
+        return page(matches, pageable);
+    }
+
+    public List<Registration> findByChangeSequenceGreaterThan(Long changeSequence, Pageable pageable) {
+        List<Registration> found = new ArrayList<>();
+        for (Integer id : bySequence.tailMap(changeSequence, false).values()) {
+            if (found.size() >= pageable.getPageSize()) {
+                break;
+            }
+            Registration registration = load(id);
+            if (registration != null) {
+                found.add(registration);
+            }
+        }
+        return found;
+    }
+
+    public synchronized boolean deleteById(Integer id) {
+        byte[] previous = id == null ? null : log.delete(id);
+        if (previous == null) {
+            return false;
+        }
+        unindex(RecordCodec.decodeRegistration(id, previous));
+        return true;
+    }
+
+    public int deleteByIdIn(Collection<Integer> ids) {
+        int deleted = 0;
+        for (Integer id : ids) {
+            if (deleteById(id)) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    public long count() {
+        return log.count();
+    }
+
+    private void write(Registration registration) {
+        byte[] payload = RecordCodec.encode(registration);
+        byte[] previous = registration.getId() == null ? null : log.update(registration.getId(), payload);
+        if (previous == null) {
+            registration.setId(log.insert(payload));
+        } else {
+            unindex(RecordCodec.decodeRegistration(registration.getId(), previous));
+        }
+        index(registration);
+    }
+
+    private Registration load(Integer id) {
+        byte[] payload = id == null ? null : log.get(id);
+        return payload == null ? null : RecordCodec.decodeRegistration(id, payload);
+    }
+
+    private Set<Integer> idsOf(String registration) {
+        return registration == null ? Collections.emptySet()
+                : byRegistration.getOrDefault(registration, Collections.emptySet());
+    }
+
+    private void index(Registration registration) {
+        if (registration.getRegistration() != null) {
+            byRegistration.computeIfAbsent(registration.getRegistration(), key -> ConcurrentHashMap.newKeySet())
+                    .add(registration.getId());
+        }
+        if (registration.getChangeSequence() != null) {
+            bySequence.put(registration.getChangeSequence(), registration.getId());
+        }
+    }
+
+    private void unindex(Registration registration) {
+        if (registration.getRegistration() != null) {
+            byRegistration.computeIfPresent(registration.getRegistration(), (key, ids) -> {
+                ids.remove(registration.getId());
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+        if (registration.getChangeSequence() != null) {
+            bySequence.remove(registration.getChangeSequence(), registration.getId());
+        }
+    }
+
+    private static boolean matches(Registration probe, Registration candidate) {
+        return (probe.getId() == null || probe.getId().equals(candidate.getId()))
+                && contains(candidate.getName(), probe.getName())
+                && contains(candidate.getDateOfRegistration(), probe.getDateOfRegistration())
+                && contains(candidate.getRegistration(), probe.getRegistration());
+    }
+
+    private static boolean contains(String value, String filter) {
+        return filter == null || (value != null && value.toLowerCase().contains(filter.toLowerCase()));
+    }
+
+    static <T> Page<T> page(List<T> matches, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(matches, pageable, matches.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(new ArrayList<>(matches.subList(from, to)), pageable, matches.size());
+    }
+}
@@ -0,0 +1,136 @@
+package com.bootcamp.microservicemeetup.repository.log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// um arquivo do log, de tamanho fixo e mapeado inteiro. Registro: [tamanho do payload][crc32][tipo][id][payload],
+// o crc cobre tipo, id e payload. So o segmento ativo recebe escrita, sempre com put absoluto, entao
+// leitores podem usar duplicate() sem lock do buffer
+final class LogSegment {
+
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+    static final int HEADER_BYTES = 13;
+
+    interface Visitor {
+        void record(byte type, int id, int offset, int bytes);
+    }
+
+    final int number;
+    final Path file;
+    private final MappedByteBuffer buffer;
+    private int end;
+    // bytes dos registros que ainda sao a versao atual do seu id; guia a compactacao
+    long liveBytes;
+
+    private LogSegment(int number, Path file, MappedByteBuffer buffer) {
+        this.number = number;
+        this.file = file;
+        this.buffer = buffer;
+    }
+
+    static LogSegment open(Path file, int number, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long length = Math.max(channel.size(), size);
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Segment too large: " + file);
+            }
+            return new LogSegment(number, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, length));
+        }
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    int end() {
+        return end;
+    }
+
+    // le os registros validos desde o inicio e para no primeiro que nao confere (escrita interrompida
+    // ou area nunca escrita); devolve o fim valido e zera o resto, para lixo antigo nunca parecer registro
+    int recover(Visitor visitor) {
+        int offset = 0;
+        CRC32 crc = new CRC32();
+        while (offset + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            byte type = buffer.get(offset + 8);
+            if (length < 0 || (type != PUT && type != DELETE) || length > buffer.capacity() - offset - HEADER_BYTES
+                    || buffer.getInt(offset + 4) != checksum(crc, offset, length)) {
+                break;
+            }
+            visitor.record(type, buffer.getInt(offset + 9), offset, HEADER_BYTES + length);
+            offset += HEADER_BYTES + length;
+        }
+        end = offset;
+        for (int i = offset; i < buffer.capacity(); i++) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        return end;
+    }
+
+    // -1 quando nao cabe; quem chama abre o proximo segmento
+    int append(byte type, int id, byte[] payload) {
+        int bytes = HEADER_BYTES + payload.length;
+        if (end + bytes > buffer.capacity()) {
+            return -1;
+        }
+        int offset = end;
+        buffer.put(offset + 8, type);
+        buffer.putInt(offset + 9, id);
+        for (int i = 0; i < payload.length; i++) {
+            buffer.put(offset + HEADER_BYTES + i, payload[i]);
+        }
+        buffer.putInt(offset + 4, checksum(new CRC32(), offset, payload.length));
+        // o tamanho vai por ultimo: ate aqui um crash deixa um registro que nao confere
+        buffer.putInt(offset, payload.length);
+        end += bytes;
+        return offset;
+    }
+
+    byte[] payload(int offset) {
+        byte[] payload = new byte[buffer.getInt(offset)];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + HEADER_BYTES);
+        view.get(payload);
+        return payload;
+    }
+
+    byte type(int offset) {
+        return buffer.get(offset + 8);
+    }
+
+    int id(int offset) {
+        return buffer.getInt(offset + 9);
+    }
+
+    int recordBytes(int offset) {
+        return HEADER_BYTES + buffer.getInt(offset);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private int checksum(CRC32 crc, int offset, int length) {
+        crc.reset();
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + 8);
+        view.limit(offset + HEADER_BYTES + length);
+        crc.update(view);
+        return (int) crc.getValue();
+    }
+}
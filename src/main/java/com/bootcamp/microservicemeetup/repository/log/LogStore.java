@@ -0,0 +1,433 @@
+package com.bootcamp.microservicemeetup.repository.log;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// armazenamento append-only de registros (id, bytes) em segmentos mapeados. Insert, update e delete so
+// acrescentam no fim do segmento ativo; o indice primario e um long[] denso em memoria, id -> (segmento, offset),
+// remontado na abertura relendo os segmentos em ordem. A compactacao copia os registros vivos dos segmentos
+// selados com pouco dado vivo para o fim do log e apaga o arquivo. As escritas vao para o page cache na hora
+// (um crash do processo nao perde nada); o fsync roda a cada syncMs, ou em toda escrita com syncMs = 0
+public class LogStore {
+
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final double compactBelow;
+    private final boolean syncEveryWrite;
+    private final ScheduledExecutorService executor;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final TreeMap<Integer, LogSegment> segments = new TreeMap<>();
+    private LogSegment active;
+    // (numero do segmento << 32) | offset; 0 = id livre ou apagado
+    private long[] index = new long[1024];
+    private int maxId;
+    private int count;
+
+    private final AtomicLong recoveredRecords = new AtomicLong();
+    private final AtomicLong compactedSegments = new AtomicLong();
+    private final AtomicLong copiedRecords = new AtomicLong();
+
+    public LogStore(Path directory, int segmentBytes, double compactBelow, long syncMs, long compactMs) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.compactBelow = compactBelow;
+        this.syncEveryWrite = syncMs <= 0;
+        Files.createDirectories(directory);
+        recover();
+        this.executor = Executors.newSingleThreadScheduledExecutor(daemon("log-store-" + directory.getFileName()));
+        if (!syncEveryWrite) {
+            executor.scheduleWithFixedDelay(this::syncQuietly, syncMs, syncMs, TimeUnit.MILLISECONDS);
+        }
+        if (compactMs > 0) {
+            executor.scheduleWithFixedDelay(this::compactQuietly, compactMs, compactMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public int count() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getSegments() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getRecoveredRecords() {
+        return recoveredRecords.get();
+    }
+
+    public long getCompactedSegments() {
+        return compactedSegments.get();
+    }
+
+    public long getCopiedRecords() {
+        return copiedRecords.get();
+    }
+
+    public boolean contains(int id) {
+        lock.readLock().lock();
+        try {
+            return location(id) != 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // null quando o id nao existe
+    public byte[] get(int id) {
+        lock.readLock().lock();
+        try {
+            long location = location(id);
+            return location == 0 ? null : segments.get(segmentOf(location)).payload(offsetOf(location));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int insert(byte[] payload) {
+        lock.writeLock().lock();
+        try {
+            int id = maxId + 1;
+            append(LogSegment.PUT, id, payload);
+            return id;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // devolve o payload anterior, ou null quando o id nao existe (e nada e gravado)
+    public byte[] update(int id, byte[] payload) {
+        lock.writeLock().lock();
+        try {
+            long location = location(id);
+            if (location == 0) {
+                return null;
+            }
+            byte[] previous = segments.get(segmentOf(location)).payload(offsetOf(location));
+            append(LogSegment.PUT, id, payload);
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public byte[] delete(int id) {
+        lock.writeLock().lock();
+        try {
+            long location = location(id);
+            if (location == 0) {
+                return null;
+            }
+            byte[] previous = segments.get(segmentOf(location)).payload(offsetOf(location));
+            append(LogSegment.DELETE, id, new byte[0]);
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ids vivos em ordem crescente a partir de after (exclusivo); o consumidor roda com o lock de leitura
+    public void forEachId(int after, IntConsumer consumer) {
+        lock.readLock().lock();
+        try {
+            for (int id = Math.max(after + 1, 1); id <= maxId; id++) {
+                if (index[id] != 0) {
+                    consumer.accept(id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ate limit ids vivos maiores que after, em ordem crescente (paginacao por keyset)
+    public List<Integer> idsAfter(int after, int limit) {
+        List<Integer> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int id = Math.max(after + 1, 1); id <= maxId && ids.size() < limit; id++) {
+                if (index[id] != 0) {
+                    ids.add(id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+
+    // pagina de ids vivos em ordem crescente, pulando os offset primeiros
+    public List<Integer> page(long offset, int limit) {
+        List<Integer> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            long skipped = 0;
+            for (int id = 1; id <= maxId && ids.size() < limit; id++) {
+                if (index[id] == 0) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    ids.add(id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+
+    public void sync() {
+        lock.readLock().lock();
+        try {
+            active.force();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void close() {
+        executor.shutdownNow();
+        sync();
+    }
+
+    // um segmento selado por vez: os vivos sao copiados um a um com o lock de escrita, entao as escritas
+    // concorrentes so esperam uma copia de cada vez; o arquivo so sai depois do fsync das copias
+    public int compact() throws IOException {
+        int compacted = 0;
+        for (LogSegment segment : candidates()) {
+            List<int[]> records = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                // selado: ninguem mais escreve nele
+                segment.recover((type, id, offset, bytes) -> records.add(new int[]{type, id, offset}));
+            } finally {
+                lock.readLock().unlock();
+            }
+            for (int[] record : records) {
+                lock.writeLock().lock();
+                try {
+                    copyIfLive(segment, (byte) record[0], record[1], record[2]);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            lock.writeLock().lock();
+            try {
+                active.force();
+                segments.remove(segment.number);
+                segment.delete();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            compactedSegments.incrementAndGet();
+            compacted++;
+        }
+        return compacted;
+    }
+
+    private List<LogSegment> candidates() {
+        lock.readLock().lock();
+        try {
+            return segments.values().stream()
+                    .filter(segment -> segment != active && segment.liveBytes < segment.end() * compactBelow)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void copyIfLive(LogSegment segment, byte type, int id, int offset) {
+        if (type == LogSegment.PUT && location(id) == location(segment.number, offset)) {
+            append(LogSegment.PUT, id, segment.payload(offset));
+            copiedRecords.incrementAndGet();
+        } else if (type == LogSegment.DELETE && location(id) == 0 && !segments.headMap(segment.number).isEmpty()) {
+            // um segmento mais antigo ainda pode ter o put deste id; sem a lapide ele voltaria na reabertura
+            append(LogSegment.DELETE, id, new byte[0]);
+            copiedRecords.incrementAndGet();
+        }
+    }
+
+    private void append(byte type, int id, byte[] payload) {
+        if (LogSegment.HEADER_BYTES + payload.length > segmentBytes) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes does not fit a segment");
+        }
+        int offset = active.append(type, id, payload);
+        if (offset < 0) {
+            roll();
+            offset = active.append(type, id, payload);
+        }
+        long previous = location(id);
+        if (previous != 0) {
+            LogSegment old = segments.get(segmentOf(previous));
+            old.liveBytes -= old.recordBytes(offsetOf(previous));
+            count--;
+        }
+        if (type == LogSegment.PUT) {
+            ensureIndex(id);
+            index[id] = location(active.number, offset);
+            active.liveBytes += LogSegment.HEADER_BYTES + payload.length;
+            maxId = Math.max(maxId, id);
+            count++;
+        } else if (previous != 0) {
+            index[id] = 0;
+        }
+        if (syncEveryWrite) {
+            active.force();
+        }
+    }
+
+    private void roll() {
+        active.force();
+        try {
+            active = openSegment(active.number + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        active.recover((type, id, offset, bytes) -> { });
+        segments.put(active.number, active);
+    }
+
+    private void recover() throws IOException {
+        List<Integer> numbers;
+        try (Stream<Path> files = Files.list(directory)) {
+            numbers = files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> Integer.parseInt(name.substring(0, name.length() - SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        for (int number : numbers) {
+            LogSegment segment = openSegment(number);
+            segments.put(number, segment);
+            active = segment;
+            segment.recover((type, id, offset, bytes) -> {
+                recoveredRecords.incrementAndGet();
+                replay(segment, type, id, offset, bytes);
+            });
+        }
+        if (active == null) {
+            active = openSegment(1);
+            active.recover((type, id, offset, bytes) -> { });
+            segments.put(active.number, active);
+        }
+    }
+
+    private void replay(LogSegment segment, byte type, int id, int offset, int bytes) {
+        long previous = location(id);
+        if (previous != 0) {
+            LogSegment old = segments.get(segmentOf(previous));
+            old.liveBytes -= old.recordBytes(offsetOf(previous));
+            count--;
+        }
+        if (type == LogSegment.PUT) {
+            ensureIndex(id);
+            index[id] = location(segment.number, offset);
+            segment.liveBytes += bytes;
+            count++;
+        } else if (previous != 0) {
+            index[id] = 0;
+        }
+        // id apagado tambem conta: o identity do banco nao reaproveita ids
+        maxId = Math.max(maxId, id);
+    }
+
+    private LogSegment openSegment(int number) throws IOException {
+        return LogSegment.open(directory.resolve(String.format("%010d%s", number, SUFFIX)), number, segmentBytes);
+    }
+
+    private long location(int id) {
+        return id > 0 && id < index.length ? index[id] : 0;
+    }
+
+    private void ensureIndex(int id) {
+        if (id >= index.length) {
+            index = Arrays.copyOf(index, Math.max(index.length * 2, id + 1));
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            // a proxima rodada tenta de novo
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            // segmento fica para a proxima rodada; os dados continuam nele
+        }
+    }
+
+    private static long location(int segment, int offset) {
+        return ((long) segment << 32) | offset;
+    }
+
+    private static int segmentOf(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static int offsetOf(long location) {
+        return (int) location;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // usado pelos testes de recuperacao: os arquivos dos segmentos em ordem
+    List<Path> segmentFiles() {
+        lock.readLock().lock();
+        try {
+            return segments.values().stream().map(segment -> segment.file).collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Map<Integer, Long> liveBytes() {
+        lock.readLock().lock();
+        try {
+            return segments.values().stream().collect(Collectors.toMap(segment -> segment.number, segment -> segment.liveBytes));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.bootcamp.microservicemeetup.repository.log;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// payload dos registros do log. O primeiro byte e a versao do formato; campos anulaveis levam um byte
+// de presenca na frente. O meetup guarda so o id da registration, resolvida na leitura
+final class RecordCodec {
+
+    private static final byte VERSION = 1;
+
+    private RecordCodec() {
+    }
+
+    static byte[] encode(Registration registration) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            writeString(out, registration.getName());
+            writeString(out, registration.getDateOfRegistration());
+            writeString(out, registration.getRegistration());
+            writeLong(out, registration.getChangeSequence());
+            writeInt(out, registration.getMeetupCount());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Registration decodeRegistration(int id, byte[] payload) {
+        try (DataInputStream in = open(payload)) {
+            return Registration.builder()
+                    .id(id)
+                    .name(readString(in))
+                    .dateOfRegistration(readString(in))
+                    .registration(readString(in))
+                    .changeSequence(readLong(in))
+                    .meetupCount(readInt(in))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static byte[] encode(Meetup meetup) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            writeString(out, meetup.getEvent());
+            writeInt(out, meetup.getRegistration() == null ? null : meetup.getRegistration().getId());
+            writeString(out, meetup.getMeetupDate());
+            writeString(out, meetup.getRegistrationAttribute());
+            out.writeByte(meetup.getRegistered() == null ? 0 : meetup.getRegistered() ? 2 : 1);
+            writeLong(out, meetup.getChangeSequence());
+            writeInt(out, meetup.getAttendeeCount());
+            writeDateTime(out, meetup.getStartsAt());
+            writeDateTime(out, meetup.getEndsAt());
+            writeString(out, meetup.getVenue());
+            writeLong(out, meetup.getMeetupDay() == null ? null : meetup.getMeetupDay().toEpochDay());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // a registration volta so com o id; quem le resolve o resto
+    static Meetup decodeMeetup(int id, byte[] payload) {
+        try (DataInputStream in = open(payload)) {
+            Meetup meetup = Meetup.builder().id(id).event(readString(in)).build();
+            Integer registrationId = readInt(in);
+            meetup.setRegistration(registrationId == null ? null : Registration.builder().id(registrationId).build());
+            meetup.setMeetupDate(readString(in));
+            meetup.setRegistrationAttribute(readString(in));
+            byte registered = in.readByte();
+            meetup.setRegistered(registered == 0 ? null : registered == 2);
+            meetup.setChangeSequence(readLong(in));
+            meetup.setAttendeeCount(readInt(in));
+            meetup.setStartsAt(readDateTime(in));
+            meetup.setEndsAt(readDateTime(in));
+            meetup.setVenue(readString(in));
+            Long day = readLong(in);
+            meetup.setMeetupDay(day == null ? null : LocalDate.ofEpochDay(day));
+            return meetup;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static DataInputStream open(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unknown record version " + version);
+        }
+        return in;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeInt(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInt(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        return in.readBoolean() ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC) : null;
+    }
+}
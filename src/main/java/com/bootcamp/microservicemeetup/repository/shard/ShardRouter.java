@@ -0,0 +1,42 @@
+package com.bootcamp.microservicemeetup.repository.shard;
+
+// o id global carrega o shard: id = idLocal * quantidadeDeShards + shard,
+// assim um findById vai direto ao shard certo sem tabela de lookup
+public class ShardRouter {
+
+    private final int shardCount;
+
+    public ShardRouter(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        this.shardCount = shardCount;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardForEvent(String event) {
+        int hash = event == null ? 0 : event.hashCode();
+        // finalizador do murmur3 para espalhar bem hashes parecidos
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, shardCount);
+    }
+
+    public int globalId(int localId, int shard) {
+        return Math.multiplyExact(localId, shardCount) + shard;
+    }
+
+    public int shardOf(int globalId) {
+        return globalId % shardCount;
+    }
+
+    public int localId(int globalId) {
+        return globalId / shardCount;
+    }
+}
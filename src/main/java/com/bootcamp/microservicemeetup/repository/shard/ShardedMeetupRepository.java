@@ -0,0 +1,162 @@
+package com.bootcamp.microservicemeetup.repository.shard;
+
+import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.model.entity.Tombstone;
+import com.bootcamp.microservicemeetup.repository.MeetupOperations;
+import com.bootcamp.microservicemeetup.repository.RegistrationRepository;
+import com.bootcamp.microservicemeetup.repository.TombstoneRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+// MeetupOperations sobre o ShardedMeetupStore. Registrations, presenca e contadores continuam no banco principal
+// e os tombstones na tabela dele, que o delta sync le
+public class ShardedMeetupRepository implements MeetupOperations {
+
+    private final ShardedMeetupStore store;
+    private final RegistrationRepository registrationRepository;
+    private final TombstoneRepository tombstoneRepository;
+
+    public ShardedMeetupRepository(ShardedMeetupStore store, RegistrationRepository registrationRepository,
+                                   TombstoneRepository tombstoneRepository) {
+        this.store = store;
+        this.registrationRepository = registrationRepository;
+        this.tombstoneRepository = tombstoneRepository;
+    }
+
+    @Override
+    public <S extends Meetup> S save(S meetup) {
+        store.save(meetup);
+        return meetup;
+    }
+
+    @Override
+    public <S extends Meetup> List<S> saveAll(Iterable<S> meetups) {
+        List<S> saved = new ArrayList<>();
+        meetups.forEach(meetup -> saved.add(save(meetup)));
+        return saved;
+    }
+
+    @Override
+    public Optional<Meetup> findById(Integer id) {
+        return store.findById(id);
+    }
+
+    @Override
+    public boolean existsById(Integer id) {
+        return store.findById(id).isPresent();
+    }
+
+    @Override
+    public List<Meetup> findByIdIn(Collection<Integer> ids) {
+        return store.findByIdIn(ids);
+    }
+
+    @Override
+    public void delete(Meetup meetup) {
+        store.deleteById(meetup.getId());
+    }
+
+    @Override
+    public boolean existsByEvent(String event) {
+        return store.existsByEvent(event);
+    }
+
+    @Override
+    public List<String> findExistingEvents(Collection<String> events) {
+        return store.findExistingEvents(events);
+    }
+
+    @Override
+    public List<Integer> findIdsByEvent(String event) {
+        return store.findIdsByEvent(event);
+    }
+
+    @Override
+    public Page<Meetup> findAll(Pageable pageable) {
+        return store.findAll(pageable);
+    }
+
+    // o codigo da registration vira os ids no banco principal, como o join da versao JPA
+    @Override
+    public Page<Meetup> findByRegistrationOnMeetup(String registration, String event, Pageable pageable) {
+        List<Integer> registrationIds = registration == null ? Collections.emptyList()
+                : registrationRepository.findIdsByRegistrationIn(Collections.singletonList(registration)).stream()
+                .map(row -> (Integer) row[1])
+                .collect(Collectors.toList());
+        return store.findByRegistrationOnMeetup(registrationIds, event, pageable);
+    }
+
+    @Override
+    public Page<Meetup> findByRegistration(Registration registration, Pageable pageable) {
+        return store.findByRegistration(registration, pageable);
+    }
+
+    // o arquivador so move linhas da tabela do banco principal: nos shards nada e arquivado
+    @Override
+    public Page<Meetup> findAllIncludingArchived(Pageable pageable) {
+        return store.findAll(pageable);
+    }
+
+    @Override
+    public Page<Meetup> findByRegistrationOnMeetupIncludingArchived(String registration, String event, Pageable pageable) {
+        return findByRegistrationOnMeetup(registration, event, pageable);
+    }
+
+    @Override
+    public Page<Meetup> findIncludingArchived(String registration, String event, LocalDate from, LocalDate to,
+                                              Boolean registered, Pageable pageable) {
+        throw new BusinessException("Filtering by date or registered is not supported with sharded meetups");
+    }
+
+    @Override
+    public List<Meetup> findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(Long changeSequence, Pageable pageable) {
+        return store.findByChangeSequenceGreaterThan(changeSequence, pageable);
+    }
+
+    @Override
+    public List<Meetup> findByStartsAtAfterAndIdGreaterThanOrderByIdAsc(LocalDateTime startsAt, Integer id, Pageable pageable) {
+        return store.findScheduledAfter("starts_at", startsAt, id, pageable);
+    }
+
+    @Override
+    public List<Meetup> findByEndsAtAfterAndIdGreaterThanOrderByIdAsc(LocalDateTime endsAt, Integer id, Pageable pageable) {
+        return store.findScheduledAfter("ends_at", endsAt, id, pageable);
+    }
+
+    @Override
+    public int updateByIdIn(Collection<Integer> ids, String newEvent, String meetupDate, LocalDate meetupDay,
+                            Boolean registered, long base) {
+        return store.updateByIdIn(ids, newEvent, meetupDate, meetupDay, registered, base);
+    }
+
+    // so os ids que existem, como o insert ... select da versao JPA; a change_sequence vem do @PrePersist
+    @Override
+    public int insertTombstonesByIdIn(Collection<Integer> ids, long base) {
+        List<Tombstone> tombstones = store.findExistingIds(ids).stream()
+                .map(id -> Tombstone.builder().entityType(Tombstone.MEETUP).entityId(id).build())
+                .collect(Collectors.toList());
+        tombstoneRepository.saveAll(tombstones);
+        return tombstones.size();
+    }
+
+    @Override
+    public int deleteByIdIn(Collection<Integer> ids) {
+        return store.deleteByIdIn(ids);
+    }
+
+    @Override
+    public String toString() {
+        return "ShardedMeetupRepository(" + store.getRouter().getShardCount() + " shards)";
+    }
+}
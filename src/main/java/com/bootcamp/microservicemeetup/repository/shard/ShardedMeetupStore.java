@@ -0,0 +1,463 @@
+package com.bootcamp.microservicemeetup.repository.shard;
+
+import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.model.entity.ChangeSequence;
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.entity.MeetupDates;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.repository.MeetupRepository;
+import org.flywaydb.core.Flyway;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// cada meetup mora no shard escolhido pelo hash do evento na criacao. O id carrega o shard e nao muda mais,
+// nem quando o evento muda: presenca, ScheduleIndex, lembretes, indice de lookup e clientes guardam o id.
+// Buscas por id vao a um shard so; buscas por evento e listagens consultam todos em paralelo e fazem o merge
+// ordenado dos resultados
+public class ShardedMeetupStore {
+
+    // o schema dos shards sai das mesmas migrations do banco principal; db/shard so tira as FKs para registration,
+    // que continua no banco principal
+    private static final String[] MIGRATIONS = {"classpath:db/migration", "classpath:db/shard"};
+
+    private static final String COLUMNS = MeetupRepository.COLUMNS;
+
+    // propriedades ordenaveis na listagem -> coluna; o id sempre desempata
+    private static final Map<String, String> SORT_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, Function<Meetup, Comparable<?>>> SORT_VALUES = new HashMap<>();
+
+    static {
+        sortable("id", "id", Meetup::getId);
+        sortable("event", "event", Meetup::getEvent);
+        sortable("meetupDate", "meetup_date", Meetup::getMeetupDate);
+        sortable("registrationAttribute", "registration_attribute", Meetup::getRegistrationAttribute);
+        sortable("registered", "registered", Meetup::getRegistered);
+        sortable("changeSequence", "change_sequence", Meetup::getChangeSequence);
+        sortable("attendeeCount", "attendee_count", Meetup::getAttendeeCount);
+        sortable("meetupDay", "meetup_day", Meetup::getMeetupDay);
+        sortable("startsAt", "starts_at", Meetup::getStartsAt);
+        sortable("endsAt", "ends_at", Meetup::getEndsAt);
+        sortable("venue", "venue", Meetup::getVenue);
+    }
+
+    private final ShardRouter router;
+    private final List<JdbcTemplate> shards;
+    private final Function<Collection<Integer>, List<Registration>> registrationLoader;
+    private final ExecutorService executor;
+
+    public ShardedMeetupStore(List<DataSource> dataSources,
+                              Function<Collection<Integer>, List<Registration>> registrationLoader) {
+        this.router = new ShardRouter(dataSources.size());
+        this.shards = dataSources.stream().map(JdbcTemplate::new).collect(Collectors.toList());
+        this.registrationLoader = registrationLoader;
+        this.executor = Executors.newFixedThreadPool(dataSources.size(), runnable -> {
+            Thread thread = new Thread(runnable, "meetup-shard-query");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (DataSource dataSource : dataSources) {
+            Flyway.configure().dataSource(dataSource).locations(MIGRATIONS).load().migrate();
+        }
+        for (JdbcTemplate shard : shards) {
+            Long last = shard.queryForObject("select max(change_sequence) from meetup", Long.class);
+            if (last != null) {
+                ChangeSequence.seed(last);
+            }
+        }
+    }
+
+    public ShardRouter getRouter() {
+        return router;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public Meetup save(Meetup meetup) {
+        if (meetup.getId() == null) {
+            insert(meetup, router.shardForEvent(meetup.getEvent()));
+        } else {
+            update(meetup);
+        }
+        return meetup;
+    }
+
+    public List<Meetup> saveAll(Iterable<Meetup> meetups) {
+        List<Meetup> saved = new ArrayList<>();
+        meetups.forEach(meetup -> saved.add(save(meetup)));
+        return saved;
+    }
+
+    public Optional<Meetup> findById(Integer id) {
+        List<Meetup> rows = shards.get(router.shardOf(id)).query(
+                "select" + COLUMNS + "from meetup where id = ?", rowMapper(router.shardOf(id)), router.localId(id));
+        return resolveRegistrations(rows).stream().findFirst();
+    }
+
+    public List<Meetup> findByIdIn(Collection<Integer> ids) {
+        Map<Integer, List<Integer>> byShard = ids.stream().collect(Collectors.groupingBy(router::shardOf));
+        List<Meetup> found = new ArrayList<>();
+        byShard.forEach((shard, shardIds) -> {
+            String placeholders = shardIds.stream().map(id -> "?").collect(Collectors.joining(", "));
+            found.addAll(shards.get(shard).query("select" + COLUMNS + "from meetup where id in (" + placeholders + ")",
+                    rowMapper(shard), shardIds.stream().map(router::localId).toArray()));
+        });
+        return resolveRegistrations(found);
+    }
+
+    // o evento pode ter mudado depois da criacao, entao o shard do hash nao e o unico lugar possivel
+    public boolean existsByEvent(String event) {
+        return scatter(shard -> shards.get(shard).queryForObject(
+                "select count(*) from meetup where event = ?", Integer.class, event))
+                .stream().anyMatch(found -> found != null && found > 0);
+    }
+
+    public List<String> findExistingEvents(Collection<String> events) {
+        List<String> distinct = events.stream().distinct().collect(Collectors.toList());
+        if (distinct.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return scatter(shard -> shards.get(shard).queryForList(
+                "select distinct event from meetup where event in (" + placeholders(distinct) + ")", String.class,
+                distinct.toArray()))
+                .stream().flatMap(List::stream).distinct().collect(Collectors.toList());
+    }
+
+    public List<Integer> findIdsByEvent(String event) {
+        return scatter(shard -> shards.get(shard).queryForList("select id from meetup where event = ?", Integer.class, event)
+                .stream().map(localId -> router.globalId(localId, shard)).collect(Collectors.toList()))
+                .stream().flatMap(List::stream).sorted().collect(Collectors.toList());
+    }
+
+    public List<Integer> findExistingIds(Collection<Integer> ids) {
+        List<Integer> existing = new ArrayList<>();
+        byShard(ids).forEach((shard, shardIds) -> existing.addAll(shards.get(shard).queryForList(
+                "select id from meetup where id in (" + placeholders(shardIds) + ")", Integer.class, localIds(shardIds))
+                .stream().map(localId -> router.globalId(localId, shard)).collect(Collectors.toList())));
+        return existing;
+    }
+
+    // mesma semantica do update em lote do JPA: campos nulos ficam como estao e cada linha ganha base + a posicao
+    // do id no bloco. A linha fica no shard onde esta, mesmo com evento novo
+    public int updateByIdIn(Collection<Integer> ids, String newEvent, String meetupDate, LocalDate meetupDay,
+                            Boolean registered, long base) {
+        List<String> assignments = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        if (newEvent != null) {
+            assignments.add("event = ?");
+            values.add(newEvent);
+        }
+        if (meetupDate != null) {
+            assignments.add("meetup_date = ?");
+            assignments.add("meetup_day = ?");
+            values.add(meetupDate);
+            values.add(meetupDay);
+        }
+        if (registered != null) {
+            assignments.add("registered = ?");
+            values.add(registered);
+        }
+        assignments.add("change_sequence = ?");
+        String update = "update meetup set " + String.join(", ", assignments) + " where id = ?";
+
+        List<Integer> sorted = ids.stream().distinct().sorted().collect(Collectors.toList());
+        Map<Integer, List<Object[]>> byShard = new HashMap<>();
+        for (int position = 0; position < sorted.size(); position++) {
+            Integer id = sorted.get(position);
+            List<Object> row = new ArrayList<>(values);
+            row.add(base + position);
+            row.add(router.localId(id));
+            byShard.computeIfAbsent(router.shardOf(id), shard -> new ArrayList<>()).add(row.toArray());
+        }
+        int updated = 0;
+        for (Map.Entry<Integer, List<Object[]>> entry : byShard.entrySet()) {
+            for (int count : shards.get(entry.getKey()).batchUpdate(update, entry.getValue())) {
+                updated += count;
+            }
+        }
+        return updated;
+    }
+
+    public void deleteById(Integer id) {
+        shards.get(router.shardOf(id)).update("delete from meetup where id = ?", router.localId(id));
+    }
+
+    public int deleteByIdIn(Collection<Integer> ids) {
+        int deleted = 0;
+        for (Map.Entry<Integer, List<Integer>> entry : byShard(ids).entrySet()) {
+            deleted += shards.get(entry.getKey()).update(
+                    "delete from meetup where id in (" + placeholders(entry.getValue()) + ")", localIds(entry.getValue()));
+        }
+        return deleted;
+    }
+
+    private Map<Integer, List<Integer>> byShard(Collection<Integer> ids) {
+        return ids.stream().distinct().collect(Collectors.groupingBy(router::shardOf));
+    }
+
+    private Object[] localIds(List<Integer> ids) {
+        return ids.stream().map(router::localId).toArray();
+    }
+
+    private static String placeholders(List<?> values) {
+        return values.stream().map(value -> "?").collect(Collectors.joining(", "));
+    }
+
+    public long count() {
+        return scatter(shard -> shards.get(shard).queryForObject("select count(*) from meetup", Long.class))
+                .stream().mapToLong(Long::longValue).sum();
+    }
+
+    public Page<Meetup> findAll(Pageable pageable) {
+        return findPage("meetup", new Object[0], pageable);
+    }
+
+    // mesma semantica do REGISTRATION_OR_EVENT_IDS do MeetupRepository: os meetups das registrations com aquele
+    // codigo (os ids vem do banco principal) mais os do evento que tem registration, cada lado do union no seu indice
+    public Page<Meetup> findByRegistrationOnMeetup(List<Integer> registrationIds, String event, Pageable pageable) {
+        List<Object> args = new ArrayList<>(registrationIds);
+        args.add(event);
+        String byRegistration = registrationIds.isEmpty() ? ""
+                : "select" + COLUMNS + "from meetup where id_registration in (" + placeholders(registrationIds) + ") union ";
+        return findPage("(" + byRegistration + "select" + COLUMNS + "from meetup where event = ? and id_registration is not null) m",
+                args.toArray(), pageable);
+    }
+
+    public Page<Meetup> findByRegistration(Registration registration, Pageable pageable) {
+        return findPage("meetup where id_registration = ?", new Object[]{registration.getId()}, pageable);
+    }
+
+    public List<Meetup> findByChangeSequenceGreaterThan(Long changeSequence, Pageable pageable) {
+        List<List<Meetup>> parts = scatter(shard -> shards.get(shard).query(
+                "select" + COLUMNS + "from meetup where change_sequence > ? order by change_sequence limit ?",
+                rowMapper(shard), changeSequence, pageable.getPageSize()));
+        return resolveRegistrations(merge(parts, Comparator.comparing(Meetup::getChangeSequence), 0, pageable.getPageSize()));
+    }
+
+    // keyset pelo id global: em cada shard, a partir do primeiro id local cujo id global passa de afterId.
+    // Como na pagina sem ordem, a ordem por id local de cada shard ja e a ordem global
+    public List<Meetup> findScheduledAfter(String column, LocalDateTime after, Integer afterId, Pageable pageable) {
+        int shardCount = shards.size();
+        List<List<Meetup>> parts = scatter(shard -> shards.get(shard).query(
+                "select" + COLUMNS + "from meetup where " + column + " > ? and id >= ? order by id limit ?",
+                rowMapper(shard), after, Math.floorDiv(afterId - shard, shardCount) + 1, pageable.getPageSize()));
+        return resolveRegistrations(merge(parts, Comparator.comparing(Meetup::getId), 0, pageable.getPageSize()));
+    }
+
+    // cada shard devolve as offset + size primeiras linhas na ordem pedida (id desempata) e o merge de k listas
+    // ordenadas pula o offset. Sem ordem pedida vale o id global: como id global = idLocal * n + shard, a ordem por
+    // id local em cada shard ja e a ordem global. Contagens e paginas saem juntas no executor dos shards
+    private Page<Meetup> findPage(String from, Object[] args, Pageable pageable) {
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        int size = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        String limit = pageable.isPaged() ? " limit " + (offset + size) : "";
+        Sort sort = pageable.getSort().and(Sort.by("id"));
+
+        List<CompletableFuture<Long>> totals = scatterAsync(shard ->
+                shards.get(shard).queryForObject("select count(*) from " + from, Long.class, args));
+        List<List<Meetup>> parts = join(scatterAsync(shard -> shards.get(shard).query(
+                "select" + COLUMNS + "from " + from + orderBy(sort) + limit, rowMapper(shard), args)));
+
+        List<Meetup> content = resolveRegistrations(merge(parts, comparator(sort), offset, size));
+        long total = join(totals).stream().mapToLong(Long::longValue).sum();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private <T> List<T> scatter(Function<Integer, T> query) {
+        return join(scatterAsync(query));
+    }
+
+    private <T> List<CompletableFuture<T>> scatterAsync(Function<Integer, T> query) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(target), executor));
+        }
+        return futures;
+    }
+
+    private static <T> List<T> join(List<CompletableFuture<T>> futures) {
+        return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
+
+    private static String orderBy(Sort sort) {
+        List<String> terms = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String column = sortColumn(order.getProperty());
+            terms.add((order.isIgnoreCase() ? "lower(" + column + ")" : column) + (order.isAscending() ? " asc" : " desc"));
+        }
+        return " order by " + String.join(", ", terms);
+    }
+
+    // mesma ordem do H2: nulos sao os menores valores (primeiro no asc, por ultimo no desc)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Meetup> comparator(Sort sort) {
+        Comparator<Meetup> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            sortColumn(order.getProperty());
+            Function<Meetup, Comparable<?>> value = SORT_VALUES.get(order.getProperty());
+            Comparator<Comparable> natural = order.isIgnoreCase()
+                    ? (x, y) -> x.toString().toLowerCase().compareTo(y.toString().toLowerCase())
+                    : Comparator.naturalOrder();
+            Comparator<Meetup> property = Comparator.comparing(meetup -> (Comparable) value.apply(meetup),
+                    Comparator.nullsFirst(natural));
+            comparator = comparator.thenComparing(order.isAscending() ? property : property.reversed());
+        }
+        return comparator;
+    }
+
+    private static String sortColumn(String property) {
+        String column = SORT_COLUMNS.get(property);
+        if (column == null) {
+            throw new BusinessException("Cannot sort meetups by " + property);
+        }
+        return column;
+    }
+
+    private static void sortable(String property, String column, Function<Meetup, Comparable<?>> value) {
+        SORT_COLUMNS.put(property, column);
+        SORT_VALUES.put(property, value);
+    }
+
+    private List<Meetup> merge(List<List<Meetup>> parts, Comparator<Meetup> order, long offset, int size) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>((a, b) ->
+                order.compare(parts.get(a[0]).get(a[1]), parts.get(b[0]).get(b[1])));
+        for (int part = 0; part < parts.size(); part++) {
+            if (!parts.get(part).isEmpty()) {
+                heads.add(new int[]{part, 0});
+            }
+        }
+        List<Meetup> merged = new ArrayList<>();
+        long skipped = 0;
+        while (!heads.isEmpty() && merged.size() < size) {
+            int[] head = heads.poll();
+            Meetup meetup = parts.get(head[0]).get(head[1]);
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                merged.add(meetup);
+            }
+            if (head[1] + 1 < parts.get(head[0]).size()) {
+                heads.add(new int[]{head[0], head[1] + 1});
+            }
+        }
+        return merged;
+    }
+
+    // o que o @PrePersist/@PreUpdate da entidade faria: sequencia nova e o dia copiado da data
+    private void insert(Meetup meetup, int shard) {
+        stamp(meetup);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        shards.get(shard).update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "insert into meetup (event, id_registration, meetup_date, registration_attribute, registered, "
+                            + "change_sequence, meetup_day, starts_at, ends_at, venue) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+            bind(statement, meetup);
+            return statement;
+        }, keyHolder);
+        meetup.setId(router.globalId(keyHolder.getKey().intValue(), shard));
+    }
+
+    private void update(Meetup meetup) {
+        stamp(meetup);
+        shards.get(router.shardOf(meetup.getId())).update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "update meetup set event = ?, id_registration = ?, meetup_date = ?, registration_attribute = ?, "
+                            + "registered = ?, change_sequence = ?, meetup_day = ?, starts_at = ?, ends_at = ?, venue = ? "
+                            + "where id = ?");
+            bind(statement, meetup);
+            statement.setInt(11, router.localId(meetup.getId()));
+            return statement;
+        });
+    }
+
+    private static void stamp(Meetup meetup) {
+        meetup.setChangeSequence(ChangeSequence.next());
+        meetup.setMeetupDay(MeetupDates.parse(meetup.getMeetupDate()));
+    }
+
+    private void bind(PreparedStatement statement, Meetup meetup) throws SQLException {
+        statement.setString(1, meetup.getEvent());
+        statement.setObject(2, meetup.getRegistration() == null ? null : meetup.getRegistration().getId());
+        statement.setString(3, meetup.getMeetupDate());
+        statement.setString(4, meetup.getRegistrationAttribute());
+        statement.setObject(5, meetup.getRegistered());
+        statement.setLong(6, meetup.getChangeSequence());
+        statement.setObject(7, meetup.getMeetupDay());
+        statement.setObject(8, meetup.getStartsAt());
+        statement.setObject(9, meetup.getEndsAt());
+        statement.setString(10, meetup.getVenue());
+    }
+
+    private RowMapper<Meetup> rowMapper(int shard) {
+        return (rs, rowNum) -> {
+            Integer registrationId = (Integer) rs.getObject("id_registration");
+            return Meetup.builder()
+                    .id(router.globalId(rs.getInt("id"), shard))
+                    .event(rs.getString("event"))
+                    .registration(registrationId == null ? null : Registration.builder().id(registrationId).build())
+                    .meetupDate(rs.getString("meetup_date"))
+                    .registrationAttribute(rs.getString("registration_attribute"))
+                    .registered((Boolean) rs.getObject("registered"))
+                    .changeSequence(rs.getLong("change_sequence"))
+                    .attendeeCount(rs.getInt("attendee_count"))
+                    .meetupDay(rs.getObject("meetup_day", LocalDate.class))
+                    .startsAt(rs.getObject("starts_at", LocalDateTime.class))
+                    .endsAt(rs.getObject("ends_at", LocalDateTime.class))
+                    .venue(rs.getString("venue"))
+                    .build();
+        };
+    }
+
+    // as inscricoes continuam no banco principal: uma unica busca por pagina
+    private List<Meetup> resolveRegistrations(List<Meetup> meetups) {
+        Set<Integer> ids = new HashSet<>();
+        meetups.forEach(meetup -> {
+            if (meetup.getRegistration() != null) {
+                ids.add(meetup.getRegistration().getId());
+            }
+        });
+        if (ids.isEmpty()) {
+            return meetups;
+        }
+        Map<Integer, Registration> registrations = new HashMap<>();
+        registrationLoader.apply(ids).forEach(registration -> registrations.put(registration.getId(), registration));
+        meetups.forEach(meetup -> {
+            if (meetup.getRegistration() != null) {
+                meetup.setRegistration(registrations.get(meetup.getRegistration().getId()));
+            }
+        });
+        return meetups;
+    }
+}
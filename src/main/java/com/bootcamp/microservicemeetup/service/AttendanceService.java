@@ -0,0 +1,12 @@
+package com.bootcamp.microservicemeetup.service;
+
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+
+import java.util.List;
+
+public interface AttendanceService {
+
+    void attend(Integer meetupId, Registration registration);
+
+    List<Registration> getAttendees(Integer meetupId, Integer after, int limit);
+}
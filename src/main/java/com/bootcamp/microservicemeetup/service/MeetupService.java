@@ -1,25 +1,45 @@
 package com.bootcamp.microservicemeetup.service;
 
 
+import com.bootcamp.microservicemeetup.controller.dto.MeetupBulkDTO;
 import com.bootcamp.microservicemeetup.controller.dto.MeetupFilterDTO;
 import com.bootcamp.microservicemeetup.model.entity.Meetup;
 import com.bootcamp.microservicemeetup.model.entity.Registration;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
 public interface MeetupService {
 
     Meetup save(Meetup meetup);
 
+    CompletableFuture<Meetup> saveAsync(Meetup meetup);
+
     Optional<Meetup> getMeetupById(Integer id);
 
+    Map<Integer, Meetup> getMeetupsByIds(Collection<Integer> ids);
+
     void delete(Meetup meetup);
 
     Meetup update(Meetup loan);
 
+    int bulkDelete(MeetupBulkDTO bulk);
+
+    int bulkUpdate(MeetupBulkDTO bulk);
+
     Page<Meetup> find(MeetupFilterDTO filterDTO, Pageable pageable);
 
+    Page<Meetup> findIncludingArchived(MeetupFilterDTO filterDTO, Pageable pageable);
+
+    Slice<Meetup> findSlice(MeetupFilterDTO filterDTO, Pageable pageable);
+
+    Slice<Meetup> findSliceIncludingArchived(MeetupFilterDTO filterDTO, Pageable pageable);
+
     Page<Meetup> getRegistrationsByMeetup(Registration registration, Pageable pageable);
 
 }
@@ -4,7 +4,10 @@ import com.bootcamp.microservicemeetup.model.entity.Registration;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 public interface RegistrationService {
@@ -13,11 +16,17 @@ public interface RegistrationService {
 
     Optional<Registration> getRegistrationById(Integer id);
 
+    Map<Integer, Registration> getRegistrationsByIds(Collection<Integer> ids);
+
     void delete(Registration registration);
 
     Registration update(Registration registration);
 
+    int bulkDelete(Collection<Integer> ids);
+
     Page<Registration> find(Registration filter, Pageable pageRequest);
 
+    Slice<Registration> findSlice(Registration filter, Pageable pageRequest);
+
     Optional<Registration> getRegistrationByRegistrationAttribute(String registrationAttribute);
 }
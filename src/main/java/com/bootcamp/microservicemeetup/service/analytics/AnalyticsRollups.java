@@ -0,0 +1,365 @@
+package com.bootcamp.microservicemeetup.service.analytics;
+
+import com.bootcamp.microservicemeetup.controller.dto.AttendanceDistributionDTO;
+import com.bootcamp.microservicemeetup.controller.dto.DailyCountDTO;
+import com.bootcamp.microservicemeetup.controller.dto.EventSignUpsDTO;
+import com.bootcamp.microservicemeetup.model.entity.MeetupDates;
+import com.bootcamp.microservicemeetup.model.event.AttendanceChangedEvent;
+import com.bootcamp.microservicemeetup.model.event.ChangeType;
+import com.bootcamp.microservicemeetup.model.event.MeetupChangedEvent;
+import com.bootcamp.microservicemeetup.model.event.MeetupsDeletedEvent;
+import com.bootcamp.microservicemeetup.model.event.MeetupsUpdatedEvent;
+import com.bootcamp.microservicemeetup.model.event.RegistrationChangedEvent;
+import com.bootcamp.microservicemeetup.model.event.RegistrationsDeletedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// agregados de analytics fora das tabelas quentes. O estado fica em colunas de int indexadas pelo id
+// (ids sao identity, entao os arrays sao densos) e em baldes por dia; os eventos de escrita mantem tudo
+// incrementalmente e o rebuild recalcula do banco com parallel streams. As leituras usam um snapshot
+// imutavel, refeito no maximo a cada refresh-ms, e nao dependem do tamanho das tabelas
+@Component
+public class AnalyticsRollups {
+
+    static final LocalDate FIRST_DAY = LocalDate.of(2000, 1, 1);
+    static final int DAYS = (int) ChronoUnit.DAYS.between(FIRST_DAY, LocalDate.of(2100, 1, 1));
+    static final int HISTOGRAM_BUCKETS = 51;
+    static final int TOP_EVENTS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ScheduledExecutorService scheduler;
+
+    // registrationDay: 0 = registration desconhecida, 1 = sem data valida, d + 2 = indice do dia
+    private int[] registrationDay = new int[1024];
+    private int[] attendedByRegistrant = new int[1024];
+    private int[] signUpsByMeetup = new int[1024];
+    private String[] eventByMeetup = new String[1024];
+    private long[] perDay = new long[DAYS];
+    private long[] histogram = new long[HISTOGRAM_BUCKETS];
+    private long registrants;
+    private long attendances;
+
+    private volatile boolean dirty;
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyList(), new long[DAYS], new long[HISTOGRAM_BUCKETS], 0, 0);
+
+    public AnalyticsRollups(JdbcTemplate jdbcTemplate,
+                            @Value("${meetup.analytics.refresh-ms:1000}") long refreshMs,
+                            @Value("${meetup.analytics.rebuild-ms:21600000}") long rebuildMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "analytics-rollups");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::refresh, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+        this.scheduler.scheduleWithFixedDelay(this::rebuildQuietly, rebuildMs, rebuildMs, TimeUnit.MILLISECONDS);
+    }
+
+    public List<EventSignUpsDTO> topEvents(int limit) {
+        List<EventSignUpsDTO> top = snapshot.topEvents;
+        return top.subList(0, Math.max(0, Math.min(limit, top.size())));
+    }
+
+    public List<DailyCountDTO> registrationsPerDay(LocalDate from, LocalDate to) {
+        long[] days = snapshot.perDay;
+        int first = (int) Math.max(0, ChronoUnit.DAYS.between(FIRST_DAY, from));
+        int last = (int) Math.min(DAYS - 1, ChronoUnit.DAYS.between(FIRST_DAY, to));
+        List<DailyCountDTO> result = new ArrayList<>(Math.max(0, last - first + 1));
+        for (int day = first; day <= last; day++) {
+            result.add(new DailyCountDTO(FIRST_DAY.plusDays(day), days[day]));
+        }
+        return result;
+    }
+
+    public AttendanceDistributionDTO meetupsPerRegistrant() {
+        Snapshot current = snapshot;
+        return AttendanceDistributionDTO.builder()
+                .registrants(current.registrants)
+                .attendances(current.attendances)
+                .average(current.registrants == 0 ? 0 : (double) current.attendances / current.registrants)
+                .histogram(current.histogram.clone())
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void requestRebuild() {
+        scheduler.execute(this::rebuildQuietly);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRegistrationChanged(RegistrationChangedEvent event) {
+        int id = event.getRegistration().getId();
+        if (event.getType() == ChangeType.DELETED) {
+            removeRegistration(id);
+        } else {
+            putRegistration(id, event.getRegistration().getDateOfRegistration());
+        }
+        dirty = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRegistrationsDeleted(RegistrationsDeletedEvent event) {
+        event.getIds().forEach(this::removeRegistration);
+        dirty = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onMeetupChanged(MeetupChangedEvent event) {
+        int id = event.getMeetup().getId();
+        if (event.getType() == ChangeType.DELETED) {
+            removeMeetup(id);
+        } else {
+            ensureMeetup(id);
+            eventByMeetup[id] = event.getMeetup().getEvent();
+        }
+        dirty = true;
+    }
+
+    // o delete em lote nao diz quem participava; a distribuicao por pessoa se acerta no proximo rebuild
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onMeetupsDeleted(MeetupsDeletedEvent event) {
+        event.getIds().forEach(this::removeMeetup);
+        dirty = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onMeetupsUpdated(MeetupsUpdatedEvent event) {
+        if (event.getEvent() == null) {
+            return;
+        }
+        for (Integer id : event.getIds()) {
+            if (id < eventByMeetup.length && eventByMeetup[id] != null) {
+                eventByMeetup[id] = event.getEvent();
+            }
+        }
+        dirty = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onAttendanceChanged(AttendanceChangedEvent event) {
+        int meetupId = event.getMeetupId();
+        ensureMeetup(meetupId);
+        signUpsByMeetup[meetupId] = Math.max(0, signUpsByMeetup[meetupId] + event.getDelta() * event.getRegistrationIds().size());
+        for (Integer registrationId : event.getRegistrationIds()) {
+            ensureRegistration(registrationId);
+            int before = attendedByRegistrant[registrationId];
+            int after = Math.max(0, before + event.getDelta());
+            attendedByRegistrant[registrationId] = after;
+            attendances += after - before;
+            if (registrationDay[registrationId] != 0) {
+                histogram[bucket(before)]--;
+                histogram[bucket(after)]++;
+            }
+        }
+        dirty = true;
+    }
+
+    // recalcula tudo a partir do banco; cada parallel stream escreve em posicoes distintas
+    // ou em arrays atomicos, e o resultado troca o estado de uma vez
+    public void rebuild() {
+        List<Object[]> registrations = jdbcTemplate.query("select registration_id, date_of_registration from registration",
+                (resultSet, row) -> new Object[]{resultSet.getInt(1), resultSet.getString(2)});
+        List<Object[]> meetups = jdbcTemplate.query("select id, event from meetup union all select id, event from meetup_archive",
+                (resultSet, row) -> new Object[]{resultSet.getInt(1), resultSet.getString(2)});
+        List<int[]> attendance = jdbcTemplate.query("select meetup_id, registration_id from attendance "
+                        + "union all select meetup_id, registration_id from attendance_archive",
+                (resultSet, row) -> new int[]{resultSet.getInt(1), resultSet.getInt(2)});
+
+        int registrationCapacity = 1 + Math.max(
+                registrations.parallelStream().mapToInt(row -> (Integer) row[0]).max().orElse(0),
+                attendance.parallelStream().mapToInt(row -> row[1]).max().orElse(0));
+        int meetupCapacity = 1 + Math.max(
+                meetups.parallelStream().mapToInt(row -> (Integer) row[0]).max().orElse(0),
+                attendance.parallelStream().mapToInt(row -> row[0]).max().orElse(0));
+
+        int[] days = new int[registrationCapacity];
+        AtomicLongArray dayTotals = new AtomicLongArray(DAYS);
+        registrations.parallelStream().forEach(row -> {
+            int day = dayIndex((String) row[1]);
+            days[(Integer) row[0]] = day >= 0 ? day + 2 : 1;
+            if (day >= 0) {
+                dayTotals.incrementAndGet(day);
+            }
+        });
+
+        String[] events = new String[meetupCapacity];
+        meetups.parallelStream().forEach(row -> events[(Integer) row[0]] = (String) row[1]);
+
+        AtomicIntegerArray signUps = new AtomicIntegerArray(meetupCapacity);
+        AtomicIntegerArray attended = new AtomicIntegerArray(registrationCapacity);
+        attendance.parallelStream().forEach(row -> {
+            signUps.incrementAndGet(row[0]);
+            attended.incrementAndGet(row[1]);
+        });
+
+        long[] buckets = IntStream.range(0, registrationCapacity).parallel()
+                .filter(id -> days[id] != 0)
+                .collect(() -> new long[HISTOGRAM_BUCKETS],
+                        (partial, id) -> partial[bucket(attended.get(id))]++,
+                        (left, right) -> Arrays.setAll(left, i -> left[i] + right[i]));
+
+        synchronized (this) {
+            registrationDay = days;
+            attendedByRegistrant = toIntArray(attended);
+            signUpsByMeetup = toIntArray(signUps);
+            eventByMeetup = events;
+            perDay = IntStream.range(0, DAYS).mapToLong(dayTotals::get).toArray();
+            histogram = buckets;
+            registrants = registrations.size();
+            attendances = attendance.size();
+            dirty = false;
+            snapshot = buildSnapshot();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    static int dayIndex(String date) {
+        // data fora do formato dd/MM/yyyy: conta a pessoa, mas sem dia
+        LocalDate day = MeetupDates.parse(date);
+        if (day == null) {
+            return -1;
+        }
+        long index = ChronoUnit.DAYS.between(FIRST_DAY, day);
+        return index >= 0 && index < DAYS ? (int) index : -1;
+    }
+
+    void refresh() {
+        if (!dirty) {
+            return;
+        }
+        synchronized (this) {
+            dirty = false;
+            snapshot = buildSnapshot();
+        }
+    }
+
+    private Snapshot buildSnapshot() {
+        Map<String, Long> byEvent = new HashMap<>();
+        for (int id = 0; id < signUpsByMeetup.length; id++) {
+            if (signUpsByMeetup[id] > 0 && eventByMeetup[id] != null) {
+                byEvent.merge(eventByMeetup[id], (long) signUpsByMeetup[id], Long::sum);
+            }
+        }
+        List<EventSignUpsDTO> top = byEvent.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry::getKey))
+                .limit(TOP_EVENTS)
+                .map(entry -> new EventSignUpsDTO(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+        return new Snapshot(Collections.unmodifiableList(top), perDay.clone(), histogram.clone(), registrants, attendances);
+    }
+
+    private void putRegistration(int id, String date) {
+        ensureRegistration(id);
+        int previous = registrationDay[id];
+        if (previous == 0) {
+            registrants++;
+            histogram[bucket(attendedByRegistrant[id])]++;
+        } else if (previous > 1) {
+            perDay[previous - 2]--;
+        }
+        int day = dayIndex(date);
+        registrationDay[id] = day >= 0 ? day + 2 : 1;
+        if (day >= 0) {
+            perDay[day]++;
+        }
+    }
+
+    private void removeRegistration(int id) {
+        if (id >= registrationDay.length || registrationDay[id] == 0) {
+            return;
+        }
+        if (registrationDay[id] > 1) {
+            perDay[registrationDay[id] - 2]--;
+        }
+        histogram[bucket(attendedByRegistrant[id])]--;
+        attendances -= attendedByRegistrant[id];
+        attendedByRegistrant[id] = 0;
+        registrationDay[id] = 0;
+        registrants--;
+    }
+
+    private void removeMeetup(int id) {
+        if (id < signUpsByMeetup.length) {
+            signUpsByMeetup[id] = 0;
+            eventByMeetup[id] = null;
+        }
+    }
+
+    private void ensureRegistration(int id) {
+        if (id >= registrationDay.length) {
+            int capacity = Math.max(id + 1, registrationDay.length * 2);
+            registrationDay = Arrays.copyOf(registrationDay, capacity);
+            attendedByRegistrant = Arrays.copyOf(attendedByRegistrant, capacity);
+        }
+    }
+
+    private void ensureMeetup(int id) {
+        if (id >= signUpsByMeetup.length) {
+            int capacity = Math.max(id + 1, signUpsByMeetup.length * 2);
+            signUpsByMeetup = Arrays.copyOf(signUpsByMeetup, capacity);
+            eventByMeetup = Arrays.copyOf(eventByMeetup, capacity);
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // mantem os agregados incrementais ate a proxima tentativa
+        }
+    }
+
+    private static int bucket(int meetups) {
+        return Math.min(meetups, HISTOGRAM_BUCKETS - 1);
+    }
+
+    private static int[] toIntArray(AtomicIntegerArray values) {
+        int[] copy = new int[values.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = values.get(i);
+        }
+        return copy;
+    }
+
+    private static final class Snapshot {
+
+        private final List<EventSignUpsDTO> topEvents;
+        private final long[] perDay;
+        private final long[] histogram;
+        private final long registrants;
+        private final long attendances;
+
+        private Snapshot(List<EventSignUpsDTO> topEvents, long[] perDay, long[] histogram, long registrants, long attendances) {
+            this.topEvents = topEvents;
+            this.perDay = perDay;
+            this.histogram = histogram;
+            this.registrants = registrants;
+            this.attendances = attendances;
+        }
+    }
+}
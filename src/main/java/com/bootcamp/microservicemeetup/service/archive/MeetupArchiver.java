@@ -0,0 +1,144 @@
+package com.bootcamp.microservicemeetup.service.archive;
+
+import com.bootcamp.microservicemeetup.model.entity.ChangeSequence;
+import com.bootcamp.microservicemeetup.model.entity.Tombstone;
+import com.bootcamp.microservicemeetup.repository.MeetupRepository;
+import com.bootcamp.microservicemeetup.service.counter.AttendanceCounters;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// move os meetups que ja passaram (e a presenca deles) para meetup_archive/attendance_archive.
+// Cada bloco de ids e uma transacao curta: os locks duram o tempo de cinco statements
+// e as consultas do dia a dia continuam vendo tabelas do tamanho do que ainda vai acontecer.
+// Para o delta sync o meetup arquivado saiu da tabela: ganha tombstone na mesma transacao do delete
+@Component
+@ConditionalOnProperty(name = "meetup.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class MeetupArchiver {
+
+    // pelo horario em que o meetup termina (ou comeca, se nao tem fim); sem horario nenhum a linha fica na tabela quente.
+    // Um lado do union por coluna, cada um no seu indice: um coalesce no where iria ao scan
+    static final String SELECT_IDS = "select id from (select id, ends_at as ended_at from meetup where ends_at < :cutoff "
+            + "union all select id, starts_at from meetup where ends_at is null and starts_at < :cutoff) m "
+            + "order by ended_at limit :limit";
+    static final String COPY_MEETUPS = "insert into meetup_archive (" + MeetupRepository.COLUMNS + ", archived_at) "
+            + "select" + MeetupRepository.COLUMNS + ", :archivedAt from meetup where id in (:ids)";
+    static final String COPY_ATTENDANCE = "insert into attendance_archive (meetup_id, registration_id) "
+            + "select meetup_id, registration_id from attendance where meetup_id in (:ids)";
+    static final String DELETE_ATTENDANCE = "delete from attendance where meetup_id in (:ids)";
+    static final String INSERT_TOMBSTONES = "insert into tombstone (entity_type, entity_id, change_sequence) "
+            + "select '" + Tombstone.MEETUP + "', m.id, :base + (select count(*) from meetup x where x.id in (:ids) and x.id < m.id) "
+            + "from meetup m where m.id in (:ids)";
+    static final String DELETE_MEETUPS = "delete from meetup where id in (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AttendanceCounters counters;
+    private final int retentionDays;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLong archivedMeetups = new AtomicLong();
+    private volatile long lastRunAt;
+
+    public MeetupArchiver(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          AttendanceCounters counters,
+                          @Value("${meetup.archive.retention-days:30}") int retentionDays,
+                          @Value("${meetup.archive.chunk-size:500}") int chunkSize,
+                          @Value("${meetup.archive.pause-ms:50}") long pauseMs,
+                          @Value("${meetup.archive.interval-ms:3600000}") long intervalMs) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.counters = counters;
+        this.retentionDays = retentionDays;
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "meetup-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::archiveQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public long getArchivedMeetups() {
+        return archivedMeetups.get();
+    }
+
+    public long getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public int archive() {
+        return archiveOlderThan(LocalDate.now().minusDays(retentionDays));
+    }
+
+    // bloco a bloco ate nao sobrar nada antes do corte; a pausa entre blocos deixa as escritas normais passarem
+    public int archiveOlderThan(LocalDate cutoff) {
+        // deltas pendentes vao para a coluna antes de a linha sair da tabela quente
+        counters.flush();
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+            total += moved;
+            archivedMeetups.addAndGet(moved);
+        } while (moved == chunkSize && pause());
+        lastRunAt = System.currentTimeMillis();
+        return total;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private int archiveChunk(LocalDate cutoff) {
+        List<Integer> ids = jdbcTemplate.queryForList(SELECT_IDS,
+                new MapSqlParameterSource("cutoff", cutoff.atStartOfDay()).addValue("limit", chunkSize), Integer.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids).addValue("archivedAt", System.currentTimeMillis())
+                .addValue("base", ChangeSequence.reserve(ids.size()));
+        jdbcTemplate.update(COPY_MEETUPS, params);
+        jdbcTemplate.update(COPY_ATTENDANCE, params);
+        jdbcTemplate.update(DELETE_ATTENDANCE, params);
+        jdbcTemplate.update(INSERT_TOMBSTONES, params);
+        jdbcTemplate.update(DELETE_MEETUPS, params);
+        return ids.size();
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void archiveQuietly() {
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            // o que ja foi movido fica movido; o resto vai na proxima rodada
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.bootcamp.microservicemeetup.service.batch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// busca uma lista de ids com poucos IN (...) e devolve o resultado na ordem pedida
+public final class BatchLookup {
+
+    // limite de parametros por IN; mantem o plano de execucao reaproveitavel e evita listas gigantes no driver
+    public static final int CHUNK_SIZE = 500;
+
+    private BatchLookup() {
+    }
+
+    public static <T> Map<Integer, T> findAllInOrder(Collection<Integer> ids,
+                                                     Function<List<Integer>, List<T>> loader,
+                                                     Function<T, Integer> idOf) {
+        List<Integer> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Integer, T> found = new HashMap<>(distinct.size() * 2);
+        for (List<Integer> chunk : chunks(distinct)) {
+            for (T entity : loader.apply(chunk)) {
+                found.put(idOf.apply(entity), entity);
+            }
+        }
+
+        Map<Integer, T> ordered = new LinkedHashMap<>(found.size() * 2);
+        for (Integer id : distinct) {
+            T entity = found.get(id);
+            if (entity != null) {
+                ordered.put(id, entity);
+            }
+        }
+        return ordered;
+    }
+
+    // ids distintos e ordenados, em blocos de CHUNK_SIZE; ids proximos no mesmo bloco
+    // deixam o intervalo min..max de cada bloco curto
+    public static List<List<Integer>> sortedChunks(Collection<Integer> ids) {
+        List<Integer> sorted = new ArrayList<>(new LinkedHashSet<>(ids));
+        Collections.sort(sorted);
+        return chunks(sorted);
+    }
+
+    private static List<List<Integer>> chunks(List<Integer> ids) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,171 @@
+package com.bootcamp.microservicemeetup.service.batch;
+
+import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.event.ChangeType;
+import com.bootcamp.microservicemeetup.model.event.MeetupChangedEvent;
+import com.bootcamp.microservicemeetup.repository.MeetupOperations;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// cada insert entra numa fila limitada e uma unica thread grava o lote inteiro numa transacao,
+// pagando um commit por lote em vez de um por request
+@Component
+@ConditionalOnProperty(name = "meetup.write.group-commit.enabled", havingValue = "true")
+public class MeetupGroupCommitWriter {
+
+    private final MeetupOperations repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingWrite> queue;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final Thread committer;
+
+    private volatile boolean running = true;
+
+    public MeetupGroupCommitWriter(MeetupOperations repository,
+                                   ApplicationEventPublisher eventPublisher,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${meetup.write.group-commit.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${meetup.write.group-commit.max-batch-size:256}") int maxBatchSize,
+                                   @Value("${meetup.write.group-commit.max-delay-ms:5}") long maxDelayMs) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.committer = new Thread(this::runCommitter, "meetup-group-commit");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    public CompletableFuture<Meetup> submit(Meetup meetup) {
+        PendingWrite write = new PendingWrite(meetup);
+        if (!running) {
+            write.future.completeExceptionally(new BusinessException("Meetup write queue is closed"));
+        } else if (!queue.offer(write)) {
+            write.future.completeExceptionally(new BusinessException("Meetup write queue is full"));
+        } else if (!running && queue.remove(write)) {
+            // o committer saiu entre a checagem e o offer; ninguem mais vai tirar o item da fila
+            write.future.completeExceptionally(new BusinessException("Meetup write queue is closed"));
+        }
+        return write.future;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        committer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void runCommitter() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                try {
+                    PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    fillBatch(batch);
+                    commit(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    fail(batch, e);
+                    return;
+                } finally {
+                    batch.clear();
+                }
+            }
+        } finally {
+            // sem committer a fila nao anda mais: o que ficou nela e o que chegar depois falha na hora
+            running = false;
+            List<PendingWrite> abandoned = new ArrayList<>();
+            queue.drainTo(abandoned);
+            fail(abandoned, new BusinessException("Meetup write queue is closed"));
+        }
+    }
+
+    // espera no maximo maxDelay desde o primeiro item do lote
+    private void fillBatch(List<PendingWrite> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                return;
+            }
+            PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<PendingWrite> batch) {
+        List<PendingWrite> accepted = new ArrayList<>(batch.size());
+        try {
+            List<Meetup> saved = transactionTemplate.execute(status -> {
+                Set<String> events = new HashSet<>();
+                for (PendingWrite write : batch) {
+                    events.add(write.meetup.getEvent());
+                }
+                Set<String> existing = new HashSet<>(repository.findExistingEvents(events));
+
+                List<Meetup> toSave = new ArrayList<>(batch.size());
+                for (PendingWrite write : batch) {
+                    // o add falha quando o mesmo evento ja apareceu no banco ou antes neste lote
+                    if (!existing.add(write.meetup.getEvent())) {
+                        write.future.completeExceptionally(new BusinessException("Meetup already created"));
+                        continue;
+                    }
+                    accepted.add(write);
+                    toSave.add(write.meetup);
+                }
+                List<Meetup> created = repository.saveAll(toSave);
+                // publicado dentro da transacao: os listeners transacionais so recebem apos o commit
+                created.forEach(meetup -> eventPublisher.publishEvent(new MeetupChangedEvent(ChangeType.CREATED, meetup)));
+                return created;
+            });
+            for (int i = 0; i < accepted.size(); i++) {
+                accepted.get(i).future.complete(saved.get(i));
+            }
+        } catch (RuntimeException e) {
+            fail(accepted, e);
+        }
+    }
+
+    private void fail(List<PendingWrite> batch, Throwable cause) {
+        for (PendingWrite write : batch) {
+            write.future.completeExceptionally(cause);
+        }
+    }
+
+    private static final class PendingWrite {
+
+        private final Meetup meetup;
+        private final CompletableFuture<Meetup> future = new CompletableFuture<>();
+
+        private PendingWrite(Meetup meetup) {
+            this.meetup = meetup;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.bootcamp.microservicemeetup.service.changefeed;
+
+import com.bootcamp.microservicemeetup.controller.dto.ChangeEventDTO;
+import com.bootcamp.microservicemeetup.controller.dto.MeetupDTO;
+import com.bootcamp.microservicemeetup.controller.dto.RegistrationDTO;
+import com.bootcamp.microservicemeetup.model.event.ChangeType;
+import com.bootcamp.microservicemeetup.model.event.MeetupChangedEvent;
+import com.bootcamp.microservicemeetup.model.event.MeetupsDeletedEvent;
+import com.bootcamp.microservicemeetup.model.event.MeetupsUpdatedEvent;
+import com.bootcamp.microservicemeetup.model.event.RegistrationChangedEvent;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// os assinantes nao prendem thread: cada um tem um buffer limitado e um pool pequeno
+// esvazia os buffers com eventos pendentes
+@Component
+public class ChangeFeedHub {
+
+    public enum OverflowPolicy {
+        DROP_OLDEST,
+        DISCONNECT
+    }
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ModelMapper modelMapper;
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService heartbeat;
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+    private final long timeoutMs;
+
+    public ChangeFeedHub(ModelMapper modelMapper,
+                         @Value("${meetup.stream.buffer-size:256}") int bufferSize,
+                         @Value("${meetup.stream.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy,
+                         @Value("${meetup.stream.timeout-ms:1800000}") long timeoutMs,
+                         @Value("${meetup.stream.heartbeat-ms:15000}") long heartbeatMs,
+                         @Value("${meetup.stream.dispatch-threads:4}") int dispatchThreads) {
+        this.modelMapper = modelMapper;
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = overflowPolicy;
+        this.timeoutMs = timeoutMs;
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, daemon("change-feed-dispatch"));
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(daemon("change-feed-heartbeat"));
+        this.heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe() {
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMs));
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return subscriber.emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMeetupChanged(MeetupChangedEvent event) {
+        ChangeEventDTO change = ChangeEventDTO.builder()
+                .entity("meetup")
+                .type(event.getType().name())
+                .id(event.getMeetup().getId())
+                .data(event.getType() == ChangeType.DELETED ? null : modelMapper.map(event.getMeetup(), MeetupDTO.class))
+                .build();
+        publish(change);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMeetupsDeleted(MeetupsDeletedEvent event) {
+        event.getIds().forEach(id -> publish(ChangeEventDTO.builder()
+                .entity("meetup")
+                .type(ChangeType.DELETED.name())
+                .id(id)
+                .build()));
+    }
+
+    // o lote nao carrega as linhas: sem data, o assinante busca pelo id o que precisar
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMeetupsUpdated(MeetupsUpdatedEvent event) {
+        event.getIds().forEach(id -> publish(ChangeEventDTO.builder()
+                .entity("meetup")
+                .type(ChangeType.UPDATED.name())
+                .id(id)
+                .build()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRegistrationChanged(RegistrationChangedEvent event) {
+        ChangeEventDTO change = ChangeEventDTO.builder()
+                .entity("registration")
+                .type(event.getType().name())
+                .id(event.getRegistration().getId())
+                .data(event.getType() == ChangeType.DELETED ? null : modelMapper.map(event.getRegistration(), RegistrationDTO.class))
+                .build();
+        publish(change);
+    }
+
+    public void publish(ChangeEventDTO change) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offer(change)) {
+                scheduleDrain(subscriber);
+            } else {
+                disconnect(subscriber, null);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            ChangeEventDTO change;
+            while ((change = subscriber.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .name(change.getEntity())
+                        .data(change, MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException e) {
+            disconnect(subscriber, e);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // um evento pode ter chegado entre o ultimo poll e a liberacao do flag
+        if (subscriber.hasPending()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.draining.get()) {
+                continue;
+            }
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                disconnect(subscriber, e);
+            }
+        }
+    }
+
+    private void disconnect(Subscriber subscriber, Throwable cause) {
+        if (subscribers.remove(subscriber)) {
+            if (cause == null) {
+                subscriber.emitter.complete();
+            } else {
+                subscriber.emitter.completeWithError(cause);
+            }
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ArrayDeque<ChangeEventDTO> buffer = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // retorna false quando o assinante deve ser desconectado
+        private synchronized boolean offer(ChangeEventDTO change) {
+            if (buffer.size() >= bufferSize) {
+                if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                    return false;
+                }
+                buffer.pollFirst();
+            }
+            buffer.addLast(change);
+            return true;
+        }
+
+        private synchronized ChangeEventDTO poll() {
+            return buffer.pollFirst();
+        }
+
+        private synchronized boolean hasPending() {
+            return !buffer.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.bootcamp.microservicemeetup.service.changefeed;
+
+import com.bootcamp.microservicemeetup.model.entity.ChangeSequence;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// o ChangeSequence parte do maior valor ja gravado no banco principal, para um relogio que voltou (ou uma maquina
+// com o relogio atrasado) nao entregar sequencias menores que as que os clientes do delta sync ja viram
+@Component
+public class ChangeSequenceSeeder {
+
+    static final String MAX_SEQUENCE = "select max(s) from ("
+            + "select max(change_sequence) s from meetup "
+            + "union all select max(change_sequence) s from meetup_archive "
+            + "union all select max(change_sequence) s from registration "
+            + "union all select max(change_sequence) s from tombstone) t";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ChangeSequenceSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void seed() {
+        Long last = jdbcTemplate.queryForObject(MAX_SEQUENCE, Long.class);
+        if (last != null) {
+            ChangeSequence.seed(last);
+        }
+    }
+}
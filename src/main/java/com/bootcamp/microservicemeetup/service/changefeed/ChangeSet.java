@@ -0,0 +1,17 @@
+package com.bootcamp.microservicemeetup.service.changefeed;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ChangeSet<T> {
+
+    private final List<T> upserts;
+
+    private final List<Integer> deletedIds;
+
+    private final long next;
+}
@@ -0,0 +1,38 @@
+package com.bootcamp.microservicemeetup.service.changefeed;
+
+import com.bootcamp.microservicemeetup.model.entity.Tombstone;
+import com.bootcamp.microservicemeetup.model.event.ChangeType;
+import com.bootcamp.microservicemeetup.model.event.MeetupChangedEvent;
+import com.bootcamp.microservicemeetup.model.event.RegistrationChangedEvent;
+import com.bootcamp.microservicemeetup.repository.TombstoneRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// listener sincrono: o tombstone e gravado na mesma transacao do delete
+@Component
+public class TombstoneRecorder {
+
+    private final TombstoneRepository repository;
+
+    public TombstoneRecorder(TombstoneRepository repository) {
+        this.repository = repository;
+    }
+
+    @EventListener
+    public void onMeetupChanged(MeetupChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            record(Tombstone.MEETUP, event.getMeetup().getId());
+        }
+    }
+
+    @EventListener
+    public void onRegistrationChanged(RegistrationChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            record(Tombstone.REGISTRATION, event.getRegistration().getId());
+        }
+    }
+
+    private void record(String entityType, Integer entityId) {
+        repository.save(Tombstone.builder().entityType(entityType).entityId(entityId).build());
+    }
+}
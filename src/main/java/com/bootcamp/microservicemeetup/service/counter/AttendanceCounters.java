@@ -0,0 +1,200 @@
+package com.bootcamp.microservicemeetup.service.counter;
+
+import com.bootcamp.microservicemeetup.model.entity.ChangeSequence;
+import com.bootcamp.microservicemeetup.model.event.AttendanceChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// contadores de presenca: cada commit soma um delta num LongAdder por id (sem disputar a linha
+// do meetup popular) e uma thread aplica os deltas acumulados com "+ delta" em lote.
+// A reconciliacao compara as colunas com a tabela attendance e corrige o que divergiu.
+// Toda escrita de contador numera a linha de novo na change_sequence, para o delta sync levar o valor novo
+@Component
+@ConditionalOnProperty(name = "meetup.attendance.enabled", havingValue = "true", matchIfMissing = true)
+public class AttendanceCounters {
+
+    static final String MEETUP_UPDATE = "update meetup set attendee_count = attendee_count + ?, change_sequence = ? where id = ?";
+    static final String REGISTRATION_UPDATE = "update registration set meetup_count = meetup_count + ?, change_sequence = ? "
+            + "where registration_id = ?";
+    static final String MEETUP_SET = "update meetup set attendee_count = ?, change_sequence = ? where id = ?";
+    static final String REGISTRATION_SET = "update registration set meetup_count = ?, change_sequence = ? where registration_id = ?";
+
+    static final String MEETUP_DRIFT = "select m.id, count(a.registration_id) from meetup m "
+            + "left join attendance a on a.meetup_id = m.id group by m.id, m.attendee_count "
+            + "having m.attendee_count <> count(a.registration_id)";
+    // meetup_count conta tambem os meetups ja arquivados
+    static final String REGISTRATION_DRIFT = "select r.registration_id, count(a.meetup_id) from registration r "
+            + "left join (select registration_id, meetup_id from attendance "
+            + "union all select registration_id, meetup_id from attendance_archive) a "
+            + "on a.registration_id = r.registration_id group by r.registration_id, r.meetup_count "
+            + "having r.meetup_count <> count(a.meetup_id)";
+
+    private final Map<Integer, LongAdder> meetupDeltas = new ConcurrentHashMap<>();
+    private final Map<Integer, LongAdder> registrationDeltas = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLong flushedDeltas = new AtomicLong();
+    private final AtomicLong correctedRows = new AtomicLong();
+    private volatile int lastDrift;
+
+    public AttendanceCounters(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${meetup.counters.flush-ms:1000}") long flushMs,
+                              @Value("${meetup.counters.reconcile-ms:3600000}") long reconcileMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // uma thread so: flush e reconciliacao nunca rodam ao mesmo tempo
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "attendance-counters");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::flushQuietly, flushMs, flushMs, TimeUnit.MILLISECONDS);
+        this.scheduler.scheduleWithFixedDelay(this::reconcileQuietly, reconcileMs, reconcileMs, TimeUnit.MILLISECONDS);
+    }
+
+    // so depois do commit: presenca desfeita por rollback nao conta
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        add(meetupDeltas, event.getMeetupId(), (long) event.getDelta() * event.getRegistrationIds().size());
+        for (Integer registrationId : event.getRegistrationIds()) {
+            add(registrationDeltas, registrationId, event.getDelta());
+        }
+    }
+
+    public long getPendingMeetupDelta(Integer meetupId) {
+        LongAdder adder = meetupDeltas.get(meetupId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public long getFlushedDeltas() {
+        return flushedDeltas.get();
+    }
+
+    public long getCorrectedRows() {
+        return correctedRows.get();
+    }
+
+    public int getLastDrift() {
+        return lastDrift;
+    }
+
+    public void flush() {
+        flush(meetupDeltas, MEETUP_UPDATE);
+        flush(registrationDeltas, REGISTRATION_UPDATE);
+    }
+
+    // compara as colunas com a contagem real; linha com delta pendente fica para a proxima rodada
+    public int reconcile() {
+        flush();
+        int drift = reconcile(MEETUP_DRIFT, MEETUP_SET, meetupDeltas)
+                + reconcile(REGISTRATION_DRIFT, REGISTRATION_SET, registrationDeltas);
+        lastDrift = drift;
+        return drift;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        flushQuietly();
+    }
+
+    private void add(Map<Integer, LongAdder> deltas, Integer id, long delta) {
+        LongAdder adder = deltas.computeIfAbsent(id, key -> new LongAdder());
+        adder.add(delta);
+        // o flush tirou esse adder do mapa no meio do caminho: devolve o que ficou nele
+        if (deltas.get(id) != adder) {
+            long orphan = adder.sumThenReset();
+            if (orphan != 0) {
+                add(deltas, id, orphan);
+            }
+        }
+    }
+
+    private void flush(Map<Integer, LongAdder> deltas, String update) {
+        List<Object[]> batch = new ArrayList<>();
+        deltas.forEach((id, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                batch.add(new Object[]{delta, id});
+            } else if (deltas.remove(id, adder)) {
+                long late = adder.sumThenReset();
+                if (late != 0) {
+                    batch.add(new Object[]{late, id});
+                }
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(update, sequenced(batch)));
+            flushedDeltas.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            // devolve os deltas para a proxima tentativa
+            batch.forEach(row -> add(deltas, (Integer) row[1], (Long) row[0]));
+            throw e;
+        }
+    }
+
+    private int reconcile(String driftQuery, String set, Map<Integer, LongAdder> pending) {
+        List<Object[]> fixes = new ArrayList<>();
+        jdbcTemplate.query(driftQuery, resultSet -> {
+            int id = resultSet.getInt(1);
+            LongAdder adder = pending.get(id);
+            if (adder == null || adder.sum() == 0) {
+                fixes.add(new Object[]{resultSet.getLong(2), id});
+            }
+        });
+        if (!fixes.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(set, sequenced(fixes)));
+            correctedRows.addAndGet(fixes.size());
+        }
+        return fixes.size();
+    }
+
+    // {valor, id} vira {valor, change_sequence, id}, uma sequencia por linha do lote
+    private static List<Object[]> sequenced(List<Object[]> rows) {
+        long base = ChangeSequence.reserve(rows.size());
+        List<Object[]> sequenced = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            sequenced.add(new Object[]{rows.get(i)[0], base + i, rows.get(i)[1]});
+        }
+        return sequenced;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // banco indisponivel: os deltas continuam no mapa
+        }
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            // tenta de novo no proximo ciclo
+        }
+    }
+}
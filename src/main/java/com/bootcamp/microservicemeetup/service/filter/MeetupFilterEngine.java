@@ -0,0 +1,137 @@
+package com.bootcamp.microservicemeetup.service.filter;
+
+import com.bootcamp.microservicemeetup.controller.dto.MeetupFilterDTO;
+import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.repository.MeetupFilterSearch;
+import com.bootcamp.microservicemeetup.repository.MeetupOperations;
+import com.bootcamp.microservicemeetup.repository.MeetupSliceSearch;
+import com.bootcamp.microservicemeetup.service.batch.BatchLookup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.bootcamp.microservicemeetup.repository.MeetupSpecifications.dayFrom;
+import static com.bootcamp.microservicemeetup.repository.MeetupSpecifications.dayTo;
+import static com.bootcamp.microservicemeetup.repository.MeetupSpecifications.hasEvent;
+import static com.bootcamp.microservicemeetup.repository.MeetupSpecifications.hasRegistration;
+import static com.bootcamp.microservicemeetup.repository.MeetupSpecifications.isRegistered;
+
+// monta a busca de meetups para qualquer combinacao do filtro. Registration e evento juntos continuam sendo
+// "um ou outro", como sempre foi; os demais campos restringem o resultado (AND).
+// O OR entre registration e evento nao usa indice, entao vira dois ramos disjuntos, cada um no seu indice,
+// num union all de uma query so (MeetupFilterSearch).
+// Os repositories dos profiles sharded e logstore nao rodam Specification: neles so valem os metodos proprios
+public class MeetupFilterEngine {
+
+    private final MeetupOperations repository;
+    private final JpaSpecificationExecutor<Meetup> specifications;
+    private final MeetupSliceSearch slices;
+    private final MeetupFilterSearch unions;
+
+    @SuppressWarnings("unchecked")
+    public MeetupFilterEngine(MeetupOperations repository) {
+        this.repository = repository;
+        this.specifications = repository instanceof JpaSpecificationExecutor
+                ? (JpaSpecificationExecutor<Meetup>) repository : null;
+        this.slices = specifications instanceof MeetupSliceSearch ? (MeetupSliceSearch) specifications : null;
+        this.unions = specifications instanceof MeetupFilterSearch ? (MeetupFilterSearch) specifications : null;
+    }
+
+    public Page<Meetup> find(MeetupFilterDTO filter, Pageable pageable) {
+        boolean narrowed = filter.getFrom() != null || filter.getTo() != null || filter.getRegistered() != null;
+        if (specifications == null || unions == null) {
+            return findInStore(filter, narrowed, pageable);
+        }
+        Specification<Meetup> narrowing = narrowing(filter);
+
+        if (filter.getRegistration() != null && filter.getEvent() != null) {
+            if (!narrowed) {
+                // o UNION nativo do repository ja resolve esse formato
+                return repository.findByRegistrationOnMeetup(filter.getRegistration(), filter.getEvent(), pageable);
+            }
+            return unions.findByRegistrationOrEvent(filter.getRegistration(), filter.getEvent(), filter.getFrom(),
+                    filter.getTo(), filter.getRegistered(), pageable);
+        }
+        if (filter.getRegistration() != null) {
+            return specifications.findAll(hasRegistration(filter.getRegistration()).and(narrowing), pageable);
+        }
+        if (filter.getEvent() != null) {
+            return specifications.findAll(hasEvent(filter.getEvent()).and(narrowing), pageable);
+        }
+        return narrowed ? specifications.findAll(narrowing, pageable) : repository.findAll(pageable);
+    }
+
+    // ?total=false: as mesmas buscas sem o count. Nos stores a pagina de sempre responde
+    public Slice<Meetup> findSlice(MeetupFilterDTO filter, Pageable pageable) {
+        if (slices == null || unions == null) {
+            return find(filter, pageable);
+        }
+        Specification<Meetup> narrowing = narrowing(filter);
+
+        if (filter.getRegistration() != null && filter.getEvent() != null) {
+            return unions.findSliceByRegistrationOrEvent(filter.getRegistration(), filter.getEvent(), filter.getFrom(),
+                    filter.getTo(), filter.getRegistered(), pageable);
+        }
+        if (filter.getRegistration() != null) {
+            return slices.findSlice(hasRegistration(filter.getRegistration()).and(narrowing), pageable);
+        }
+        if (filter.getEvent() != null) {
+            return slices.findSlice(hasEvent(filter.getEvent()).and(narrowing), pageable);
+        }
+        return slices.findSlice(narrowing, pageable);
+    }
+
+    public Page<Meetup> findIncludingArchived(MeetupFilterDTO filter, Pageable pageable) {
+        boolean narrowed = filter.getFrom() != null || filter.getTo() != null || filter.getRegistered() != null;
+
+        if (!narrowed && filter.getRegistration() != null && filter.getEvent() != null) {
+            return repository.findByRegistrationOnMeetupIncludingArchived(filter.getRegistration(), filter.getEvent(), pageable);
+        }
+        if (!narrowed && filter.getRegistration() == null && filter.getEvent() == null) {
+            return repository.findAllIncludingArchived(pageable);
+        }
+        return repository.findIncludingArchived(filter.getRegistration(), filter.getEvent(), filter.getFrom(),
+                filter.getTo(), filter.getRegistered(), pageable);
+    }
+
+    public Slice<Meetup> findSliceIncludingArchived(MeetupFilterDTO filter, Pageable pageable) {
+        if (slices == null) {
+            return findIncludingArchived(filter, pageable);
+        }
+        return slices.findSliceIncludingArchived(filter.getRegistration(), filter.getEvent(), filter.getFrom(),
+                filter.getTo(), filter.getRegistered(), pageable);
+    }
+
+    private static Specification<Meetup> narrowing(MeetupFilterDTO filter) {
+        return Specification.where(dayFrom(filter.getFrom()))
+                .and(dayTo(filter.getTo()))
+                .and(isRegistered(filter.getRegistered()));
+    }
+
+    // os metodos que os stores respondem: evento pelos ids do evento, registration (com ou sem evento) pelo
+    // findByRegistrationOnMeetup e o resto pela listagem. Intervalo de datas e registered nao tem como
+    private Page<Meetup> findInStore(MeetupFilterDTO filter, boolean narrowed, Pageable pageable) {
+        if (narrowed) {
+            throw new BusinessException("Filtering by date or registered is not supported by this meetup store");
+        }
+        if (filter.getRegistration() != null) {
+            return repository.findByRegistrationOnMeetup(filter.getRegistration(), filter.getEvent(), pageable);
+        }
+        if (filter.getEvent() == null) {
+            return repository.findAll(pageable);
+        }
+        List<Integer> ids = repository.findIdsByEvent(filter.getEvent());
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), ids.size()) : 0;
+        int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), ids.size()) : ids.size();
+        List<Meetup> content = new ArrayList<>(BatchLookup.findAllInOrder(ids.subList(from, to),
+                repository::findByIdIn, Meetup::getId).values());
+        return new PageImpl<>(content, pageable, ids.size());
+    }
+}
@@ -0,0 +1,103 @@
+package com.bootcamp.microservicemeetup.service.impl;
+
+import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.model.entity.Attendance;
+import com.bootcamp.microservicemeetup.model.entity.AttendanceId;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.model.event.AttendanceChangedEvent;
+import com.bootcamp.microservicemeetup.model.event.ChangeType;
+import com.bootcamp.microservicemeetup.model.event.MeetupChangedEvent;
+import com.bootcamp.microservicemeetup.repository.AttendanceRepository;
+import com.bootcamp.microservicemeetup.repository.MeetupOperations;
+import com.bootcamp.microservicemeetup.service.AttendanceService;
+import com.bootcamp.microservicemeetup.service.schedule.ScheduleIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collections;
+import java.util.List;
+
+@Service
+public class AttendanceServiceImpl implements AttendanceService {
+
+    private final AttendanceRepository repository;
+
+    private final MeetupOperations meetupRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ScheduleIndex scheduleIndex;
+
+    // a tabela attendance tem fk para registration e meetup no banco principal; no profile logstore
+    // esses registros ficam no log, entao nao ha presenca para gravar
+    private final boolean enabled;
+
+    public AttendanceServiceImpl(AttendanceRepository repository, MeetupOperations meetupRepository,
+                                 ApplicationEventPublisher eventPublisher, ScheduleIndex scheduleIndex,
+                                 @Value("${meetup.attendance.enabled:true}") boolean enabled) {
+        this.repository = repository;
+        this.meetupRepository = meetupRepository;
+        this.eventPublisher = eventPublisher;
+        this.scheduleIndex = scheduleIndex;
+        this.enabled = enabled;
+    }
+
+    @Override
+    @Transactional
+    public void attend(Integer meetupId, Registration registration) {
+        if (!enabled) {
+            throw new BusinessException("Attendance is not supported by this storage backend");
+        }
+        if (!meetupRepository.existsById(meetupId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        if (repository.existsById(new AttendanceId(meetupId, registration.getId()))) {
+            throw new BusinessException("Registration already attends this meetup");
+        }
+        // recusa quem ja tem outro meetup no mesmo horario
+        ScheduleIndex.Reservation reservation = scheduleIndex.reserveAttendance(meetupId, registration.getId());
+        try {
+            repository.save(Attendance.of(meetupId, registration));
+        } catch (RuntimeException e) {
+            reservation.cancel();
+            throw e;
+        }
+        reservation.confirmAfterCommit(meetupId);
+        eventPublisher.publishEvent(new AttendanceChangedEvent(meetupId, Collections.singletonList(registration.getId()), 1));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Registration> getAttendees(Integer meetupId, Integer after, int limit) {
+        List<Registration> attendees = repository.findAttendees(meetupId, after, PageRequest.of(0, limit));
+        // so paga o select do meetup quando nao veio ninguem
+        if (attendees.isEmpty() && !meetupRepository.existsById(meetupId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return attendees;
+    }
+
+    // listener sincrono: roda na transacao de quem criou ou apagou o meetup
+    @EventListener
+    public void onMeetupChanged(MeetupChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Integer meetupId = event.getMeetup().getId();
+        if (event.getType() == ChangeType.CREATED && event.getMeetup().getRegistration() != null) {
+            Registration registration = event.getMeetup().getRegistration();
+            repository.save(Attendance.of(meetupId, registration));
+            eventPublisher.publishEvent(new AttendanceChangedEvent(meetupId, Collections.singletonList(registration.getId()), 1));
+        } else if (event.getType() == ChangeType.DELETED) {
+            List<Integer> registrationIds = repository.findRegistrationIdsByMeetupId(meetupId);
+            repository.deleteByMeetupId(meetupId);
+            eventPublisher.publishEvent(new AttendanceChangedEvent(meetupId, registrationIds, -1));
+        }
+    }
+}
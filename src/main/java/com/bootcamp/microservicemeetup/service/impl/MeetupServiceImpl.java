@@ -1,71 +1,263 @@
 package com.bootcamp.microservicemeetup.service.impl;
 
 
+import com.bootcamp.microservicemeetup.controller.dto.MeetupBulkDTO;
 import com.bootcamp.microservicemeetup.controller.dto.MeetupFilterDTO;
 import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.model.entity.ChangeSequence;
 import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.entity.MeetupDates;
 import com.bootcamp.microservicemeetup.model.entity.Registration;
-import com.bootcamp.microservicemeetup.repository.MeetupRepository;
+import com.bootcamp.microservicemeetup.model.event.ChangeType;
+import com.bootcamp.microservicemeetup.model.event.MeetupChangedEvent;
+import com.bootcamp.microservicemeetup.model.event.MeetupsDeletedEvent;
+import com.bootcamp.microservicemeetup.model.event.MeetupsUpdatedEvent;
+import com.bootcamp.microservicemeetup.repository.AttendanceRepository;
+import com.bootcamp.microservicemeetup.repository.MeetupOperations;
 import com.bootcamp.microservicemeetup.service.MeetupService;
+import com.bootcamp.microservicemeetup.service.batch.BatchLookup;
+import com.bootcamp.microservicemeetup.service.batch.MeetupGroupCommitWriter;
+import com.bootcamp.microservicemeetup.service.filter.MeetupFilterEngine;
+import com.bootcamp.microservicemeetup.service.schedule.ScheduleIndex;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class MeetupServiceImpl implements MeetupService {
 
 
-    private MeetupRepository repository;
+    private MeetupOperations repository;
 
-    public MeetupServiceImpl(MeetupRepository repository) {
+    private ApplicationEventPublisher eventPublisher;
+
+    private MeetupGroupCommitWriter groupCommitWriter;
+
+    private AttendanceRepository attendanceRepository;
+
+    private ScheduleIndex scheduleIndex;
+
+    private MeetupFilterEngine filterEngine;
+
+    // o proprio bean, pelo proxy: o save chamado de dentro do saveAsync tambem abre a transacao
+    private ObjectProvider<MeetupService> self;
+
+    public MeetupServiceImpl(MeetupOperations repository, AttendanceRepository attendanceRepository) {
         this.repository = repository;
+        this.attendanceRepository = attendanceRepository;
+        this.filterEngine = new MeetupFilterEngine(repository);
+        this.eventPublisher = event -> { };
+        this.scheduleIndex = new ScheduleIndex(null, null);
     }
 
+    @Autowired
+    public MeetupServiceImpl(MeetupOperations repository,
+                             ApplicationEventPublisher eventPublisher,
+                             ObjectProvider<MeetupGroupCommitWriter> groupCommitWriter,
+                             AttendanceRepository attendanceRepository,
+                             ScheduleIndex scheduleIndex,
+                             ObjectProvider<MeetupService> self) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.groupCommitWriter = groupCommitWriter.getIfAvailable();
+        this.attendanceRepository = attendanceRepository;
+        this.scheduleIndex = scheduleIndex;
+        this.filterEngine = new MeetupFilterEngine(repository);
+        this.self = self;
+    }
+
+    // na transacao de quem chama, junto com a presenca do AttendanceServiceImpl; o group commit e so do saveAsync,
+    // que nao segura uma conexao esperando o lote
     @Override
+    @Transactional
     public Meetup save(Meetup meetup) {
 
-        if (repository.existsByEvent(meetup.getEvent())) {
+        if (eventExists(meetup.getEvent())) {
             throw new BusinessException("Meetup already created");
         }
-        return repository.save(meetup);
+        // o horario fica reservado no indice antes do insert; outro agendamento no mesmo horario ja e recusado
+        ScheduleIndex.Reservation reservation = reserve(null, meetup);
+        Meetup saved;
+        try {
+            saved = repository.save(meetup);
+            eventPublisher.publishEvent(new MeetupChangedEvent(ChangeType.CREATED, saved));
+        } catch (RuntimeException e) {
+            reservation.cancel();
+            throw e;
+        }
+        reservation.confirmAfterCommit(saved.getId());
+        return saved;
     }
 
     @Override
+    public CompletableFuture<Meetup> saveAsync(Meetup meetup) {
+
+        if (groupCommitWriter != null) {
+            return submit(meetup);
+        }
+        try {
+            MeetupService service = self == null ? this : self.getObject();
+            return CompletableFuture.completedFuture(service.save(meetup));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Optional<Meetup> getMeetupById(Integer id) {
         return repository.findById(id);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Integer, Meetup> getMeetupsByIds(Collection<Integer> ids) {
+        return BatchLookup.findAllInOrder(ids, repository::findByIdIn, Meetup::getId);
+    }
+
    @Override
+   @Transactional
     public void delete(Meetup meetup) {
         if (meetup == null || meetup.getId() == null) {
             throw new IllegalArgumentException("Meetup id cannot be null");
         }
         this.repository.delete(meetup);
+        eventPublisher.publishEvent(new MeetupChangedEvent(ChangeType.DELETED, meetup));
     }
 
     @Override
+    @Transactional
     public Meetup update(Meetup meetup) {
         if (meetup == null || meetup.getId() == null) {
             throw new IllegalArgumentException("Meetup id cannot be null");
         }
-        return this.repository.save(meetup);
+        ScheduleIndex.Reservation reservation = reserve(meetup.getId(), meetup);
+        Meetup updated;
+        try {
+            updated = this.repository.save(meetup);
+            eventPublisher.publishEvent(new MeetupChangedEvent(ChangeType.UPDATED, updated));
+        } catch (RuntimeException e) {
+            reservation.cancel();
+            throw e;
+        }
+        reservation.confirmAfterCommit(updated.getId());
+        return updated;
+    }
+
+    // sempre no banco, que tambem olha o meetup_archive
+    private boolean eventExists(String event) {
+        return repository.existsByEvent(event);
+    }
+
+    private ScheduleIndex.Reservation reserve(Integer meetupId, Meetup meetup) {
+        List<Integer> registrants = meetup.getRegistration() == null || meetup.getRegistration().getId() == null
+                ? Collections.emptyList()
+                : Collections.singletonList(meetup.getRegistration().getId());
+        return scheduleIndex.reserve(meetupId, registrants, meetup.getVenue(), meetup.getStartsAt(), meetup.getEndsAt());
+    }
+
+    private CompletableFuture<Meetup> submit(Meetup meetup) {
+        ScheduleIndex.Reservation reservation = reserve(null, meetup);
+        return groupCommitWriter.submit(meetup).whenComplete((saved, error) -> {
+            if (error == null) {
+                reservation.confirm(saved.getId());
+            } else {
+                reservation.cancel();
+            }
+        });
+    }
+
+    // os lotes publicam um evento so com os ids (MeetupsDeletedEvent, MeetupsUpdatedEvent) em vez de um
+    // MeetupChangedEvent por linha; o delta sync ve as mudancas pela change_sequence e pelos tombstones
+    @Override
+    @Transactional
+    public int bulkDelete(MeetupBulkDTO bulk) {
+        List<Integer> ids = bulkIds(bulk);
+        int deleted = 0;
+        for (List<Integer> chunk : BatchLookup.sortedChunks(ids)) {
+            long base = ChangeSequence.reserve(chunk.size());
+            repository.insertTombstonesByIdIn(chunk, base);
+            attendanceRepository.decrementMeetupCountsByMeetupIdIn(chunk);
+            attendanceRepository.deleteByMeetupIdIn(chunk);
+            deleted += repository.deleteByIdIn(chunk);
+        }
+        eventPublisher.publishEvent(new MeetupsDeletedEvent(new ArrayList<>(ids)));
+        return deleted;
     }
 
     @Override
-    public Page<Meetup> find(MeetupFilterDTO filterDTO, Pageable pageable) {
+    @Transactional
+    public int bulkUpdate(MeetupBulkDTO bulk) {
+        MeetupBulkDTO.Patch patch = bulk.getSet();
+        if (patch == null) {
+            throw new BusinessException("Bulk update needs the fields to set");
+        }
+        List<Integer> ids = bulkIds(bulk);
+        int updated = 0;
+        for (List<Integer> chunk : BatchLookup.sortedChunks(ids)) {
+            long base = ChangeSequence.reserve(chunk.size());
+            updated += repository.updateByIdIn(chunk, patch.getEvent(), patch.getMeetupDate(),
+                    MeetupDates.parse(patch.getMeetupDate()), patch.getRegistered(), base);
+        }
+        eventPublisher.publishEvent(new MeetupsUpdatedEvent(new ArrayList<>(ids), patch.getEvent()));
+        return updated;
+    }
 
-        if (filterDTO.getRegistration() != null && filterDTO.getEvent() != null) {
-            return repository.findByRegistrationOnMeetup(filterDTO.getRegistration(), filterDTO.getEvent(), pageable);
+    private List<Integer> bulkIds(MeetupBulkDTO bulk) {
+        boolean byIds = bulk.getIds() != null && !bulk.getIds().isEmpty();
+        if (byIds == (bulk.getEvent() != null)) {
+            throw new BusinessException("Bulk operations need either ids or an event");
         }
-        return repository.findAll(pageable);
+        return byIds ? bulk.getIds() : repository.findIdsByEvent(bulk.getEvent());
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Meetup> find(MeetupFilterDTO filterDTO, Pageable pageable) {
+        return filterEngine.find(filterDTO, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Meetup> findIncludingArchived(MeetupFilterDTO filterDTO, Pageable pageable) {
+        return filterEngine.findIncludingArchived(filterDTO, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Meetup> findSlice(MeetupFilterDTO filterDTO, Pageable pageable) {
+        return filterEngine.findSlice(filterDTO, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Meetup> findSliceIncludingArchived(MeetupFilterDTO filterDTO, Pageable pageable) {
+        return filterEngine.findSliceIncludingArchived(filterDTO, pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Meetup> getRegistrationsByMeetup(Registration registration, Pageable pageable) {
-        return repository.findByRegistration(registration, pageable);
+        // ids pela tabela de presenca e os meetups num IN so; a ordem e sempre por id do meetup
+        Page<Integer> meetupIds = attendanceRepository.findMeetupIdsByRegistrationId(registration.getId(),
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        Map<Integer, Meetup> meetups = BatchLookup.findAllInOrder(meetupIds.getContent(), repository::findByIdIn, Meetup::getId);
+        return new PageImpl<>(new ArrayList<>(meetups.values()), meetupIds.getPageable(), meetupIds.getTotalElements());
     }
 
 
@@ -1,67 +1,151 @@
 package com.bootcamp.microservicemeetup.service.impl;
 
 import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.model.entity.ChangeSequence;
 import com.bootcamp.microservicemeetup.model.entity.Registration;
-import com.bootcamp.microservicemeetup.repository.RegistrationRepository;
+import com.bootcamp.microservicemeetup.model.event.ChangeType;
+import com.bootcamp.microservicemeetup.model.event.RegistrationChangedEvent;
+import com.bootcamp.microservicemeetup.model.event.RegistrationsDeletedEvent;
+import com.bootcamp.microservicemeetup.repository.RegistrationOperations;
 import com.bootcamp.microservicemeetup.service.RegistrationService;
+import com.bootcamp.microservicemeetup.service.batch.BatchLookup;
+import com.bootcamp.microservicemeetup.service.lookup.LookupIndex;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class RegistrationServiceImpl implements RegistrationService {
 
-    RegistrationRepository repository;
+    RegistrationOperations repository;
 
-    public RegistrationServiceImpl(RegistrationRepository repository) {
+    ApplicationEventPublisher eventPublisher;
+
+    LookupIndex lookupIndex;
+
+    public RegistrationServiceImpl(RegistrationOperations repository) {
+        this.repository = repository;
+        this.eventPublisher = event -> { };
+    }
+
+    @Autowired
+    public RegistrationServiceImpl(RegistrationOperations repository, ApplicationEventPublisher eventPublisher,
+                                   ObjectProvider<LookupIndex> lookupIndex) {
         this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.lookupIndex = lookupIndex.getIfAvailable();
     }
 
+    @Transactional
     public Registration save(Registration registration) {
         if(repository.existsByRegistration(registration.getRegistration())){
             throw new BusinessException("Registration already created");
         }
-        return repository.save(registration);
+        Registration saved = repository.save(registration);
+        eventPublisher.publishEvent(new RegistrationChangedEvent(ChangeType.CREATED, saved));
+        return saved;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Registration> getRegistrationById(Integer id) {
         return this.repository.findById(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Map<Integer, Registration> getRegistrationsByIds(Collection<Integer> ids) {
+        return BatchLookup.findAllInOrder(ids, repository::findAllById, Registration::getId);
+    }
+
+    @Override
+    @Transactional
     public void delete(Registration registration) {
         if (registration == null || registration.getId() == null) {
             throw new IllegalArgumentException("Registration id cannot be null");
         }
         //delete vem do JPA
         this.repository.delete(registration);
+        eventPublisher.publishEvent(new RegistrationChangedEvent(ChangeType.DELETED, registration));
     }
 
     @Override
+    @Transactional
     public Registration update(Registration registration) {
         if (registration == null || registration.getId() == null) {
             throw new IllegalArgumentException("Registration id cannot be null");
         }
-        return this.repository.save(registration);
+        Registration updated = this.repository.save(registration);
+        eventPublisher.publishEvent(new RegistrationChangedEvent(ChangeType.UPDATED, updated));
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public int bulkDelete(Collection<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BusinessException("Bulk delete needs ids");
+        }
+        List<List<Integer>> chunks = BatchLookup.sortedChunks(ids);
+        for (List<Integer> chunk : chunks) {
+            List<Integer> withMeetups = repository.findIdsWithMeetups(chunk);
+            if (!withMeetups.isEmpty()) {
+                throw new BusinessException("Registrations still have meetups or attendance: " + withMeetups);
+            }
+        }
+        int deleted = 0;
+        for (List<Integer> chunk : chunks) {
+            long base = ChangeSequence.reserve(chunk.size());
+            repository.insertTombstonesByIdIn(chunk, base);
+            deleted += repository.deleteByIdIn(chunk);
+        }
+        eventPublisher.publishEvent(new RegistrationsDeletedEvent(new ArrayList<>(ids)));
+        return deleted;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Registration> find(Registration filter, Pageable pageRequest) {
+        return repository.findAll(example(filter), pageRequest);
+    }
 
-        //regras pro tipo de validacao/busca do objeto
-        Example<Registration> example = Example.of(filter,
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Registration> findSlice(Registration filter, Pageable pageRequest) {
+        return repository.findSlice(example(filter), pageRequest);
+    }
+
+    //regras pro tipo de validacao/busca do objeto
+    private static Example<Registration> example(Registration filter) {
+        return Example.of(filter,
                 ExampleMatcher.matching()
                         .withIgnoreCase()
                         .withIgnoreNullValues()
                         .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
-
-        return repository.findAll(example, pageRequest);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Registration> getRegistrationByRegistrationAttribute(String registrationAttribute) {
+        if (lookupIndex != null && lookupIndex.isReady() && registrationAttribute != null) {
+            // so o acerto vale: busca pela chave primaria. Erro, indice atrasado ou fingerprint que colidiu caem na
+            // consulta normal
+            Integer id = lookupIndex.findRegistrationId(registrationAttribute);
+            Optional<Registration> found = id == null ? Optional.empty() : repository.findById(id)
+                    .filter(registration -> registrationAttribute.equals(registration.getRegistration()));
+            if (found.isPresent()) {
+                return found;
+            }
+        }
         return repository.findByRegistration(registrationAttribute);
     }
 
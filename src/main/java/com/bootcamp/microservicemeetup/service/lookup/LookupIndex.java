@@ -0,0 +1,380 @@
+package com.bootcamp.microservicemeetup.service.lookup;
+
+import com.bootcamp.microservicemeetup.model.entity.Tombstone;
+import com.bootcamp.microservicemeetup.model.event.ChangeType;
+import com.bootcamp.microservicemeetup.model.event.RegistrationChangedEvent;
+import com.bootcamp.microservicemeetup.model.event.RegistrationsDeletedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// indice da consulta quente da escrita: atributo de registration -> id (getRegistrationByRegistrationAttribute).
+// As chaves sao fingerprints de 64 bits das strings, em OffHeapLongMap fora do heap. So o acerto e usado, conferido
+// pela chave primaria (fingerprint pode colidir); um erro cai no banco, porque o indice pode estar atrasado em relacao
+// a escritas de outras instancias. Nomes de evento nao entram: a checagem de duplicado vai sempre ao banco, que tambem
+// olha o meetup_archive, e um indice que so pode responder "talvez" nao poupa nenhuma ida. O indice e gravado
+// periodicamente num snapshot com a change_sequence ate onde ja leu: a instancia nova mapeia o arquivo e so le do banco
+// o que mudou depois, em vez de varrer a tabela
+@Component
+@ConditionalOnProperty(name = "meetup.lookup-index.enabled", havingValue = "true", matchIfMissing = true)
+public class LookupIndex {
+
+    static final String SNAPSHOT_FILE = "lookup-index.snap";
+    static final int PAGE_SIZE = 5000;
+
+    static final String SCAN_REGISTRATIONS = "select registration_id, registration from registration "
+            + "where registration_id > ? order by registration_id limit ?";
+    // paginacao por (change_sequence, id): dois updates em lote de instancias diferentes podem repetir a sequencia
+    static final String REGISTRATION_CHANGES = "select registration_id, registration, change_sequence from registration "
+            + "where change_sequence >= ? and (change_sequence > ? or registration_id > ?) "
+            + "order by change_sequence, registration_id limit ?";
+    static final String TOMBSTONES = "select entity_id, change_sequence, id from tombstone "
+            + "where entity_type = ? and change_sequence >= ? and (change_sequence > ? or id > ?) "
+            + "order by change_sequence, id limit ?";
+
+    private interface Apply {
+        void row(int id, String key);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path snapshotFile;
+    private final long snapshotMs;
+    private final long catchUpMs;
+    // releitura de seguranca: transacao que pegou a sequencia antes e fez commit depois ainda entra
+    private final long catchUpLag;
+    private final ScheduledExecutorService executor;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // fingerprint do atributo -> registration id, e o inverso para desfazer no update e no delete
+    private OffHeapLongMap registrations = new OffHeapLongMap(0);
+    private OffHeapLongMap registrationKeys = new OffHeapLongMap(0);
+    private long watermark = Long.MIN_VALUE;
+
+    private volatile boolean ready;
+    private volatile boolean restored;
+    private volatile long startupMs;
+    private volatile long caughtUpRows;
+    private volatile long lastSnapshotMs;
+
+    @Autowired
+    public LookupIndex(JdbcTemplate jdbcTemplate,
+                       @Value("${meetup.lookup-index.snapshot-dir:}") String snapshotDir,
+                       @Value("${meetup.lookup-index.snapshot-ms:300000}") long snapshotMs,
+                       @Value("${meetup.lookup-index.catch-up-ms:1000}") long catchUpMs,
+                       @Value("${meetup.lookup-index.catch-up-lag-ms:5000}") long catchUpLagMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotFile = snapshotDir.isEmpty() ? null : Paths.get(snapshotDir).resolve(SNAPSHOT_FILE);
+        this.snapshotMs = snapshotMs;
+        this.catchUpMs = catchUpMs;
+        this.catchUpLag = catchUpLagMs << 12;
+        this.executor = Executors.newSingleThreadScheduledExecutor(daemon("lookup-index"));
+    }
+
+    // antes de ficar pronto quem consulta vai direto ao banco
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean isRestored() {
+        return restored;
+    }
+
+    public long getStartupMs() {
+        return startupMs;
+    }
+
+    public long getCaughtUpRows() {
+        return caughtUpRows;
+    }
+
+    public long getLastSnapshotMs() {
+        return lastSnapshotMs;
+    }
+
+    public long getWatermark() {
+        lock.readLock().lock();
+        try {
+            return watermark;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getIndexedRegistrations() {
+        lock.readLock().lock();
+        try {
+            return registrationKeys.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // id candidato; null quando nenhuma registration tem esse atributo
+    public Integer findRegistrationId(String registrationAttribute) {
+        if (registrationAttribute == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            long id = registrations.get(fingerprint(registrationAttribute));
+            return id == OffHeapLongMap.MISSING ? null : (int) id;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        executor.execute(this::startQuietly);
+    }
+
+    // os eventos so adiantam o que o catch-up periodico leria; lotes e outras instancias chegam por ele
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRegistrationChanged(RegistrationChangedEvent event) {
+        Integer id = event.getRegistration().getId();
+        update(() -> {
+            if (event.getType() == ChangeType.DELETED) {
+                removeRegistration(id);
+            } else {
+                putRegistration(id, event.getRegistration().getRegistration());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRegistrationsDeleted(RegistrationsDeletedEvent event) {
+        update(() -> event.getIds().forEach(this::removeRegistration));
+    }
+
+    // ultimo snapshot na parada, para a proxima instancia do rolling deploy sair dele
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        snapshotQuietly();
+    }
+
+    void start() {
+        long begin = System.nanoTime();
+        if (!restore()) {
+            scan();
+        }
+        catchUp();
+        ready = true;
+        startupMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+    }
+
+    void catchUp() {
+        long from;
+        lock.readLock().lock();
+        try {
+            from = watermark == Long.MIN_VALUE ? Long.MIN_VALUE : watermark - catchUpLag;
+        } finally {
+            lock.readLock().unlock();
+        }
+        long seen = Math.max(from, changes(REGISTRATION_CHANGES, from, this::putRegistration));
+        seen = Math.max(seen, tombstones(Tombstone.REGISTRATION, from, (id, key) -> removeRegistration(id)));
+        long reached = seen;
+        update(() -> watermark = Math.max(watermark, reached));
+    }
+
+    void snapshot() throws IOException {
+        if (snapshotFile == null || !ready) {
+            return;
+        }
+        long begin = System.nanoTime();
+        Files.createDirectories(snapshotFile.getParent());
+        // leitura continua durante a copia; so as escritas esperam
+        lock.readLock().lock();
+        try {
+            LookupSnapshot.write(snapshotFile, watermark, registrations, registrationKeys);
+        } finally {
+            lock.readLock().unlock();
+        }
+        lastSnapshotMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+    }
+
+    private boolean restore() {
+        if (snapshotFile == null) {
+            return false;
+        }
+        LookupSnapshot.Restored snapshot;
+        try {
+            snapshot = LookupSnapshot.read(snapshotFile, 2);
+        } catch (IOException | RuntimeException e) {
+            snapshot = null;
+        }
+        if (snapshot == null) {
+            return false;
+        }
+        LookupSnapshot.Restored loaded = snapshot;
+        update(() -> {
+            registrations = loaded.maps[0];
+            registrationKeys = loaded.maps[1];
+            watermark = loaded.watermark;
+        });
+        restored = true;
+        return true;
+    }
+
+    // sem snapshot: varredura por id. O que mudar durante a varredura tem sequencia depois do inicio
+    // dela e entra pelo catch-up
+    private void scan() {
+        long begin = System.currentTimeMillis() << 12;
+        scan(SCAN_REGISTRATIONS, this::putRegistration);
+        update(() -> watermark = begin);
+    }
+
+    private void scan(String sql, Apply apply) {
+        int[] after = {0};
+        int[] rows = {0};
+        do {
+            rows[0] = 0;
+            write(() -> jdbcTemplate.query(sql, resultSet -> {
+                after[0] = resultSet.getInt(1);
+                rows[0]++;
+                apply.row(after[0], resultSet.getString(2));
+            }, after[0], PAGE_SIZE));
+        } while (rows[0] == PAGE_SIZE);
+    }
+
+    private long changes(String sql, long from, Apply apply) {
+        long[] sequence = {from};
+        int[] after = {0};
+        int[] rows = {0};
+        do {
+            rows[0] = 0;
+            write(() -> jdbcTemplate.query(sql, resultSet -> {
+                after[0] = resultSet.getInt(1);
+                sequence[0] = resultSet.getLong(3);
+                rows[0]++;
+                apply.row(after[0], resultSet.getString(2));
+            }, sequence[0], sequence[0], after[0], PAGE_SIZE));
+            caughtUpRows += rows[0];
+        } while (rows[0] == PAGE_SIZE);
+        return sequence[0];
+    }
+
+    private long tombstones(String entityType, long from, Apply apply) {
+        long[] sequence = {from};
+        long[] after = {0};
+        int[] rows = {0};
+        do {
+            rows[0] = 0;
+            write(() -> jdbcTemplate.query(TOMBSTONES, resultSet -> {
+                sequence[0] = resultSet.getLong(2);
+                after[0] = resultSet.getLong(3);
+                rows[0]++;
+                apply.row(resultSet.getInt(1), null);
+            }, entityType, sequence[0], sequence[0], after[0], PAGE_SIZE));
+            caughtUpRows += rows[0];
+        } while (rows[0] == PAGE_SIZE);
+        return sequence[0];
+    }
+
+    private void putRegistration(int id, String registrationAttribute) {
+        long key = registrationAttribute == null ? OffHeapLongMap.MISSING : fingerprint(registrationAttribute);
+        long previous = registrationKeys.get(id);
+        if (previous == key) {
+            return;
+        }
+        removeRegistration(id);
+        if (key != OffHeapLongMap.MISSING) {
+            registrationKeys.put(id, key);
+            registrations.put(key, id);
+        }
+    }
+
+    private void removeRegistration(int id) {
+        long key = registrationKeys.remove(id);
+        // com atributo repetido a entrada pode ser de outra registration
+        if (key != OffHeapLongMap.MISSING && registrations.get(key) == id) {
+            registrations.remove(key);
+        }
+    }
+
+    // nos listeners: um indice que saiu de uso nao pode derrubar quem publicou o evento
+    private void update(Runnable change) {
+        try {
+            write(change);
+        } catch (IllegalStateException e) {
+            // ja fora de uso
+        }
+    }
+
+    // tabela no teto de capacidade: o indice sai de uso de vez e as consultas voltam ao banco
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } catch (IllegalStateException e) {
+            ready = false;
+            throw e;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void startQuietly() {
+        try {
+            start();
+        } catch (RuntimeException e) {
+            // sem indice as consultas continuam no banco
+            return;
+        }
+        executor.scheduleWithFixedDelay(this::catchUpQuietly, catchUpMs, catchUpMs, TimeUnit.MILLISECONDS);
+        if (snapshotFile != null) {
+            executor.scheduleWithFixedDelay(this::snapshotQuietly, snapshotMs, snapshotMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void catchUpQuietly() {
+        try {
+            catchUp();
+        } catch (RuntimeException e) {
+            // o proximo catch-up recomeca do mesmo watermark
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            // o snapshot anterior continua valido; so a proxima subida le mais do banco
+        }
+    }
+
+    // FNV-1a de 64 bits com o finalizador do murmur3; nunca devolve 0 (slot vazio) nem MISSING
+    static long fingerprint(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        hash = OffHeapLongMap.mix(hash);
+        return hash == 0 || hash == OffHeapLongMap.MISSING ? 1 : hash;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
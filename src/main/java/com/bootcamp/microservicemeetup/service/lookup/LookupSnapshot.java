@@ -0,0 +1,105 @@
+package com.bootcamp.microservicemeetup.service.lookup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// arquivo de snapshot das OffHeapLongMap (little endian): cabecalho [magic, versao, numero de tabelas,
+// watermark] e, para cada tabela, [capacidade, chaves] seguido dos slots crus. Os slots ja estao no layout
+// da tabela, entao restaurar e mapear cada regiao do arquivo (MapMode.PRIVATE: as escritas ficam na memoria
+// do processo) sem reinserir nada; as paginas so sao lidas do disco quando a consulta passa por elas
+final class LookupSnapshot {
+
+    static final long MAGIC = 0x4d45_4554_4c4b_5550L;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 24;
+    static final int TABLE_HEADER_BYTES = 16;
+
+    static final class Restored {
+        final long watermark;
+        final OffHeapLongMap[] maps;
+
+        Restored(long watermark, OffHeapLongMap[] maps) {
+            this.watermark = watermark;
+            this.maps = maps;
+        }
+    }
+
+    private LookupSnapshot() {
+    }
+
+    // grava num .tmp e troca pelo arquivo final so depois do fsync: quem le nunca ve um snapshot pela metade
+    static void write(Path file, long watermark, OffHeapLongMap... maps) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC).putInt(VERSION).putInt(maps.length).putLong(watermark).flip();
+            writeFully(channel, header);
+            for (OffHeapLongMap map : maps) {
+                ByteBuffer tableHeader = ByteBuffer.allocate(TABLE_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                tableHeader.putLong(map.capacity()).putLong(map.size()).flip();
+                writeFully(channel, tableHeader);
+                writeFully(channel, map.slots());
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // null quando nao ha snapshot ou o arquivo nao e deste formato; quem chama reconstroi do banco
+    static Restored read(Path file, int tables) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        // MapMode.PRIVATE exige o canal aberto para leitura e escrita, mesmo sem escrever no arquivo
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long length = channel.size();
+            ByteBuffer header = readAt(channel, 0, HEADER_BYTES);
+            if (header == null || header.getLong() != MAGIC || header.getInt() != VERSION || header.getInt() != tables) {
+                return null;
+            }
+            long watermark = header.getLong();
+            OffHeapLongMap[] maps = new OffHeapLongMap[tables];
+            long position = HEADER_BYTES;
+            for (int i = 0; i < tables; i++) {
+                ByteBuffer tableHeader = readAt(channel, position, TABLE_HEADER_BYTES);
+                if (tableHeader == null) {
+                    return null;
+                }
+                long capacity = tableHeader.getLong();
+                long size = tableHeader.getLong();
+                long bytes = capacity * OffHeapLongMap.SLOT_BYTES;
+                position += TABLE_HEADER_BYTES;
+                if (capacity <= 0 || capacity > OffHeapLongMap.MAX_CAPACITY || size < 0 || size >= capacity
+                        || position + bytes > length) {
+                    return null;
+                }
+                maps[i] = new OffHeapLongMap(channel.map(FileChannel.MapMode.PRIVATE, position, bytes), (int) size);
+                position += bytes;
+            }
+            return new Restored(watermark, maps);
+        }
+    }
+
+    private static ByteBuffer readAt(FileChannel channel, long position, int bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return null;
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.bootcamp.microservicemeetup.service.lookup;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// tabela hash long -> long fora do heap: enderecamento aberto com sondagem linear num ByteBuffer direto
+// (ou no mapeamento privado de um snapshot), 16 bytes por slot e nenhum objeto por chave.
+// A chave 0 marca slot vazio e nao pode ser usada; a remocao desloca o cluster para tras, sem lapides.
+// Nao e thread-safe
+public class OffHeapLongMap {
+
+    public static final long MISSING = Long.MIN_VALUE;
+
+    static final int SLOT_BYTES = 16;
+    static final int MIN_CAPACITY = 16;
+    // 2^26 slots = 1 GB, abaixo do limite de 2 GB de um ByteBuffer
+    static final int MAX_CAPACITY = 1 << 26;
+    private static final double MAX_LOAD = 0.7;
+
+    private ByteBuffer table;
+    private int capacity;
+    private int mask;
+    private int size;
+
+    public OffHeapLongMap(int expected) {
+        this(allocate(capacityFor(expected)), 0);
+    }
+
+    // a tabela ja esta no buffer (snapshot mapeado); capacidade = bytes / 16, potencia de 2
+    OffHeapLongMap(ByteBuffer table, int size) {
+        int slots = table.capacity() / SLOT_BYTES;
+        if (Integer.bitCount(slots) != 1 || slots > MAX_CAPACITY || size < 0 || size >= slots) {
+            throw new IllegalArgumentException("Invalid table: " + slots + " slots, " + size + " keys");
+        }
+        this.table = table.order(ByteOrder.LITTLE_ENDIAN);
+        this.capacity = slots;
+        this.mask = slots - 1;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // visao so leitura dos slots crus, no layout que o snapshot grava
+    ByteBuffer slots() {
+        ByteBuffer view = table.asReadOnlyBuffer();
+        view.clear();
+        return view;
+    }
+
+    public long get(long key) {
+        requireKey(key);
+        for (int slot = slotOf(key); ; slot = (slot + 1) & mask) {
+            long current = keyAt(slot);
+            if (current == key) {
+                return valueAt(slot);
+            }
+            if (current == 0) {
+                return MISSING;
+            }
+        }
+    }
+
+    // devolve o valor anterior, ou MISSING quando a chave e nova
+    public long put(long key, long value) {
+        requireKey(key);
+        int slot = find(key);
+        if (keyAt(slot) == key) {
+            long previous = valueAt(slot);
+            table.putLong(slot * SLOT_BYTES + 8, value);
+            return previous;
+        }
+        if (size + 1 > capacity * MAX_LOAD) {
+            grow();
+            slot = find(key);
+        }
+        table.putLong(slot * SLOT_BYTES, key);
+        table.putLong(slot * SLOT_BYTES + 8, value);
+        size++;
+        return MISSING;
+    }
+
+    // contador: soma delta e tira a chave quando chega a zero; devolve o valor novo
+    public long add(long key, long delta) {
+        long previous = get(key);
+        long updated = (previous == MISSING ? 0 : previous) + delta;
+        if (updated == 0) {
+            remove(key);
+        } else {
+            put(key, updated);
+        }
+        return updated;
+    }
+
+    public long remove(long key) {
+        requireKey(key);
+        int hole = find(key);
+        if (keyAt(hole) != key) {
+            return MISSING;
+        }
+        long previous = valueAt(hole);
+        // cada chave seguinte do cluster volta para o buraco se o slot de origem dela nao fica entre os dois
+        for (int next = (hole + 1) & mask; ; next = (next + 1) & mask) {
+            long current = keyAt(next);
+            if (current == 0) {
+                break;
+            }
+            int home = slotOf(current);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table.putLong(hole * SLOT_BYTES, current);
+                table.putLong(hole * SLOT_BYTES + 8, valueAt(next));
+                hole = next;
+            }
+        }
+        table.putLong(hole * SLOT_BYTES, 0L);
+        table.putLong(hole * SLOT_BYTES + 8, 0L);
+        size--;
+        return previous;
+    }
+
+    // slot da chave, ou o primeiro vazio onde ela entraria
+    private int find(long key) {
+        int slot = slotOf(key);
+        while (true) {
+            long current = keyAt(slot);
+            if (current == key || current == 0) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void grow() {
+        if (capacity >= MAX_CAPACITY) {
+            if (size + 1 < capacity) {
+                // sem crescer alem do teto: so a sondagem fica mais longa
+                return;
+            }
+            throw new IllegalStateException("Lookup table is full: " + size + " keys");
+        }
+        ByteBuffer old = table;
+        int oldCapacity = capacity;
+        table = allocate(capacity << 1);
+        capacity <<= 1;
+        mask = capacity - 1;
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            long key = old.getLong(slot * SLOT_BYTES);
+            if (key != 0) {
+                int target = find(key);
+                table.putLong(target * SLOT_BYTES, key);
+                table.putLong(target * SLOT_BYTES + 8, old.getLong(slot * SLOT_BYTES + 8));
+            }
+        }
+    }
+
+    private long keyAt(int slot) {
+        return table.getLong(slot * SLOT_BYTES);
+    }
+
+    private long valueAt(int slot) {
+        return table.getLong(slot * SLOT_BYTES + 8);
+    }
+
+    private int slotOf(long key) {
+        return (int) mix(key) & mask;
+    }
+
+    private static void requireKey(long key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+    }
+
+    static int capacityFor(int expected) {
+        long needed = (long) (expected / MAX_LOAD) + 1;
+        int capacity = MIN_CAPACITY;
+        while (capacity < needed && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        // allocateDirect ja devolve a memoria zerada, ou seja, todos os slots vazios
+        return ByteBuffer.allocateDirect(capacity * SLOT_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // finalizador do murmur3: espalha ids sequenciais pelos slots
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,55 @@
+package com.bootcamp.microservicemeetup.service.notification;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// stub local: guarda as ultimas notificacoes em memoria em vez de enviar
+public class InMemoryNotificationSender implements NotificationSender {
+
+    private final String channel;
+    private final int capacity;
+    private final Deque<Notification> recent = new ArrayDeque<>();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    public InMemoryNotificationSender(String channel, int capacity) {
+        this.channel = channel;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public String getChannel() {
+        return channel;
+    }
+
+    @Override
+    public void send(List<Notification> notifications) {
+        synchronized (recent) {
+            for (Notification notification : notifications) {
+                if (recent.size() == capacity) {
+                    recent.removeFirst();
+                }
+                recent.addLast(notification);
+            }
+        }
+        sent.addAndGet(notifications.size());
+        batches.incrementAndGet();
+    }
+
+    public List<Notification> getRecent() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    public long getSent() {
+        return sent.get();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+}
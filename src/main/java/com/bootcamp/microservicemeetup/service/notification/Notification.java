@@ -0,0 +1,23 @@
+package com.bootcamp.microservicemeetup.service.notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Notification {
+
+    private NotificationType type;
+
+    private Integer meetupId;
+
+    private Integer registrationId;
+
+    private LocalDateTime startsAt;
+}
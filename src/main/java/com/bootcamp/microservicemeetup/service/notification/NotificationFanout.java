@@ -0,0 +1,248 @@
+package com.bootcamp.microservicemeetup.service.notification;
+
+import com.bootcamp.microservicemeetup.model.event.AttendanceChangedEvent;
+import com.bootcamp.microservicemeetup.repository.AttendanceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// fan-out assincrono das notificacoes de reagendamento e cancelamento. Uma thread de job le os
+// participantes em blocos, quebra em lotes por canal e enfileira numa fila limitada de cada canal:
+// fila cheia segura o leitor (backpressure) em vez de acumular memoria. Os workers de cada canal
+// enviam com retentativas e backoff exponencial com jitter; quem pediu so recebe o id do job
+@Component
+public class NotificationFanout {
+
+    public static final int MAX_JOBS = 10_000;
+
+    // participantes de onde o job le, em ordem de registration id
+    interface AttendeeSource {
+        List<Integer> next(int after, int limit);
+    }
+
+    private static final class Batch {
+        final NotificationJob job;
+        final List<Notification> notifications;
+
+        Batch(NotificationJob job, List<Notification> notifications) {
+            this.job = job;
+            this.notifications = notifications;
+        }
+    }
+
+    private final class Channel {
+        final NotificationSender sender;
+        final BlockingQueue<Batch> queue;
+
+        Channel(NotificationSender sender) {
+            this.sender = sender;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        void work() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    Batch batch = queue.take();
+                    batch.job.batchFinished(batch.notifications.size(), sendWithRetry(batch));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private boolean sendWithRetry(Batch batch) throws InterruptedException {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    sender.send(batch.notifications);
+                    return true;
+                } catch (RuntimeException e) {
+                    if (attempt >= maxAttempts) {
+                        return false;
+                    }
+                    batch.job.retried();
+                    // full jitter: espera aleatoria ate o teto exponencial, para as retentativas nao chegarem juntas
+                    long ceiling = Math.min(maxBackoffMs, backoffMs << Math.min(attempt - 1, 20));
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+                }
+            }
+        }
+    }
+
+    private final AttendanceRepository attendanceRepository;
+    private final int chunkSize;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final long maxBackoffMs;
+    private final List<Channel> channels;
+    private final ExecutorService producers;
+    private final ExecutorService workers;
+
+    private final Map<Integer, NotificationJob> preparedCancellations = new ConcurrentHashMap<>();
+    private final Map<String, NotificationJob> jobs = Collections.synchronizedMap(new LinkedHashMap<String, NotificationJob>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, NotificationJob> eldest) {
+            return size() > MAX_JOBS;
+        }
+    });
+
+    @Autowired
+    public NotificationFanout(AttendanceRepository attendanceRepository,
+                              List<NotificationSender> senders,
+                              @Value("${meetup.notifications.fanout.chunk-size:1000}") int chunkSize,
+                              @Value("${meetup.notifications.fanout.batch-size:500}") int batchSize,
+                              @Value("${meetup.notifications.fanout.queue-capacity:64}") int queueCapacity,
+                              @Value("${meetup.notifications.fanout.job-threads:2}") int jobThreads,
+                              @Value("${meetup.notifications.fanout.sender-threads:2}") int senderThreads,
+                              @Value("${meetup.notifications.fanout.max-attempts:5}") int maxAttempts,
+                              @Value("${meetup.notifications.fanout.backoff-ms:200}") long backoffMs,
+                              @Value("${meetup.notifications.fanout.max-backoff-ms:10000}") long maxBackoffMs) {
+        this.attendanceRepository = attendanceRepository;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.channels = senders.stream().map(Channel::new).collect(Collectors.toList());
+        this.producers = Executors.newFixedThreadPool(jobThreads, daemon("notification-job"));
+        this.workers = Executors.newFixedThreadPool(Math.max(1, channels.size() * senderThreads), daemon("notification-sender"));
+        for (Channel channel : channels) {
+            for (int i = 0; i < senderThreads; i++) {
+                workers.execute(channel::work);
+            }
+        }
+    }
+
+    public Optional<NotificationJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    // os participantes continuam na tabela depois do reagendamento: o job le direto dela
+    public String submitRescheduled(Integer meetupId, LocalDateTime startsAt) {
+        NotificationJob job = register(meetupId, NotificationType.MEETUP_RESCHEDULED, startsAt);
+        start(job, (after, limit) -> attendanceRepository.findAttendeeIds(meetupId, after, PageRequest.of(0, limit)));
+        return job.getId();
+    }
+
+    // no cancelamento a presenca e apagada na mesma transacao; o job espera a lista que o delete
+    // publica no AttendanceChangedEvent e so comeca depois do commit
+    public String prepareCancellation(Integer meetupId, LocalDateTime startsAt) {
+        NotificationJob job = register(meetupId, NotificationType.MEETUP_CANCELLED, startsAt);
+        preparedCancellations.put(meetupId, job);
+        return job.getId();
+    }
+
+    public void discard(String jobId) {
+        NotificationJob job = jobs.get(jobId);
+        if (job != null && preparedCancellations.remove(job.getMeetupId(), job)) {
+            job.discard();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        if (event.getDelta() >= 0) {
+            return;
+        }
+        NotificationJob job = preparedCancellations.remove(event.getMeetupId());
+        if (job != null) {
+            int[] attendees = event.getRegistrationIds().stream().mapToInt(Integer::intValue).sorted().toArray();
+            start(job, (after, limit) -> {
+                int from = Arrays.binarySearch(attendees, after + 1);
+                from = from < 0 ? -from - 1 : from;
+                List<Integer> page = new ArrayList<>(Math.min(limit, attendees.length - from));
+                for (int i = from; i < attendees.length && page.size() < limit; i++) {
+                    page.add(attendees[i]);
+                }
+                return page;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        producers.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private NotificationJob register(Integer meetupId, NotificationType type, LocalDateTime startsAt) {
+        NotificationJob job = new NotificationJob(UUID.randomUUID().toString(), meetupId, type, startsAt);
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    private void start(NotificationJob job, AttendeeSource source) {
+        producers.execute(() -> produce(job, source));
+    }
+
+    private void produce(NotificationJob job, AttendeeSource source) {
+        job.start();
+        try {
+            int after = 0;
+            List<Integer> chunk;
+            do {
+                chunk = source.next(after, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                List<Notification> notifications = chunk.stream()
+                        .map(registrationId -> Notification.builder()
+                                .type(job.getType())
+                                .meetupId(job.getMeetupId())
+                                .registrationId(registrationId)
+                                .startsAt(job.getStartsAt())
+                                .build())
+                        .collect(Collectors.toList());
+                for (Channel channel : channels) {
+                    for (int from = 0; from < notifications.size(); from += batchSize) {
+                        List<Notification> batch = notifications.subList(from, Math.min(from + batchSize, notifications.size()));
+                        job.batchQueued(batch.size());
+                        // bloqueia enquanto o canal estiver com a fila cheia
+                        channel.queue.put(new Batch(job, batch));
+                    }
+                }
+                after = chunk.get(chunk.size() - 1);
+            } while (chunk.size() == chunkSize);
+            job.producerFinished();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail();
+        } catch (RuntimeException e) {
+            // leitura dos participantes falhou; os lotes ja enfileirados ainda sao entregues
+            job.fail();
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
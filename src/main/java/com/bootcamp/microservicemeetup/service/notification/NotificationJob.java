@@ -0,0 +1,85 @@
+package com.bootcamp.microservicemeetup.service.notification;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// progresso de um fan-out: termina quando o produtor acabou de ler os participantes
+// e todo lote enfileirado foi entregue ou esgotou as tentativas
+@Getter
+public class NotificationJob {
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        DONE,
+        DONE_WITH_FAILURES,
+        FAILED,
+        DISCARDED
+    }
+
+    private final String id;
+    private final Integer meetupId;
+    private final NotificationType type;
+    private final LocalDateTime startsAt;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private volatile Status status = Status.PENDING;
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicInteger pendingBatches = new AtomicInteger();
+    private volatile boolean produced;
+
+    public NotificationJob(String id, Integer meetupId, NotificationType type, LocalDateTime startsAt) {
+        this.id = id;
+        this.meetupId = meetupId;
+        this.type = type;
+        this.startsAt = startsAt;
+    }
+
+    void start() {
+        status = Status.RUNNING;
+    }
+
+    void discard() {
+        status = Status.DISCARDED;
+    }
+
+    void batchQueued(int size) {
+        pendingBatches.incrementAndGet();
+        queued.addAndGet(size);
+    }
+
+    void batchFinished(int size, boolean ok) {
+        (ok ? delivered : failed).addAndGet(size);
+        if (pendingBatches.decrementAndGet() == 0 && produced) {
+            complete();
+        }
+    }
+
+    void fail() {
+        status = Status.FAILED;
+    }
+
+    void retried() {
+        retries.incrementAndGet();
+    }
+
+    void producerFinished() {
+        produced = true;
+        if (pendingBatches.get() == 0) {
+            complete();
+        }
+    }
+
+    // os dois lados podem chegar aqui ao mesmo tempo; o resultado e o mesmo
+    private void complete() {
+        if (status != Status.FAILED) {
+            status = failed.get() == 0 ? Status.DONE : Status.DONE_WITH_FAILURES;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.bootcamp.microservicemeetup.service.notification;
+
+import java.util.List;
+
+// um bean por canal (email, push...); recebe lotes para o provedor poder usar a api de envio em massa
+public interface NotificationSender {
+
+    String getChannel();
+
+    void send(List<Notification> notifications);
+}
@@ -0,0 +1,9 @@
+package com.bootcamp.microservicemeetup.service.notification;
+
+public enum NotificationType {
+    REMINDER_24H,
+    REMINDER_1H,
+    REMINDER_10MIN,
+    MEETUP_RESCHEDULED,
+    MEETUP_CANCELLED
+}
@@ -0,0 +1,318 @@
+package com.bootcamp.microservicemeetup.service.reminder;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.event.ChangeType;
+import com.bootcamp.microservicemeetup.model.event.MeetupChangedEvent;
+import com.bootcamp.microservicemeetup.model.event.MeetupsDeletedEvent;
+import com.bootcamp.microservicemeetup.repository.AttendanceRepository;
+import com.bootcamp.microservicemeetup.repository.MeetupOperations;
+import com.bootcamp.microservicemeetup.service.notification.Notification;
+import com.bootcamp.microservicemeetup.service.notification.NotificationSender;
+import com.bootcamp.microservicemeetup.service.notification.NotificationType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// lembretes de 24h, 1h e 10min antes de cada meetup. Cada meetup vira tres timers numa TimingWheel
+// (segundos), sem tarefa agendada nem polling por lembrete; o timer so carrega meetupId, geracao e tipo,
+// e a lista de participantes e lida em blocos na hora do disparo. Reagendar ou apagar um meetup
+// so troca a geracao: os timers antigos disparam, nao batem com a geracao atual e sao descartados
+@Component
+@ConditionalOnProperty(name = "meetup.reminders.enabled", havingValue = "true", matchIfMissing = true)
+public class ReminderScheduler {
+
+    static final NotificationType[] KINDS = {NotificationType.REMINDER_24H, NotificationType.REMINDER_1H, NotificationType.REMINDER_10MIN};
+    static final long[] OFFSET_SECONDS = {24 * 3600, 3600, 600};
+
+    private static final int LOAD_PAGE_SIZE = 5000;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static final class Schedule {
+        final long startsAt;
+        final int generation;
+
+        Schedule(long startsAt, int generation) {
+            this.startsAt = startsAt;
+            this.generation = generation;
+        }
+    }
+
+    private final MeetupOperations meetupRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final List<NotificationSender> senders;
+    private final int batchSize;
+    private final Executor delivery;
+    private final ScheduledExecutorService ticker;
+
+    // wheel e schedules so mudam com o lock da wheel
+    private final TimingWheel wheel;
+    private final Map<Integer, Schedule> schedules = new ConcurrentHashMap<>();
+    private final AtomicInteger generations = new AtomicInteger();
+    private long[] due = new long[64];
+
+    private final AtomicLong firedReminders = new AtomicLong();
+    private final AtomicLong staleTimers = new AtomicLong();
+    private final AtomicLong sentNotifications = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private volatile long lastLagMs;
+    private volatile long maxLagMs;
+
+    @Autowired
+    public ReminderScheduler(MeetupOperations meetupRepository,
+                             AttendanceRepository attendanceRepository,
+                             List<NotificationSender> senders,
+                             @Value("${meetup.reminders.batch-size:1000}") int batchSize,
+                             @Value("${meetup.reminders.tick-ms:1000}") long tickMs) {
+        this(meetupRepository, attendanceRepository, senders, batchSize, tickMs,
+                Executors.newSingleThreadExecutor(daemon("reminder-delivery")), Instant.now().getEpochSecond());
+    }
+
+    ReminderScheduler(MeetupOperations meetupRepository,
+                      AttendanceRepository attendanceRepository,
+                      List<NotificationSender> senders,
+                      int batchSize,
+                      long tickMs,
+                      Executor delivery,
+                      long startSecond) {
+        this.meetupRepository = meetupRepository;
+        this.attendanceRepository = attendanceRepository;
+        this.senders = senders;
+        this.batchSize = batchSize;
+        this.delivery = delivery;
+        this.wheel = new TimingWheel(startSecond);
+        this.ticker = Executors.newSingleThreadScheduledExecutor(daemon("reminder-ticker"));
+        this.ticker.scheduleAtFixedRate(this::tickQuietly, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    public int getPendingTimers() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    public int getScheduledMeetups() {
+        return schedules.size();
+    }
+
+    public long getFiredReminders() {
+        return firedReminders.get();
+    }
+
+    public long getStaleTimers() {
+        return staleTimers.get();
+    }
+
+    public long getSentNotifications() {
+        return sentNotifications.get();
+    }
+
+    public long getFailedBatches() {
+        return failedBatches.get();
+    }
+
+    public long getLastLagMs() {
+        return lastLagMs;
+    }
+
+    public long getMaxLagMs() {
+        return maxLagMs;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMeetupChanged(MeetupChangedEvent event) {
+        Meetup meetup = event.getMeetup();
+        if (event.getType() == ChangeType.DELETED) {
+            cancel(meetup.getId());
+        } else {
+            schedule(meetup.getId(), meetup.getStartsAt(), true);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMeetupsDeleted(MeetupsDeletedEvent event) {
+        event.getIds().forEach(this::cancel);
+    }
+
+    // carga em paginas por id na thread do ticker, sem segurar a subida da aplicacao. Pelo MeetupOperations
+    // do profile ativo: nos profiles sharded e logstore a tabela meetup do banco principal esta vazia
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        ticker.execute(() -> {
+            LocalDateTime now = LocalDateTime.now(ZONE);
+            Integer after = 0;
+            List<Meetup> page;
+            do {
+                page = meetupRepository.findByStartsAtAfterAndIdGreaterThanOrderByIdAsc(now, after,
+                        PageRequest.of(0, LOAD_PAGE_SIZE));
+                for (Meetup meetup : page) {
+                    after = meetup.getId();
+                    schedule(meetup.getId(), meetup.getStartsAt(), false);
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        if (delivery instanceof ExecutorService) {
+            ((ExecutorService) delivery).shutdownNow();
+        }
+    }
+
+    // overwrite=false na carga: um evento que chegou antes vale mais que a linha lida
+    void schedule(Integer meetupId, LocalDateTime startsAt, boolean overwrite) {
+        if (startsAt == null) {
+            cancel(meetupId);
+            return;
+        }
+        long start = startsAt.atZone(ZONE).toEpochSecond();
+        synchronized (wheel) {
+            Schedule previous = schedules.get(meetupId);
+            if (previous != null && (!overwrite || previous.startsAt == start)) {
+                return;
+            }
+            int generation = generations.incrementAndGet() & 0xFFFFFF;
+            boolean pending = false;
+            for (int kind = 0; kind < KINDS.length; kind++) {
+                pending |= wheel.add(start - OFFSET_SECONDS[kind], payload(meetupId, generation, kind));
+            }
+            if (pending) {
+                schedules.put(meetupId, new Schedule(start, generation));
+            } else {
+                schedules.remove(meetupId);
+            }
+        }
+    }
+
+    void cancel(Integer meetupId) {
+        synchronized (wheel) {
+            schedules.remove(meetupId);
+        }
+    }
+
+    void tick(long nowSecond) {
+        int count;
+        long[] expired;
+        synchronized (wheel) {
+            int[] size = {0};
+            wheel.advance(nowSecond, (deadline, payload) -> {
+                if (2 * size[0] + 2 > due.length) {
+                    due = Arrays.copyOf(due, due.length * 2);
+                }
+                due[2 * size[0]] = deadline;
+                due[2 * size[0] + 1] = payload;
+                size[0]++;
+            });
+            count = size[0];
+            expired = Arrays.copyOf(due, 2 * count);
+            for (int i = 0; i < count; i++) {
+                long payload = expired[2 * i + 1];
+                Integer meetupId = (int) (payload >>> 32);
+                Schedule schedule = schedules.get(meetupId);
+                if (schedule == null || schedule.generation != generationOf(payload)) {
+                    // meetup reagendado ou apagado depois que o timer entrou na roda
+                    expired[2 * i + 1] = -1;
+                } else if (kindOf(payload) == KINDS.length - 1) {
+                    schedules.remove(meetupId);
+                }
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            long deadline = expired[2 * i];
+            long payload = expired[2 * i + 1];
+            if (payload == -1) {
+                staleTimers.incrementAndGet();
+                continue;
+            }
+            delivery.execute(() -> deliver(deadline, payload));
+        }
+    }
+
+    private void deliver(long deadline, long payload) {
+        long lag = Math.max(0, System.currentTimeMillis() - deadline * 1000);
+        lastLagMs = lag;
+        maxLagMs = Math.max(maxLagMs, lag);
+        firedReminders.incrementAndGet();
+
+        int meetupId = (int) (payload >>> 32);
+        int kind = kindOf(payload);
+        LocalDateTime startsAt = LocalDateTime.ofInstant(Instant.ofEpochSecond(deadline + OFFSET_SECONDS[kind]), ZONE);
+        Integer after = 0;
+        List<Integer> page;
+        do {
+            page = attendanceRepository.findAttendeeIds(meetupId, after, PageRequest.of(0, batchSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            List<Notification> batch = page.stream()
+                    .map(registrationId -> Notification.builder()
+                            .type(KINDS[kind])
+                            .meetupId(meetupId)
+                            .registrationId(registrationId)
+                            .startsAt(startsAt)
+                            .build())
+                    .collect(Collectors.toList());
+            for (NotificationSender sender : senders) {
+                try {
+                    sender.send(batch);
+                    sentNotifications.addAndGet(batch.size());
+                } catch (RuntimeException e) {
+                    failedBatches.incrementAndGet();
+                }
+            }
+            after = page.get(page.size() - 1);
+        } while (page.size() == batchSize);
+    }
+
+    private void tickQuietly() {
+        try {
+            tick(Instant.now().getEpochSecond());
+        } catch (RuntimeException e) {
+            // o que ficou na roda dispara no proximo tick
+        }
+    }
+
+    static long payload(int meetupId, int generation, int kind) {
+        return ((long) meetupId << 32) | ((long) generation << 8) | kind;
+    }
+
+    private static int generationOf(long payload) {
+        return (int) (payload >>> 8) & 0xFFFFFF;
+    }
+
+    private static int kindOf(long payload) {
+        return (int) payload & 0xFF;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package com.bootcamp.microservicemeetup.service.reminder;
+
+import java.util.Arrays;
+
+// timing wheel hierarquica com ticks de 1 unidade (o ReminderScheduler usa segundos): 5 niveis de 64 slots,
+// o nivel L guarda o que vence em ate 64^(L+1) ticks, o que cobre ~34 anos em segundos.
+// Cada slot e um long[] de pares (deadline, payload), sem objeto por timer; quando o nivel de baixo
+// da a volta, o slot correspondente do nivel de cima desce (cascata). Nao e thread-safe
+public class TimingWheel {
+
+    static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+    static final int LEVELS = 5;
+
+    private static final int INITIAL_PAIRS = 8;
+    // slot que cresceu muito numa rajada volta a null depois de esvaziar
+    private static final int SHRINK_PAIRS = 4096;
+
+    public interface Expired {
+        void accept(long deadline, long payload);
+    }
+
+    private final long[][] slots = new long[LEVELS * SLOTS][];
+    private final int[] counts = new int[LEVELS * SLOTS];
+    private long current;
+    private int size;
+
+    public TimingWheel(long start) {
+        this.current = start;
+    }
+
+    public long getCurrent() {
+        return current;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // false quando o deadline ja passou ou esta alem do alcance da roda; quem chamou decide o que fazer
+    public boolean add(long deadline, long payload) {
+        long delta = deadline - current;
+        if (delta <= 0) {
+            return false;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (SLOT_BITS * (level + 1))) {
+                append(level * SLOTS + slotOf(deadline, level), deadline, payload);
+                size++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // anda tick a tick ate "to", entregando os timers vencidos em ordem de tick
+    public void advance(long to, Expired expired) {
+        while (current < to) {
+            current++;
+            cascade(1, expired);
+            drain(slotOf(current, 0), expired);
+        }
+    }
+
+    private void cascade(int level, Expired expired) {
+        if (level >= LEVELS || (current & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+            return;
+        }
+        // primeiro o nivel de cima, para o que descer dele ainda passar por este
+        cascade(level + 1, expired);
+        int index = level * SLOTS + slotOf(current, level);
+        int count = counts[index];
+        if (count == 0) {
+            return;
+        }
+        long[] pairs = slots[index];
+        release(index);
+        size -= count;
+        for (int i = 0; i < count; i++) {
+            long deadline = pairs[2 * i];
+            long payload = pairs[2 * i + 1];
+            if (deadline <= current) {
+                expired.accept(deadline, payload);
+            } else {
+                add(deadline, payload);
+            }
+        }
+    }
+
+    private void drain(int index, Expired expired) {
+        int count = counts[index];
+        if (count == 0) {
+            return;
+        }
+        long[] pairs = slots[index];
+        release(index);
+        size -= count;
+        for (int i = 0; i < count; i++) {
+            expired.accept(pairs[2 * i], pairs[2 * i + 1]);
+        }
+    }
+
+    private void append(int index, long deadline, long payload) {
+        long[] pairs = slots[index];
+        int count = counts[index];
+        if (pairs == null) {
+            pairs = slots[index] = new long[2 * INITIAL_PAIRS];
+        } else if (2 * count == pairs.length) {
+            pairs = slots[index] = Arrays.copyOf(pairs, pairs.length * 2);
+        }
+        pairs[2 * count] = deadline;
+        pairs[2 * count + 1] = payload;
+        counts[index] = count + 1;
+    }
+
+    // quem drena ainda le o array depois daqui: nada volta para o mesmo slot durante o drain
+    // (o que desce na cascata vai para niveis de baixo e no nivel 0 cada slot e um tick so)
+    private void release(int index) {
+        counts[index] = 0;
+        if (slots[index].length > 2 * SHRINK_PAIRS) {
+            slots[index] = null;
+        }
+    }
+
+    private static int slotOf(long tick, int level) {
+        return (int) (tick >>> (SLOT_BITS * level)) & (SLOTS - 1);
+    }
+}
@@ -0,0 +1,85 @@
+package com.bootcamp.microservicemeetup.service.schedule;
+
+import com.bootcamp.microservicemeetup.controller.dto.FreeSlotDTO;
+import com.bootcamp.microservicemeetup.controller.dto.FreeSlotsDTO;
+import com.bootcamp.microservicemeetup.controller.dto.SlotQueryDTO;
+import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.repository.RegistrationOperations;
+import com.bootcamp.microservicemeetup.service.batch.BatchLookup;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// horarios livres em comum: os meetups de cada pessoa saem do ScheduleIndex direto para um bitset
+// de buckets, e o resultado e o AND NOT de todos eles; nenhum meetup e lido do banco
+@Service
+public class FreeSlotFinder {
+
+    public static final int MAX_REGISTRANTS = 10_000;
+    public static final int MAX_BUCKETS = 10_000;
+    public static final int MAX_SLOTS = 100;
+
+    private final ScheduleIndex scheduleIndex;
+    private final RegistrationOperations registrationRepository;
+
+    public FreeSlotFinder(ScheduleIndex scheduleIndex, RegistrationOperations registrationRepository) {
+        this.scheduleIndex = scheduleIndex;
+        this.registrationRepository = registrationRepository;
+    }
+
+    public FreeSlotsDTO find(SlotQueryDTO query) {
+        int granularity = query.getGranularityMinutes();
+        if (granularity <= 0 || !query.getTo().isAfter(query.getFrom())) {
+            throw new BusinessException("The slot window must end after it starts");
+        }
+        long windowMinutes = Duration.between(query.getFrom(), query.getTo()).toMinutes();
+        if (windowMinutes / granularity > MAX_BUCKETS) {
+            throw new BusinessException("At most " + MAX_BUCKETS + " buckets per slot search");
+        }
+        List<String> attributes = new ArrayList<>(new LinkedHashSet<>(query.getRegistrationAttributes()));
+        if (attributes.size() > MAX_REGISTRANTS) {
+            throw new BusinessException("At most " + MAX_REGISTRANTS + " registrations per slot search");
+        }
+        int buckets = (int) (windowMinutes / granularity);
+        int needed = (query.getDurationMinutes() + granularity - 1) / granularity;
+
+        Map<String, Integer> ids = resolve(attributes);
+        long[] free = FreeSlots.allFree(buckets);
+        long[] busy = new long[free.length];
+        for (Integer registrationId : ids.values()) {
+            Arrays.fill(busy, 0L);
+            scheduleIndex.markBusy(registrationId, query.getFrom(), granularity, buckets, busy);
+            if (!FreeSlots.andNot(free, busy)) {
+                break;
+            }
+        }
+
+        List<FreeSlotDTO> slots = FreeSlots.runs(free, buckets, Math.max(1, needed), MAX_SLOTS).stream()
+                .map(run -> FreeSlotDTO.builder()
+                        .startsAt(query.getFrom().plusMinutes((long) run[0] * granularity))
+                        .endsAt(query.getFrom().plusMinutes((long) run[1] * granularity))
+                        .build())
+                .collect(Collectors.toList());
+        return FreeSlotsDTO.builder()
+                .slots(slots)
+                .missing(attributes.stream().filter(attribute -> !ids.containsKey(attribute)).collect(Collectors.toList()))
+                .build();
+    }
+
+    private Map<String, Integer> resolve(List<String> attributes) {
+        Map<String, Integer> ids = new HashMap<>();
+        for (int from = 0; from < attributes.size(); from += BatchLookup.CHUNK_SIZE) {
+            List<String> chunk = attributes.subList(from, Math.min(from + BatchLookup.CHUNK_SIZE, attributes.size()));
+            registrationRepository.findIdsByRegistrationIn(chunk)
+                    .forEach(row -> ids.put((String) row[0], (Integer) row[1]));
+        }
+        return ids;
+    }
+}
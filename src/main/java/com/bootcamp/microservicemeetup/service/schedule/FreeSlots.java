@@ -0,0 +1,99 @@
+package com.bootcamp.microservicemeetup.service.schedule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// kernel do buscador de horarios: um bit por bucket de tempo, 64 buckets por long.
+// A agenda livre em comum e um AND NOT palavra a palavra sobre os bitsets ocupados de cada pessoa
+public final class FreeSlots {
+
+    private FreeSlots() {
+    }
+
+    public static long[] allFree(int buckets) {
+        long[] free = new long[words(buckets)];
+        Arrays.fill(free, -1L);
+        int tail = buckets & 63;
+        if (tail != 0) {
+            free[free.length - 1] = (1L << tail) - 1;
+        }
+        return free;
+    }
+
+    public static int words(int buckets) {
+        return (buckets + 63) >>> 6;
+    }
+
+    // liga os bits [from, to)
+    public static void setRange(long[] bits, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            bits[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        bits[firstWord] |= firstMask;
+        for (int word = firstWord + 1; word < lastWord; word++) {
+            bits[word] = -1L;
+        }
+        bits[lastWord] |= lastMask;
+    }
+
+    // free &= ~busy; devolve false quando nao sobrou nenhum bucket livre, para parar cedo
+    public static boolean andNot(long[] free, long[] busy) {
+        long any = 0;
+        for (int word = 0; word < free.length; word++) {
+            free[word] &= ~busy[word];
+            any |= free[word];
+        }
+        return any != 0;
+    }
+
+    // sequencias maximas de buckets livres com pelo menos minLength buckets, como pares [inicio, fim)
+    public static List<int[]> runs(long[] free, int buckets, int minLength, int limit) {
+        List<int[]> runs = new ArrayList<>();
+        int position = 0;
+        while (position < buckets && runs.size() < limit) {
+            int start = nextSetBit(free, position, buckets);
+            if (start >= buckets) {
+                break;
+            }
+            int end = Math.min(buckets, nextClearBit(free, start, buckets));
+            if (end - start >= minLength) {
+                runs.add(new int[]{start, end});
+            }
+            position = end;
+        }
+        return runs;
+    }
+
+    private static int nextSetBit(long[] bits, int from, int buckets) {
+        int word = from >>> 6;
+        long current = bits[word] & (-1L << from);
+        while (current == 0) {
+            if (++word == bits.length) {
+                return buckets;
+            }
+            current = bits[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(current);
+    }
+
+    private static int nextClearBit(long[] bits, int from, int buckets) {
+        int word = from >>> 6;
+        long current = ~bits[word] & (-1L << from);
+        while (current == 0) {
+            if (++word == bits.length) {
+                return buckets;
+            }
+            current = ~bits[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(current);
+    }
+}
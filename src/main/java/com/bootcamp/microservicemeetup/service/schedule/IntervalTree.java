@@ -0,0 +1,195 @@
+package com.bootcamp.microservicemeetup.service.schedule;
+
+// arvore AVL de intervalos [start, end) ordenada por (start, id); cada no guarda o maior end da sua
+// subarvore, o que permite descartar ramos inteiros e achar um conflito em O(log n).
+// Nao e thread-safe: o ScheduleIndex segura o lock da chave enquanto usa a arvore
+public class IntervalTree {
+
+    public static final int NONE = Integer.MIN_VALUE;
+
+    private static final class Node {
+        final long start;
+        final long end;
+        final int id;
+        long maxEnd;
+        int height = 1;
+        Node left;
+        Node right;
+
+        Node(long start, long end, int id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public void insert(long start, long end, int id) {
+        root = insert(root, start, end, id);
+    }
+
+    public boolean remove(long start, int id) {
+        int before = size;
+        root = remove(root, start, id);
+        return size < before;
+    }
+
+    // id de algum intervalo que cruza [start, end), ignorando excludeId; NONE se nao houver
+    public int findOverlap(long start, long end, int excludeId) {
+        return findOverlap(root, start, end, excludeId);
+    }
+
+    public interface IntervalConsumer {
+        void accept(long start, long end);
+    }
+
+    // todos os intervalos que cruzam [start, end); ramos com maxEnd <= start nem sao visitados
+    public void forEachOverlap(long start, long end, IntervalConsumer consumer) {
+        forEachOverlap(root, start, end, consumer);
+    }
+
+    private void forEachOverlap(Node node, long start, long end, IntervalConsumer consumer) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        forEachOverlap(node.left, start, end, consumer);
+        if (node.start >= end) {
+            return;
+        }
+        if (start < node.end) {
+            consumer.accept(node.start, node.end);
+        }
+        forEachOverlap(node.right, start, end, consumer);
+    }
+
+    private int findOverlap(Node node, long start, long end, int excludeId) {
+        while (node != null && node.maxEnd > start) {
+            if (node.start < end && start < node.end && node.id != excludeId) {
+                return node.id;
+            }
+            // ramo da esquerda ainda pode ter um end depois de start; se so achar o excluido, segue para a direita
+            if (node.left != null && node.left.maxEnd > start) {
+                int found = findOverlap(node.left, start, end, excludeId);
+                if (found != NONE) {
+                    return found;
+                }
+            }
+            // a direita todos comecam em node.start ou depois
+            if (node.start >= end) {
+                return NONE;
+            }
+            node = node.right;
+        }
+        return NONE;
+    }
+
+    private static int compare(long start, int id, Node node) {
+        int byStart = Long.compare(start, node.start);
+        return byStart != 0 ? byStart : Integer.compare(id, node.id);
+    }
+
+    private Node insert(Node node, long start, long end, int id) {
+        if (node == null) {
+            size++;
+            return new Node(start, end, id);
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = insert(node.left, start, end, id);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, start, end, id);
+        } else {
+            return node;
+        }
+        return balance(node);
+    }
+
+    private Node remove(Node node, long start, int id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            Node replacement = new Node(successor.start, successor.end, successor.id);
+            size++;
+            replacement.right = remove(node.right, successor.start, successor.id);
+            replacement.left = node.left;
+            return balance(replacement);
+        }
+        return balance(node);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+}
@@ -0,0 +1,444 @@
+package com.bootcamp.microservicemeetup.service.schedule;
+
+import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.model.entity.AttendanceId;
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.event.ChangeType;
+import com.bootcamp.microservicemeetup.model.event.MeetupChangedEvent;
+import com.bootcamp.microservicemeetup.model.event.MeetupsDeletedEvent;
+import com.bootcamp.microservicemeetup.repository.AttendanceRepository;
+import com.bootcamp.microservicemeetup.repository.MeetupOperations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// horarios ocupados por pessoa e por local, numa IntervalTree por chave, para recusar conflitos
+// sem ler os meetups da pessoa. Quem agenda reserva o horario antes de gravar (com um id provisorio)
+// e confirma com o id real ou cancela se a gravacao falhar; o lock por chave torna a checagem
+// e a reserva atomicas. Os locks sao sempre tomados na ordem pessoas (por id crescente) e depois local.
+// Meetups que ja terminaram nao geram conflito: o prune periodico tira os intervalos e as chaves vazias
+@Component
+public class ScheduleIndex {
+
+    private static final int REBUILD_PAGE_SIZE = 5000;
+
+    private static final class Keyed {
+        final ReentrantLock lock = new ReentrantLock();
+        final IntervalTree tree = new IntervalTree();
+        // com o lock: a chave saiu do mapa, quem ainda tem a instancia pega a nova
+        boolean retired;
+    }
+
+    private static final class Slot {
+        final long start;
+        final long end;
+        final String venue;
+        final Set<Integer> registrants = ConcurrentHashMap.newKeySet();
+
+        Slot(long start, long end, String venue) {
+            this.start = start;
+            this.end = end;
+            this.venue = venue;
+        }
+    }
+
+    private final Map<Integer, Keyed> byRegistrant = new ConcurrentHashMap<>();
+    private final Map<String, Keyed> byVenue = new ConcurrentHashMap<>();
+    private final Map<Integer, Slot> slots = new ConcurrentHashMap<>();
+    private final AtomicInteger provisionalIds = new AtomicInteger();
+    private final MeetupOperations meetupRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final ScheduledExecutorService pruner;
+
+    // sem prune periodico: testes e benchmarks chamam prune na mao
+    public ScheduleIndex(MeetupOperations meetupRepository, AttendanceRepository attendanceRepository) {
+        this.meetupRepository = meetupRepository;
+        this.attendanceRepository = attendanceRepository;
+        this.pruner = null;
+    }
+
+    @Autowired
+    public ScheduleIndex(MeetupOperations meetupRepository,
+                         AttendanceRepository attendanceRepository,
+                         @Value("${meetup.schedule.prune-interval-ms:3600000}") long pruneIntervalMs) {
+        this.meetupRepository = meetupRepository;
+        this.attendanceRepository = attendanceRepository;
+        this.pruner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "schedule-index-prune");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pruner.scheduleWithFixedDelay(this::pruneQuietly, pruneIntervalMs, pruneIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public interface Reservation {
+
+        void confirm(Integer meetupId);
+
+        void cancel();
+
+        // dentro de uma transacao o horario so vale depois do commit; rollback devolve a reserva
+        default void confirmAfterCommit(Integer meetupId) {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                confirm(meetupId);
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        confirm(meetupId);
+                    } else {
+                        cancel();
+                    }
+                }
+            });
+        }
+    }
+
+    private static final Reservation NOTHING = new Reservation() {
+        @Override
+        public void confirm(Integer meetupId) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    // meetupId nulo para meetup novo; num reagendamento os intervalos do proprio meetup nao contam como conflito
+    public Reservation reserve(Integer meetupId, Collection<Integer> registrationIds, String venue,
+                               LocalDateTime startsAt, LocalDateTime endsAt) {
+        if (startsAt == null || endsAt == null) {
+            // sem horario nao ha o que checar; um meetup que perdeu o horario sai do indice
+            return new Reservation() {
+                @Override
+                public void confirm(Integer id) {
+                    if (id != null) {
+                        remove(id);
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                }
+            };
+        }
+        if (!endsAt.isAfter(startsAt)) {
+            throw new BusinessException("Meetup must end after it starts");
+        }
+        long start = minutes(startsAt);
+        long end = minutes(endsAt);
+        Set<Integer> registrants = new TreeSet<>(registrationIds);
+        Slot previous = meetupId == null ? null : slots.get(meetupId);
+        if (previous != null) {
+            registrants.addAll(previous.registrants);
+        }
+        int excluded = meetupId == null ? IntervalTree.NONE : meetupId;
+        int provisional = -provisionalIds.incrementAndGet();
+
+        List<Keyed> locked = lockAll(registrants, venue);
+        try {
+            for (Integer registrationId : registrants) {
+                if (keyed(registrationId).tree.findOverlap(start, end, excluded) != IntervalTree.NONE) {
+                    throw new BusinessException("Registration " + registrationId + " is already booked at this time");
+                }
+            }
+            if (venue != null && keyed(venue).tree.findOverlap(start, end, excluded) != IntervalTree.NONE) {
+                throw new BusinessException("Venue is already booked at this time");
+            }
+            for (Integer registrationId : registrants) {
+                keyed(registrationId).tree.insert(start, end, provisional);
+            }
+            if (venue != null) {
+                keyed(venue).tree.insert(start, end, provisional);
+            }
+        } finally {
+            unlockAll(locked);
+        }
+        return new Reservation() {
+            @Override
+            public void confirm(Integer id) {
+                if (previous != null) {
+                    remove(id);
+                }
+                Slot slot = new Slot(start, end, venue);
+                slot.registrants.addAll(registrants);
+                slots.put(id, slot);
+                List<Keyed> relocked = lockAll(registrants, venue);
+                try {
+                    for (Integer registrationId : registrants) {
+                        Keyed keyed = keyed(registrationId);
+                        keyed.tree.insert(start, end, id);
+                        keyed.tree.remove(start, provisional);
+                    }
+                    if (venue != null) {
+                        keyed(venue).tree.insert(start, end, id);
+                        keyed(venue).tree.remove(start, provisional);
+                    }
+                } finally {
+                    unlockAll(relocked);
+                }
+            }
+
+            @Override
+            public void cancel() {
+                release(registrants, venue, start, provisional);
+            }
+        };
+    }
+
+    // uma pessoa entrando num meetup que ja tem horario
+    public Reservation reserveAttendance(Integer meetupId, Integer registrationId) {
+        Slot slot = slots.get(meetupId);
+        if (slot == null || slot.registrants.contains(registrationId)) {
+            return NOTHING;
+        }
+        int provisional = -provisionalIds.incrementAndGet();
+        Keyed keyed = lock(byRegistrant, registrationId);
+        try {
+            if (keyed.tree.findOverlap(slot.start, slot.end, meetupId) != IntervalTree.NONE) {
+                throw new BusinessException("Registration " + registrationId + " is already booked at this time");
+            }
+            keyed.tree.insert(slot.start, slot.end, provisional);
+        } finally {
+            keyed.lock.unlock();
+        }
+        return new Reservation() {
+            @Override
+            public void confirm(Integer id) {
+                keyed.lock.lock();
+                try {
+                    keyed.tree.insert(slot.start, slot.end, id);
+                    keyed.tree.remove(slot.start, provisional);
+                } finally {
+                    keyed.lock.unlock();
+                }
+                slot.registrants.add(registrationId);
+            }
+
+            @Override
+            public void cancel() {
+                release(Collections.singleton(registrationId), null, slot.start, provisional);
+            }
+        };
+    }
+
+    public void remove(Integer meetupId) {
+        Slot slot = slots.remove(meetupId);
+        if (slot != null) {
+            release(slot.registrants, slot.venue, slot.start, meetupId);
+        }
+    }
+
+    // marca em bits os buckets de bucketMinutes a partir de from em que a pessoa ja tem meetup
+    public void markBusy(Integer registrationId, LocalDateTime from, int bucketMinutes, int buckets, long[] bits) {
+        Keyed keyed = byRegistrant.get(registrationId);
+        if (keyed == null) {
+            return;
+        }
+        long origin = minutes(from);
+        keyed.lock.lock();
+        try {
+            keyed.tree.forEachOverlap(origin, origin + (long) buckets * bucketMinutes, (start, end) -> {
+                int first = (int) Math.max(0, (start - origin) / bucketMinutes);
+                int last = (int) Math.min(buckets, (end - origin + bucketMinutes - 1) / bucketMinutes);
+                FreeSlots.setRange(bits, first, last);
+            });
+        } finally {
+            keyed.lock.unlock();
+        }
+    }
+
+    public int getIndexedMeetups() {
+        return slots.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMeetupChanged(MeetupChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            remove(event.getMeetup().getId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMeetupsDeleted(MeetupsDeletedEvent event) {
+        event.getIds().forEach(this::remove);
+    }
+
+    // pelo MeetupOperations do profile ativo (JPA, shards ou log), so os que ainda nao terminaram; a presenca
+    // vem do banco principal por bloco de ids. Meetups gravados depois da leitura ja entraram pelo reserve/confirm;
+    // o rebuild so completa o que falta
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer after = 0;
+        List<Meetup> page;
+        do {
+            page = meetupRepository.findByEndsAtAfterAndIdGreaterThanOrderByIdAsc(now, after,
+                    PageRequest.of(0, REBUILD_PAGE_SIZE));
+            List<Integer> scheduled = new ArrayList<>(page.size());
+            for (Meetup meetup : page) {
+                after = meetup.getId();
+                if (meetup.getStartsAt() == null) {
+                    continue;
+                }
+                long start = minutes(meetup.getStartsAt());
+                long end = minutes(meetup.getEndsAt());
+                if (end <= start) {
+                    continue;
+                }
+                scheduled.add(meetup.getId());
+                if (slots.putIfAbsent(meetup.getId(), new Slot(start, end, meetup.getVenue())) == null
+                        && meetup.getVenue() != null) {
+                    insert(byVenue, meetup.getVenue(), start, end, meetup.getId());
+                }
+            }
+            if (!scheduled.isEmpty()) {
+                for (AttendanceId attendance : attendanceRepository.findIdsByMeetupIdIn(scheduled)) {
+                    Slot slot = slots.get(attendance.getMeetupId());
+                    if (slot != null && slot.registrants.add(attendance.getRegistrationId())) {
+                        insert(byRegistrant, attendance.getRegistrationId(), slot.start, slot.end, attendance.getMeetupId());
+                    }
+                }
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+    }
+
+    // tira os meetups que terminaram antes de before e as chaves que ficaram sem intervalo
+    public int prune(LocalDateTime before) {
+        long cutoff = minutes(before);
+        int pruned = 0;
+        for (Map.Entry<Integer, Slot> entry : slots.entrySet()) {
+            Slot slot = entry.getValue();
+            if (slot.end <= cutoff && slots.remove(entry.getKey(), slot)) {
+                release(slot.registrants, slot.venue, slot.start, entry.getKey());
+                pruned++;
+            }
+        }
+        byRegistrant.forEach((registrationId, keyed) -> retireIfEmpty(byRegistrant, registrationId, keyed));
+        byVenue.forEach((venue, keyed) -> retireIfEmpty(byVenue, venue, keyed));
+        return pruned;
+    }
+
+    public int getIndexedKeys() {
+        return byRegistrant.size() + byVenue.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pruner != null) {
+            pruner.shutdownNow();
+        }
+    }
+
+    private void pruneQuietly() {
+        try {
+            prune(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            // o que sobrou sai no proximo prune
+        }
+    }
+
+    private static <K> void insert(Map<K, Keyed> index, K key, long start, long end, int id) {
+        Keyed keyed = lock(index, key);
+        try {
+            keyed.tree.insert(start, end, id);
+        } finally {
+            keyed.lock.unlock();
+        }
+    }
+
+    private static <K> void retireIfEmpty(Map<K, Keyed> index, K key, Keyed keyed) {
+        keyed.lock.lock();
+        try {
+            if (!keyed.retired && keyed.tree.size() == 0) {
+                keyed.retired = true;
+                index.remove(key, keyed);
+            }
+        } finally {
+            keyed.lock.unlock();
+        }
+    }
+
+    private void release(Collection<Integer> registrants, String venue, long start, int id) {
+        for (Integer registrationId : registrants) {
+            Keyed keyed = lock(byRegistrant, registrationId);
+            try {
+                keyed.tree.remove(start, id);
+            } finally {
+                keyed.lock.unlock();
+            }
+        }
+        if (venue != null) {
+            Keyed keyed = lock(byVenue, venue);
+            try {
+                keyed.tree.remove(start, id);
+            } finally {
+                keyed.lock.unlock();
+            }
+        }
+    }
+
+    private List<Keyed> lockAll(Set<Integer> registrants, String venue) {
+        List<Keyed> locked = new ArrayList<>(registrants.size() + 1);
+        for (Integer registrationId : registrants) {
+            locked.add(lock(byRegistrant, registrationId));
+        }
+        if (venue != null) {
+            locked.add(lock(byVenue, venue));
+        }
+        return locked;
+    }
+
+    // com o lock na mao a instancia nao sai do mapa, entao o keyed() dentro da secao devolve a mesma
+    private static <K> Keyed lock(Map<K, Keyed> index, K key) {
+        while (true) {
+            Keyed keyed = index.computeIfAbsent(key, k -> new Keyed());
+            keyed.lock.lock();
+            if (!keyed.retired) {
+                return keyed;
+            }
+            keyed.lock.unlock();
+        }
+    }
+
+    private static void unlockAll(List<Keyed> locked) {
+        locked.forEach(keyed -> keyed.lock.unlock());
+    }
+
+    private Keyed keyed(Integer registrationId) {
+        return byRegistrant.computeIfAbsent(registrationId, key -> new Keyed());
+    }
+
+    private Keyed keyed(String venue) {
+        return byVenue.computeIfAbsent(venue, key -> new Keyed());
+    }
+
+    static long minutes(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+}
@@ -0,0 +1,134 @@
+package com.bootcamp.microservicemeetup.service.suggest;
+
+import com.bootcamp.microservicemeetup.model.event.ChangeType;
+import com.bootcamp.microservicemeetup.model.event.RegistrationChangedEvent;
+import com.bootcamp.microservicemeetup.model.event.RegistrationsDeletedEvent;
+import com.bootcamp.microservicemeetup.repository.RegistrationOperations;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// autocomplete de nomes sem ir ao banco: carrega a trie uma vez e depois so aplica os eventos de registration
+@Service
+public class NameSuggestService {
+
+    public static final int MAX_LIMIT = 50;
+
+    private static final int LOAD_PAGE_SIZE = 5000;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private final RegistrationOperations repository;
+    private final NameTrie trie = new NameTrie();
+    // registration id -> no terminal, para desfazer o nome antigo no update e no delete
+    private final Map<Integer, Integer> nodeById = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public NameSuggestService(RegistrationOperations repository) {
+        this.repository = repository;
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String key = fold(prefix);
+        if (key.isEmpty()) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            return trie.top(key, Math.min(limit, MAX_LIMIT));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int after = 0;
+        List<Object[]> page;
+        do {
+            page = repository.findNamesAfter(after, PageRequest.of(0, LOAD_PAGE_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (Object[] row : page) {
+                    index((Integer) row[0], (String) row[1]);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!page.isEmpty()) {
+                after = (Integer) page.get(page.size() - 1)[0];
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRegistrationChanged(RegistrationChangedEvent event) {
+        Integer id = event.getRegistration().getId();
+        lock.writeLock().lock();
+        try {
+            if (event.getType() == ChangeType.DELETED) {
+                remove(id);
+            } else {
+                index(id, event.getRegistration().getName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRegistrationsDeleted(RegistrationsDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.getIds().forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int getIndexedNames() {
+        lock.readLock().lock();
+        try {
+            return trie.getNames();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // sem acento, minusculo e com espacos normalizados: "  José  da Silva" -> "jose da silva"
+    static String fold(String name) {
+        if (name == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        String plain = MARKS.matcher(decomposed).replaceAll("");
+        return SPACES.matcher(plain.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private void index(Integer id, String name) {
+        remove(id);
+        String key = fold(name);
+        if (!key.isEmpty()) {
+            nodeById.put(id, trie.add(key, name.trim()));
+        }
+    }
+
+    private void remove(Integer id) {
+        Integer node = nodeById.remove(id);
+        if (node != null) {
+            trie.decrement(node);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.bootcamp.microservicemeetup.service.suggest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// trie em arrays paralelos (primeiro filho / proximo irmao) sem um objeto por no.
+// best guarda o maior count da subarvore, entao a busca pelos mais populares abre so os ramos necessarios.
+// nao e thread-safe; o NameSuggestService controla o acesso
+public class NameTrie {
+
+    private static final int ROOT = 0;
+    private static final int NONE = 0;
+
+    private char[] label;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] parent;
+    private int[] count;
+    private int[] best;
+    private String[] display;
+
+    private int nodes = 1;
+    private int names;
+
+    public NameTrie() {
+        this(1024);
+    }
+
+    public NameTrie(int capacity) {
+        label = new char[capacity];
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+        parent = new int[capacity];
+        count = new int[capacity];
+        best = new int[capacity];
+        display = new String[capacity];
+        parent[ROOT] = -1;
+    }
+
+    // soma uma ocorrencia da chave e devolve o no terminal dela
+    public int add(String key, String name) {
+        int node = ROOT;
+        for (int i = 0; i < key.length(); i++) {
+            node = childOrCreate(node, key.charAt(i));
+        }
+        if (count[node]++ == 0) {
+            display[node] = name;
+            names++;
+        }
+        for (int n = node; n != -1 && best[n] < count[node]; n = parent[n]) {
+            best[n] = count[node];
+        }
+        return node;
+    }
+
+    public void decrement(int node) {
+        if (count[node] == 0) {
+            return;
+        }
+        if (--count[node] == 0) {
+            display[node] = null;
+            names--;
+        }
+        // os nos ficam no lugar; so o best do caminho ate a raiz e recalculado
+        for (int n = node; n != -1; n = parent[n]) {
+            int value = count[n];
+            for (int child = firstChild[n]; child != NONE; child = nextSibling[child]) {
+                value = Math.max(value, best[child]);
+            }
+            if (value == best[n]) {
+                break;
+            }
+            best[n] = value;
+        }
+    }
+
+    public List<String> top(String prefix, int limit) {
+        int node = find(prefix);
+        if (node < 0 || best[node] == 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        // best-first: um no entra com o best da subarvore e um terminal com o proprio count;
+        // como best e limite superior, os terminais saem em ordem decrescente de popularidade
+        PriorityQueue<Long> queue = new PriorityQueue<>(Comparator.reverseOrder());
+        queue.add(entry(best[node], node, false));
+        List<String> result = new ArrayList<>(limit);
+        while (!queue.isEmpty() && result.size() < limit) {
+            long entry = queue.poll();
+            int current = (int) ((entry & 0xFFFFFFFFL) >>> 1);
+            if ((entry & 1) == 1) {
+                result.add(display[current]);
+                continue;
+            }
+            if (count[current] > 0) {
+                queue.add(entry(count[current], current, true));
+            }
+            for (int child = firstChild[current]; child != NONE; child = nextSibling[child]) {
+                if (best[child] > 0) {
+                    queue.add(entry(best[child], child, false));
+                }
+            }
+        }
+        return result;
+    }
+
+    public int getNames() {
+        return names;
+    }
+
+    public int getNodes() {
+        return nodes;
+    }
+
+    // arrays alocados mais os nomes guardados (cabecalhos de String e byte[] latin1)
+    public long estimatedBytes() {
+        long bytes = (long) label.length * (Character.BYTES + 5 * Integer.BYTES + Integer.BYTES);
+        for (int i = 0; i < nodes; i++) {
+            if (display[i] != null) {
+                bytes += 40 + display[i].length();
+            }
+        }
+        return bytes;
+    }
+
+    private int find(String key) {
+        int node = ROOT;
+        for (int i = 0; i < key.length() && node >= 0; i++) {
+            node = child(node, key.charAt(i));
+        }
+        return node;
+    }
+
+    private int child(int node, char c) {
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            if (label[child] == c) {
+                return child;
+            }
+        }
+        return -1;
+    }
+
+    private int childOrCreate(int node, char c) {
+        int existing = child(node, c);
+        if (existing >= 0) {
+            return existing;
+        }
+        if (nodes == label.length) {
+            grow();
+        }
+        int created = nodes++;
+        label[created] = c;
+        parent[created] = node;
+        nextSibling[created] = firstChild[node];
+        firstChild[node] = created;
+        return created;
+    }
+
+    private void grow() {
+        int capacity = label.length + (label.length >> 1);
+        label = Arrays.copyOf(label, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        nextSibling = Arrays.copyOf(nextSibling, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        count = Arrays.copyOf(count, capacity);
+        best = Arrays.copyOf(best, capacity);
+        display = Arrays.copyOf(display, capacity);
+    }
+
+    private static long entry(int key, int node, boolean terminal) {
+        return ((long) key << 32) | ((long) node << 1) | (terminal ? 1 : 0);
+    }
+}
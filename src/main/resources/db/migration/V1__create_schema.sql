@@ -0,0 +1,34 @@
+create table registration (
+    registration_id integer generated by default as identity primary key,
+    person_name varchar(255),
+    date_of_registration varchar(255),
+    registration varchar(255),
+    change_sequence bigint
+);
+
+create table meetup (
+    id integer generated by default as identity primary key,
+    event varchar(255),
+    id_registration integer,
+    meetup_date varchar(255),
+    registration_attribute varchar(255),
+    registered boolean,
+    change_sequence bigint,
+    constraint fk_meetup_registration foreign key (id_registration) references registration (registration_id)
+);
+
+create table tombstone (
+    id bigint generated by default as identity primary key,
+    entity_type varchar(255),
+    entity_id integer,
+    change_sequence bigint
+);
+
+create table replication_heartbeat (
+    id integer primary key,
+    beat_at bigint
+);
+
+create index idx_registration_change_sequence on registration (change_sequence);
+create index idx_meetup_change_sequence on meetup (change_sequence);
+create index idx_tombstone_entity_change_sequence on tombstone (entity_type, change_sequence);
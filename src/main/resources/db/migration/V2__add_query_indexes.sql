@@ -0,0 +1,8 @@
+-- existsByRegistration / findByRegistration
+create index idx_registration_registration on registration (registration);
+
+-- existsByEvent / findExistingEvents
+create index idx_meetup_event on meetup (event);
+
+-- findByRegistration(Registration) e o join do findByRegistrationOnMeetup
+create index idx_meetup_id_registration on meetup (id_registration);
@@ -0,0 +1,13 @@
+-- uma linha por (meetup, pessoa) em vez de uma copia do meetup por pessoa
+create table attendance (
+    meetup_id integer not null,
+    registration_id integer not null,
+    primary key (meetup_id, registration_id),
+    constraint fk_attendance_registration foreign key (registration_id) references registration (registration_id) on delete cascade
+);
+
+-- meetups de uma pessoa (getRegistrationsByMeetup); a pk ja atende a lista de participantes de um meetup
+create index idx_attendance_registration on attendance (registration_id, meetup_id);
+
+insert into attendance (meetup_id, registration_id)
+select id, id_registration from meetup where id_registration is not null;
@@ -0,0 +1,6 @@
+-- contadores materializados, escritos so pelo AttendanceCounters (a entidade nao grava essas colunas)
+alter table meetup add column attendee_count integer default 0 not null;
+alter table registration add column meetup_count integer default 0 not null;
+
+update meetup set attendee_count = (select count(*) from attendance a where a.meetup_id = meetup.id);
+update registration set meetup_count = (select count(*) from attendance a where a.registration_id = registration.registration_id);
@@ -0,0 +1,34 @@
+-- meetup_date e texto dd/MM/yyyy; meetup_day e a mesma data em coluna indexavel para o corte do arquivamento
+alter table meetup add column meetup_day date;
+
+update meetup set meetup_day = parsedatetime(meetup_date, 'dd/MM/yyyy')
+where meetup_date regexp '^[0-9]{2}/[0-9]{2}/[0-9]{4}$';
+
+create index idx_meetup_day on meetup (meetup_day);
+
+-- mesmas colunas do meetup, para o union all do includeArchived
+create table meetup_archive (
+    id integer primary key,
+    event varchar(255),
+    id_registration integer,
+    meetup_date varchar(255),
+    registration_attribute varchar(255),
+    registered boolean,
+    change_sequence bigint,
+    attendee_count integer default 0 not null,
+    meetup_day date,
+    archived_at bigint,
+    constraint fk_meetup_archive_registration foreign key (id_registration) references registration (registration_id)
+);
+
+create index idx_meetup_archive_event on meetup_archive (event);
+create index idx_meetup_archive_registration_attribute on meetup_archive (registration_attribute);
+
+create table attendance_archive (
+    meetup_id integer not null,
+    registration_id integer not null,
+    primary key (meetup_id, registration_id),
+    constraint fk_attendance_archive_registration foreign key (registration_id) references registration (registration_id) on delete cascade
+);
+
+create index idx_attendance_archive_registration on attendance_archive (registration_id, meetup_id);
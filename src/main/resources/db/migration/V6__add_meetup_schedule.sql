@@ -0,0 +1,8 @@
+-- horario e local do meetup; meetups antigos ficam sem horario e nao entram na checagem de conflito
+alter table meetup add column starts_at timestamp;
+alter table meetup add column ends_at timestamp;
+alter table meetup add column venue varchar(255);
+
+alter table meetup_archive add column starts_at timestamp;
+alter table meetup_archive add column ends_at timestamp;
+alter table meetup_archive add column venue varchar(255);
@@ -0,0 +1,3 @@
+-- corte do MeetupArchiver: um lado do union por coluna (ends_at, e starts_at quando nao ha ends_at)
+create index idx_meetup_ends_at on meetup (ends_at);
+create index idx_meetup_starts_at on meetup (starts_at);
@@ -0,0 +1,3 @@
+-- callback do Flyway, so nos shards: registration mora no banco principal, entao aqui id_registration e so o numero
+alter table meetup drop constraint if exists fk_meetup_registration;
+alter table meetup_archive drop constraint if exists fk_meetup_archive_registration;
@@ -0,0 +1,44 @@
+package com.bootcamp.microservicemeetup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FastStartupTest {
+
+    static final long TARGET_MS = Long.getLong("startup.target-ms", 15000);
+
+    @Test
+    @DisplayName("Should answer the first request within the startup target")
+    public void timeToFirstSuccessfulRequestTest() throws Exception {
+
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ServicoDeAgendamentoDeMeetupsApplication.class)
+                .applicationStartup(new BufferingApplicationStartup(4096))
+                .profiles("fast-startup")
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:fast-startup;DB_CLOSE_DELAY=-1",
+                        "startup.timeline.path=build/startup-timeline-test.json")
+                .run()) {
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/meetups")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(elapsedMs).isLessThan(TARGET_MS);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.bootcamp.microservicemeetup.config.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadWriteRoutingDataSourceTest {
+
+    ReadYourWritesTracker tracker;
+
+    ReplicaLagMonitor lagMonitor;
+
+    ReadWriteRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    public void setUp() {
+        tracker = new ReadYourWritesTracker(60000, 2);
+        lagMonitor = Mockito.mock(ReplicaLagMonitor.class);
+        Mockito.when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        routingDataSource = new ReadWriteRoutingDataSource(tracker, lagMonitor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        tracker.clear();
+        tracker.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should route read-only transactions to the replica")
+    public void readOnlyGoesToReplicaTest() {
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(DataSourceRole.REPLICA);
+    }
+
+    @Test
+    @DisplayName("Should route writes to the primary")
+    public void writeGoesToPrimaryTest() {
+
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(DataSourceRole.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("Should keep reads on the primary right after the client's own write")
+    public void readYourWritesStickinessTest() {
+
+        tracker.bind("client-1");
+        tracker.recordWrite();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(DataSourceRole.PRIMARY);
+
+        tracker.bind("client-2");
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(DataSourceRole.REPLICA);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary when the replica lags too much")
+    public void laggingReplicaFallsBackToPrimaryTest() {
+
+        Mockito.when(lagMonitor.isReplicaUsable()).thenReturn(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(DataSourceRole.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("Should cap tracked clients and keep every client on the primary after an overflowing write")
+    public void trackerCapTest() {
+
+        // cenario: teto de 2 clientes
+        for (String client : new String[]{"client-1", "client-2", "client-3"}) {
+            tracker.bind(client);
+            tracker.recordWrite();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // assert
+        assertThat(tracker.getTrackedClients()).isEqualTo(2);
+        tracker.bind("client-3");
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(DataSourceRole.PRIMARY);
+        tracker.bind("client-4");
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(DataSourceRole.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("Should record the write before the response is committed")
+    public void writeRecordedBeforeResponseTest() throws Exception {
+
+        // cenario
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/meetups");
+        request.addHeader(ReadYourWritesFilter.CLIENT_HEADER, "client-1");
+        AtomicBoolean stickyDuringRequest = new AtomicBoolean();
+
+        // execucao: o que o cliente veria se lesse de novo enquanto a resposta ja saiu
+        new ReadYourWritesFilter(tracker).doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> stickyDuringRequest.set(tracker.requiresPrimary()));
+
+        // assert
+        assertThat(stickyDuringRequest).isTrue();
+    }
+}
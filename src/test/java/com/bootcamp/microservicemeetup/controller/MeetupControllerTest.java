@@ -8,6 +8,9 @@ import com.bootcamp.microservicemeetup.model.entity.Meetup;
 import com.bootcamp.microservicemeetup.model.entity.Registration;
 import com.bootcamp.microservicemeetup.service.MeetupService;
 import com.bootcamp.microservicemeetup.service.RegistrationService;
+import com.bootcamp.microservicemeetup.service.notification.NotificationFanout;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,15 +24,17 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
-import org.testcontainers.shaded.com.fasterxml.jackson.databind.ObjectMapper;
 import org.testcontainers.shaded.com.google.common.eventbus.DeadEvent;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
@@ -48,6 +53,9 @@ public class MeetupControllerTest {
     @MockBean
     private MeetupService meetupService;
 
+    @MockBean
+    private NotificationFanout notificationFanout;
+
     private Registration createNewUserRegistration() {
         return Registration.builder().id(11).name("Duda").registration("123").build();
     }
@@ -72,15 +80,18 @@ public class MeetupControllerTest {
 
         Meetup meetup = Meetup.builder().id(11).event("Womakerscode Java").registration(registration).meetupDate("10/10/2022").build();
 
-        BDDMockito.given(meetupService.save(Mockito.any(Meetup.class))).willReturn(meetup);
+        BDDMockito.given(meetupService.saveAsync(Mockito.any(Meetup.class))).willReturn(CompletableFuture.completedFuture(meetup));
 
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(MEETUP_API)
                 .accept(MediaType.APPLICATION_JSON)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(json);
 
-        // Aqui retorna o id do registro no meetup
-        mockMvc.perform(request)
+        // Aqui retorna o id do registro no meetup, quando o commit termina
+        MvcResult pending = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(pending))
                 .andExpect(status().isCreated())
                 .andExpect(content().string("11"));
 
@@ -124,7 +135,8 @@ public class MeetupControllerTest {
                 .willReturn(Optional.of(registration));
 
         // procura na base se ja tem algum registration pra esse meetup
-        BDDMockito.given(meetupService.save(Mockito.any(Meetup.class))).willThrow(new BusinessException("Meetup already enrolled"));
+        BDDMockito.given(meetupService.saveAsync(Mockito.any(Meetup.class)))
+                .willReturn(CompletableFuture.failedFuture(new BusinessException("Meetup already enrolled")));
 
 
         MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
@@ -133,7 +145,8 @@ public class MeetupControllerTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(json);
 
-        mockMvc.perform(requestBuilder)
+        MvcResult pending = mockMvc.perform(requestBuilder).andReturn();
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(pending))
                 .andExpect(status().isBadRequest());
     }
 
@@ -142,13 +155,15 @@ public class MeetupControllerTest {
     public void deleteMeetupTest() throws Exception {
 
         BDDMockito.given(meetupService.getMeetupById(anyInt())).willReturn(Optional.of(Meetup.builder().id(11).build()));
+        BDDMockito.given(notificationFanout.prepareCancellation(anyInt(), Mockito.any())).willReturn("job-1");
 
         MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
                 .delete(MEETUP_API.concat("/" + 1))
                 .accept(MediaType.APPLICATION_JSON);
 
         mockMvc.perform(requestBuilder)
-                .andExpect(status().isNoContent());
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("X-Notification-Job", "job-1"));
     }
 
     @Test
@@ -180,6 +195,38 @@ public class MeetupControllerTest {
 
 
 
+    @Test
+    @DisplayName("Should get meetup information encoded as CBOR")
+    public void getMeetupInformationAsCborTest() throws Exception {
+
+        Integer id = 101;
+
+        Meetup meetup = Meetup.builder()
+                .id(id)
+                .event(createNewMeetup().getEvent())
+                .registrationAttribute(createNewMeetup().getRegistrationAttribute())
+                .build();
+
+        BDDMockito.given(meetupService.getMeetupById(id)).willReturn(Optional.of(meetup));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(MEETUP_API.concat("/" + id))
+                .accept(MediaType.APPLICATION_CBOR);
+
+        byte[] body = mockMvc
+                .perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        MeetupDTO dto = new ObjectMapper(new CBORFactory()).readValue(body, MeetupDTO.class);
+
+        assertThat(dto.getId()).isEqualTo(id);
+        assertThat(dto.getEvent()).isEqualTo(createNewMeetup().getEvent());
+    }
+
+
+
     @Test
     @DisplayName("Should return NOT FOUND when the meetup doesn't exists")
     public void meetupNotFoundTest() throws Exception {
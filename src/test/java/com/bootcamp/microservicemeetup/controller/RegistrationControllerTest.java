@@ -30,6 +30,9 @@ import org.testcontainers.shaded.com.fasterxml.jackson.databind.ObjectMapper;
 
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
@@ -269,6 +272,29 @@ public class RegistrationControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("Should get registrations in batch keeping the order and reporting missing ids")
+    public void getRegistrationBatchTest() throws Exception {
+
+        Map<Integer, Registration> found = new LinkedHashMap<>();
+        found.put(3, Registration.builder().id(3).name("Duda").registration("003").build());
+        found.put(1, Registration.builder().id(1).name("Ana").registration("001").build());
+
+        BDDMockito.given(registrationService.getRegistrationsByIds(List.of(3, 1, 9))).willReturn(found);
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(REGISTRATION_API.concat("/batch?ids=3,1,9"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("items", Matchers.hasSize(2)))
+                .andExpect(jsonPath("items[0].id").value(3))
+                .andExpect(jsonPath("items[1].id").value(1))
+                .andExpect(jsonPath("missing", Matchers.contains(9)));
+    }
+
     @Test
     @DisplayName("Should filter registration")
     public void findRegistrationTest() throws Exception {
@@ -285,7 +311,7 @@ public class RegistrationControllerTest {
                 .willReturn(new PageImpl<Registration>(Arrays.asList(registration), PageRequest.of(0,100), 1));
 
 
-        String queryString = String.format("?name=%s&dateOfRegistration=%s&page=0&size=100",
+        String queryString = String.format("?name=%s&dateOfRegistration=%s&page=0&size=100&total=true",
                 registration.getRegistration(), registration.getDateOfRegistration());
 
 
@@ -296,10 +322,11 @@ public class RegistrationControllerTest {
         mockMvc
                 .perform(requestBuilder)
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("content", Matchers.hasSize(1)))
-                .andExpect(jsonPath("totalElements"). value(1))
-                .andExpect(jsonPath("pageable.pageSize"). value(100))
-                .andExpect(jsonPath("pageable.pageNumber"). value(0));
+                .andExpect(jsonPath("items", Matchers.hasSize(1)))
+                .andExpect(jsonPath("total"). value(1))
+                .andExpect(jsonPath("size"). value(100))
+                .andExpect(jsonPath("next").doesNotExist())
+                .andExpect(jsonPath("pageable").doesNotExist());
 
     }
 
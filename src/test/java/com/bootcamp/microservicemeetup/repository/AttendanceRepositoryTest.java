@@ -0,0 +1,62 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import com.bootcamp.microservicemeetup.model.entity.Attendance;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class AttendanceRepositoryTest {
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    AttendanceRepository repository;
+
+    private Registration persistRegistration(String registration) {
+        return entityManager.persist(Registration.builder()
+                .name("Luisa")
+                .dateOfRegistration("10/10/22")
+                .registration(registration).build());
+    }
+
+    @Test
+    @DisplayName("Should page the attendees of a meetup by registration id")
+    public void findAttendeesByKeysetTest() {
+
+        // cenario
+        Registration first = persistRegistration("001");
+        Registration second = persistRegistration("002");
+        Registration third = persistRegistration("003");
+        repository.save(Attendance.of(7, third));
+        repository.save(Attendance.of(7, first));
+        repository.save(Attendance.of(7, second));
+        repository.save(Attendance.of(8, first));
+        entityManager.flush();
+        entityManager.clear();
+
+        // execucao
+        List<Registration> page = repository.findAttendees(7, 0, PageRequest.of(0, 2));
+        List<Registration> next = repository.findAttendees(7, page.get(1).getId(), PageRequest.of(0, 2));
+
+        // assert
+        assertThat(page).extracting(Registration::getId).containsExactly(first.getId(), second.getId());
+        assertThat(next).extracting(Registration::getId).containsExactly(third.getId());
+        assertThat(repository.findMeetupIdsByRegistrationId(first.getId(), PageRequest.of(0, 10)).getContent())
+                .containsExactly(7, 8);
+    }
+}
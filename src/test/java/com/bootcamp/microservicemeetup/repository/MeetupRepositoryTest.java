@@ -1,19 +1,25 @@
 package com.bootcamp.microservicemeetup.repository;
 
 
+import com.bootcamp.microservicemeetup.exception.BusinessException;
 import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
@@ -94,5 +100,34 @@ public class MeetupRepositoryTest {
         assertThat(deleteRegistrationAttribute).isNull();
     }
 
+    @Test
+    @DisplayName("Should sort the meetups of a registration or event by an entity property")
+    public void findByRegistrationOnMeetupSortedTest() {
+
+        Registration luisa = entityManager.persist(Registration.builder()
+                .name("Luisa").dateOfRegistration("10/10/22").registration("001").build());
+        Registration ana = entityManager.persist(Registration.builder()
+                .name("Ana").dateOfRegistration("10/10/22").registration("002").build());
+        Meetup june = entityManager.persist(Meetup.builder().event("Bootcamp Java").registration(luisa).meetupDate("12/06/2022").build());
+        Meetup may = entityManager.persist(Meetup.builder().event("Bootcamp Kotlin").registration(ana).meetupDate("12/05/2022").build());
+        entityManager.persistAndFlush(Meetup.builder().event("Bootcamp Go").registration(ana).meetupDate("12/04/2022").build());
+
+        Page<Meetup> page = meetupRepository.findByRegistrationOnMeetup("001", "Bootcamp Kotlin",
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "meetupDate")));
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(Meetup::getId).containsExactly(june.getId(), may.getId());
+    }
+
+    @Test
+    @DisplayName("Should reject sorting the native meetup queries by an unknown property")
+    public void findByRegistrationOnMeetupUnknownSortTest() {
+
+        Throwable exception = catchThrowable(() -> meetupRepository.findByRegistrationOnMeetup("001", "Bootcamp Kotlin",
+                PageRequest.of(0, 10, Sort.by("registration.name"))));
+
+        assertThat(exception).isInstanceOf(BusinessException.class);
+    }
+
 
 }
@@ -0,0 +1,221 @@
+package com.bootcamp.microservicemeetup.repository;
+
+import com.bootcamp.microservicemeetup.controller.dto.MeetupFilterDTO;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.model.entity.Tombstone;
+import com.bootcamp.microservicemeetup.service.archive.MeetupArchiver;
+import com.bootcamp.microservicemeetup.service.counter.AttendanceCounters;
+import com.bootcamp.microservicemeetup.service.filter.MeetupFilterEngine;
+import com.bootcamp.microservicemeetup.service.lookup.LookupIndex;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// explica o SQL que os repositories e os componentes em JDBC realmente mandam ao banco: o DataSource do teste
+// grava todo statement preparado e cada um passa por EXPLAIN (sem valores, o H2 permite) sobre 1M de linhas.
+// Fica fora do "test": roda com ./gradlew queryPlanTest
+@Tag("queryPlan")
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@Import(QueryPlanTest.SqlCapture.class)
+public class QueryPlanTest {
+
+    static final int ROWS = 1_000_000;
+
+    static final Set<String> ISSUED = Collections.synchronizedSet(new LinkedHashSet<>());
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    RegistrationRepository registrationRepository;
+
+    @Autowired
+    MeetupRepository meetupRepository;
+
+    @Autowired
+    TombstoneRepository tombstoneRepository;
+
+    @Autowired
+    AttendanceRepository attendanceRepository;
+
+    @TestConfiguration
+    static class SqlCapture {
+
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ? new RecordingDataSource((DataSource) bean) : bean;
+                }
+            };
+        }
+    }
+
+    static class RecordingDataSource extends DelegatingDataSource {
+
+        RecordingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return record(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return record(super.getConnection(username, password));
+        }
+
+        private static Connection record(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare") && args != null && args[0] instanceof String) {
+                            ISSUED.add((String) args[0]);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+
+    // as registrations acima de ROWS ficam sem meetup, para o delete em lote nao esbarrar na fk
+    private void seed() {
+        jdbcTemplate.execute("insert into registration (person_name, date_of_registration, registration, change_sequence) "
+                + "select 'Person ' || x, '10/10/22', 'REG' || x, x from system_range(1, " + (ROWS + 10) + ")");
+        jdbcTemplate.execute("insert into meetup (event, id_registration, meetup_date, registration_attribute, registered, "
+                + "change_sequence, meetup_day) select 'Event ' || x, x, '10/06/2022', 'REG' || x, true, x, "
+                + "dateadd('DAY', mod(x, 1095), date '2021-01-01') from system_range(1, " + ROWS + ")");
+        jdbcTemplate.execute("insert into attendance (meetup_id, registration_id) select x, x from system_range(1, " + ROWS + ")");
+        jdbcTemplate.execute("insert into tombstone (entity_type, entity_id, change_sequence) "
+                + "select 'meetup', x, x from system_range(1, 1000)");
+        jdbcTemplate.execute("analyze");
+    }
+
+    // as chamadas que o servico faz, com valores do tamanho real
+    private void issueQueries() throws InterruptedException {
+        PageRequest page = PageRequest.of(0, 20);
+        List<Integer> ids = Arrays.asList(10, 20, 30);
+
+        registrationRepository.existsByRegistration("REG500000");
+        registrationRepository.findByRegistration("REG500000");
+        registrationRepository.findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(999000L, PageRequest.of(0, 500));
+        registrationRepository.findIdsByRegistrationIn(Arrays.asList("REG1", "REG500000"));
+        registrationRepository.findIdsWithMeetups(ids);
+
+        meetupRepository.existsByEvent("Event 500000");
+        meetupRepository.findExistingEvents(Arrays.asList("Event 1", "Event 500000"));
+        meetupRepository.findByRegistration(Registration.builder().id(500000).build(), page);
+        meetupRepository.findByRegistrationOnMeetup("REG500000", "Event 10", page);
+        meetupRepository.findByRegistrationOnMeetupIncludingArchived("REG500000", "Event 10", page);
+        meetupRepository.findIncludingArchived("REG500000", "Event 10", LocalDate.of(2022, 6, 1), null, null, page);
+        meetupRepository.findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(999000L, PageRequest.of(0, 500));
+        meetupRepository.findByIdIn(ids);
+        meetupRepository.findIdsByEvent("Event 10");
+        meetupRepository.findByStartsAtAfterAndIdGreaterThanOrderByIdAsc(LocalDateTime.of(2022, 6, 1, 0, 0), 500000, page);
+        meetupRepository.findByEndsAtAfterAndIdGreaterThanOrderByIdAsc(LocalDateTime.of(2022, 6, 1, 0, 0), 500000, page);
+
+        MeetupFilterEngine engine = new MeetupFilterEngine(meetupRepository);
+        LocalDate from = LocalDate.of(2022, 6, 1);
+        LocalDate to = LocalDate.of(2022, 6, 30);
+        engine.find(MeetupFilterDTO.builder().event("Event 10").from(from).to(to).build(), page);
+        engine.find(MeetupFilterDTO.builder().registration("REG500000").build(), page);
+        engine.find(MeetupFilterDTO.builder().from(from).to(to).build(), page);
+        engine.find(MeetupFilterDTO.builder().registration("REG500000").event("Event 10").from(from).to(to).build(), page);
+
+        tombstoneRepository.findByEntityTypeAndChangeSequenceGreaterThanOrderByChangeSequenceAsc(Tombstone.MEETUP, 500L,
+                PageRequest.of(0, 500));
+
+        attendanceRepository.findAttendees(500000, 0, page);
+        attendanceRepository.findAttendeeIds(500000, 0, page);
+        attendanceRepository.findMeetupIdsByRegistrationId(500000, page);
+        attendanceRepository.findRegistrationIdsByMeetupId(500000);
+        attendanceRepository.findIdsByMeetupIdIn(ids);
+
+        // lotes: mesmos statements do bulkUpdate/bulkDelete
+        meetupRepository.updateByIdIn(ids, "Event 10", null, null, null, 1L);
+        meetupRepository.insertTombstonesByIdIn(ids, 1L);
+        attendanceRepository.decrementMeetupCountsByMeetupIdIn(ids);
+        attendanceRepository.deleteByMeetupIdIn(ids);
+        meetupRepository.deleteByIdIn(ids);
+        List<Integer> withoutMeetups = Arrays.asList(ROWS + 1, ROWS + 2);
+        registrationRepository.insertTombstonesByIdIn(withoutMeetups, 1L);
+        registrationRepository.deleteByIdIn(withoutMeetups);
+
+        MeetupArchiver archiver = new MeetupArchiver(jdbcTemplate, transactionManager,
+                Mockito.mock(AttendanceCounters.class), 30, 500, 0, Long.MAX_VALUE);
+        archiver.archiveOlderThan(LocalDate.of(2021, 1, 3));
+        archiver.shutdown();
+
+        // o scan e o catch-up rodam na thread do indice (fora da transacao do teste): so o SQL interessa
+        LookupIndex index = new LookupIndex(jdbcTemplate, "", 300000, 60000, 5000);
+        index.load();
+        for (int i = 0; i < 600 && !index.isReady(); i++) {
+            Thread.sleep(100);
+        }
+        index.shutdown();
+    }
+
+    // um unico teste para carregar as linhas uma vez so dentro da transacao do @DataJpaTest
+    @Test
+    @DisplayName("Should not do a full table scan on any statement the repositories issue")
+    public void noFullTableScanTest() throws InterruptedException {
+
+        seed();
+        ISSUED.clear();
+        issueQueries();
+
+        List<String> statements;
+        synchronized (ISSUED) {
+            statements = new ArrayList<>(ISSUED);
+        }
+        ISSUED.clear();
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(statements).as("captured statements").isNotEmpty();
+        for (String statement : statements) {
+            List<String> plan = jdbcTemplate.query(connection -> connection.prepareStatement("explain " + statement),
+                    (rs, rowNum) -> rs.getString(1));
+            softly.assertThat(String.join("\n", plan)).as(statement).doesNotContainIgnoringCase("tableScan");
+        }
+        softly.assertAll();
+    }
+}
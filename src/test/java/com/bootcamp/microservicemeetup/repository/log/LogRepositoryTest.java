@@ -0,0 +1,165 @@
+package com.bootcamp.microservicemeetup.repository.log;
+
+import com.bootcamp.microservicemeetup.controller.dto.MeetupFilterDTO;
+import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.repository.MeetupOperations;
+import com.bootcamp.microservicemeetup.repository.RegistrationOperations;
+import com.bootcamp.microservicemeetup.repository.TombstoneRepository;
+import com.bootcamp.microservicemeetup.service.filter.MeetupFilterEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// os mesmos casos do MeetupRepositoryTest e do RegistrationRepositoryTest, pelos repositories do profile logstore
+public class LogRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    LogStore registrationLog;
+    LogStore meetupLog;
+    MeetupOperations meetupRepository;
+    RegistrationOperations registrationRepository;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        open();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        registrationLog.close();
+        meetupLog.close();
+    }
+
+    private void open() throws IOException {
+        registrationLog = new LogStore(directory.resolve("registration"), 1 << 16, 0.5, 60_000, 0);
+        meetupLog = new LogStore(directory.resolve("meetup"), 1 << 16, 0.5, 60_000, 0);
+        LogRegistrationStore registrations = new LogRegistrationStore(registrationLog);
+        LogMeetupStore meetups = new LogMeetupStore(meetupLog, registrations);
+        TombstoneRepository tombstoneRepository = Mockito.mock(TombstoneRepository.class);
+        registrationRepository = new LogRegistrationRepository(registrations, meetups, tombstoneRepository);
+        meetupRepository = new LogMeetupRepository(meetups, tombstoneRepository);
+    }
+
+    private Meetup createNewMeetup(String registrationAttribute) {
+        return Meetup.builder().event("Bootcamp Java").meetupDate("12/06/2022").registrationAttribute(registrationAttribute).build();
+    }
+
+    private Registration createNewRegistration(String registration) {
+        return Registration.builder()
+                .name("Luisa")
+                .dateOfRegistration("10/10/22")
+                .registration(registration).build();
+    }
+
+    @Test
+    @DisplayName("Should return true when exists an event already created")
+    public void returnTrueWhenEventExistsTest() {
+
+        meetupRepository.save(createNewMeetup("200"));
+
+        assertThat(meetupRepository.existsByEvent("Bootcamp Java")).isTrue();
+        assertThat(meetupRepository.existsByEvent("123")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should save, get and delete a meetup")
+    public void saveFindAndDeleteMeetupTest() {
+
+        Meetup saved = meetupRepository.save(createNewMeetup("111"));
+
+        Optional<Meetup> found = meetupRepository.findById(saved.getId());
+        meetupRepository.delete(found.get());
+
+        assertThat(saved.getId()).isNotNull();
+        assertThat(saved.getChangeSequence()).isNotNull();
+        assertThat(found.get().getMeetupDay()).isEqualTo(saved.getMeetupDay()).isNotNull();
+        assertThat(meetupRepository.findById(saved.getId())).isEmpty();
+        assertThat(meetupRepository.existsByEvent("Bootcamp Java")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should save, get and delete a registration")
+    public void saveFindAndDeleteRegistrationTest() {
+
+        Registration saved = registrationRepository.save(createNewRegistration("323"));
+
+        Optional<Registration> found = registrationRepository.findById(saved.getId());
+        boolean exists = registrationRepository.existsByRegistration("323");
+        registrationRepository.delete(found.get());
+
+        assertThat(saved.getId()).isNotNull();
+        assertThat(exists).isTrue();
+        assertThat(registrationRepository.findById(saved.getId())).isEmpty();
+        assertThat(registrationRepository.existsByRegistration("323")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should find meetups by registration attribute or event and keep them after a restart")
+    public void findByRegistrationOnMeetupAfterRestartTest() throws IOException {
+
+        // cenario
+        Registration luisa = registrationRepository.save(createNewRegistration("001"));
+        Registration ana = registrationRepository.save(createNewRegistration("002"));
+        Meetup bootcamp = createNewMeetup("001");
+        bootcamp.setRegistration(luisa);
+        meetupRepository.save(bootcamp);
+        meetupRepository.save(Meetup.builder().event("Bootcamp Kotlin").registration(ana).build());
+        Meetup kotlin = meetupRepository.save(Meetup.builder().event("Bootcamp Kotlin").registration(ana).build());
+        meetupRepository.save(Meetup.builder().event("Bootcamp Kotlin").build());
+        meetupRepository.delete(kotlin);
+        tearDown();
+
+        // execucao
+        open();
+        Page<Meetup> page = meetupRepository.findByRegistrationOnMeetup("001", "Bootcamp Kotlin", PageRequest.of(0, 10));
+
+        // assert
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(Meetup::getId).containsExactly(bootcamp.getId(), bootcamp.getId() + 1);
+        assertThat(page.getContent().get(0).getRegistration()).isEqualTo(luisa);
+        assertThat(meetupRepository.findAll(PageRequest.of(0, 10)).getTotalElements()).isEqualTo(3);
+        assertThat(registrationRepository.findByRegistration("002")).contains(ana);
+    }
+
+    @Test
+    @DisplayName("Should reject date and registered filters")
+    public void narrowedSearchRejectedTest() {
+
+        assertThatThrownBy(() -> meetupRepository.findIncludingArchived(null, "Bootcamp Java", LocalDate.of(2022, 6, 1),
+                null, null, PageRequest.of(0, 10))).isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    @DisplayName("Should filter log meetups by event through the store methods and reject date filters")
+    public void filterEngineOnLogStoreTest() {
+
+        meetupRepository.save(createNewMeetup("200"));
+        meetupRepository.save(Meetup.builder().event("Bootcamp Kotlin").meetupDate("12/06/2022").build());
+        meetupRepository.save(createNewMeetup("201"));
+        MeetupFilterEngine engine = new MeetupFilterEngine(meetupRepository);
+
+        Page<Meetup> page = engine.find(MeetupFilterDTO.builder().event("Bootcamp Java").build(), PageRequest.of(0, 1));
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(Meetup::getRegistrationAttribute).containsExactly("200");
+        assertThatThrownBy(() -> engine.find(MeetupFilterDTO.builder().from(LocalDate.of(2022, 6, 1)).build(),
+                PageRequest.of(0, 10))).isInstanceOf(BusinessException.class);
+    }
+}
@@ -0,0 +1,84 @@
+package com.bootcamp.microservicemeetup.repository.log;
+
+import com.bootcamp.microservicemeetup.ServicoDeAgendamentoDeMeetupsApplication;
+import com.bootcamp.microservicemeetup.controller.dto.MeetupFilterDTO;
+import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.service.AttendanceService;
+import com.bootcamp.microservicemeetup.service.MeetupService;
+import com.bootcamp.microservicemeetup.service.RegistrationService;
+import com.bootcamp.microservicemeetup.service.counter.AttendanceCounters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// a aplicacao inteira no profile logstore: meetups e registrations no log, sem presenca no banco principal
+public class LogStoreProfileTest {
+
+    @TempDir
+    Path directory;
+
+    ConfigurableApplicationContext context;
+
+    MeetupService meetupService;
+
+    RegistrationService registrationService;
+
+    @BeforeEach
+    public void setUp() {
+        context = new SpringApplicationBuilder(ServicoDeAgendamentoDeMeetupsApplication.class)
+                .profiles("logstore")
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:main-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "meetup.logstore.dir=" + directory)
+                .run();
+        meetupService = context.getBean(MeetupService.class);
+        registrationService = context.getBean(RegistrationService.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Should create a meetup with a registration and find it without touching the attendance table")
+    public void createMeetupWithRegistrationTest() {
+
+        // cenario
+        Registration luisa = registrationService.save(Registration.builder()
+                .name("Luisa")
+                .dateOfRegistration("10/10/22")
+                .registration("001").build());
+
+        // execucao
+        Meetup saved = meetupService.save(Meetup.builder()
+                .event("Bootcamp Java")
+                .registration(luisa)
+                .registrationAttribute("001")
+                .meetupDate("10/06/2022").build());
+
+        // assert
+        assertThat(saved.getId()).isNotNull();
+        assertThat(meetupService.getMeetupById(saved.getId())).get()
+                .extracting(meetup -> meetup.getRegistration().getRegistration()).isEqualTo("001");
+        Page<Meetup> page = meetupService.find(MeetupFilterDTO.builder().registration("001").build(), PageRequest.of(0, 10));
+        assertThat(page.getContent()).extracting(Meetup::getId).containsExactly(saved.getId());
+        assertThat(context.getBeanProvider(AttendanceCounters.class).getIfAvailable()).isNull();
+        assertThatThrownBy(() -> context.getBean(AttendanceService.class).attend(saved.getId(), luisa))
+                .isInstanceOf(BusinessException.class);
+    }
+}
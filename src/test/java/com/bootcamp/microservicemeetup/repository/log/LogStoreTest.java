@@ -0,0 +1,122 @@
+package com.bootcamp.microservicemeetup.repository.log;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogStoreTest {
+
+    @TempDir
+    Path directory;
+
+    // segmentos pequenos para a rolagem e a compactacao acontecerem com poucos registros; sem threads de fundo
+    private LogStore open() throws IOException {
+        return new LogStore(directory, 4096, 0.5, 60_000, 0);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Should rebuild the index from the segments after a restart")
+    public void reopenTest() throws IOException {
+
+        // cenario
+        LogStore store = open();
+        int first = store.insert(bytes("Bootcamp Java"));
+        int second = store.insert(bytes("Bootcamp Kotlin"));
+        int third = store.insert(bytes("Bootcamp Go"));
+        store.update(first, bytes("Bootcamp Java 2"));
+        store.delete(second);
+        store.close();
+
+        // execucao
+        LogStore reopened = open();
+
+        // assert
+        assertThat(reopened.count()).isEqualTo(2);
+        assertThat(reopened.get(first)).isEqualTo(bytes("Bootcamp Java 2"));
+        assertThat(reopened.get(second)).isNull();
+        assertThat(reopened.get(third)).isEqualTo(bytes("Bootcamp Go"));
+        // ids apagados nao sao reaproveitados
+        assertThat(reopened.insert(bytes("Bootcamp Rust"))).isEqualTo(third + 1);
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Should drop a torn record at the tail and keep everything before it")
+    public void tornTailTest() throws IOException {
+
+        // cenario: o processo morre no meio de um append, com o registro pela metade no fim do segmento
+        LogStore store = open();
+        int id = store.insert(bytes("Bootcamp Java"));
+        List<Path> files = store.segmentFiles();
+        store.close();
+        Path last = files.get(files.size() - 1);
+        int end = LogSegment.HEADER_BYTES + bytes("Bootcamp Java").length;
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.WRITE)) {
+            ByteBuffer torn = ByteBuffer.allocate(LogSegment.HEADER_BYTES + 2);
+            torn.putInt(10).putInt(0).put(LogSegment.PUT).putInt(id + 1).put((byte) 'B').put((byte) 'o').flip();
+            channel.write(torn, end);
+        }
+
+        // execucao
+        LogStore recovered = open();
+        int next = recovered.insert(bytes("Bootcamp Kotlin"));
+        recovered.close();
+        LogStore reopened = open();
+
+        // assert
+        assertThat(recovered.getRecoveredRecords()).isEqualTo(1);
+        assertThat(next).isEqualTo(id + 1);
+        assertThat(reopened.count()).isEqualTo(2);
+        assertThat(reopened.get(id)).isEqualTo(bytes("Bootcamp Java"));
+        assertThat(reopened.get(next)).isEqualTo(bytes("Bootcamp Kotlin"));
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Should compact mostly dead segments without losing or resurrecting records")
+    public void compactionTest() throws IOException {
+
+        // cenario: varios segmentos, metade dos ids sobrescrita e parte apagada
+        LogStore store = open();
+        for (int i = 0; i < 300; i++) {
+            store.insert(bytes("meetup-" + i));
+        }
+        for (int id = 1; id <= 300; id += 2) {
+            store.update(id, bytes("updated-" + id));
+        }
+        for (int id = 2; id <= 200; id += 2) {
+            store.delete(id);
+        }
+        int segmentsBefore = store.getSegments();
+
+        // execucao
+        int compacted = store.compact();
+        store.close();
+        LogStore reopened = open();
+
+        // assert
+        assertThat(compacted).isPositive();
+        assertThat(reopened.getSegments()).isLessThan(segmentsBefore);
+        assertThat(reopened.count()).isEqualTo(200);
+        assertThat(reopened.get(1)).isEqualTo(bytes("updated-1"));
+        assertThat(reopened.get(2)).isNull();
+        assertThat(reopened.get(200)).isNull();
+        assertThat(reopened.get(202)).isEqualTo(bytes("meetup-201"));
+        assertThat(reopened.get(299)).isEqualTo(bytes("updated-299"));
+        reopened.close();
+    }
+}
@@ -0,0 +1,184 @@
+package com.bootcamp.microservicemeetup.repository.shard;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ShardedMeetupStoreTest {
+
+    ShardedMeetupStore store;
+
+    @BeforeEach
+    public void setUp() {
+        List<DataSource> shards = new ArrayList<>();
+        String prefix = UUID.randomUUID().toString();
+        for (int shard = 0; shard < 3; shard++) {
+            shards.add(DataSourceBuilder.create()
+                    .url("jdbc:h2:mem:" + prefix + "-" + shard + ";DB_CLOSE_DELAY=-1")
+                    .username("sa")
+                    .build());
+        }
+        store = new ShardedMeetupStore(shards, ids -> Collections.emptyList());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        store.shutdown();
+    }
+
+    private Meetup createMeetup(String event) {
+        return Meetup.builder().event(event).meetupDate("10/06/2022").registrationAttribute("123").build();
+    }
+
+    @Test
+    @DisplayName("Should find a meetup by the id that encodes its shard")
+    public void findByIdOnOwnShardTest() {
+
+        Meetup saved = store.save(createMeetup("Bootcamp Java"));
+
+        assertThat(store.getRouter().shardOf(saved.getId())).isEqualTo(store.getRouter().shardForEvent("Bootcamp Java"));
+        assertThat(store.findById(saved.getId())).get().extracting(Meetup::getEvent).isEqualTo("Bootcamp Java");
+        assertThat(store.existsByEvent("Bootcamp Java")).isTrue();
+        assertThat(store.existsByEvent("Bootcamp Kotlin")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should merge pages from every shard in id order")
+    public void scatterGatherPageTest() {
+
+        for (int i = 0; i < 30; i++) {
+            store.save(createMeetup("Event " + i));
+        }
+
+        Page<Meetup> firstPage = store.findAll(PageRequest.of(0, 10));
+        Page<Meetup> secondPage = store.findAll(PageRequest.of(1, 10));
+
+        assertThat(firstPage.getTotalElements()).isEqualTo(30);
+        assertThat(firstPage.getContent()).hasSize(10).isSortedAccordingTo((a, b) -> a.getId().compareTo(b.getId()));
+        assertThat(secondPage.getContent().get(0).getId()).isGreaterThan(firstPage.getContent().get(9).getId());
+    }
+
+    @Test
+    @DisplayName("Should keep the id and the shard when the event changes")
+    public void keepIdOnEventChangeTest() {
+
+        // cenario
+        Meetup saved = store.save(createMeetup("Bootcamp Java"));
+        Integer id = saved.getId();
+        String newEvent = "Bootcamp Java";
+        for (int i = 0; store.getRouter().shardForEvent(newEvent) == store.getRouter().shardOf(id); i++) {
+            newEvent = "Bootcamp Java " + i;
+        }
+
+        // execucao
+        saved.setEvent(newEvent);
+        Meetup updated = store.save(saved);
+
+        // assert
+        assertThat(updated.getId()).isEqualTo(id);
+        assertThat(store.findById(id)).get().extracting(Meetup::getEvent).isEqualTo(newEvent);
+        assertThat(store.existsByEvent(newEvent)).isTrue();
+        assertThat(store.existsByEvent("Bootcamp Java")).isFalse();
+        assertThat(store.findIdsByEvent(newEvent)).containsExactly(id);
+        assertThat(store.findExistingEvents(Arrays.asList(newEvent, "Bootcamp Java"))).containsExactly(newEvent);
+    }
+
+    @Test
+    @DisplayName("Should keep every meetup column on the shards")
+    public void allColumnsOnShardsTest() {
+
+        // cenario
+        Meetup meetup = createMeetup("Bootcamp Java");
+        meetup.setStartsAt(LocalDateTime.of(2022, 6, 10, 19, 0));
+        meetup.setEndsAt(LocalDateTime.of(2022, 6, 10, 21, 0));
+        meetup.setVenue("Auditorio");
+
+        // execucao
+        Meetup found = store.findById(store.save(meetup).getId()).get();
+
+        // assert
+        assertThat(found.getMeetupDay()).isEqualTo(LocalDate.of(2022, 6, 10));
+        assertThat(found.getStartsAt()).isEqualTo(meetup.getStartsAt());
+        assertThat(found.getEndsAt()).isEqualTo(meetup.getEndsAt());
+        assertThat(found.getVenue()).isEqualTo("Auditorio");
+        assertThat(found.getAttendeeCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should find meetups of the registrations or of the event when it has a registration")
+    public void findByRegistrationOnMeetupTest() {
+
+        // cenario: o codigo da registration nao conta, so o id que veio do banco principal
+        Meetup luisa = createMeetup("Bootcamp Java");
+        luisa.setRegistration(Registration.builder().id(1).build());
+        Meetup ana = createMeetup("Bootcamp Kotlin");
+        ana.setRegistration(Registration.builder().id(2).build());
+        Meetup withoutRegistration = createMeetup("Bootcamp Kotlin 2");
+        store.save(luisa);
+        store.save(ana);
+        store.save(withoutRegistration);
+        store.updateByIdIn(Collections.singletonList(withoutRegistration.getId()), "Bootcamp Kotlin", null, null, null, 1L);
+
+        // execucao
+        Page<Meetup> page = store.findByRegistrationOnMeetup(Collections.singletonList(1), "Bootcamp Kotlin",
+                PageRequest.of(0, 10, Sort.by("event")));
+
+        // assert
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(Meetup::getId).containsExactly(luisa.getId(), ana.getId());
+        assertThat(store.findByRegistrationOnMeetup(Collections.emptyList(), "Bootcamp Kotlin", PageRequest.of(0, 10))
+                .getContent()).extracting(Meetup::getId).containsExactly(ana.getId());
+    }
+
+    @Test
+    @DisplayName("Should merge pages from every shard in the requested order")
+    public void scatterGatherSortedPageTest() {
+
+        for (int i = 0; i < 30; i++) {
+            store.save(createMeetup("Event " + (char) ('a' + i % 26) + i));
+        }
+
+        Page<Meetup> page = store.findAll(PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "event")));
+
+        assertThat(page.getTotalElements()).isEqualTo(30);
+        assertThat(page.getContent()).hasSize(10).isSortedAccordingTo((a, b) -> b.getEvent().compareTo(a.getEvent()));
+    }
+
+    @Test
+    @DisplayName("Should bulk update meetups across shards numbering each row by its position")
+    public void bulkUpdateAcrossShardsTest() {
+
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ids.add(store.save(createMeetup("Event " + i)).getId());
+        }
+
+        int updated = store.updateByIdIn(ids, "Bootcamp Java", null, null, true, 1000L);
+
+        List<Integer> found = store.findIdsByEvent("Bootcamp Java");
+        assertThat(updated).isEqualTo(6);
+        assertThat(found).containsExactlyInAnyOrderElementsOf(ids);
+        assertThat(store.findByIdIn(found)).extracting(Meetup::getChangeSequence)
+                .containsExactlyInAnyOrder(1000L, 1001L, 1002L, 1003L, 1004L, 1005L);
+        assertThat(store.deleteByIdIn(found)).isEqualTo(6);
+        assertThat(store.count()).isZero();
+    }
+}
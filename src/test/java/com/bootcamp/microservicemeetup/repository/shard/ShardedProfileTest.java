@@ -0,0 +1,88 @@
+package com.bootcamp.microservicemeetup.repository.shard;
+
+import com.bootcamp.microservicemeetup.ServicoDeAgendamentoDeMeetupsApplication;
+import com.bootcamp.microservicemeetup.controller.dto.MeetupFilterDTO;
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.service.MeetupService;
+import com.bootcamp.microservicemeetup.service.RegistrationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// a aplicacao inteira no profile sharded: registrations no banco principal, meetups nos shards
+public class ShardedProfileTest {
+
+    ConfigurableApplicationContext context;
+
+    MeetupService meetupService;
+
+    RegistrationService registrationService;
+
+    @BeforeEach
+    public void setUp() {
+        String run = UUID.randomUUID().toString();
+        context = new SpringApplicationBuilder(ServicoDeAgendamentoDeMeetupsApplication.class)
+                .profiles("sharded")
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:main-" + run + ";DB_CLOSE_DELAY=-1",
+                        "app.sharding.urls=jdbc:h2:mem:shard0-" + run + ";DB_CLOSE_DELAY=-1,jdbc:h2:mem:shard1-" + run
+                                + ";DB_CLOSE_DELAY=-1,jdbc:h2:mem:shard2-" + run + ";DB_CLOSE_DELAY=-1")
+                .run();
+        meetupService = context.getBean(MeetupService.class);
+        registrationService = context.getBean(RegistrationService.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        context.close();
+    }
+
+    private Registration createRegistration(String registration) {
+        return registrationService.save(Registration.builder()
+                .name("Luisa")
+                .dateOfRegistration("10/10/22")
+                .registration(registration).build());
+    }
+
+    private Meetup createMeetup(String event, Registration registration) {
+        return meetupService.save(Meetup.builder()
+                .event(event)
+                .registration(registration)
+                .registrationAttribute(registration == null ? null : registration.getRegistration())
+                .meetupDate("10/06/2022").build());
+    }
+
+    @Test
+    @DisplayName("Should find sharded meetups by registration or event like the JPA repository")
+    public void findByRegistrationOnMeetupTest() {
+
+        // cenario
+        Registration luisa = createRegistration("001");
+        Registration ana = createRegistration("002");
+        Meetup java = createMeetup("Bootcamp Java", luisa);
+        Meetup kotlin = createMeetup("Bootcamp Kotlin", ana);
+        createMeetup("Bootcamp Go", ana);
+        createMeetup("Bootcamp Kotlin 2", null);
+
+        // execucao
+        Page<Meetup> page = meetupService.find(MeetupFilterDTO.builder().registration("001").event("Bootcamp Kotlin").build(),
+                PageRequest.of(0, 10, Sort.by("event")));
+
+        // assert
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(Meetup::getId).containsExactly(java.getId(), kotlin.getId());
+        assertThat(page.getContent().get(0).getRegistration().getRegistration()).isEqualTo("001");
+        assertThat(meetupService.getMeetupById(kotlin.getId())).get().extracting(Meetup::getEvent).isEqualTo("Bootcamp Kotlin");
+    }
+}
@@ -1,7 +1,9 @@
 package com.bootcamp.microservicemeetup.service;
 
+import com.bootcamp.microservicemeetup.controller.dto.MeetupBulkDTO;
 import com.bootcamp.microservicemeetup.exception.BusinessException;
 import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.repository.AttendanceRepository;
 import com.bootcamp.microservicemeetup.repository.MeetupRepository;
 import com.bootcamp.microservicemeetup.service.impl.MeetupServiceImpl;
 import org.assertj.core.api.Assertions;
@@ -14,6 +16,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -29,9 +33,12 @@ public class MeetupServiceTest {
     @MockBean
     MeetupRepository meetupRepository;
 
+    @MockBean
+    AttendanceRepository attendanceRepository;
+
     @BeforeEach
     public void  setUp(){
-        this.meetupService = new MeetupServiceImpl(meetupRepository);
+        this.meetupService = new MeetupServiceImpl(meetupRepository, attendanceRepository);
     }
 
     private Meetup createValidMeetup() {
@@ -147,4 +154,34 @@ public class MeetupServiceTest {
 
 
 
+    @Test
+    @DisplayName("Should bulk delete the meetups of an event with set-based statements")
+    public void bulkDeleteByEventTest() {
+
+        // cenario
+        Mockito.when(meetupRepository.findIdsByEvent("Bootcamp Java")).thenReturn(Arrays.asList(30, 10, 20));
+        Mockito.when(meetupRepository.deleteByIdIn(Mockito.anyCollection())).thenReturn(3);
+
+        // execucao
+        int deleted = meetupService.bulkDelete(MeetupBulkDTO.builder().event("Bootcamp Java").build());
+
+        // assert
+        assertThat(deleted).isEqualTo(3);
+        List<Integer> sorted = Arrays.asList(10, 20, 30);
+        Mockito.verify(meetupRepository).insertTombstonesByIdIn(Mockito.eq(sorted), Mockito.anyLong());
+        Mockito.verify(attendanceRepository).deleteByMeetupIdIn(sorted);
+        Mockito.verify(meetupRepository).deleteByIdIn(sorted);
+        Mockito.verify(meetupRepository, Mockito.never()).delete(Mockito.any(Meetup.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a bulk update without ids or event")
+    public void bulkUpdateWithoutSelectionTest() {
+
+        MeetupBulkDTO bulk = MeetupBulkDTO.builder().set(MeetupBulkDTO.Patch.builder().registered(false).build()).build();
+
+        Assertions.assertThatThrownBy(() -> meetupService.bulkUpdate(bulk)).isInstanceOf(BusinessException.class);
+        Mockito.verifyNoInteractions(meetupRepository);
+    }
+
 }
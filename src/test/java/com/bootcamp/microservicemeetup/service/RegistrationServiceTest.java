@@ -15,6 +15,8 @@ import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
@@ -22,7 +24,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.Optional;
 
 @ExtendWith(SpringExtension.class)
@@ -173,6 +179,27 @@ public class RegistrationServiceTest {
         assertThat(result.getPageable().getPageSize()).isEqualTo(10);
     }
 
+    @Test
+    @DisplayName("Should filter registration without counting when the total is not requested")
+    public void findRegistrationSliceTest() {
+
+        // cenario
+        Registration registration = createValidRegistration();
+        PageRequest pageRequest = PageRequest.of(0,10);
+        Slice<Registration> slice = new SliceImpl<>(Arrays.asList(registration), pageRequest, false);
+
+        // execucao
+        Mockito.when(registrationRepository.findSlice(Mockito.any(Example.class), Mockito.any(PageRequest.class)))
+                .thenReturn(slice);
+
+        Slice<Registration> result = registrationService.findSlice(registration, pageRequest);
+
+        // assercao
+        assertThat(result.getContent()).containsExactly(registration);
+        assertThat(result.hasNext()).isFalse();
+        Mockito.verify(registrationRepository, Mockito.never()).findAll(Mockito.any(Example.class), Mockito.any(PageRequest.class));
+    }
+
     @Test
     @DisplayName("Should get an Registration model by registration attribute")
     public void getRegistrationByRegistrationAtrb() {
@@ -192,6 +219,30 @@ public class RegistrationServiceTest {
 
     }
 
+    @Test
+    @DisplayName("Should get registrations by ids in the requested order using chunked IN queries")
+    public void getRegistrationsByIds() {
+
+        //cenario
+        List<Integer> ids = IntStream.rangeClosed(1, 1200).boxed().collect(Collectors.toList());
+        Collections.reverse(ids);
+        Mockito.when(registrationRepository.findAllById(Mockito.anyIterable())).thenAnswer(invocation -> {
+            List<Integer> chunk = invocation.getArgument(0);
+            return chunk.stream()
+                    .filter(id -> id % 2 == 0)
+                    .map(id -> Registration.builder().id(id).build())
+                    .collect(Collectors.toList());
+        });
+
+        //execucao
+        Map<Integer, Registration> found = registrationService.getRegistrationsByIds(ids);
+
+        //assert
+        assertThat(found).hasSize(600);
+        assertThat(found.keySet()).startsWith(1200, 1198, 1196);
+        Mockito.verify(registrationRepository, Mockito.times(3)).findAllById(Mockito.anyIterable());
+    }
+
     private Registration createValidRegistration() {
         return Registration.builder()
                 .id(101)
@@ -0,0 +1,105 @@
+package com.bootcamp.microservicemeetup.service.analytics;
+
+import com.bootcamp.microservicemeetup.controller.dto.AttendanceDistributionDTO;
+import com.bootcamp.microservicemeetup.controller.dto.DailyCountDTO;
+import com.bootcamp.microservicemeetup.controller.dto.EventSignUpsDTO;
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.model.event.AttendanceChangedEvent;
+import com.bootcamp.microservicemeetup.model.event.ChangeType;
+import com.bootcamp.microservicemeetup.model.event.MeetupChangedEvent;
+import com.bootcamp.microservicemeetup.model.event.RegistrationChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class AnalyticsRollupsTest {
+
+    JdbcTemplate jdbcTemplate;
+
+    AnalyticsRollups analyticsRollups;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        analyticsRollups = new AnalyticsRollups(jdbcTemplate, 3_600_000, 3_600_000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        analyticsRollups.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should keep the rollups up to date from write events")
+    public void incrementalRollupsTest() {
+
+        // cenario
+        analyticsRollups.onRegistrationChanged(registrationEvent(ChangeType.CREATED, 1, "10/10/2022"));
+        analyticsRollups.onRegistrationChanged(registrationEvent(ChangeType.CREATED, 2, "10/10/22"));
+        analyticsRollups.onRegistrationChanged(registrationEvent(ChangeType.CREATED, 3, "11/10/2022"));
+        analyticsRollups.onMeetupChanged(new MeetupChangedEvent(ChangeType.CREATED, Meetup.builder().id(5).event("Java").build()));
+        analyticsRollups.onMeetupChanged(new MeetupChangedEvent(ChangeType.CREATED, Meetup.builder().id(6).event("Spring").build()));
+        analyticsRollups.onAttendanceChanged(new AttendanceChangedEvent(5, Arrays.asList(1, 2), 1));
+        analyticsRollups.onAttendanceChanged(new AttendanceChangedEvent(6, Collections.singletonList(1), 1));
+        analyticsRollups.onRegistrationChanged(registrationEvent(ChangeType.DELETED, 3, "11/10/2022"));
+
+        // execucao
+        analyticsRollups.refresh();
+
+        // assert
+        assertThat(analyticsRollups.topEvents(10)).containsExactly(new EventSignUpsDTO("Java", 2), new EventSignUpsDTO("Spring", 1));
+        assertThat(analyticsRollups.registrationsPerDay(LocalDate.of(2022, 10, 10), LocalDate.of(2022, 10, 11)))
+                .containsExactly(new DailyCountDTO(LocalDate.of(2022, 10, 10), 2), new DailyCountDTO(LocalDate.of(2022, 10, 11), 0));
+
+        AttendanceDistributionDTO distribution = analyticsRollups.meetupsPerRegistrant();
+        assertThat(distribution.getRegistrants()).isEqualTo(2);
+        assertThat(distribution.getAttendances()).isEqualTo(3);
+        assertThat(distribution.getHistogram()[1]).isEqualTo(1);
+        assertThat(distribution.getHistogram()[2]).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should rebuild the rollups from the database")
+    @SuppressWarnings("unchecked")
+    public void rebuildTest() {
+
+        // cenario
+        Mockito.when(jdbcTemplate.query(ArgumentMatchers.startsWith("select registration_id"), Mockito.any(RowMapper.class)))
+                .thenReturn(Arrays.asList(new Object[]{1, "10/10/2022"}, new Object[]{2, "sem data"}));
+        Mockito.when(jdbcTemplate.query(ArgumentMatchers.startsWith("select id, event"), Mockito.any(RowMapper.class)))
+                .thenReturn(Collections.singletonList(new Object[]{4, "Java"}));
+        Mockito.when(jdbcTemplate.query(ArgumentMatchers.startsWith("select meetup_id"), Mockito.any(RowMapper.class)))
+                .thenReturn((List) Arrays.asList(new int[]{4, 1}, new int[]{4, 2}));
+
+        // execucao
+        analyticsRollups.rebuild();
+
+        // assert
+        assertThat(analyticsRollups.topEvents(10)).containsExactly(new EventSignUpsDTO("Java", 2));
+        assertThat(analyticsRollups.registrationsPerDay(LocalDate.of(2022, 10, 10), LocalDate.of(2022, 10, 10)))
+                .containsExactly(new DailyCountDTO(LocalDate.of(2022, 10, 10), 1));
+        assertThat(analyticsRollups.meetupsPerRegistrant().getHistogram()[1]).isEqualTo(2);
+    }
+
+    private RegistrationChangedEvent registrationEvent(ChangeType type, int id, String date) {
+        return new RegistrationChangedEvent(type, Registration.builder().id(id).dateOfRegistration(date).build());
+    }
+}
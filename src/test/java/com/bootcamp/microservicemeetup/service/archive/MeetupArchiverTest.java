@@ -0,0 +1,119 @@
+package com.bootcamp.microservicemeetup.service.archive;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.repository.MeetupRepository;
+import com.bootcamp.microservicemeetup.service.counter.AttendanceCounters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class MeetupArchiverTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MeetupRepository meetupRepository;
+
+    MeetupArchiver archiver;
+
+    @BeforeEach
+    public void setUp() {
+        // blocos de 2 para passar por mais de uma transacao; intervalo longo: o teste chama na mao
+        archiver = new MeetupArchiver(jdbcTemplate, transactionManager, Mockito.mock(AttendanceCounters.class),
+                30, 2, 0, 3_600_000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        archiver.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should move past meetups and their attendance to the archive in chunks")
+    public void archiveOlderThanTest() {
+
+        // cenario
+        jdbcTemplate.update("insert into registration (registration_id, person_name, date_of_registration, registration) "
+                + "values (1, 'Luisa', '10/10/22', '001')");
+        String insert = "insert into meetup (id, event, id_registration, meetup_date, registration_attribute, registered, meetup_day, "
+                + "starts_at, ends_at) values (?, ?, 1, ?, '001', true, ?, ?, ?)";
+        jdbcTemplate.update(insert, 1, "Java", "10/01/2022", LocalDate.of(2022, 1, 10),
+                LocalDateTime.of(2022, 1, 10, 19, 0), LocalDateTime.of(2022, 1, 10, 21, 0));
+        jdbcTemplate.update(insert, 2, "Spring", "11/01/2022", LocalDate.of(2022, 1, 11),
+                LocalDateTime.of(2022, 1, 11, 19, 0), null);
+        jdbcTemplate.update(insert, 3, "Kotlin", "12/01/2022", LocalDate.of(2022, 1, 12),
+                LocalDateTime.of(2022, 1, 12, 19, 0), LocalDateTime.of(2022, 1, 12, 21, 0));
+        jdbcTemplate.update(insert, 4, "Futuro", "10/06/2030", LocalDate.of(2030, 6, 10),
+                LocalDateTime.of(2030, 6, 10, 19, 0), LocalDateTime.of(2030, 6, 10, 21, 0));
+        for (int meetupId = 1; meetupId <= 4; meetupId++) {
+            jdbcTemplate.update("insert into attendance (meetup_id, registration_id) values (?, 1)", meetupId);
+        }
+
+        // execucao
+        int archived = archiver.archiveOlderThan(LocalDate.of(2022, 6, 1));
+
+        // assert
+        assertThat(archived).isEqualTo(3);
+        assertThat(archiver.getArchivedMeetups()).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForList("select id from meetup", Integer.class)).containsExactly(4);
+        assertThat(jdbcTemplate.queryForList("select meetup_id from attendance", Integer.class)).containsExactly(4);
+        assertThat(jdbcTemplate.queryForList("select id from meetup_archive order by id", Integer.class)).containsExactly(1, 2, 3);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from attendance_archive", Integer.class)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForList("select entity_id from tombstone where entity_type = 'meetup' order by change_sequence",
+                Integer.class)).containsExactly(1, 2, 3);
+        assertThat(meetupRepository.findAll(PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1);
+        assertThat(meetupRepository.findAllIncludingArchived(PageRequest.of(0, 10)).getContent())
+                .extracting(Meetup::getId).containsExactlyInAnyOrder(1, 2, 3, 4);
+        assertThat(meetupRepository.findByRegistrationOnMeetupIncludingArchived("001", "Java", PageRequest.of(0, 10))
+                .getTotalElements()).isEqualTo(4);
+        assertThat(meetupRepository.findIncludingArchived(null, null, LocalDate.of(2022, 1, 11), null, null,
+                PageRequest.of(0, 10)).getContent()).extracting(Meetup::getId).containsExactly(2, 3, 4);
+        assertThat(meetupRepository.findIncludingArchived(null, "Java", null, LocalDate.of(2022, 1, 31), true,
+                PageRequest.of(0, 10)).getContent()).extracting(Meetup::getId).containsExactly(1);
+        assertThat(meetupRepository.existsByEvent("Java")).isTrue();
+        assertThat(meetupRepository.findExistingEvents(Arrays.asList("Java", "Futuro", "Go")))
+                .containsExactlyInAnyOrder("Java", "Futuro");
+    }
+
+    @Test
+    @DisplayName("Should keep meetups that have not ended yet or have no schedule")
+    public void freshMeetupSurvivesArchiveTest() {
+
+        // cenario
+        Meetup fresh = meetupRepository.save(Meetup.builder().event("Bootcamp Java").meetupDate("10/06/2022")
+                .startsAt(LocalDateTime.now().plusDays(1)).endsAt(LocalDateTime.now().plusDays(1).plusHours(2)).build());
+        Meetup unscheduled = meetupRepository.save(Meetup.builder().event("Bootcamp Kotlin").meetupDate("10/06/2022").build());
+        meetupRepository.flush();
+
+        // execucao
+        int archived = archiver.archive();
+
+        // assert
+        assertThat(archived).isZero();
+        assertThat(jdbcTemplate.queryForList("select id from meetup order by id", Integer.class))
+                .containsExactly(fresh.getId(), unscheduled.getId());
+    }
+}
@@ -0,0 +1,116 @@
+package com.bootcamp.microservicemeetup.service.batch;
+
+import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.repository.MeetupRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class MeetupGroupCommitWriterTest {
+
+    MeetupRepository meetupRepository;
+
+    PlatformTransactionManager transactionManager;
+
+    MeetupGroupCommitWriter writer;
+
+    @BeforeEach
+    public void setUp() {
+        meetupRepository = Mockito.mock(MeetupRepository.class);
+        transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        Mockito.when(meetupRepository.findExistingEvents(Mockito.anyCollection())).thenReturn(Collections.emptyList());
+        Mockito.when(meetupRepository.saveAll(Mockito.anyIterable())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        writer = new MeetupGroupCommitWriter(meetupRepository, event -> { }, transactionManager, 100, 10, 200);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        writer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should commit concurrent meetups in a single transaction")
+    public void commitBatchInOneTransactionTest() {
+
+        CompletableFuture<Meetup> first = writer.submit(Meetup.builder().event("Bootcamp Java").build());
+        CompletableFuture<Meetup> second = writer.submit(Meetup.builder().event("Bootcamp Spring").build());
+        CompletableFuture<Meetup> third = writer.submit(Meetup.builder().event("Bootcamp Kotlin").build());
+
+        CompletableFuture.allOf(first, second, third).join();
+
+        assertThat(first.join().getEvent()).isEqualTo("Bootcamp Java");
+        assertThat(third.join().getEvent()).isEqualTo("Bootcamp Kotlin");
+        Mockito.verify(meetupRepository, Mockito.times(1)).saveAll(Mockito.anyIterable());
+        Mockito.verify(transactionManager, Mockito.times(1)).commit(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Should reject only the duplicated event of a batch")
+    public void rejectDuplicatedEventInBatchTest() {
+
+        CompletableFuture<Meetup> first = writer.submit(Meetup.builder().event("Bootcamp Java").build());
+        CompletableFuture<Meetup> duplicated = writer.submit(Meetup.builder().event("Bootcamp Java").build());
+
+        Throwable exception = catchThrowable(duplicated::get);
+
+        assertThat(first.join().getEvent()).isEqualTo("Bootcamp Java");
+        assertThat(exception)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject writes when the queue is full")
+    public void rejectWhenQueueIsFullTest() throws InterruptedException {
+
+        // cenario: o committer fica preso no primeiro lote e a fila de capacidade 1 enche com o segundo
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MeetupRepository stalledRepository = Mockito.mock(MeetupRepository.class);
+        Mockito.when(stalledRepository.findExistingEvents(Mockito.anyCollection())).thenReturn(Collections.emptyList());
+        Mockito.when(stalledRepository.saveAll(Mockito.anyIterable())).thenAnswer(invocation -> {
+            committing.countDown();
+            release.await();
+            return invocation.getArgument(0);
+        });
+        MeetupGroupCommitWriter stalled = new MeetupGroupCommitWriter(stalledRepository, event -> { }, transactionManager, 1, 1, 0);
+        CompletableFuture<Meetup> inFlight = stalled.submit(Meetup.builder().event("Bootcamp Java").build());
+        committing.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Meetup> queued = stalled.submit(Meetup.builder().event("Bootcamp Spring").build());
+
+        // execucao
+        CompletableFuture<Meetup> rejected = stalled.submit(Meetup.builder().event("Bootcamp Kotlin").build());
+
+        // assert
+        assertThat(catchThrowable(rejected::join)).hasCauseInstanceOf(BusinessException.class).hasMessageContaining("full");
+        release.countDown();
+        assertThat(inFlight.join().getEvent()).isEqualTo("Bootcamp Java");
+        assertThat(queued.join().getEvent()).isEqualTo("Bootcamp Spring");
+        stalled.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should reject writes after the writer is shut down")
+    public void rejectAfterShutdownTest() throws InterruptedException {
+
+        writer.shutdown();
+
+        CompletableFuture<Meetup> rejected = writer.submit(Meetup.builder().event("Bootcamp Java").build());
+
+        assertThat(catchThrowable(rejected::join)).hasCauseInstanceOf(BusinessException.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.bootcamp.microservicemeetup.service.changefeed;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.event.ChangeType;
+import com.bootcamp.microservicemeetup.model.event.MeetupChangedEvent;
+import com.bootcamp.microservicemeetup.model.event.MeetupsUpdatedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChangeFeedHubTest {
+
+    ChangeFeedHub changeFeedHub;
+
+    @AfterEach
+    public void tearDown() {
+        changeFeedHub.shutdown();
+    }
+
+    private ChangeFeedHub createHub(int bufferSize, ChangeFeedHub.OverflowPolicy policy) {
+        return new ChangeFeedHub(new ModelMapper(), bufferSize, policy, 60000, 60000, 1);
+    }
+
+    @Test
+    @DisplayName("Should keep slow subscribers connected when dropping the oldest events")
+    public void dropOldestKeepsSubscriberTest() {
+
+        changeFeedHub = createHub(0, ChangeFeedHub.OverflowPolicy.DROP_OLDEST);
+        changeFeedHub.subscribe();
+
+        changeFeedHub.onMeetupChanged(new MeetupChangedEvent(ChangeType.CREATED,
+                Meetup.builder().id(1).event("Bootcamp Java").build()));
+
+        assertThat(changeFeedHub.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should disconnect slow subscribers when the buffer overflows")
+    public void disconnectSlowSubscriberTest() {
+
+        changeFeedHub = createHub(0, ChangeFeedHub.OverflowPolicy.DISCONNECT);
+        changeFeedHub.subscribe();
+
+        changeFeedHub.onMeetupChanged(new MeetupChangedEvent(ChangeType.DELETED,
+                Meetup.builder().id(1).build()));
+
+        assertThat(changeFeedHub.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should send the meetups of a bulk update to the subscribers")
+    public void bulkUpdateReachesSubscribersTest() {
+
+        changeFeedHub = createHub(0, ChangeFeedHub.OverflowPolicy.DISCONNECT);
+        changeFeedHub.subscribe();
+
+        changeFeedHub.onMeetupsUpdated(new MeetupsUpdatedEvent(Arrays.asList(1, 2), "Bootcamp Kotlin"));
+
+        assertThat(changeFeedHub.getSubscriberCount()).isZero();
+    }
+}
@@ -0,0 +1,92 @@
+package com.bootcamp.microservicemeetup.service.changefeed;
+
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.entity.Tombstone;
+import com.bootcamp.microservicemeetup.repository.MeetupRepository;
+import com.bootcamp.microservicemeetup.repository.RegistrationRepository;
+import com.bootcamp.microservicemeetup.repository.TombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class DeltaSyncServiceTest {
+
+    DeltaSyncService deltaSyncService;
+
+    @MockBean
+    MeetupRepository meetupRepository;
+
+    @MockBean
+    RegistrationRepository registrationRepository;
+
+    @MockBean
+    TombstoneRepository tombstoneRepository;
+
+    @BeforeEach
+    public void setUp() {
+        this.deltaSyncService = new DeltaSyncService(meetupRepository, registrationRepository, tombstoneRepository, 0);
+    }
+
+    @Test
+    @DisplayName("Should merge changed meetups and tombstones in sequence order")
+    public void mergeChangesInSequenceOrderTest() {
+
+        Mockito.when(meetupRepository.findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(Mockito.eq(10L), Mockito.any(Pageable.class)))
+                .thenReturn(Arrays.asList(
+                        Meetup.builder().id(1).changeSequence(11L).build(),
+                        Meetup.builder().id(2).changeSequence(14L).build()));
+        Mockito.when(tombstoneRepository.findByEntityTypeAndChangeSequenceGreaterThanOrderByChangeSequenceAsc(
+                        Mockito.eq(Tombstone.MEETUP), Mockito.eq(10L), Mockito.any(Pageable.class)))
+                .thenReturn(Collections.singletonList(Tombstone.builder().entityId(7).changeSequence(12L).build()));
+
+        ChangeSet<Meetup> changes = deltaSyncService.meetupChangesSince(10L, 2);
+
+        assertThat(changes.getUpserts()).extracting(Meetup::getId).containsExactly(1);
+        assertThat(changes.getDeletedIds()).containsExactly(7);
+        assertThat(changes.getNext()).isEqualTo(12L);
+    }
+
+    @Test
+    @DisplayName("Should keep the token when nothing changed")
+    public void noChangesKeepsTokenTest() {
+
+        ChangeSet<Meetup> changes = deltaSyncService.meetupChangesSince(42L, 100);
+
+        assertThat(changes.getUpserts()).isEmpty();
+        assertThat(changes.getDeletedIds()).isEmpty();
+        assertThat(changes.getNext()).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("Should re-read the lag window behind the token without counting it against the limit")
+    public void rereadLagWindowTest() {
+
+        // cenario: lag de 1 ms = 4096 sequencias; a linha 3 foi carimbada abaixo do token mas commitou depois
+        deltaSyncService = new DeltaSyncService(meetupRepository, registrationRepository, tombstoneRepository, 1);
+        Mockito.when(meetupRepository.findByChangeSequenceGreaterThanOrderByChangeSequenceAsc(Mockito.eq(10000L - 4096), Mockito.any(Pageable.class)))
+                .thenReturn(Arrays.asList(
+                        Meetup.builder().id(3).changeSequence(9000L).build(),
+                        Meetup.builder().id(4).changeSequence(10001L).build(),
+                        Meetup.builder().id(5).changeSequence(10002L).build()));
+
+        // execucao
+        ChangeSet<Meetup> changes = deltaSyncService.meetupChangesSince(10000L, 1);
+
+        // assert
+        assertThat(changes.getUpserts()).extracting(Meetup::getId).containsExactly(3, 4);
+        assertThat(changes.getNext()).isEqualTo(10001L);
+    }
+}
@@ -0,0 +1,93 @@
+package com.bootcamp.microservicemeetup.service.counter;
+
+import com.bootcamp.microservicemeetup.model.event.AttendanceChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class AttendanceCountersTest {
+
+    JdbcTemplate jdbcTemplate;
+
+    AttendanceCounters counters;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        // intervalos longos: o teste chama flush() na mao
+        counters = new AttendanceCounters(jdbcTemplate, Mockito.mock(PlatformTransactionManager.class), 3_600_000, 3_600_000);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        counters.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should sum concurrent attendance deltas and flush one update per counter")
+    @SuppressWarnings("unchecked")
+    public void flushConcurrentDeltasTest() {
+
+        // cenario
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<Void>> writers = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            int registrationId = thread + 1;
+            writers.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    counters.onAttendanceChanged(new AttendanceChangedEvent(7, Collections.singletonList(registrationId), 1));
+                }
+            }, pool));
+        }
+        writers.forEach(CompletableFuture::join);
+        pool.shutdown();
+        counters.onAttendanceChanged(new AttendanceChangedEvent(7, Arrays.asList(1, 2), -1));
+
+        // execucao
+        counters.flush();
+
+        // assert
+        ArgumentCaptor<List<Object[]>> meetupRows = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(jdbcTemplate).batchUpdate(Mockito.eq(AttendanceCounters.MEETUP_UPDATE), meetupRows.capture());
+        assertThat(meetupRows.getValue()).hasSize(1);
+        assertThat(meetupRows.getValue().get(0)[0]).isEqualTo(79_998L);
+        assertThat(meetupRows.getValue().get(0)[2]).isEqualTo(7);
+
+        ArgumentCaptor<List<Object[]>> registrationRows = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(jdbcTemplate).batchUpdate(Mockito.eq(AttendanceCounters.REGISTRATION_UPDATE), registrationRows.capture());
+        assertThat(registrationRows.getValue().stream().mapToLong(row -> (Long) row[0]).sum()).isEqualTo(79_998L);
+        assertThat(registrationRows.getValue().stream().map(row -> row[2]).collect(Collectors.toList()))
+                .containsExactlyInAnyOrder(1, 2, 3, 4, 5, 6, 7, 8);
+        // cada linha escrita ganha a sua change_sequence, para o delta sync ver o contador novo
+        List<Object> sequences = registrationRows.getValue().stream().map(row -> row[1]).collect(Collectors.toList());
+        assertThat(sequences).doesNotHaveDuplicates().allSatisfy(sequence ->
+                assertThat((Long) sequence).isGreaterThan((Long) meetupRows.getValue().get(0)[1]));
+        assertThat(counters.getPendingMeetupDelta(7)).isZero();
+
+        // um segundo flush sem deltas novos nao escreve nada
+        Mockito.clearInvocations(jdbcTemplate);
+        counters.flush();
+        Mockito.verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,127 @@
+package com.bootcamp.microservicemeetup.service.filter;
+
+import com.bootcamp.microservicemeetup.controller.dto.MeetupFilterDTO;
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.repository.MeetupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class MeetupFilterEngineTest {
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    MeetupRepository repository;
+
+    MeetupFilterEngine engine;
+
+    Registration luisa;
+    Registration ana;
+
+    @BeforeEach
+    public void setUp() {
+        engine = new MeetupFilterEngine(repository);
+        luisa = entityManager.persist(Registration.builder().name("Luisa").dateOfRegistration("10/10/22").registration("001").build());
+        ana = entityManager.persist(Registration.builder().name("Ana").dateOfRegistration("10/10/22").registration("002").build());
+    }
+
+    private Meetup persist(String event, Registration registration, String meetupDate, boolean registered) {
+        return entityManager.persist(Meetup.builder().event(event).registration(registration)
+                .meetupDate(meetupDate).registered(registered).build());
+    }
+
+    @Test
+    @DisplayName("Should filter by a single field combined with the date range and the registered flag")
+    public void singleFieldFilterTest() {
+
+        // cenario
+        Meetup june = persist("Bootcamp Java", luisa, "10/06/2022", true);
+        persist("Bootcamp Java", ana, "10/07/2022", true);
+        persist("Bootcamp Java", ana, "11/06/2022", false);
+        Meetup kotlin = persist("Bootcamp Kotlin", luisa, "20/06/2022", true);
+        entityManager.flush();
+
+        // execucao
+        Page<Meetup> byEvent = engine.find(MeetupFilterDTO.builder().event("Bootcamp Java")
+                .from(LocalDate.of(2022, 6, 1)).to(LocalDate.of(2022, 6, 30)).registered(true).build(), PageRequest.of(0, 10));
+        Page<Meetup> byRegistration = engine.find(MeetupFilterDTO.builder().registration("001").build(), PageRequest.of(0, 10));
+        Page<Meetup> byRange = engine.find(MeetupFilterDTO.builder().from(LocalDate.of(2022, 6, 15)).build(), PageRequest.of(0, 10));
+
+        // assert
+        assertThat(byEvent.getContent()).extracting(Meetup::getId).containsExactly(june.getId());
+        assertThat(byRegistration.getContent()).extracting(Meetup::getId).containsExactlyInAnyOrder(june.getId(), kotlin.getId());
+        assertThat(byRange.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should page the union of registration and event branches without repeating meetups")
+    public void registrationOrEventUnionTest() {
+
+        // cenario: 1 e 3 pela registration, 2 e 4 so pelo evento, 5 fora do intervalo e 6 sem registration
+        Meetup first = persist("Bootcamp Go", luisa, "01/06/2022", true);
+        Meetup second = persist("Bootcamp Java", ana, "02/06/2022", true);
+        Meetup third = persist("Bootcamp Java", luisa, "03/06/2022", true);
+        Meetup fourth = persist("Bootcamp Java", ana, "04/06/2022", true);
+        persist("Bootcamp Java", ana, "01/08/2022", true);
+        persist("Bootcamp Java", null, "05/06/2022", true);
+        entityManager.flush();
+        MeetupFilterDTO filter = MeetupFilterDTO.builder().registration("001").event("Bootcamp Java")
+                .from(LocalDate.of(2022, 6, 1)).to(LocalDate.of(2022, 6, 30)).build();
+
+        // execucao
+        Page<Meetup> page = engine.find(filter, PageRequest.of(0, 3));
+        Page<Meetup> next = engine.find(filter, PageRequest.of(1, 3));
+
+        // assert
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(page.getContent()).extracting(Meetup::getId).containsExactly(first.getId(), second.getId(), third.getId());
+        assertThat(next.getContent()).extracting(Meetup::getId).containsExactly(fourth.getId());
+    }
+
+    @Test
+    @DisplayName("Should page without the count when the total is not requested")
+    public void sliceWithoutTotalTest() {
+
+        // cenario
+        Meetup first = persist("Bootcamp Go", luisa, "01/06/2022", true);
+        Meetup second = persist("Bootcamp Java", ana, "02/06/2022", true);
+        Meetup third = persist("Bootcamp Java", luisa, "03/06/2022", true);
+        persist("Bootcamp Kotlin", ana, "04/06/2022", true);
+        entityManager.flush();
+        MeetupFilterDTO filter = MeetupFilterDTO.builder().registration("001").event("Bootcamp Java").build();
+
+        // execucao
+        Slice<Meetup> page = engine.findSlice(filter, PageRequest.of(0, 2, Sort.by("meetupDate")));
+        Slice<Meetup> next = engine.findSlice(filter, PageRequest.of(1, 2, Sort.by("meetupDate")));
+        Slice<Meetup> all = engine.findSlice(MeetupFilterDTO.builder().build(), PageRequest.of(1, 3));
+
+        // assert
+        assertThat(page).isNotInstanceOf(Page.class);
+        assertThat(page.getContent()).extracting(Meetup::getId).containsExactly(first.getId(), second.getId());
+        assertThat(page.hasNext()).isTrue();
+        assertThat(next.getContent()).extracting(Meetup::getId).containsExactly(third.getId());
+        assertThat(next.hasNext()).isFalse();
+        assertThat(all.getNumberOfElements()).isEqualTo(1);
+        assertThat(all.hasNext()).isFalse();
+    }
+}
@@ -0,0 +1,72 @@
+package com.bootcamp.microservicemeetup.service.lookup;
+
+import com.bootcamp.microservicemeetup.model.entity.ChangeSequence;
+import com.bootcamp.microservicemeetup.model.entity.Tombstone;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class LookupIndexTest {
+
+    static final String INSERT_REGISTRATION = "insert into registration (registration_id, person_name, "
+            + "date_of_registration, registration, change_sequence) values (?, ?, '10/10/22', ?, ?)";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path snapshotDir;
+
+    @Test
+    @DisplayName("Should restore the indexes from the snapshot and read only the changes made after it")
+    public void restoreAndCatchUpTest() throws IOException {
+
+        // cenario: indice montado pela varredura e gravado em snapshot
+        jdbcTemplate.update(INSERT_REGISTRATION, 1, "Luisa", "001", null);
+        jdbcTemplate.update(INSERT_REGISTRATION, 2, "Ana", "002", null);
+        LookupIndex first = index();
+        first.start();
+        first.snapshot();
+        first.shutdown();
+
+        // mudancas depois do snapshot: registration nova e registration apagada
+        jdbcTemplate.update(INSERT_REGISTRATION, 3, "Maria", "003", ChangeSequence.next());
+        jdbcTemplate.update("delete from registration where registration_id = 2");
+        jdbcTemplate.update("insert into tombstone (entity_type, entity_id, change_sequence) values (?, 2, ?)",
+                Tombstone.REGISTRATION, ChangeSequence.next());
+
+        // execucao
+        LookupIndex second = index();
+        second.start();
+
+        // assert
+        assertThat(first.isRestored()).isFalse();
+        assertThat(second.isRestored()).isTrue();
+        assertThat(second.isReady()).isTrue();
+        assertThat(second.getCaughtUpRows()).isEqualTo(2);
+        assertThat(second.findRegistrationId("001")).isEqualTo(1);
+        assertThat(second.findRegistrationId("003")).isEqualTo(3);
+        assertThat(second.findRegistrationId("002")).isNull();
+        assertThat(second.getIndexedRegistrations()).isEqualTo(2);
+        second.shutdown();
+    }
+
+    // sem folga de releitura: o catch-up comeca exatamente no watermark do snapshot
+    private LookupIndex index() {
+        return new LookupIndex(jdbcTemplate, snapshotDir.toString(), 3_600_000, 3_600_000, 0);
+    }
+}
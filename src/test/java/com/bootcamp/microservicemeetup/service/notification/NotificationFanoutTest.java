@@ -0,0 +1,118 @@
+package com.bootcamp.microservicemeetup.service.notification;
+
+import com.bootcamp.microservicemeetup.model.event.AttendanceChangedEvent;
+import com.bootcamp.microservicemeetup.repository.AttendanceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class NotificationFanoutTest {
+
+    static final LocalDateTime STARTS_AT = LocalDateTime.of(2030, 6, 10, 19, 0);
+
+    AttendanceRepository attendanceRepository;
+
+    InMemoryNotificationSender sender;
+
+    NotificationFanout fanout;
+
+    @BeforeEach
+    public void setUp() {
+        attendanceRepository = Mockito.mock(AttendanceRepository.class);
+        sender = new InMemoryNotificationSender("email", 100);
+        AtomicBoolean failedOnce = new AtomicBoolean();
+        // canal que cai na primeira chamada e volta na retentativa
+        NotificationSender flaky = new NotificationSender() {
+            @Override
+            public String getChannel() {
+                return sender.getChannel();
+            }
+
+            @Override
+            public void send(List<Notification> notifications) {
+                if (failedOnce.compareAndSet(false, true)) {
+                    throw new IllegalStateException("provider unavailable");
+                }
+                sender.send(notifications);
+            }
+        };
+        // fila de um lote so, para o leitor esperar o canal
+        fanout = new NotificationFanout(attendanceRepository, Collections.singletonList(flaky), 2, 2, 1, 1, 1, 3, 1, 5);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        fanout.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should deliver the reschedule to every attendee retrying the failed batch")
+    public void rescheduledFanoutTest() throws InterruptedException {
+
+        // cenario
+        Mockito.when(attendanceRepository.findAttendeeIds(ArgumentMatchers.eq(7), ArgumentMatchers.eq(0), ArgumentMatchers.any()))
+                .thenReturn(Arrays.asList(1, 2));
+        Mockito.when(attendanceRepository.findAttendeeIds(ArgumentMatchers.eq(7), ArgumentMatchers.eq(2), ArgumentMatchers.any()))
+                .thenReturn(Arrays.asList(3, 4));
+        Mockito.when(attendanceRepository.findAttendeeIds(ArgumentMatchers.eq(7), ArgumentMatchers.eq(4), ArgumentMatchers.any()))
+                .thenReturn(Collections.singletonList(5));
+
+        // execucao
+        NotificationJob job = await(fanout.submitRescheduled(7, STARTS_AT));
+
+        // assert
+        assertThat(job.getStatus()).isEqualTo(NotificationJob.Status.DONE);
+        assertThat(job.getQueued().get()).isEqualTo(5);
+        assertThat(job.getDelivered().get()).isEqualTo(5);
+        assertThat(job.getRetries().get()).isEqualTo(1);
+        assertThat(sender.getRecent()).extracting(Notification::getRegistrationId).containsExactly(1, 2, 3, 4, 5);
+        assertThat(sender.getRecent()).extracting(Notification::getType).containsOnly(NotificationType.MEETUP_RESCHEDULED);
+    }
+
+    @Test
+    @DisplayName("Should notify the cancellation only to the attendees removed with the meetup")
+    public void cancellationFanoutTest() throws InterruptedException {
+
+        // cenario
+        String discarded = fanout.prepareCancellation(8, STARTS_AT);
+        fanout.discard(discarded);
+        String jobId = fanout.prepareCancellation(8, STARTS_AT);
+
+        // execucao
+        fanout.onAttendanceChanged(new AttendanceChangedEvent(8, Arrays.asList(30, 10, 20), -1));
+        NotificationJob job = await(jobId);
+
+        // assert
+        assertThat(fanout.getJob(discarded).get().getStatus()).isEqualTo(NotificationJob.Status.DISCARDED);
+        assertThat(job.getStatus()).isEqualTo(NotificationJob.Status.DONE);
+        assertThat(job.getDelivered().get()).isEqualTo(3);
+        assertThat(sender.getRecent()).extracting(Notification::getRegistrationId).containsExactly(10, 20, 30);
+        Mockito.verifyNoInteractions(attendanceRepository);
+    }
+
+    private NotificationJob await(String jobId) throws InterruptedException {
+        NotificationJob job = fanout.getJob(jobId).get();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (job.getStatus() == NotificationJob.Status.PENDING || job.getStatus() == NotificationJob.Status.RUNNING) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+        return job;
+    }
+}
@@ -0,0 +1,99 @@
+package com.bootcamp.microservicemeetup.service.reminder;
+
+import com.bootcamp.microservicemeetup.repository.AttendanceRepository;
+import com.bootcamp.microservicemeetup.repository.MeetupOperations;
+import com.bootcamp.microservicemeetup.service.notification.InMemoryNotificationSender;
+import com.bootcamp.microservicemeetup.service.notification.Notification;
+import com.bootcamp.microservicemeetup.service.notification.NotificationType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class ReminderSchedulerTest {
+
+    static final LocalDateTime STARTS_AT = LocalDateTime.of(2030, 6, 10, 19, 0);
+    static final long START = STARTS_AT.atZone(ZoneId.systemDefault()).toEpochSecond();
+
+    AttendanceRepository attendanceRepository;
+
+    InMemoryNotificationSender sender;
+
+    ReminderScheduler scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        attendanceRepository = Mockito.mock(AttendanceRepository.class);
+        sender = new InMemoryNotificationSender("email", 100);
+        // relogio parado dois dias antes do meetup; entrega na mesma thread e ticker que nunca roda sozinho
+        scheduler = new ReminderScheduler(Mockito.mock(MeetupOperations.class), attendanceRepository,
+                Collections.singletonList(sender), 2, 3_600_000, Runnable::run, START - 2 * 24 * 3600);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should send each reminder to every attendee in batches when its timer expires")
+    public void sendRemindersTest() {
+
+        // cenario
+        Mockito.when(attendanceRepository.findAttendeeIds(ArgumentMatchers.eq(7), ArgumentMatchers.eq(0), ArgumentMatchers.any()))
+                .thenReturn(Arrays.asList(1, 2));
+        Mockito.when(attendanceRepository.findAttendeeIds(ArgumentMatchers.eq(7), ArgumentMatchers.eq(2), ArgumentMatchers.any()))
+                .thenReturn(Collections.singletonList(3));
+        scheduler.schedule(7, STARTS_AT, true);
+
+        // execucao
+        scheduler.tick(START - 24 * 3600 - 1);
+        long beforeFirst = sender.getSent();
+        scheduler.tick(START - 601);
+
+        // assert
+        assertThat(beforeFirst).isZero();
+        assertThat(sender.getBatches()).isEqualTo(4);
+        assertThat(sender.getRecent()).extracting(Notification::getType).containsExactly(
+                NotificationType.REMINDER_24H, NotificationType.REMINDER_24H, NotificationType.REMINDER_24H,
+                NotificationType.REMINDER_1H, NotificationType.REMINDER_1H, NotificationType.REMINDER_1H);
+        assertThat(scheduler.getPendingTimers()).isEqualTo(1);
+        assertThat(scheduler.getFiredReminders()).isEqualTo(2);
+        assertThat(sender.getRecent().get(0).getStartsAt()).isEqualTo(STARTS_AT);
+    }
+
+    @Test
+    @DisplayName("Should drop the old timers of a rescheduled or cancelled meetup")
+    public void rescheduleAndCancelTest() {
+
+        // cenario
+        Mockito.when(attendanceRepository.findAttendeeIds(ArgumentMatchers.anyInt(), ArgumentMatchers.eq(0), ArgumentMatchers.any()))
+                .thenReturn(Collections.singletonList(1));
+        scheduler.schedule(7, STARTS_AT, true);
+        scheduler.schedule(8, STARTS_AT, true);
+
+        // execucao
+        scheduler.schedule(7, STARTS_AT.plusHours(2), true);
+        scheduler.cancel(8);
+        scheduler.tick(START - 24 * 3600);
+
+        // assert: os dois lembretes de 24h antigos sao descartados e o novo ainda nao venceu
+        assertThat(sender.getSent()).isZero();
+        assertThat(scheduler.getStaleTimers()).isEqualTo(2);
+        assertThat(scheduler.getScheduledMeetups()).isEqualTo(1);
+    }
+}
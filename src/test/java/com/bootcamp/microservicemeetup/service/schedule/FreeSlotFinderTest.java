@@ -0,0 +1,55 @@
+package com.bootcamp.microservicemeetup.service.schedule;
+
+import com.bootcamp.microservicemeetup.controller.dto.FreeSlotDTO;
+import com.bootcamp.microservicemeetup.controller.dto.FreeSlotsDTO;
+import com.bootcamp.microservicemeetup.controller.dto.SlotQueryDTO;
+import com.bootcamp.microservicemeetup.repository.RegistrationRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class FreeSlotFinderTest {
+
+    static final LocalDateTime NINE = LocalDateTime.of(2030, 6, 10, 9, 0);
+
+    @Test
+    @DisplayName("Should return the common free windows that fit the duration")
+    public void findCommonFreeSlotsTest() {
+
+        // cenario
+        ScheduleIndex index = new ScheduleIndex(null, null);
+        index.reserve(null, Collections.singletonList(1), null, NINE.plusHours(1), NINE.plusHours(2)).confirm(10);
+        index.reserve(null, Collections.singletonList(2), null, NINE.plusMinutes(150), NINE.plusMinutes(200)).confirm(11);
+        RegistrationRepository repository = Mockito.mock(RegistrationRepository.class);
+        Mockito.when(repository.findIdsByRegistrationIn(ArgumentMatchers.anyCollection()))
+                .thenReturn(Arrays.asList(new Object[]{"001", 1}, new Object[]{"002", 2}));
+        FreeSlotFinder finder = new FreeSlotFinder(index, repository);
+
+        // execucao
+        FreeSlotsDTO result = finder.find(SlotQueryDTO.builder()
+                .registrationAttributes(Arrays.asList("001", "002", "999"))
+                .from(NINE)
+                .to(NINE.plusHours(6))
+                .durationMinutes(60)
+                .granularityMinutes(15)
+                .build());
+
+        // assert: livres 9h-10h, 11h-11h30 (curto demais), 12h30-15h (12h20 cai no bucket 12h15)
+        assertThat(result.getSlots()).containsExactly(
+                new FreeSlotDTO(NINE, NINE.plusHours(1)),
+                new FreeSlotDTO(NINE.plusMinutes(210), NINE.plusHours(6)));
+        assertThat(result.getMissing()).containsExactly("999");
+    }
+}
@@ -0,0 +1,153 @@
+package com.bootcamp.microservicemeetup.service.schedule;
+
+import com.bootcamp.microservicemeetup.exception.BusinessException;
+import com.bootcamp.microservicemeetup.model.entity.AttendanceId;
+import com.bootcamp.microservicemeetup.model.entity.Meetup;
+import com.bootcamp.microservicemeetup.repository.AttendanceRepository;
+import com.bootcamp.microservicemeetup.repository.MeetupOperations;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class ScheduleIndexTest {
+
+    static final LocalDateTime NINE = LocalDateTime.of(2030, 6, 10, 9, 0);
+
+    ScheduleIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new ScheduleIndex(null, null);
+    }
+
+    private void book(int meetupId, int registrationId, String venue, LocalDateTime start, int hours) {
+        index.reserve(null, Collections.singletonList(registrationId), venue, start, start.plusHours(hours)).confirm(meetupId);
+    }
+
+    @Test
+    @DisplayName("Should reject overlapping bookings for the same registrant or venue and accept adjacent ones")
+    public void rejectOverlapTest() {
+
+        // cenario
+        book(1, 10, "Sala A", NINE, 2);
+
+        // execucao
+        Throwable sameRegistrant = catchThrowable(() -> book(2, 10, "Sala B", NINE.plusHours(1), 2));
+        Throwable sameVenue = catchThrowable(() -> book(3, 11, "Sala A", NINE.minusMinutes(30), 1));
+        book(4, 10, "Sala A", NINE.plusHours(2), 1);
+
+        // assert
+        assertThat(sameRegistrant).isInstanceOf(BusinessException.class);
+        assertThat(sameVenue).isInstanceOf(BusinessException.class).hasMessage("Venue is already booked at this time");
+        assertThat(index.getIndexedMeetups()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should free the slot when a reservation is cancelled and ignore the meetup's own slot when rescheduling")
+    public void cancelAndRescheduleTest() {
+
+        // cenario
+        ScheduleIndex.Reservation cancelled = index.reserve(null, Collections.singletonList(10), "Sala A", NINE, NINE.plusHours(2));
+        cancelled.cancel();
+        book(1, 10, "Sala A", NINE, 2);
+
+        // execucao
+        index.reserve(1, Collections.singletonList(10), "Sala A", NINE.plusHours(1), NINE.plusHours(3)).confirm(1);
+        book(2, 11, "Sala A", NINE, 1);
+
+        // assert
+        Throwable overlap = catchThrowable(() -> book(3, 10, null, NINE.plusHours(2), 1));
+        assertThat(overlap).isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    @DisplayName("Should let exactly one of many concurrent bookings for the same slot through")
+    public void concurrentBookingsTest() {
+
+        // cenario
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger accepted = new AtomicInteger();
+
+        // execucao
+        List<CompletableFuture<Void>> bookings = IntStream.range(0, 64)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                    try {
+                        book(100 + i, 1000 + i, "Auditorio", NINE.plusMinutes(i % 4 * 10), 1);
+                        accepted.incrementAndGet();
+                    } catch (BusinessException e) {
+                        // conflito esperado
+                    }
+                }, executor))
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(bookings.toArray(new CompletableFuture[0])).join();
+        executor.shutdown();
+
+        // assert
+        assertThat(accepted.get()).isEqualTo(1);
+        assertThat(index.getIndexedMeetups()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should drop meetups that already ended and the keys left without intervals")
+    public void pruneTest() {
+
+        // cenario
+        book(1, 10, "Sala A", NINE, 2);
+        book(2, 11, "Sala B", NINE.plusDays(1), 2);
+        index.remove(2);
+
+        // execucao
+        int pruned = index.prune(NINE.plusHours(3));
+
+        // assert
+        assertThat(pruned).isEqualTo(1);
+        assertThat(index.getIndexedMeetups()).isZero();
+        assertThat(index.getIndexedKeys()).isZero();
+        book(3, 10, "Sala A", NINE, 2);
+        assertThat(index.getIndexedMeetups()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should rebuild the meetups that have not ended through the active repository")
+    public void rebuildTest() {
+
+        // cenario
+        MeetupOperations meetupRepository = Mockito.mock(MeetupOperations.class);
+        AttendanceRepository attendanceRepository = Mockito.mock(AttendanceRepository.class);
+        Meetup scheduled = Meetup.builder().id(7).venue("Sala A").startsAt(NINE).endsAt(NINE.plusHours(2)).build();
+        Meetup unscheduled = Meetup.builder().id(8).endsAt(NINE.plusHours(2)).build();
+        Mockito.when(meetupRepository.findByEndsAtAfterAndIdGreaterThanOrderByIdAsc(Mockito.any(), Mockito.eq(0), Mockito.any()))
+                .thenReturn(Arrays.asList(scheduled, unscheduled));
+        Mockito.when(attendanceRepository.findIdsByMeetupIdIn(Collections.singletonList(7)))
+                .thenReturn(Collections.singletonList(new AttendanceId(7, 10)));
+        index = new ScheduleIndex(meetupRepository, attendanceRepository);
+
+        // execucao
+        index.rebuild();
+
+        // assert
+        assertThat(index.getIndexedMeetups()).isEqualTo(1);
+        assertThat(catchThrowable(() -> book(1, 10, null, NINE.plusHours(1), 1))).isInstanceOf(BusinessException.class);
+        assertThat(catchThrowable(() -> book(2, 11, "Sala A", NINE.plusHours(1), 1))).isInstanceOf(BusinessException.class);
+    }
+}
@@ -0,0 +1,70 @@
+package com.bootcamp.microservicemeetup.service.suggest;
+
+import com.bootcamp.microservicemeetup.model.entity.Registration;
+import com.bootcamp.microservicemeetup.model.event.ChangeType;
+import com.bootcamp.microservicemeetup.model.event.RegistrationChangedEvent;
+import com.bootcamp.microservicemeetup.model.event.RegistrationsDeletedEvent;
+import com.bootcamp.microservicemeetup.repository.RegistrationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class NameSuggestServiceTest {
+
+    NameSuggestService nameSuggestService;
+
+    @MockBean
+    RegistrationRepository registrationRepository;
+
+    @BeforeEach
+    public void setUp() {
+        this.nameSuggestService = new NameSuggestService(registrationRepository);
+    }
+
+    @Test
+    @DisplayName("Should suggest names by folded prefix ranked by popularity and follow registration changes")
+    public void suggestTest() {
+
+        // cenario
+        Mockito.when(registrationRepository.findNamesAfter(Mockito.eq(0), Mockito.any(Pageable.class)))
+                .thenReturn(Arrays.asList(
+                        new Object[]{1, "José Silva"},
+                        new Object[]{2, "Joana"},
+                        new Object[]{3, "Jose Silva"},
+                        new Object[]{4, "Maria"}));
+        nameSuggestService.load();
+
+        // execucao / assert
+        assertThat(nameSuggestService.suggest("JOS", 10)).containsExactly("José Silva");
+        assertThat(nameSuggestService.suggest("jo", 10)).containsExactly("José Silva", "Joana");
+        assertThat(nameSuggestService.suggest("x", 10)).isEmpty();
+
+        nameSuggestService.onRegistrationChanged(new RegistrationChangedEvent(ChangeType.CREATED,
+                Registration.builder().id(5).name("Joana").build()));
+        nameSuggestService.onRegistrationChanged(new RegistrationChangedEvent(ChangeType.CREATED,
+                Registration.builder().id(6).name("Joana").build()));
+        assertThat(nameSuggestService.suggest("jo", 1)).containsExactly("Joana");
+
+        nameSuggestService.onRegistrationChanged(new RegistrationChangedEvent(ChangeType.UPDATED,
+                Registration.builder().id(4).name("Mariana").build()));
+        assertThat(nameSuggestService.suggest("maria", 10)).containsExactly("Mariana");
+
+        nameSuggestService.onRegistrationsDeleted(new RegistrationsDeletedEvent(Arrays.asList(2, 5, 6)));
+        assertThat(nameSuggestService.suggest("jo", 10)).containsExactly("José Silva");
+        assertThat(nameSuggestService.getIndexedNames()).isEqualTo(2);
+        assertThat(nameSuggestService.suggest("", 10)).isEqualTo(Collections.emptyList());
+    }
+}